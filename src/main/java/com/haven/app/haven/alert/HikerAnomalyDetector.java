@@ -0,0 +1,207 @@
+package com.haven.app.haven.alert;
+
+import com.haven.app.haven.constant.AlertType;
+import com.haven.app.haven.constant.TransactionStatus;
+import com.haven.app.haven.geofence.GeofenceIndex;
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import com.haven.app.haven.realtime.TransactionStatusChangedEvent;
+import com.haven.app.haven.utils.GeoUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming anomaly checks over accepted fixes. Each active transaction keeps a few
+ * numbers (last fix, smoothed speed, stationary anchor, farthest distance from the
+ * trailhead) that are updated in constant time per fix, so nothing is re-read from the
+ * coordinate history. Raises:
+ * <ul>
+ *     <li>{@link AlertType#STATIONARY} once the hiker stays within a small radius for too long,</li>
+ *     <li>{@link AlertType#IMPLAUSIBLE_SPEED} when the smoothed speed exceeds what a hiker can do,</li>
+ *     <li>{@link AlertType#BACKTRACKING} when an off-route hiker heads back toward the trailhead.</li>
+ * </ul>
+ */
+@Component
+public class HikerAnomalyDetector {
+    // Weight of the newest segment in the smoothed speed; dampens single GPS jumps.
+    private static final double SPEED_SMOOTHING = 0.3d;
+
+    private final GeofenceIndex geofenceIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long stationaryMillis;
+    private final double stationaryRadiusMeters;
+    private final double maxSpeedMetersPerSecond;
+    private final long minIntervalMillis;
+    private final long speedCooldownMillis;
+    private final double backtrackMeters;
+
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    public HikerAnomalyDetector(GeofenceIndex geofenceIndex,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${anomaly.stationary-minutes:15}") long stationaryMinutes,
+                                @Value("${anomaly.stationary-radius-meters:50}") double stationaryRadiusMeters,
+                                @Value("${anomaly.max-speed-kmh:20}") double maxSpeedKmh,
+                                @Value("${anomaly.min-interval-seconds:5}") long minIntervalSeconds,
+                                @Value("${anomaly.speed-cooldown-minutes:10}") long speedCooldownMinutes,
+                                @Value("${anomaly.backtrack-meters:500}") double backtrackMeters) {
+        this.geofenceIndex = geofenceIndex;
+        this.eventPublisher = eventPublisher;
+        this.stationaryMillis = stationaryMinutes * 60_000L;
+        this.stationaryRadiusMeters = stationaryRadiusMeters;
+        this.maxSpeedMetersPerSecond = maxSpeedKmh / 3.6d;
+        this.minIntervalMillis = minIntervalSeconds * 1000L;
+        this.speedCooldownMillis = speedCooldownMinutes * 60_000L;
+        this.backtrackMeters = backtrackMeters;
+    }
+
+    private static final class State {
+        private final int startLatitudeE7;
+        private final int startLongitudeE7;
+        private double maxFromStart;
+        private boolean backtrackAlerted;
+
+        private long lastMillis;
+        private int speedLatitudeE7;
+        private int speedLongitudeE7;
+        private long speedMillis;
+        private double speed = Double.NaN;
+        private long speedAlertedMillis = Long.MIN_VALUE;
+
+        private int anchorLatitudeE7;
+        private int anchorLongitudeE7;
+        private long anchorMillis;
+        private boolean stationaryAlerted;
+
+        private State(int latitudeE7, int longitudeE7, long millis) {
+            this.startLatitudeE7 = latitudeE7;
+            this.startLongitudeE7 = longitudeE7;
+            this.lastMillis = millis;
+            this.speedLatitudeE7 = latitudeE7;
+            this.speedLongitudeE7 = longitudeE7;
+            this.speedMillis = millis;
+            this.anchorLatitudeE7 = latitudeE7;
+            this.anchorLongitudeE7 = longitudeE7;
+            this.anchorMillis = millis;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCoordinateAccepted(CoordinateAcceptedEvent event) {
+        int latitudeE7 = event.getLatitudeE7();
+        int longitudeE7 = event.getLongitudeE7();
+        long millis = event.getRecordedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+
+        List<TransactionAlertEvent> alerts = new ArrayList<>(0);
+        states.compute(event.getTransactionId(), (transactionId, state) -> {
+            if (state == null) {
+                return new State(latitudeE7, longitudeE7, millis);
+            }
+            if (millis <= state.lastMillis) {
+                return state;
+            }
+
+            checkSpeed(state, event, millis, alerts);
+            checkStationary(state, event, millis, alerts);
+            checkBacktracking(state, event, alerts);
+
+            state.lastMillis = millis;
+            return state;
+        });
+
+        alerts.forEach(eventPublisher::publishEvent);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionStatusChanged(TransactionStatusChangedEvent event) {
+        if (event.getStatus() != TransactionStatus.START) {
+            states.remove(event.getTransactionId());
+        }
+    }
+
+    public int getTrackedCount() {
+        return states.size();
+    }
+
+    private void checkSpeed(State state, CoordinateAcceptedEvent event, long millis, List<TransactionAlertEvent> alerts) {
+        // Fixes closer together than the minimum interval are merged into the next segment,
+        // otherwise a few metres of jitter over one second reads as a sprint.
+        long elapsed = millis - state.speedMillis;
+        if (elapsed < minIntervalMillis) {
+            return;
+        }
+        double meters = GeoUtils.distanceMeters(state.speedLatitudeE7, state.speedLongitudeE7,
+                event.getLatitudeE7(), event.getLongitudeE7());
+        double segmentSpeed = meters * 1000d / elapsed;
+        state.speed = Double.isNaN(state.speed)
+                ? segmentSpeed
+                : state.speed + SPEED_SMOOTHING * (segmentSpeed - state.speed);
+        state.speedLatitudeE7 = event.getLatitudeE7();
+        state.speedLongitudeE7 = event.getLongitudeE7();
+        state.speedMillis = millis;
+
+        if (state.speed > maxSpeedMetersPerSecond
+                && (state.speedAlertedMillis == Long.MIN_VALUE || millis - state.speedAlertedMillis >= speedCooldownMillis)) {
+            state.speedAlertedMillis = millis;
+            alerts.add(alert(event, AlertType.IMPLAUSIBLE_SPEED,
+                    "Implausible speed of " + Math.round(state.speed * 3.6d) + " km/h"));
+        }
+    }
+
+    private void checkStationary(State state, CoordinateAcceptedEvent event, long millis, List<TransactionAlertEvent> alerts) {
+        double fromAnchor = GeoUtils.distanceMeters(state.anchorLatitudeE7, state.anchorLongitudeE7,
+                event.getLatitudeE7(), event.getLongitudeE7());
+        if (fromAnchor > stationaryRadiusMeters) {
+            state.anchorLatitudeE7 = event.getLatitudeE7();
+            state.anchorLongitudeE7 = event.getLongitudeE7();
+            state.anchorMillis = millis;
+            state.stationaryAlerted = false;
+            return;
+        }
+
+        long stationary = millis - state.anchorMillis;
+        if (!state.stationaryAlerted && stationary >= stationaryMillis) {
+            state.stationaryAlerted = true;
+            alerts.add(alert(event, AlertType.STATIONARY,
+                    "No movement for " + stationary / 60_000L + " minutes"));
+        }
+    }
+
+    private void checkBacktracking(State state, CoordinateAcceptedEvent event, List<TransactionAlertEvent> alerts) {
+        double fromStart = GeoUtils.distanceMeters(state.startLatitudeE7, state.startLongitudeE7,
+                event.getLatitudeE7(), event.getLongitudeE7());
+        if (fromStart > state.maxFromStart) {
+            state.maxFromStart = fromStart;
+            state.backtrackAlerted = false;
+            return;
+        }
+
+        // Returning along the route is a normal descent; only an off-route return is flagged.
+        if (!state.backtrackAlerted
+                && state.maxFromStart - fromStart >= backtrackMeters
+                && geofenceIndex.isOffRoute(event.getLatitudeE7(), event.getLongitudeE7())) {
+            state.backtrackAlerted = true;
+            alerts.add(alert(event, AlertType.BACKTRACKING,
+                    "Heading back toward the trailhead off-route, " + Math.round(state.maxFromStart - fromStart) + " m"));
+        }
+    }
+
+    private static TransactionAlertEvent alert(CoordinateAcceptedEvent event, AlertType type, String message) {
+        return TransactionAlertEvent.builder()
+                .transactionId(event.getTransactionId())
+                .trackerId(event.getTrackerId())
+                .type(type)
+                .message(message)
+                .latitudeE7(event.getLatitudeE7())
+                .longitudeE7(event.getLongitudeE7())
+                .recordedAt(event.getRecordedAt())
+                .build();
+    }
+}
@@ -0,0 +1,238 @@
+package com.haven.app.haven.alert;
+
+import com.haven.app.haven.constant.AlertType;
+import com.haven.app.haven.constant.TransactionStatus;
+import com.haven.app.haven.entity.Transactions;
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import com.haven.app.haven.realtime.TransactionStatusChangedEvent;
+import com.haven.app.haven.repository.TransactionsRepository;
+import com.haven.app.haven.utils.LogUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Raises {@link AlertType#TRACKER_OVERDUE} when a tracker on a START transaction has not
+ * reported for {@code watchdog.silence-minutes}. Deadlines live in a hashed timer wheel:
+ * a fix only writes the tracker's last-seen time, and the single ticker thread looks at an
+ * entry once per silence window, re-slotting it if it was heard from in the meantime.
+ * Cost is independent of fix rate and there is never a scan over all trackers.
+ * <p>
+ * An overdue tracker is alerted once and leaves the wheel; its next fix re-arms it.
+ */
+@Slf4j
+@Component
+public class TrackerWatchdog {
+    private final TransactionsRepository transactionsRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${watchdog.enabled:true}")
+    protected boolean enabled;
+
+    @Value("${watchdog.silence-minutes:30}")
+    protected Long silenceMinutes;
+
+    @Value("${watchdog.tick-seconds:10}")
+    protected Long tickSeconds;
+
+    @Value("${watchdog.wheel-size:512}")
+    protected Integer wheelSize;
+
+    protected LongSupplier clock = System::currentTimeMillis;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Entries waiting to be slotted; only the ticker touches the wheel itself.
+    private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private List<ArrayDeque<Entry>> wheel;
+    private long tick;
+    private ScheduledExecutorService ticker;
+
+    public TrackerWatchdog(TransactionsRepository transactionsRepository, ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry) {
+        this.transactionsRepository = transactionsRepository;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    private static final class Entry {
+        private final String transactionId;
+        private final String trackerId;
+        private volatile long lastSeenMillis;
+        private volatile CoordinateAcceptedEvent lastFix;
+        private final AtomicBoolean overdue = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private long rounds;
+
+        private Entry(String transactionId, String trackerId, long lastSeenMillis) {
+            this.transactionId = transactionId;
+            this.trackerId = trackerId;
+            this.lastSeenMillis = lastSeenMillis;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        init();
+        meterRegistry.gaugeMapSize("tracker.watchdog.tracked", List.of(), entries);
+
+        try {
+            // Trackers already out on the trail get a full window from startup.
+            for (Transactions transactions : transactionsRepository.findAllByStatus(TransactionStatus.START)) {
+                if (transactions.getTracker() != null) {
+                    watch(transactions.getId(), transactions.getTracker().getId());
+                }
+            }
+            log.info("[TrackerWatchdog] Watching {} active trackers", entries.size());
+        } catch (Exception e) {
+            LogUtils.getError("TrackerWatchdog.start", e);
+        }
+
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tracker-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tickMillis = tickSeconds * 1000L;
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                tick(clock.getAsLong());
+            } catch (Exception e) {
+                LogUtils.getError("TrackerWatchdog.tick", e);
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void init() {
+        wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            wheel.add(new ArrayDeque<>());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    public int getWatchedCount() {
+        return entries.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionStatusChanged(TransactionStatusChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.getStatus() == TransactionStatus.START && event.getTrackerId() != null) {
+            watch(event.getTransactionId(), event.getTrackerId());
+        } else if (event.getStatus() != TransactionStatus.START) {
+            Entry entry = entries.remove(event.getTransactionId());
+            if (entry != null) {
+                entry.cancelled = true;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCoordinateAccepted(CoordinateAcceptedEvent event) {
+        Entry entry = entries.get(event.getTransactionId());
+        if (entry == null) {
+            return;
+        }
+        entry.lastFix = event;
+        entry.lastSeenMillis = clock.getAsLong();
+        if (entry.overdue.compareAndSet(true, false)) {
+            pending.add(entry);
+        }
+    }
+
+    private void watch(String transactionId, String trackerId) {
+        Entry entry = new Entry(transactionId, trackerId, clock.getAsLong());
+        Entry previous = entries.put(transactionId, entry);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        pending.add(entry);
+    }
+
+    /**
+     * Advances the wheel by one slot. Runs on the ticker thread only.
+     */
+    void tick(long nowMillis) {
+        Entry entry;
+        while ((entry = pending.poll()) != null) {
+            if (!entry.cancelled) {
+                slot(entry, nowMillis);
+            }
+        }
+
+        tick++;
+        ArrayDeque<Entry> bucket = wheel.get((int) (tick % wheelSize));
+        for (int remaining = bucket.size(); remaining > 0; remaining--) {
+            entry = bucket.pollFirst();
+            if (entry.cancelled) {
+                continue;
+            }
+            if (entry.rounds > 0) {
+                entry.rounds--;
+                bucket.addLast(entry);
+                continue;
+            }
+            if (entry.lastSeenMillis + silenceMillis() > nowMillis) {
+                slot(entry, nowMillis);
+                continue;
+            }
+
+            entry.overdue.set(true);
+            // A fix that landed while we were deciding has already seen overdue=false; take it back.
+            if (entry.lastSeenMillis + silenceMillis() > nowMillis && entry.overdue.compareAndSet(true, false)) {
+                slot(entry, nowMillis);
+                continue;
+            }
+            eventPublisher.publishEvent(overdueAlert(entry, nowMillis));
+        }
+    }
+
+    private void slot(Entry entry, long nowMillis) {
+        long tickMillis = tickSeconds * 1000L;
+        long delay = entry.lastSeenMillis + silenceMillis() - nowMillis;
+        long ticks = Math.max(1, (delay + tickMillis - 1) / tickMillis);
+        entry.rounds = (ticks - 1) / wheelSize;
+        wheel.get((int) ((tick + ticks) % wheelSize)).addLast(entry);
+    }
+
+    private long silenceMillis() {
+        return silenceMinutes * 60_000L;
+    }
+
+    private static TransactionAlertEvent overdueAlert(Entry entry, long nowMillis) {
+        CoordinateAcceptedEvent lastFix = entry.lastFix;
+        long silentMinutes = (nowMillis - entry.lastSeenMillis) / 60_000L;
+        return TransactionAlertEvent.builder()
+                .transactionId(entry.transactionId)
+                .trackerId(entry.trackerId)
+                .type(AlertType.TRACKER_OVERDUE)
+                .message("No signal from tracker for " + silentMinutes + " minutes")
+                .latitudeE7(lastFix != null ? lastFix.getLatitudeE7() : null)
+                .longitudeE7(lastFix != null ? lastFix.getLongitudeE7() : null)
+                .recordedAt(lastFix != null ? lastFix.getRecordedAt() : null)
+                .build();
+    }
+}
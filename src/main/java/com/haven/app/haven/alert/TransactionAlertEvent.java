@@ -0,0 +1,26 @@
+package com.haven.app.haven.alert;
+
+import com.haven.app.haven.constant.AlertType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Raised by the live monitors when something about a hike needs a ranger's attention.
+ * {@link TransactionAlertRecorder} persists it and the realtime hubs push it to dashboards.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class TransactionAlertEvent {
+    private final String transactionId;
+    private final String trackerId;
+    private final AlertType type;
+    private final String message;
+    private final String referenceId;
+    private final Integer latitudeE7;
+    private final Integer longitudeE7;
+    private final LocalDateTime recordedAt;
+}
@@ -0,0 +1,42 @@
+package com.haven.app.haven.alert;
+
+import com.haven.app.haven.entity.TransactionAlert;
+import com.haven.app.haven.repository.TransactionAlertRepository;
+import com.haven.app.haven.repository.TransactionsRepository;
+import com.haven.app.haven.utils.LogUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Persists raised alerts. Monitors usually publish from after-commit callbacks of the
+ * ingest transaction, so each alert is written in a transaction of its own.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionAlertRecorder {
+    private final TransactionAlertRepository transactionAlertRepository;
+    private final TransactionsRepository transactionsRepository;
+
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onAlert(TransactionAlertEvent event) {
+        try {
+            transactionAlertRepository.save(TransactionAlert.builder()
+                    .transaction(transactionsRepository.getReferenceById(event.getTransactionId()))
+                    .trackerId(event.getTrackerId())
+                    .type(event.getType())
+                    .message(event.getMessage())
+                    .referenceId(event.getReferenceId())
+                    .latitudeE7(event.getLatitudeE7())
+                    .longitudeE7(event.getLongitudeE7())
+                    .recordedAt(event.getRecordedAt())
+                    .acknowledged(false)
+                    .build());
+        } catch (Exception e) {
+            LogUtils.getError("TransactionAlertRecorder.onAlert", e);
+        }
+    }
+}
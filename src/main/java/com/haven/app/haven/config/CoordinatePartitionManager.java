@@ -0,0 +1,161 @@
+package com.haven.app.haven.config;
+
+import com.haven.app.haven.utils.LogUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Maintains the monthly range partitions of the coordinates table. Partitions are created
+ * ahead of time so fixes never land in the default partition, and partitions wholly older
+ * than the retention window are detached (kept as standalone tables) or dropped.
+ */
+@Slf4j
+@Component
+public class CoordinatePartitionManager {
+    public static final String DEFAULT_PARTITION = "coordinates_default";
+
+    private static final String PARTITION_PREFIX = "coordinates_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${coordinate.partition.premake-months:3}")
+    protected Integer premakeMonths;
+
+    @Value("${coordinate.partition.retention-months:0}")
+    protected Integer retentionMonths;
+
+    @Value("${coordinate.partition.drop-expired:false}")
+    protected boolean dropExpired;
+
+    protected Supplier<YearMonth> currentMonth = YearMonth::now;
+
+    public CoordinatePartitionManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${coordinate.partition.cron:0 15 3 * * *}")
+    public void maintain() {
+        try {
+            if (!isPartitioned()) {
+                return;
+            }
+            YearMonth current = currentMonth.get();
+            for (YearMonth month : monthRange(current, current.plusMonths(premakeMonths))) {
+                transactionTemplate.executeWithoutResult(status -> createPartition(month));
+            }
+            if (retentionMonths > 0) {
+                expirePartitions(current.minusMonths(retentionMonths));
+            }
+        } catch (Exception e) {
+            LogUtils.getError("CoordinatePartitionManager.maintain", e);
+        }
+    }
+
+    public boolean isPartitioned() {
+        String kind = jdbcTemplate.query(
+                "SELECT c.relkind::text FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                        "WHERE n.nspname = current_schema() AND c.relname = 'coordinates'",
+                rs -> rs.next() ? rs.getString(1) : null);
+        return "p".equals(kind);
+    }
+
+    /**
+     * Creates the partition for a month if it is missing. Any rows already sitting in the
+     * default partition for that month are moved into it, since PostgreSQL refuses to
+     * attach a range the default partition still holds rows for.
+     */
+    public void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        if (tableExists(name)) {
+            return;
+        }
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE coordinates INCLUDING DEFAULTS)");
+        if (tableExists(DEFAULT_PARTITION)) {
+            int moved = jdbcTemplate.update(
+                    "WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + " " +
+                            "WHERE recorded_at >= '" + from + "' AND recorded_at < '" + to + "' RETURNING *) " +
+                            "INSERT INTO " + name + " SELECT * FROM moved");
+            if (moved > 0) {
+                log.warn("[CoordinatePartitionManager] Moved {} coordinates from the default partition into {}", moved, name);
+            }
+        }
+        jdbcTemplate.execute("ALTER TABLE coordinates ATTACH PARTITION " + name +
+                " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        log.info("[CoordinatePartitionManager] Created partition {}", name);
+    }
+
+    private void expirePartitions(YearMonth oldestKept) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT child.relname FROM pg_inherits i " +
+                        "JOIN pg_class parent ON parent.oid = i.inhparent " +
+                        "JOIN pg_class child ON child.oid = i.inhrelid " +
+                        "JOIN pg_namespace n ON n.oid = parent.relnamespace " +
+                        "WHERE n.nspname = current_schema() AND parent.relname = 'coordinates'",
+                String.class);
+
+        for (String partition : partitions) {
+            if (!isExpired(partition, oldestKept)) {
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("ALTER TABLE coordinates DETACH PARTITION " + partition);
+                if (dropExpired) {
+                    jdbcTemplate.execute("DROP TABLE " + partition);
+                }
+            });
+            log.info("[CoordinatePartitionManager] {} expired partition {}", dropExpired ? "Dropped" : "Detached", partition);
+        }
+    }
+
+    private boolean tableExists(String name) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                        "WHERE n.nspname = current_schema() AND c.relname = ?",
+                Integer.class, name);
+        return count != null && count > 0;
+    }
+
+    public static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(SUFFIX);
+    }
+
+    // Every month from first to last, both inclusive.
+    public static List<YearMonth> monthRange(YearMonth first, YearMonth last) {
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return months;
+    }
+
+    // Only partitions this class named are expired; the default partition and anything
+    // attached by hand are left alone.
+    static boolean isExpired(String partition, YearMonth oldestKept) {
+        if (!partition.matches(PARTITION_PREFIX + "\\d{6}")) {
+            return false;
+        }
+        YearMonth month = YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), SUFFIX);
+        return month.isBefore(oldestKept);
+    }
+}
@@ -0,0 +1,172 @@
+package com.haven.app.haven.config;
+
+import com.haven.app.haven.utils.LogUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+
+/**
+ * Idempotent PostgreSQL migrations for the coordinates table that Hibernate's schema
+ * update cannot express. Each step checks the current shape first, so it is safe to run
+ * on every startup and on a freshly created schema.
+ */
+@Slf4j
+@Component
+public class CoordinateSchemaMigration implements ApplicationRunner {
+    static final String QUARANTINE_TABLE = "coordinates_quarantine";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CoordinatePartitionManager coordinatePartitionManager;
+
+    public CoordinateSchemaMigration(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     CoordinatePartitionManager coordinatePartitionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.coordinatePartitionManager = coordinatePartitionManager;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                migrateTextCoordinatesToE7();
+                backfillRecordedAt();
+                partitionByRecordedAt();
+                addIngestedAt();
+            });
+        } catch (Exception e) {
+            LogUtils.getError("CoordinateSchemaMigration.run", e);
+            throw e;
+        }
+    }
+
+    // Moves the legacy varchar latitude/longitude columns to integer degrees * 1e7.
+    private void migrateTextCoordinatesToE7() {
+        if (!columnExists("coordinates", "latitude")) {
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE coordinates ADD COLUMN IF NOT EXISTS latitude_e7 integer");
+        jdbcTemplate.execute("ALTER TABLE coordinates ADD COLUMN IF NOT EXISTS longitude_e7 integer");
+
+        // Rows that cannot be converted are moved aside, never deleted, so they can be fixed
+        // by hand and copied back. The cast only runs on text the pattern accepts.
+        String number = "'^\\s*[-+]?([0-9]+\\.?[0-9]*|\\.[0-9]+)([eE][-+]?[0-9]{1,3})?\\s*$'";
+        String invalid = "NOT (latitude ~ " + number + " AND longitude ~ " + number + ") OR " +
+                "CASE WHEN latitude ~ " + number + " AND longitude ~ " + number + " " +
+                "THEN abs(trim(latitude)::numeric) > 90 OR abs(trim(longitude)::numeric) > 180 " +
+                "ELSE true END";
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + QUARANTINE_TABLE + " (LIKE coordinates INCLUDING DEFAULTS)");
+        jdbcTemplate.execute("ALTER TABLE " + QUARANTINE_TABLE + " ADD COLUMN IF NOT EXISTS quarantined_at timestamp(6) DEFAULT now()");
+        int quarantined = jdbcTemplate.update("INSERT INTO " + QUARANTINE_TABLE + " SELECT c.*, now() FROM coordinates c WHERE " + invalid);
+        if (quarantined > 0) {
+            jdbcTemplate.update("DELETE FROM coordinates WHERE " + invalid);
+            log.warn("[CoordinateSchemaMigration] Moved {} coordinates with unparseable or out-of-range values to {}",
+                    quarantined, QUARANTINE_TABLE);
+        }
+
+        int migrated = jdbcTemplate.update(
+                "UPDATE coordinates SET " +
+                        "latitude_e7 = round(trim(latitude)::numeric * 10000000)::integer, " +
+                        "longitude_e7 = round(trim(longitude)::numeric * 10000000)::integer " +
+                        "WHERE latitude_e7 IS NULL OR longitude_e7 IS NULL");
+
+        jdbcTemplate.execute("ALTER TABLE coordinates ALTER COLUMN latitude_e7 SET NOT NULL");
+        jdbcTemplate.execute("ALTER TABLE coordinates ALTER COLUMN longitude_e7 SET NOT NULL");
+        jdbcTemplate.execute("ALTER TABLE coordinates DROP COLUMN latitude, DROP COLUMN longitude");
+
+        log.info("[CoordinateSchemaMigration] Migrated {} coordinates to fixed-point latitude/longitude", migrated);
+    }
+
+    // Rows written before device timestamps existed take their server creation time.
+    private void backfillRecordedAt() {
+        if (!columnNullable("coordinates", "recorded_at")) {
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE coordinates ADD COLUMN IF NOT EXISTS recorded_at timestamp(6)");
+        int backfilled = jdbcTemplate.update(
+                "UPDATE coordinates SET recorded_at = coalesce(updated_at, now()) WHERE recorded_at IS NULL");
+        jdbcTemplate.execute("ALTER TABLE coordinates ALTER COLUMN recorded_at SET NOT NULL");
+
+        log.info("[CoordinateSchemaMigration] Backfilled recorded_at for {} coordinates", backfilled);
+    }
+
+    // Rebuilds the plain table as one range-partitioned by recorded_at, with a partition per month.
+    private void partitionByRecordedAt() {
+        if (coordinatePartitionManager.isPartitioned()) {
+            return;
+        }
+
+        // The primary key of a partitioned table must include the partition key.
+        jdbcTemplate.execute("CREATE TABLE coordinates_partitioned (LIKE coordinates INCLUDING DEFAULTS, " +
+                "CONSTRAINT coordinates_partitioned_pkey PRIMARY KEY (id, recorded_at)) " +
+                "PARTITION BY RANGE (recorded_at)");
+        jdbcTemplate.execute("CREATE TABLE " + CoordinatePartitionManager.DEFAULT_PARTITION +
+                " PARTITION OF coordinates_partitioned DEFAULT");
+
+        int copied = jdbcTemplate.update("INSERT INTO coordinates_partitioned SELECT * FROM coordinates");
+
+        jdbcTemplate.execute("DROP TABLE coordinates");
+        jdbcTemplate.execute("ALTER TABLE coordinates_partitioned RENAME TO coordinates");
+        jdbcTemplate.execute("ALTER TABLE coordinates RENAME CONSTRAINT coordinates_partitioned_pkey TO coordinates_pkey");
+        jdbcTemplate.execute("CREATE INDEX idx_coordinates_transaction_recorded ON coordinates (transaction_id, recorded_at, id)");
+        jdbcTemplate.execute("ALTER TABLE coordinates ADD CONSTRAINT fk_coordinates_tracker " +
+                "FOREIGN KEY (tracker_id) REFERENCES tracker_devices (id)");
+        jdbcTemplate.execute("ALTER TABLE coordinates ADD CONSTRAINT fk_coordinates_transaction " +
+                "FOREIGN KEY (transaction_id) REFERENCES transactions (id)");
+
+        // Split the copied history out of the default partition into monthly partitions.
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT min(recorded_at) FROM coordinates", Timestamp.class);
+        YearMonth current = YearMonth.now();
+        YearMonth first = oldest != null ? YearMonth.from(oldest.toLocalDateTime()) : current;
+        for (YearMonth month : CoordinatePartitionManager.monthRange(first, current)) {
+            coordinatePartitionManager.createPartition(month);
+        }
+
+        log.info("[CoordinateSchemaMigration] Partitioned coordinates by recorded_at, copied {} rows", copied);
+    }
+
+    // Server insertion time, the key the coordinate cursor pages by. Existing rows take
+    // their creation time so history keeps roughly the order it arrived in.
+    private void addIngestedAt() {
+        if (!columnNullable("coordinates", "ingested_at")) {
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE coordinates ADD COLUMN IF NOT EXISTS ingested_at timestamp(6)");
+        int backfilled = jdbcTemplate.update(
+                "UPDATE coordinates SET ingested_at = coalesce(updated_at, recorded_at) WHERE ingested_at IS NULL");
+        jdbcTemplate.execute("ALTER TABLE coordinates ALTER COLUMN ingested_at SET DEFAULT clock_timestamp()");
+        jdbcTemplate.execute("ALTER TABLE coordinates ALTER COLUMN ingested_at SET NOT NULL");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_coordinates_transaction_ingested " +
+                "ON coordinates (transaction_id, ingested_at, id)");
+
+        log.info("[CoordinateSchemaMigration] Backfilled ingested_at for {} coordinates", backfilled);
+    }
+
+    private boolean columnNullable(String table, String column) {
+        String nullable = jdbcTemplate.query(
+                "SELECT is_nullable FROM information_schema.columns " +
+                        "WHERE table_schema = current_schema() AND table_name = ? AND column_name = ?",
+                rs -> rs.next() ? rs.getString(1) : "YES", table, column);
+        return "YES".equals(nullable);
+    }
+
+    private boolean columnExists(String table, String column) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM information_schema.columns " +
+                        "WHERE table_schema = current_schema() AND table_name = ? AND column_name = ?",
+                Integer.class, table, column);
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.haven.app.haven.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HibernateBatchConfig {
+    @Value("${coordinate.batch.jdbc-size:200}")
+    protected Integer jdbcBatchSize;
+
+    // Coordinates use in-memory UUID ids, so inserts can be grouped into JDBC batches.
+    // Explicit spring.jpa.properties.hibernate.* values still take precedence.
+    @Bean
+    public HibernatePropertiesCustomizer hibernateBatchCustomizer() {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", jdbcBatchSize);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+        };
+    }
+}
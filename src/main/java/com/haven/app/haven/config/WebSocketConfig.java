@@ -0,0 +1,28 @@
+package com.haven.app.haven.config;
+
+import com.haven.app.haven.config.security.JwtHandshakeInterceptor;
+import com.haven.app.haven.realtime.PositionWebSocketHub;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+    private final PositionWebSocketHub positionWebSocketHub;
+    private final JwtHandshakeInterceptor jwtHandshakeInterceptor;
+
+    @Value("${realtime.websocket.allowed-origins:*}")
+    protected String[] allowedOrigins;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(positionWebSocketHub, "/ws/positions")
+                .addInterceptors(jwtHandshakeInterceptor)
+                .setAllowedOriginPatterns(allowedOrigins);
+    }
+}
@@ -0,0 +1,58 @@
+package com.haven.app.haven.config.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haven.app.haven.dto.response.ErrorResponse;
+import com.haven.app.haven.ingest.CoordinateRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Throttles coordinate uploads per source address before the security chain and before
+ * the body is read, so a flood from one host is turned away at the cost of a single
+ * compare-and-set. Per-tracker limits are applied in the coordinate service once the
+ * serial number is known. Behind a reverse proxy, set {@code server.forward-headers-strategy}
+ * so the remote address is the client's.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+@RequiredArgsConstructor
+public class CoordinateRateLimitFilter extends OncePerRequestFilter {
+    private static final String COORDINATE_PATH = "/api/v1/coordinate";
+
+    private final CoordinateRateLimiter coordinateRateLimiter;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !request.getServletPath().startsWith(COORDINATE_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long retryAfterSeconds = coordinateRateLimiter.acquireAddress(request.getRemoteAddr());
+        if (retryAfterSeconds > 0) {
+            ErrorResponse errorResponse = ErrorResponse.builder()
+                    .message("Too many coordinates from this address, retry later")
+                    .error("too many requests")
+                    .build();
+
+            response.setContentType("application/json");
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
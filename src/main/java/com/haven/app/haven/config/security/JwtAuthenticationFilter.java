@@ -18,6 +18,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
@@ -37,6 +38,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             "/api/v1/auth/register-admin",
             "/api/v1/coordinate",
             "/api/v1/payments/notification",
+            "/ws/**",
             "/swagger-ui/**",
             "/swagger-ui.html",
             "/webjars/**",
@@ -45,9 +47,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             "/v3/api-docs/swagger-config",
     };
 
+    // Under a whitelisted prefix but still for signed-in staff only; Ant-style patterns.
+    private final String[] AUTH_REQUIRED = {
+            "/api/v1/coordinate/stream",
+            "/api/v1/coordinate/latest",
+            "/api/v1/coordinate/*/cursor",
+            "/api/v1/coordinate/*/export",
+            "/api/v1/coordinate/*/simplified",
+    };
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    // EventSource cannot set an Authorization header, so the stream also takes ?token=.
+    private static final String TOKEN_PARAMETER_PATH = "/api/v1/coordinate/stream";
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getServletPath();
+        if (Arrays.stream(AUTH_REQUIRED).anyMatch(pattern -> pathMatcher.match(pattern, path))) {
+            return false;
+        }
         return Arrays.stream(AUTH_WHITELIST)
                 .anyMatch(endpoint ->
                         path.startsWith(endpoint) ||
@@ -75,11 +94,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String email = null;
 
 //            System.out.println(request.getRequestURI());
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                jwtToken = authHeader.substring(7);
+            } else if (TOKEN_PARAMETER_PATH.equals(request.getServletPath()) && request.getParameter("token") != null) {
+                jwtToken = request.getParameter("token");
+            } else {
                 throw new AuthenticationException("Authorization header not found or invalid endpoint url");
             }
 
-            jwtToken = authHeader.substring(7);
             try {
                 email = jwtService.extractEmail(jwtToken);
             } catch (ExpiredJwtException e) {
@@ -3,6 +3,7 @@ package com.haven.app.haven.config.security;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -38,8 +39,16 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(authorizeRequests -> authorizeRequests
                         .requestMatchers("/api/v1/auth/**").permitAll()
+                        // Live positions and whole-track reads expose hikers, so they are carved out of the public ingest path.
+                        .requestMatchers(HttpMethod.GET,
+                                "/api/v1/coordinate/stream",
+                                "/api/v1/coordinate/latest",
+                                "/api/v1/coordinate/*/cursor",
+                                "/api/v1/coordinate/*/export",
+                                "/api/v1/coordinate/*/simplified").hasAnyRole("ADMIN", "STAFF")
                         .requestMatchers("/api/v1/coordinate/**","/api/v1/coordinate").permitAll()
                         .requestMatchers("/api/v1/payments/notification").permitAll()
+                        .requestMatchers("/ws/**").permitAll()
                         .requestMatchers("/api/v1/auth/password/update").authenticated()
                         .requestMatchers(
                                 "/swagger-ui/**",
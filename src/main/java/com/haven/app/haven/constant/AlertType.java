@@ -0,0 +1,25 @@
+package com.haven.app.haven.constant;
+
+public enum AlertType {
+    GEOFENCE_ENTER("GEOFENCE_ENTER"),
+    GEOFENCE_EXIT("GEOFENCE_EXIT"),
+    STATIONARY("STATIONARY"),
+    IMPLAUSIBLE_SPEED("IMPLAUSIBLE_SPEED"),
+    BACKTRACKING("BACKTRACKING"),
+    TRACKER_OVERDUE("TRACKER_OVERDUE");
+
+    private String value;
+
+    AlertType(String value) {
+        this.value = value;
+    }
+
+    public static AlertType fromValue(String value) {
+        for (AlertType type : AlertType.values()) {
+            if (type.value.equals(value)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
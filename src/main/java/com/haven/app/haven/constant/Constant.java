@@ -6,4 +6,10 @@ public class Constant {
     public static final String COORDINATE_API = "api/v1/coordinate";
     public static final String TRANSACTIONS_API = "api/v1/transactions";
     public static final String PRICE_API = "api/v1/price";
+    public static final String GEOFENCE_API = "api/v1/geofences";
+    public static final String ALERT_API = "api/v1/alerts";
+    public static final String HEATMAP_API = "api/v1/heatmap";
+    public static final String RESCUE_API = "api/v1/rescue";
+    public static final String TRAIL_API = "api/v1/trails";
+    public static final String ELEVATION_API = "api/v1/elevation";
 }
@@ -0,0 +1,7 @@
+package com.haven.app.haven.constant;
+
+public enum CoordinateIngestStatus {
+    ACCEPTED,
+    REJECTED,
+    DUPLICATE
+}
@@ -0,0 +1,21 @@
+package com.haven.app.haven.constant;
+
+public enum GeofenceType {
+    CORRIDOR("CORRIDOR"),
+    CLOSED_ZONE("CLOSED_ZONE");
+
+    private String value;
+
+    GeofenceType(String value) {
+        this.value = value;
+    }
+
+    public static GeofenceType fromValue(String value) {
+        for (GeofenceType type : GeofenceType.values()) {
+            if (type.value.equals(value)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
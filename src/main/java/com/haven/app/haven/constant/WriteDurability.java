@@ -0,0 +1,8 @@
+package com.haven.app.haven.constant;
+
+public enum WriteDurability {
+    // Acknowledge as soon as the fix is queued; a crash loses what is still buffered.
+    ENQUEUE,
+    // Acknowledge after the group commit containing the fix succeeds.
+    COMMIT
+}
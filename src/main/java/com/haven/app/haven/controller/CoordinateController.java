@@ -2,21 +2,34 @@ package com.haven.app.haven.controller;
 
 import com.haven.app.haven.constant.Constant;
 import com.haven.app.haven.dto.request.CoordinateRequest;
+import com.haven.app.haven.dto.response.CoordinateBatchResponse;
+import com.haven.app.haven.dto.response.CoordinateCursorResponse;
 import com.haven.app.haven.dto.response.CommonResponseWithData;
 import com.haven.app.haven.dto.response.CoordinateResponse;
 import com.haven.app.haven.dto.response.PageResponse;
+import com.haven.app.haven.dto.response.PositionEventResponse;
+import com.haven.app.haven.dto.response.SimplifiedTrackResponse;
+import com.haven.app.haven.ingest.TrackerFrameCodec;
 import com.haven.app.haven.service.CoordinateService;
+import com.haven.app.haven.track.TrackExportFormat;
 import com.haven.app.haven.utils.ResponseUtils;
 import io.swagger.v3.oas.annotations.security.SecurityRequirements;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.data.domain.Page;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -30,11 +43,43 @@ public class CoordinateController {
 
     @SecurityRequirements
     @PostMapping
-    public CommonResponseWithData<CoordinateResponse> addCoordinate(@RequestBody CoordinateRequest coordinateRequest) {
+    public CommonResponseWithData<CoordinateResponse> addCoordinate(@Valid @RequestBody CoordinateRequest coordinateRequest) {
         CoordinateResponse coordinateResponse = coordinateService.addCoordinate(coordinateRequest);
         return ResponseUtils.responseWithData("Coordinate added", coordinateResponse);
     }
 
+    @SecurityRequirements
+    @PostMapping(consumes = TrackerFrameCodec.CONTENT_TYPE)
+    public CommonResponseWithData<CoordinateBatchResponse> addCoordinateFrame(@RequestBody byte[] frame) {
+        CoordinateBatchResponse coordinateBatchResponse = coordinateService.addCoordinateFrame(TrackerFrameCodec.decode(frame));
+        return ResponseUtils.responseWithData("Coordinate frame processed", coordinateBatchResponse);
+    }
+
+    @SecurityRequirements
+    @PostMapping(path = "/batch")
+    public CommonResponseWithData<CoordinateBatchResponse> addCoordinates(@RequestBody List<CoordinateRequest> coordinateRequests) {
+        CoordinateBatchResponse coordinateBatchResponse = coordinateService.addCoordinates(coordinateRequests);
+        return ResponseUtils.responseWithData("Coordinate batch processed", coordinateBatchResponse);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCoordinates(
+            @RequestParam(required = false) String transactionId,
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId)
+    {
+        return coordinateService.streamCoordinates(transactionId, lastEventId);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @GetMapping(path = "/latest")
+    public CommonResponseWithData<List<PositionEventResponse>> getLatestPositions(
+            @RequestParam(required = false) List<String> transactionIds)
+    {
+        List<PositionEventResponse> positions = coordinateService.getLatestPositions(transactionIds);
+        return ResponseUtils.responseWithData("Latest positions", positions);
+    }
+
     @SecurityRequirements
     @GetMapping(path = "/{transactionId}")
     public PageResponse<List<CoordinateResponse>> getCoordinate(
@@ -53,4 +98,52 @@ public class CoordinateController {
         return ResponseUtils.responseWithPage("Coordinate list", coordinateResponse);
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @GetMapping(path = "/{transactionId}/cursor")
+    public CommonResponseWithData<CoordinateCursorResponse> getCoordinateAfter(
+            @PathVariable String transactionId,
+            @RequestParam(required = false) String after,
+
+            @Valid
+            @NotNull(message = "Limit is required")
+            @Min(value = 1, message = "Limit cannot be zero or negative")
+            @RequestParam(defaultValue = "100") Integer limit)
+    {
+        CoordinateCursorResponse coordinateCursorResponse = coordinateService.getCoordinateAfter(transactionId, after, limit);
+        return ResponseUtils.responseWithData("Coordinate list", coordinateCursorResponse);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @GetMapping(path = "/{transactionId}/export")
+    public ResponseEntity<StreamingResponseBody> exportCoordinate(
+            @PathVariable String transactionId,
+            @RequestParam(defaultValue = "geojson") String format)
+    {
+        TrackExportFormat exportFormat = TrackExportFormat.fromValue(format);
+        StreamingResponseBody body = coordinateService.exportCoordinate(transactionId, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("track-" + transactionId + "." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @GetMapping(path = "/{transactionId}/simplified")
+    public CommonResponseWithData<SimplifiedTrackResponse> getSimplifiedCoordinate(
+            @PathVariable String transactionId,
+            @Valid
+            @DecimalMin(value = "0.0", message = "Tolerance cannot be negative")
+            @RequestParam(required = false) Double tolerance,
+
+            @Valid
+            @Min(value = 2, message = "Max points must be at least 2")
+            @RequestParam(required = false) Integer maxPoints)
+    {
+        SimplifiedTrackResponse simplifiedTrackResponse = coordinateService.getSimplifiedCoordinate(transactionId, tolerance, maxPoints);
+        return ResponseUtils.responseWithData("Simplified coordinate list", simplifiedTrackResponse);
+    }
+
 }
@@ -0,0 +1,49 @@
+package com.haven.app.haven.controller;
+
+import com.haven.app.haven.constant.Constant;
+import com.haven.app.haven.dto.response.CommonResponseWithData;
+import com.haven.app.haven.dto.response.ElevationBackfillResponse;
+import com.haven.app.haven.dto.response.ElevationResponse;
+import com.haven.app.haven.service.ElevationService;
+import com.haven.app.haven.utils.ResponseUtils;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping(Constant.ELEVATION_API)
+@RequiredArgsConstructor
+@Validated
+@Tag(name="Elevation", description = "APIs for terrain elevation from local DEM tiles")
+public class ElevationController {
+    private final ElevationService elevationService;
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @GetMapping
+    public CommonResponseWithData<ElevationResponse> getElevation(
+            @NotNull(message = "Latitude is required")
+            @DecimalMin(value = "-90", message = "Latitude must be between -90 and 90")
+            @DecimalMax(value = "90", message = "Latitude must be between -90 and 90")
+            @RequestParam Double latitude,
+
+            @NotNull(message = "Longitude is required")
+            @DecimalMin(value = "-180", message = "Longitude must be between -180 and 180")
+            @DecimalMax(value = "180", message = "Longitude must be between -180 and 180")
+            @RequestParam Double longitude)
+    {
+        ElevationResponse elevation = elevationService.getElevation(latitude, longitude);
+        return ResponseUtils.responseWithData("Elevation", elevation);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(path = "/backfill")
+    public CommonResponseWithData<ElevationBackfillResponse> backfill() {
+        ElevationBackfillResponse result = elevationService.backfill();
+        return ResponseUtils.responseWithData("Elevation Backfilled", result);
+    }
+}
@@ -0,0 +1,61 @@
+package com.haven.app.haven.controller;
+
+import com.haven.app.haven.constant.Constant;
+import com.haven.app.haven.dto.request.GeofenceRequest;
+import com.haven.app.haven.dto.response.CommonResponse;
+import com.haven.app.haven.dto.response.CommonResponseWithData;
+import com.haven.app.haven.dto.response.GeofenceResponse;
+import com.haven.app.haven.service.GeofenceService;
+import com.haven.app.haven.utils.ResponseUtils;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(Constant.GEOFENCE_API)
+@RequiredArgsConstructor
+@Validated
+@Tag(name="Geofence Management", description = "APIs for geofence management")
+public class GeofenceController {
+    private final GeofenceService geofenceService;
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping
+    public CommonResponseWithData<GeofenceResponse> createGeofence(@Valid @RequestBody GeofenceRequest geofenceRequest) {
+        GeofenceResponse geofenceResponse = geofenceService.createGeofence(geofenceRequest);
+        return ResponseUtils.responseWithData("Geofence Created", geofenceResponse);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @GetMapping
+    public CommonResponseWithData<List<GeofenceResponse>> getGeofences() {
+        List<GeofenceResponse> geofenceResponses = geofenceService.getGeofences();
+        return ResponseUtils.responseWithData("Geofence List", geofenceResponses);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @GetMapping(path = "/{id}")
+    public CommonResponseWithData<GeofenceResponse> getGeofence(@PathVariable String id) {
+        GeofenceResponse geofenceResponse = geofenceService.getGeofenceById(id);
+        return ResponseUtils.responseWithData("Geofence Founded", geofenceResponse);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PatchMapping(path = "/{id}")
+    public CommonResponseWithData<GeofenceResponse> updateGeofence(@PathVariable String id, @RequestBody GeofenceRequest geofenceRequest) {
+        GeofenceResponse geofenceResponse = geofenceService.updateGeofence(id, geofenceRequest);
+        return ResponseUtils.responseWithData("Geofence Updated", geofenceResponse);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping(path = "/{id}")
+    public CommonResponse deleteGeofence(@PathVariable String id) {
+        geofenceService.deleteGeofence(id);
+        return ResponseUtils.response("Geofence has been Deleted");
+    }
+}
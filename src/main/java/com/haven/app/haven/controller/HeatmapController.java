@@ -0,0 +1,36 @@
+package com.haven.app.haven.controller;
+
+import com.haven.app.haven.constant.Constant;
+import com.haven.app.haven.dto.response.CommonResponseWithData;
+import com.haven.app.haven.dto.response.HeatmapRebuildResponse;
+import com.haven.app.haven.dto.response.HeatmapTileResponse;
+import com.haven.app.haven.service.HeatmapService;
+import com.haven.app.haven.utils.ResponseUtils;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping(Constant.HEATMAP_API)
+@RequiredArgsConstructor
+@Tag(name="Heatmap", description = "APIs for trail traffic heatmap tiles")
+public class HeatmapController {
+    private final HeatmapService heatmapService;
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @GetMapping(path = "/{zoom}/{x}/{y}")
+    public CommonResponseWithData<HeatmapTileResponse> getTile(@PathVariable Integer zoom,
+                                                               @PathVariable Integer x,
+                                                               @PathVariable Integer y) {
+        HeatmapTileResponse tile = heatmapService.getTile(zoom, x, y);
+        return ResponseUtils.responseWithData("Heatmap Tile", tile);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(path = "/rebuild")
+    public CommonResponseWithData<HeatmapRebuildResponse> rebuild() {
+        HeatmapRebuildResponse result = heatmapService.rebuild();
+        return ResponseUtils.responseWithData("Heatmap Rebuilt", result);
+    }
+}
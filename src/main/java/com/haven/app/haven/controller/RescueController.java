@@ -0,0 +1,109 @@
+package com.haven.app.haven.controller;
+
+import com.haven.app.haven.constant.Constant;
+import com.haven.app.haven.dto.request.RangerPostRequest;
+import com.haven.app.haven.dto.response.*;
+import com.haven.app.haven.service.RescueService;
+import com.haven.app.haven.utils.ResponseUtils;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(Constant.RESCUE_API)
+@RequiredArgsConstructor
+@Validated
+@Tag(name="Rescue Dispatch", description = "APIs for locating hikers and rangers near an emergency")
+public class RescueController {
+    private final RescueService rescueService;
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @GetMapping(path = "/nearest")
+    public CommonResponseWithData<RescueNearestResponse> getNearest(
+            @NotNull(message = "Latitude is required")
+            @DecimalMin(value = "-90", message = "Latitude must be between -90 and 90")
+            @DecimalMax(value = "90", message = "Latitude must be between -90 and 90")
+            @RequestParam Double latitude,
+
+            @NotNull(message = "Longitude is required")
+            @DecimalMin(value = "-180", message = "Longitude must be between -180 and 180")
+            @DecimalMax(value = "180", message = "Longitude must be between -180 and 180")
+            @RequestParam Double longitude,
+
+            @Min(value = 1, message = "k must be at least 1")
+            @Max(value = 100, message = "k cannot exceed 100")
+            @RequestParam(defaultValue = "5") Integer k,
+
+            @Min(value = 0, message = "Rangers cannot be negative")
+            @Max(value = 20, message = "Rangers cannot exceed 20")
+            @RequestParam(defaultValue = "1") Integer rangers,
+
+            @RequestParam(required = false) String excludeTrackerId)
+    {
+        RescueNearestResponse nearest = rescueService.getNearest(latitude, longitude, k, rangers, excludeTrackerId);
+        return ResponseUtils.responseWithData("Nearest Hikers", nearest);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @GetMapping(path = "/within")
+    public CommonResponseWithData<List<NearbyHikerResponse>> getWithin(
+            @NotNull(message = "Latitude is required")
+            @DecimalMin(value = "-90", message = "Latitude must be between -90 and 90")
+            @DecimalMax(value = "90", message = "Latitude must be between -90 and 90")
+            @RequestParam Double latitude,
+
+            @NotNull(message = "Longitude is required")
+            @DecimalMin(value = "-180", message = "Longitude must be between -180 and 180")
+            @DecimalMax(value = "180", message = "Longitude must be between -180 and 180")
+            @RequestParam Double longitude,
+
+            @DecimalMin(value = "1", message = "Radius must be at least 1 metre")
+            @DecimalMax(value = "50000", message = "Radius cannot exceed 50 km")
+            @RequestParam(defaultValue = "1000") Double radius,
+
+            @RequestParam(required = false) String excludeTrackerId)
+    {
+        List<NearbyHikerResponse> hikers = rescueService.getWithin(latitude, longitude, radius, excludeTrackerId);
+        return ResponseUtils.responseWithData("Hikers Within Radius", hikers);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @GetMapping(path = "/route")
+    public CommonResponseWithData<RescueRouteResponse> getRoute(
+            @NotBlank(message = "Transaction id is required")
+            @RequestParam String transactionId,
+
+            @NotBlank(message = "Ranger post id is required")
+            @RequestParam String rangerPostId)
+    {
+        RescueRouteResponse route = rescueService.getRoute(transactionId, rangerPostId);
+        return ResponseUtils.responseWithData("Rescue Route", route);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(path = "/ranger-posts")
+    public CommonResponseWithData<RangerPostResponse> createRangerPost(@Valid @RequestBody RangerPostRequest rangerPostRequest) {
+        RangerPostResponse rangerPostResponse = rescueService.createRangerPost(rangerPostRequest);
+        return ResponseUtils.responseWithData("Ranger Post Created", rangerPostResponse);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @GetMapping(path = "/ranger-posts")
+    public CommonResponseWithData<List<RangerPostResponse>> getRangerPosts() {
+        List<RangerPostResponse> rangerPostResponses = rescueService.getRangerPosts();
+        return ResponseUtils.responseWithData("Ranger Post List", rangerPostResponses);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping(path = "/ranger-posts/{id}")
+    public CommonResponse deleteRangerPost(@PathVariable String id) {
+        rescueService.deleteRangerPost(id);
+        return ResponseUtils.response("Ranger Post has been Deleted");
+    }
+}
@@ -8,6 +8,7 @@ import com.haven.app.haven.dto.response.CommonResponse;
 import com.haven.app.haven.dto.response.CommonResponseWithData;
 import com.haven.app.haven.dto.response.PageResponse;
 import com.haven.app.haven.dto.response.TrackerDevicesResponse;
+import com.haven.app.haven.dto.response.TrackerUplinkKeyResponse;
 import com.haven.app.haven.service.TrackerDevicesService;
 import com.haven.app.haven.utils.ResponseUtils;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -17,6 +18,7 @@ import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -73,6 +75,13 @@ public class TrackerDevicesController {
         return ResponseUtils.responseWithData("Tracker Device Founded", trackerDevicesResponse);
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(path = "/{id}/uplink-key")
+    public CommonResponseWithData<TrackerUplinkKeyResponse> getUplinkKey(@PathVariable String id) {
+        TrackerUplinkKeyResponse trackerUplinkKeyResponse = trackerDevicesService.getUplinkKey(id);
+        return ResponseUtils.responseWithData("Tracker Uplink Key", trackerUplinkKeyResponse);
+    }
+
     @PatchMapping(path = "/{id}")
     public CommonResponseWithData<TrackerDevicesResponse> updateTrackerDevices(@PathVariable String id, @RequestBody TrackerDevicesRequest trackerDevicesRequest) {
         TrackerDevicesResponse trackerDevicesResponse = trackerDevicesService.updateTracker(id, trackerDevicesRequest);
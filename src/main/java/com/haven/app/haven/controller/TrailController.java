@@ -0,0 +1,37 @@
+package com.haven.app.haven.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.haven.app.haven.constant.Constant;
+import com.haven.app.haven.dto.response.CommonResponseWithData;
+import com.haven.app.haven.dto.response.TrailImportResponse;
+import com.haven.app.haven.dto.response.TrailSegmentResponse;
+import com.haven.app.haven.service.TrailService;
+import com.haven.app.haven.utils.ResponseUtils;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(Constant.TRAIL_API)
+@RequiredArgsConstructor
+@Tag(name="Trail Network", description = "APIs for the trail network used by map matching")
+public class TrailController {
+    private final TrailService trailService;
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(path = "/import")
+    public CommonResponseWithData<TrailImportResponse> importTrails(@RequestBody JsonNode geoJson) {
+        TrailImportResponse trailImportResponse = trailService.importTrails(geoJson);
+        return ResponseUtils.responseWithData("Trail Network Imported", trailImportResponse);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @GetMapping
+    public CommonResponseWithData<List<TrailSegmentResponse>> getTrailSegments() {
+        List<TrailSegmentResponse> trailSegmentResponses = trailService.getTrailSegments();
+        return ResponseUtils.responseWithData("Trail Segment List", trailSegmentResponses);
+    }
+}
@@ -0,0 +1,54 @@
+package com.haven.app.haven.controller;
+
+import com.haven.app.haven.constant.Constant;
+import com.haven.app.haven.dto.response.CommonResponseWithData;
+import com.haven.app.haven.dto.response.PageResponse;
+import com.haven.app.haven.dto.response.TransactionAlertResponse;
+import com.haven.app.haven.service.TransactionAlertService;
+import com.haven.app.haven.utils.ResponseUtils;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(Constant.ALERT_API)
+@RequiredArgsConstructor
+@Validated
+@Tag(name="Alert Management", description = "APIs for hike alert management")
+public class TransactionAlertController {
+    private final TransactionAlertService transactionAlertService;
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @GetMapping
+    public PageResponse<List<TransactionAlertResponse>> getAlerts(
+            @RequestParam(required = false) String transactionId,
+            @RequestParam(required = false) Boolean acknowledged,
+            @Valid
+            @NotNull(message = "Page number is required")
+            @Min(value = 1, message = "Page number cannot be zero negative")
+            @RequestParam(defaultValue = "1") Integer page,
+
+            @Valid
+            @NotNull(message = "Page size is required")
+            @Min(value = 1, message = "Page size cannot be zero or negative")
+            @RequestParam(defaultValue = "10") Integer size)
+    {
+        Page<TransactionAlertResponse> alerts = transactionAlertService.getAlerts(transactionId, acknowledged, page, size);
+        return ResponseUtils.responseWithPage("Alert List", alerts);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @PatchMapping(path = "/{id}/acknowledge")
+    public CommonResponseWithData<TransactionAlertResponse> acknowledgeAlert(@PathVariable String id) {
+        TransactionAlertResponse alert = transactionAlertService.acknowledgeAlert(id);
+        return ResponseUtils.responseWithData("Alert Acknowledged", alert);
+    }
+}
@@ -72,6 +72,12 @@ public class TransactionsController {
         return ResponseUtils.responseWithData("Get Transaction By Id", transactionsResponse);
     }
 
+    @GetMapping("/{id}/stats")
+    public CommonResponseWithData<TripStatsResponse> getTransactionStats(@PathVariable String id) {
+        TripStatsResponse tripStatsResponse = transactionsService.getTransactionStats(id);
+        return ResponseUtils.responseWithData("Get Transaction Statistics", tripStatsResponse);
+    }
+
     @GetMapping("/user")
     public ResponseEntity<?> getTransactionsByUserId(
             @RequestParam(defaultValue = "true") boolean pagination,
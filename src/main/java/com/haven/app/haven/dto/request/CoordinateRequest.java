@@ -1,5 +1,10 @@
 package com.haven.app.haven.dto.request;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
 import lombok.*;
 
 @AllArgsConstructor
@@ -9,6 +14,30 @@ import lombok.*;
 @Builder
 public class CoordinateRequest {
     private String serialNumber;
-    private String latitude;
-    private String longitude;
+
+    @NotNull(message = "Latitude is required")
+    @DecimalMin(value = "-90", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @NotNull(message = "Longitude is required")
+    @DecimalMin(value = "-180", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    // Device time of the fix in epoch milliseconds; optional.
+    private Long timestamp;
+
+    // Altitude above sea level in metres; optional.
+    @DecimalMin(value = "-500", message = "Altitude must be between -500 and 9000")
+    @DecimalMax(value = "9000", message = "Altitude must be between -500 and 9000")
+    private Double altitude;
+
+    // Per-tracker counter incremented by the firmware for every fix; optional, used to drop retries.
+    @Min(value = 0, message = "Sequence cannot be negative")
+    private Long sequence;
+
+    @Min(value = 0, message = "Battery must be between 0 and 100")
+    @Max(value = 100, message = "Battery must be between 0 and 100")
+    private Integer battery;
 }
@@ -0,0 +1,28 @@
+package com.haven.app.haven.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class GeofenceRequest {
+    @NotBlank(message = "Name is required")
+    private String name;
+
+    @NotBlank(message = "Type is required")
+    private String type;
+
+    private Boolean active;
+
+    // Polygon ring as [latitude, longitude] pairs.
+    @NotNull(message = "Points are required")
+    @Size(min = 3, message = "Geofence needs at least 3 points")
+    private List<List<Double>> points;
+}
@@ -0,0 +1,13 @@
+package com.haven.app.haven.dto.request;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class RealtimeSubscriptionRequest {
+    private String action;
+    private String topic;
+}
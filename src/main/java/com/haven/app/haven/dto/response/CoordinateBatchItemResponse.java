@@ -0,0 +1,16 @@
+package com.haven.app.haven.dto.response;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class CoordinateBatchItemResponse {
+    private Integer index;
+    private String serialNumber;
+    private String status;
+    private String coordinateId;
+    private String message;
+}
@@ -0,0 +1,17 @@
+package com.haven.app.haven.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class CoordinateBatchResponse {
+    private Integer accepted;
+    private Integer rejected;
+    private Integer duplicates;
+    private List<CoordinateBatchItemResponse> items;
+}
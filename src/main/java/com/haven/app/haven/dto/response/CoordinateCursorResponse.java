@@ -0,0 +1,16 @@
+package com.haven.app.haven.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class CoordinateCursorResponse {
+    private List<CoordinateResponse> items;
+    private String nextCursor;
+    private Boolean hasMore;
+}
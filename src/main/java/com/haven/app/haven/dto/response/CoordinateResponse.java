@@ -1,6 +1,7 @@
 package com.haven.app.haven.dto.response;
 
 import com.haven.app.haven.entity.Coordinates;
+import com.haven.app.haven.utils.GeoUtils;
 import lombok.*;
 
 @AllArgsConstructor
@@ -14,15 +15,28 @@ public class CoordinateResponse {
     private String transactionId;
     private String latitude;
     private String longitude;
+    private String recordedAt;
+    private Integer battery;
+    private String altitude;
+    private String matchedLatitude;
+    private String matchedLongitude;
+    private String trailSegmentId;
     private String updatedAt;
+    private Boolean duplicate;
 
     public static CoordinateResponse CoordinateToCoordinateResponse(Coordinates coordinates) {
         return CoordinateResponse.builder()
                 .id(coordinates.getId())
                 .trackerId(coordinates.getTracker().getId())
                 .transactionId(coordinates.getTransaction().getId())
-                .latitude(coordinates.getLatitude())
-                .longitude(coordinates.getLongitude())
+                .latitude(GeoUtils.formatE7(coordinates.getLatitudeE7()))
+                .longitude(GeoUtils.formatE7(coordinates.getLongitudeE7()))
+                .recordedAt(coordinates.getRecordedAt() != null ? coordinates.getRecordedAt().toString() : null)
+                .battery(coordinates.getBattery() != null ? coordinates.getBattery().intValue() : null)
+                .altitude(coordinates.getAltitudeDm() != null ? GeoUtils.formatDecimeters(coordinates.getAltitudeDm()) : null)
+                .matchedLatitude(coordinates.getMatchedLatitudeE7() != null ? GeoUtils.formatE7(coordinates.getMatchedLatitudeE7()) : null)
+                .matchedLongitude(coordinates.getMatchedLongitudeE7() != null ? GeoUtils.formatE7(coordinates.getMatchedLongitudeE7()) : null)
+                .trailSegmentId(coordinates.getTrailSegmentId())
                 .updatedAt(coordinates.getUpdatedAt().toString())
                 .build();
     }
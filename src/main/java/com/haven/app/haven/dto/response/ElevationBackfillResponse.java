@@ -0,0 +1,15 @@
+package com.haven.app.haven.dto.response;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class ElevationBackfillResponse {
+    private Long scanned;
+    private Long updated;
+    private Long archivesUpdated;
+    private Long durationMillis;
+}
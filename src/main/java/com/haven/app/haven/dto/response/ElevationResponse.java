@@ -0,0 +1,15 @@
+package com.haven.app.haven.dto.response;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class ElevationResponse {
+    private String latitude;
+    private String longitude;
+    // Metres above sea level.
+    private String elevation;
+}
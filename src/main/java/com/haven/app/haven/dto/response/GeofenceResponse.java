@@ -0,0 +1,34 @@
+package com.haven.app.haven.dto.response;
+
+import com.haven.app.haven.entity.Geofence;
+import com.haven.app.haven.geofence.GeofencePolygon;
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class GeofenceResponse {
+    private String id;
+    private String name;
+    private String type;
+    private Boolean active;
+    private List<List<Double>> points;
+    private String createdAt;
+    private String updatedAt;
+
+    public static GeofenceResponse geofenceToGeofenceResponse(Geofence geofence) {
+        return GeofenceResponse.builder()
+                .id(geofence.getId())
+                .name(geofence.getName())
+                .type(geofence.getType().toString())
+                .active(geofence.getActive())
+                .points(GeofencePolygon.parse(geofence.getVertices()).toDegrees())
+                .createdAt(geofence.getCreatedAt() != null ? geofence.getCreatedAt().toString() : null)
+                .updatedAt(geofence.getUpdatedAt() != null ? geofence.getUpdatedAt().toString() : null)
+                .build();
+    }
+}
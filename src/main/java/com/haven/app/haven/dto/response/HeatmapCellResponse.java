@@ -0,0 +1,23 @@
+package com.haven.app.haven.dto.response;
+
+import com.haven.app.haven.entity.HeatmapTile;
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class HeatmapCellResponse {
+    private Integer x;
+    private Integer y;
+    private Long count;
+
+    public static HeatmapCellResponse tileToCellResponse(HeatmapTile tile) {
+        return HeatmapCellResponse.builder()
+                .x(tile.getTileX())
+                .y(tile.getTileY())
+                .count(tile.getFixCount())
+                .build();
+    }
+}
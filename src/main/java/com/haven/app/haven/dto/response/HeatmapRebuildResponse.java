@@ -0,0 +1,14 @@
+package com.haven.app.haven.dto.response;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class HeatmapRebuildResponse {
+    private Long fixes;
+    private Integer tiles;
+    private Long durationMillis;
+}
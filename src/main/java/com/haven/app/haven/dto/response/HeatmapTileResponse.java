@@ -0,0 +1,20 @@
+package com.haven.app.haven.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class HeatmapTileResponse {
+    private Integer zoom;
+    private Integer x;
+    private Integer y;
+    // Zoom level of the cells below; each cell is a tile at this zoom.
+    private Integer cellZoom;
+    private Long maxCount;
+    private List<HeatmapCellResponse> cells;
+}
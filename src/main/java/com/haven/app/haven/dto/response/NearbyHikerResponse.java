@@ -0,0 +1,34 @@
+package com.haven.app.haven.dto.response;
+
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import com.haven.app.haven.realtime.LatestPositionRegistry;
+import com.haven.app.haven.utils.GeoUtils;
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class NearbyHikerResponse {
+    private String trackerId;
+    private String transactionId;
+    private String latitude;
+    private String longitude;
+    private String recordedAt;
+    private Integer battery;
+    private Double distanceMeters;
+
+    public static NearbyHikerResponse fromNearby(LatestPositionRegistry.Nearby nearby) {
+        CoordinateAcceptedEvent position = nearby.position();
+        return NearbyHikerResponse.builder()
+                .trackerId(position.getTrackerId())
+                .transactionId(position.getTransactionId())
+                .latitude(GeoUtils.formatE7(position.getLatitudeE7()))
+                .longitude(GeoUtils.formatE7(position.getLongitudeE7()))
+                .recordedAt(position.getRecordedAt() != null ? position.getRecordedAt().toString() : null)
+                .battery(position.getBattery() != null ? position.getBattery().intValue() : null)
+                .distanceMeters(Math.round(nearby.distanceMeters() * 10d) / 10d)
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.haven.app.haven.dto.response;
+
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import com.haven.app.haven.utils.GeoUtils;
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class PositionEventResponse {
+    private String coordinateId;
+    private String trackerId;
+    private String transactionId;
+    private String latitude;
+    private String longitude;
+    private String recordedAt;
+    private Integer battery;
+    private String altitude;
+
+    public static PositionEventResponse fromEvent(CoordinateAcceptedEvent event) {
+        return PositionEventResponse.builder()
+                .coordinateId(event.getCoordinateId())
+                .trackerId(event.getTrackerId())
+                .transactionId(event.getTransactionId())
+                .latitude(GeoUtils.formatE7(event.getLatitudeE7()))
+                .longitude(GeoUtils.formatE7(event.getLongitudeE7()))
+                .recordedAt(event.getRecordedAt() != null ? event.getRecordedAt().toString() : null)
+                .battery(event.getBattery() != null ? event.getBattery().intValue() : null)
+                .altitude(event.getAltitudeDm() != null ? GeoUtils.formatDecimeters(event.getAltitudeDm()) : null)
+                .build();
+    }
+}
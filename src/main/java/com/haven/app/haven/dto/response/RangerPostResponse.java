@@ -0,0 +1,39 @@
+package com.haven.app.haven.dto.response;
+
+import com.haven.app.haven.entity.RangerPost;
+import com.haven.app.haven.rescue.RangerPostDirectory;
+import com.haven.app.haven.utils.GeoUtils;
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class RangerPostResponse {
+    private String id;
+    private String name;
+    private String latitude;
+    private String longitude;
+    private String phone;
+    private Boolean active;
+    // Only set on proximity queries.
+    private Double distanceMeters;
+
+    public static RangerPostResponse rangerPostToRangerPostResponse(RangerPost post) {
+        return RangerPostResponse.builder()
+                .id(post.getId())
+                .name(post.getName())
+                .latitude(GeoUtils.formatE7(post.getLatitudeE7()))
+                .longitude(GeoUtils.formatE7(post.getLongitudeE7()))
+                .phone(post.getPhone())
+                .active(post.getActive())
+                .build();
+    }
+
+    public static RangerPostResponse fromNearby(RangerPostDirectory.Nearby nearby) {
+        RangerPostResponse response = rangerPostToRangerPostResponse(nearby.post());
+        response.setDistanceMeters(Math.round(nearby.distanceMeters() * 10d) / 10d);
+        return response;
+    }
+}
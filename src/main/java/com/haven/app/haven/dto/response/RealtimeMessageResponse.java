@@ -0,0 +1,13 @@
+package com.haven.app.haven.dto.response;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class RealtimeMessageResponse<T> {
+    private String type;
+    private T data;
+}
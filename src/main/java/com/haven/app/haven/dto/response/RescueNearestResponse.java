@@ -0,0 +1,15 @@
+package com.haven.app.haven.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class RescueNearestResponse {
+    private List<NearbyHikerResponse> hikers;
+    private List<RangerPostResponse> rangerPosts;
+}
@@ -0,0 +1,55 @@
+package com.haven.app.haven.dto.response;
+
+import com.haven.app.haven.entity.Coordinates;
+import com.haven.app.haven.entity.RangerPost;
+import com.haven.app.haven.rescue.RescueRouter;
+import com.haven.app.haven.utils.GeoUtils;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class RescueRouteResponse {
+    private String transactionId;
+    private RangerPostResponse rangerPost;
+    private String hikerLatitude;
+    private String hikerLongitude;
+    private String recordedAt;
+    private Double distanceMeters;
+    private Double trailDistanceMeters;
+    private Double offTrailMeters;
+    private Double etaMinutes;
+    private List<String> trailSegmentIds;
+    // [latitude, longitude] from the ranger post to the hiker.
+    private List<List<Double>> points;
+
+    public static RescueRouteResponse fromPlan(RangerPost post, Coordinates fix, RescueRouter.Plan plan) {
+        int[] latitudes = plan.route().latitudesE7();
+        int[] longitudes = plan.route().longitudesE7();
+        List<List<Double>> points = new ArrayList<>(latitudes.length + 2);
+        points.add(List.of(GeoUtils.fromE7(post.getLatitudeE7()), GeoUtils.fromE7(post.getLongitudeE7())));
+        for (int i = 0; i < latitudes.length; i++) {
+            points.add(List.of(GeoUtils.fromE7(latitudes[i]), GeoUtils.fromE7(longitudes[i])));
+        }
+        points.add(List.of(GeoUtils.fromE7(fix.getLatitudeE7()), GeoUtils.fromE7(fix.getLongitudeE7())));
+
+        return RescueRouteResponse.builder()
+                .transactionId(fix.getTransaction().getId())
+                .rangerPost(RangerPostResponse.rangerPostToRangerPostResponse(post))
+                .hikerLatitude(GeoUtils.formatE7(fix.getLatitudeE7()))
+                .hikerLongitude(GeoUtils.formatE7(fix.getLongitudeE7()))
+                .recordedAt(fix.getRecordedAt().toString())
+                .distanceMeters(Math.round(plan.distanceMeters() * 10d) / 10d)
+                .trailDistanceMeters(Math.round(plan.route().distanceMeters() * 10d) / 10d)
+                .offTrailMeters(Math.round(plan.offTrailMeters() * 10d) / 10d)
+                .etaMinutes(Math.round(plan.etaSeconds() / 6d) / 10d)
+                .trailSegmentIds(plan.route().segmentIds())
+                .points(points)
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.haven.app.haven.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class SimplifiedTrackResponse {
+    private String transactionId;
+    private Integer originalPoints;
+    private Integer simplifiedPoints;
+    private Double tolerance;
+    private Integer maxPoints;
+    private List<TrackPointResponse> points;
+}
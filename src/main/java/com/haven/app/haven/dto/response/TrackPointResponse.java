@@ -0,0 +1,14 @@
+package com.haven.app.haven.dto.response;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class TrackPointResponse {
+    private String latitude;
+    private String longitude;
+    private String recordedAt;
+}
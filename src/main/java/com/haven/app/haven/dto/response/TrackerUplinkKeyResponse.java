@@ -0,0 +1,13 @@
+package com.haven.app.haven.dto.response;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class TrackerUplinkKeyResponse {
+    private String serialNumber;
+    private String uplinkKey;
+}
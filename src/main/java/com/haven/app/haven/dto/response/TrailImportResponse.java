@@ -0,0 +1,14 @@
+package com.haven.app.haven.dto.response;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class TrailImportResponse {
+    private Integer lines;
+    private Integer segments;
+    private Double lengthMeters;
+}
@@ -0,0 +1,28 @@
+package com.haven.app.haven.dto.response;
+
+import com.haven.app.haven.entity.TrailSegment;
+import com.haven.app.haven.trail.TrailLine;
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class TrailSegmentResponse {
+    private String id;
+    private String name;
+    private Double lengthMeters;
+    private List<List<Double>> points;
+
+    public static TrailSegmentResponse trailSegmentToTrailSegmentResponse(TrailSegment segment) {
+        return TrailSegmentResponse.builder()
+                .id(segment.getId())
+                .name(segment.getName())
+                .lengthMeters(Math.round(segment.getLengthMeters() * 10d) / 10d)
+                .points(TrailLine.parse(segment.getVertices()).toDegrees())
+                .build();
+    }
+}
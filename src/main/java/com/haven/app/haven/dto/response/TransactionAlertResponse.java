@@ -0,0 +1,55 @@
+package com.haven.app.haven.dto.response;
+
+import com.haven.app.haven.alert.TransactionAlertEvent;
+import com.haven.app.haven.entity.TransactionAlert;
+import com.haven.app.haven.utils.GeoUtils;
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class TransactionAlertResponse {
+    private String id;
+    private String transactionId;
+    private String trackerId;
+    private String type;
+    private String message;
+    private String referenceId;
+    private String latitude;
+    private String longitude;
+    private String recordedAt;
+    private Boolean acknowledged;
+    private String createdAt;
+
+    public static TransactionAlertResponse alertToAlertResponse(TransactionAlert alert) {
+        return TransactionAlertResponse.builder()
+                .id(alert.getId())
+                .transactionId(alert.getTransaction().getId())
+                .trackerId(alert.getTrackerId())
+                .type(alert.getType().toString())
+                .message(alert.getMessage())
+                .referenceId(alert.getReferenceId())
+                .latitude(alert.getLatitudeE7() != null ? GeoUtils.formatE7(alert.getLatitudeE7()) : null)
+                .longitude(alert.getLongitudeE7() != null ? GeoUtils.formatE7(alert.getLongitudeE7()) : null)
+                .recordedAt(alert.getRecordedAt() != null ? alert.getRecordedAt().toString() : null)
+                .acknowledged(alert.getAcknowledged())
+                .createdAt(alert.getCreatedAt() != null ? alert.getCreatedAt().toString() : null)
+                .build();
+    }
+
+    public static TransactionAlertResponse fromEvent(TransactionAlertEvent event) {
+        return TransactionAlertResponse.builder()
+                .transactionId(event.getTransactionId())
+                .trackerId(event.getTrackerId())
+                .type(event.getType().toString())
+                .message(event.getMessage())
+                .referenceId(event.getReferenceId())
+                .latitude(event.getLatitudeE7() != null ? GeoUtils.formatE7(event.getLatitudeE7()) : null)
+                .longitude(event.getLongitudeE7() != null ? GeoUtils.formatE7(event.getLongitudeE7()) : null)
+                .recordedAt(event.getRecordedAt() != null ? event.getRecordedAt().toString() : null)
+                .acknowledged(false)
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.haven.app.haven.dto.response;
+
+import com.haven.app.haven.realtime.TransactionStatusChangedEvent;
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class TransactionStatusEventResponse {
+    private String transactionId;
+    private String trackerId;
+    private String previousStatus;
+    private String status;
+
+    public static TransactionStatusEventResponse fromEvent(TransactionStatusChangedEvent event) {
+        return TransactionStatusEventResponse.builder()
+                .transactionId(event.getTransactionId())
+                .trackerId(event.getTrackerId())
+                .previousStatus(event.getPreviousStatus() != null ? event.getPreviousStatus().toString() : null)
+                .status(event.getStatus().toString())
+                .build();
+    }
+}
@@ -23,6 +23,7 @@ public class TransactionsResponse {
     private List<TicketResponse> tickets;
     private TrackerDevicesResponse trackerDevices;
     private List<CoordinateResponse> coordinates;
+    private TripStatsResponse stats;
     private String createdAt;
     private String updatedAt;
 
@@ -51,6 +52,7 @@ public class TransactionsResponse {
                 .tickets(ticketResponses)
                 .trackerDevices(transactions.getTracker() != null ? TrackerDevicesResponse.trackerDevicesToTrackerDevicesResponse(transactions.getTracker()) : null)
                 .coordinates(transactions.getCoordinates().stream().map(coordinates1 -> CoordinateResponse.CoordinateToCoordinateResponse(coordinates1)).toList())
+                .stats(TripStatsResponse.transactionToTripStatsResponse(transactions))
                 .createdAt(transactions.getCreatedAt().toString())
                 .updatedAt(transactions.getUpdatedAt().toString())
                 .build();
@@ -80,6 +82,7 @@ public class TransactionsResponse {
                 .paymentUrl(transactions.getPaymentUrl())
                 .tickets(ticketResponses)
                 .coordinates(transactions.getCoordinates().stream().map(coordinates1 -> CoordinateResponse.CoordinateToCoordinateResponse(coordinates1)).toList())
+                .stats(TripStatsResponse.transactionToTripStatsResponse(transactions))
                 .createdAt(transactions.getCreatedAt().toString())
                 .updatedAt(transactions.getUpdatedAt().toString())
                 .build();
@@ -0,0 +1,36 @@
+package com.haven.app.haven.dto.response;
+
+import com.haven.app.haven.entity.Transactions;
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class TripStatsResponse {
+    private String transactionId;
+    private Double distanceMeters;
+    private Double elevationGainMeters;
+    private Long movingSeconds;
+    private Double averageSpeedKmh;
+    private Long averagePaceSecondsPerKm;
+
+    public static TripStatsResponse of(String transactionId, double distanceMeters, double elevationGainMeters, long movingSeconds) {
+        return TripStatsResponse.builder()
+                .transactionId(transactionId)
+                .distanceMeters(Math.round(distanceMeters * 10d) / 10d)
+                .elevationGainMeters(Math.round(elevationGainMeters * 10d) / 10d)
+                .movingSeconds(movingSeconds)
+                .averageSpeedKmh(movingSeconds > 0 ? Math.round(distanceMeters * 36d / movingSeconds) / 10d : null)
+                .averagePaceSecondsPerKm(distanceMeters > 0 && movingSeconds > 0 ? Math.round(movingSeconds * 1000d / distanceMeters) : null)
+                .build();
+    }
+
+    public static TripStatsResponse transactionToTripStatsResponse(Transactions transactions) {
+        return of(transactions.getId(),
+                transactions.getDistanceMeters() != null ? transactions.getDistanceMeters() : 0d,
+                transactions.getElevationGainMeters() != null ? transactions.getElevationGainMeters() : 0d,
+                transactions.getMovingSeconds() != null ? transactions.getMovingSeconds() : 0L);
+    }
+}
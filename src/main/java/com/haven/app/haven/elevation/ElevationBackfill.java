@@ -0,0 +1,149 @@
+package com.haven.app.haven.elevation;
+
+import com.haven.app.haven.dto.response.ElevationBackfillResponse;
+import com.haven.app.haven.exception.ElevationException;
+import com.haven.app.haven.track.ArchivedTrackCache;
+import com.haven.app.haven.track.TrackArchiveCodec;
+import com.haven.app.haven.track.TrackPoints;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fills {@code altitude_dm} on stored fixes that have none, a chunk of rows at a time in
+ * id order so the scan resumes after the last row seen rather than re-reading fixes the
+ * DEM does not cover. Archived tracks are then walked the same way by transaction id:
+ * each block is decoded, its fixes without altitude are filled and the block is
+ * re-encoded in place when anything changed.
+ */
+@Slf4j
+@Component
+public class ElevationBackfill {
+    private static final String SELECT = "SELECT id, latitude_e7, longitude_e7 FROM coordinates " +
+            "WHERE altitude_dm IS NULL AND id > ? ORDER BY id LIMIT ?";
+    private static final String UPDATE = "UPDATE coordinates SET altitude_dm = ? WHERE id = ?";
+    private static final String SELECT_ARCHIVES = "SELECT transaction_id FROM track_archives " +
+            "WHERE transaction_id > ? ORDER BY transaction_id LIMIT ?";
+    private static final String SELECT_ARCHIVE = "SELECT compressed, data FROM track_archives WHERE transaction_id = ?";
+    private static final String UPDATE_ARCHIVE = "UPDATE track_archives SET data = ? WHERE transaction_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ElevationModel elevationModel;
+    private final ArchivedTrackCache archivedTrackCache;
+    private final int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ElevationBackfill(JdbcTemplate jdbcTemplate,
+                             ElevationModel elevationModel,
+                             ArchivedTrackCache archivedTrackCache,
+                             @Value("${elevation.backfill-chunk:5000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.elevationModel = elevationModel;
+        this.archivedTrackCache = archivedTrackCache;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public ElevationBackfillResponse run() {
+        if (elevationModel.isEmpty()) {
+            throw new ElevationException("No DEM tiles are loaded");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new ElevationException("Elevation backfill is already running");
+        }
+        try {
+            long started = System.currentTimeMillis();
+            long scanned = 0;
+            long updated = 0;
+            String after = "";
+            while (true) {
+                List<Map<String, Object>> rows = jdbcTemplate.queryForList(SELECT, after, chunkSize);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<Object[]> updates = new ArrayList<>(rows.size());
+                for (Map<String, Object> row : rows) {
+                    int elevationDm = elevationModel.elevationDm(((Number) row.get("latitude_e7")).intValue(),
+                            ((Number) row.get("longitude_e7")).intValue());
+                    if (elevationDm != ElevationModel.NO_DATA) {
+                        updates.add(new Object[]{elevationDm, row.get("id")});
+                    }
+                }
+                if (!updates.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE, updates);
+                }
+                scanned += rows.size();
+                updated += updates.size();
+                after = (String) rows.get(rows.size() - 1).get("id");
+            }
+
+            long archivesUpdated = 0;
+            after = "";
+            while (true) {
+                List<String> transactionIds = jdbcTemplate.queryForList(SELECT_ARCHIVES, String.class, after, chunkSize);
+                if (transactionIds.isEmpty()) {
+                    break;
+                }
+                for (String transactionId : transactionIds) {
+                    long[] filled = backfillArchive(transactionId);
+                    scanned += filled[0];
+                    updated += filled[1];
+                    if (filled[1] > 0) {
+                        archivesUpdated++;
+                    }
+                }
+                after = transactionIds.get(transactionIds.size() - 1);
+            }
+
+            long duration = System.currentTimeMillis() - started;
+            log.info("[ElevationBackfill] Filled {} of {} fixes ({} archived tracks) in {} ms",
+                    updated, scanned, archivesUpdated, duration);
+            return ElevationBackfillResponse.builder()
+                    .scanned(scanned)
+                    .updated(updated)
+                    .archivesUpdated(archivesUpdated)
+                    .durationMillis(duration)
+                    .build();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Returns the number of archived fixes without altitude and the number of those filled.
+     */
+    private long[] backfillArchive(String transactionId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(SELECT_ARCHIVE, transactionId);
+        if (rows.isEmpty()) {
+            return new long[]{0, 0};
+        }
+        Map<String, Object> row = rows.get(0);
+        TrackPoints track = TrackArchiveCodec.decode((byte[]) row.get("data"));
+
+        long missing = 0;
+        long filled = 0;
+        for (int i = 0; i < track.getSize(); i++) {
+            if (track.getAltitudesDm()[i] != TrackPoints.NO_ALTITUDE) {
+                continue;
+            }
+            missing++;
+            int elevationDm = elevationModel.elevationDm(track.getLatitudesE7()[i], track.getLongitudesE7()[i]);
+            if (elevationDm != ElevationModel.NO_DATA) {
+                track.setAltitudeDm(i, elevationDm);
+                filled++;
+            }
+        }
+        if (filled > 0) {
+            jdbcTemplate.update(UPDATE_ARCHIVE,
+                    TrackArchiveCodec.encode(track, Boolean.TRUE.equals(row.get("compressed"))), transactionId);
+            archivedTrackCache.evictTransaction(transactionId);
+        }
+        return new long[]{missing, filled};
+    }
+}
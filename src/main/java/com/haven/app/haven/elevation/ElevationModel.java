@@ -0,0 +1,153 @@
+package com.haven.app.haven.elevation;
+
+import com.haven.app.haven.utils.GeoUtils;
+import com.haven.app.haven.utils.LogUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Terrain elevation from SRTM {@code .hgt} tiles in {@code elevation.dem-directory}. Each
+ * tile covers one degree square as a grid of big-endian 16-bit metres, north row first,
+ * and is memory-mapped rather than read, so the OS pages in only the parts of the park
+ * that fixes actually land in.
+ * <p>
+ * A lookup is a handful of absolute reads from the mapped buffers and a bilinear blend of
+ * the four surrounding samples: no allocation and no locking, since absolute reads never
+ * touch the buffer's position. Tiles are found through a flat array indexed by the
+ * integer degrees, swapped whole on reload.
+ */
+@Slf4j
+@Component
+public class ElevationModel {
+    public static final int NO_DATA = Integer.MIN_VALUE;
+
+    private static final short VOID = -32768;
+    private static final Pattern TILE_NAME = Pattern.compile("([NS])(\\d{2})([EW])(\\d{3})\\.hgt", Pattern.CASE_INSENSITIVE);
+
+    private final String directory;
+
+    private volatile Tile[] tiles = new Tile[180 * 360];
+    private volatile int tileCount;
+
+    public ElevationModel(@Value("${elevation.dem-directory:}") String directory) {
+        this.directory = directory;
+    }
+
+    private record Tile(MappedByteBuffer data, int samples) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        if (directory == null || directory.isBlank()) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(Path.of(directory))) {
+            Tile[] loaded = new Tile[180 * 360];
+            int count = 0;
+            for (Path file : files.toList()) {
+                Matcher name = TILE_NAME.matcher(file.getFileName().toString());
+                if (!name.matches()) {
+                    continue;
+                }
+                int south = Integer.parseInt(name.group(2)) * (name.group(1).equalsIgnoreCase("S") ? -1 : 1);
+                int west = Integer.parseInt(name.group(4)) * (name.group(3).equalsIgnoreCase("W") ? -1 : 1);
+                Tile tile = map(file);
+                if (tile == null || south < -90 || south >= 90 || west < -180 || west >= 180) {
+                    log.warn("[ElevationModel] Skipping {}: not an SRTM tile", file.getFileName());
+                    continue;
+                }
+                loaded[index(south, west)] = tile;
+                count++;
+            }
+            tiles = loaded;
+            tileCount = count;
+            log.info("[ElevationModel] Mapped {} DEM tiles from {}", count, directory);
+        } catch (Exception e) {
+            LogUtils.getError("ElevationModel.reload", e);
+        }
+    }
+
+    public boolean isEmpty() {
+        return tileCount == 0;
+    }
+
+    public int getTileCount() {
+        return tileCount;
+    }
+
+    /**
+     * Terrain elevation in decimetres at the point, or {@link #NO_DATA} when no tile covers
+     * it or all four surrounding samples are voids.
+     */
+    public int elevationDm(int latitudeE7, int longitudeE7) {
+        double latitude = latitudeE7 / GeoUtils.E7;
+        double longitude = longitudeE7 / GeoUtils.E7;
+        int south = (int) Math.floor(latitude);
+        int west = (int) Math.floor(longitude);
+        if (south < -90 || south >= 90 || west < -180 || west >= 180) {
+            return NO_DATA;
+        }
+        Tile tile = tiles[index(south, west)];
+        if (tile == null) {
+            return NO_DATA;
+        }
+
+        int last = tile.samples() - 1;
+        double y = (south + 1 - latitude) * last;
+        double x = (longitude - west) * last;
+        int row = Math.min((int) y, last - 1);
+        int column = Math.min((int) x, last - 1);
+        double fy = y - row;
+        double fx = x - column;
+
+        // Voids drop out and the remaining weights are renormalised.
+        double sum = 0;
+        double weight = 0;
+        for (int corner = 0; corner < 4; corner++) {
+            int r = row + (corner >> 1);
+            int c = column + (corner & 1);
+            short sample = tile.data().getShort((r * tile.samples() + c) * 2);
+            if (sample == VOID) {
+                continue;
+            }
+            double w = ((corner >> 1) == 1 ? fy : 1 - fy) * ((corner & 1) == 1 ? fx : 1 - fx);
+            sum += w * sample;
+            weight += w;
+        }
+        if (weight == 0) {
+            return NO_DATA;
+        }
+        return (int) Math.round(sum / weight * 10d);
+    }
+
+    // SRTM1 tiles are 3601 samples square, SRTM3 1201; anything else is not a tile.
+    private static Tile map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (int samples : List.of(3601, 1201)) {
+                if (size == (long) samples * samples * 2) {
+                    return new Tile(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), samples);
+                }
+            }
+            return null;
+        }
+    }
+
+    private static int index(int south, int west) {
+        return (south + 90) * 360 + west + 180;
+    }
+}
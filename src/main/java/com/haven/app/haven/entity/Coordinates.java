@@ -1,10 +1,13 @@
 package com.haven.app.haven.entity;
 
+import com.haven.app.haven.utils.GeoUtils;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @AllArgsConstructor
 @NoArgsConstructor
@@ -12,10 +15,14 @@ import java.time.LocalDateTime;
 @Getter
 @Builder
 @Entity
-@Table(name = "coordinates")
-public class Coordinates {
+@Table(name = "coordinates", indexes = {
+        @Index(name = "idx_coordinates_transaction_recorded", columnList = "transaction_id, recorded_at, id"),
+        @Index(name = "idx_coordinates_transaction_ingested", columnList = "transaction_id, ingested_at, id")
+})
+public class Coordinates implements Persistable<String> {
+    // Assigned on ingest, before write-behind queues the row, so the response and the
+    // accepted event can already carry it.
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
 
     @ManyToOne
@@ -26,15 +33,72 @@ public class Coordinates {
     @JoinColumn(name = "transaction_id", nullable = false)
     private Transactions transaction;
 
-    @Column(nullable = false)
-    private String longitude;
+    // Degrees scaled by 1e7, giving ~1 cm resolution in a 4-byte column.
+    @Column(name = "latitude_e7", nullable = false)
+    private Integer latitudeE7;
 
-    @Column(nullable = false)
-    private String latitude;
+    @Column(name = "longitude_e7", nullable = false)
+    private Integer longitudeE7;
+
+    // Device time of the fix; falls back to the time the server accepted it.
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+    @Column(columnDefinition = "smallint")
+    private Short battery;
+
+    // Altitude above sea level in decimetres; null when the tracker reports none.
+    @Column(name = "altitude_dm")
+    private Integer altitudeDm;
+
+    // Position snapped onto the trail network and the segment it lies on; null when unmatched.
+    @Column(name = "matched_latitude_e7")
+    private Integer matchedLatitudeE7;
+
+    @Column(name = "matched_longitude_e7")
+    private Integer matchedLongitudeE7;
+
+    @Column(name = "trail_segment_id")
+    private String trailSegmentId;
 
     @CreationTimestamp
     private LocalDateTime updatedAt;
 
+    // Database time the row was inserted (DEFAULT clock_timestamp()), the key of the tailing cursor.
+    @Column(name = "ingested_at", insertable = false, updatable = false)
+    private LocalDateTime ingestedAt;
+
+    public double getLatitude() {
+        return GeoUtils.fromE7(latitudeE7);
+    }
+
+    public double getLongitude() {
+        return GeoUtils.fromE7(longitudeE7);
+    }
+
+    // An assigned id would otherwise make Spring Data merge, costing a SELECT per insert.
+    @Transient
+    @Builder.Default
+    private boolean persisted = false;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PrePersist
+    private void prePersist() {
+        if (id == null) {
+            id = UUID.randomUUID().toString();
+        }
+    }
+
+    @PostLoad
+    @PostPersist
+    private void markPersisted() {
+        persisted = true;
+    }
+
     @PreUpdate
     private void preUpdate() {
         updatedAt = LocalDateTime.now();
@@ -0,0 +1,32 @@
+package com.haven.app.haven.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+@Entity
+@Table(name = "heatmap_tiles", indexes = {
+        @Index(name = "idx_heatmap_tiles_zoom_xy", columnList = "zoom, tile_x, tile_y")
+})
+public class HeatmapTile {
+    // Zoom, x and y packed by HeatmapTiles.key, so upserts conflict on a single column.
+    @Id
+    @Column(name = "tile_key")
+    private Long tileKey;
+
+    @Column(nullable = false)
+    private Integer zoom;
+
+    @Column(name = "tile_x", nullable = false)
+    private Integer tileX;
+
+    @Column(name = "tile_y", nullable = false)
+    private Integer tileY;
+
+    @Column(name = "fix_count", nullable = false)
+    private Long fixCount;
+}
@@ -0,0 +1,59 @@
+package com.haven.app.haven.entity;
+
+import com.haven.app.haven.utils.GeoUtils;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+@Entity
+@Table(name = "ranger_posts")
+public class RangerPost {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(name = "latitude_e7", nullable = false)
+    private Integer latitudeE7;
+
+    @Column(name = "longitude_e7", nullable = false)
+    private Integer longitudeE7;
+
+    private String phone;
+
+    @Column(nullable = false)
+    private Boolean active;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public double getLatitude() {
+        return GeoUtils.fromE7(latitudeE7);
+    }
+
+    public double getLongitude() {
+        return GeoUtils.fromE7(longitudeE7);
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
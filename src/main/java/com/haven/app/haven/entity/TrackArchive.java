@@ -0,0 +1,42 @@
+package com.haven.app.haven.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+@Entity
+@Table(name = "track_archives")
+public class TrackArchive {
+    @Id
+    @Column(name = "transaction_id")
+    private String transactionId;
+
+    @Column(name = "tracker_id")
+    private String trackerId;
+
+    @Column(name = "point_count", nullable = false)
+    private Integer pointCount;
+
+    @Column(name = "first_recorded_at")
+    private LocalDateTime firstRecordedAt;
+
+    @Column(name = "last_recorded_at")
+    private LocalDateTime lastRecordedAt;
+
+    @Column(name = "compressed", nullable = false)
+    private Boolean compressed;
+
+    @Column(name = "data", nullable = false, columnDefinition = "bytea")
+    private byte[] data;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,33 @@
+package com.haven.app.haven.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+@Entity
+@Table(name = "trail_segments")
+public class TrailSegment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    private String name;
+
+    // Polyline as "latE7 lonE7" pairs separated by commas, see TrailLine.
+    @Column(nullable = false, columnDefinition = "text")
+    private String vertices;
+
+    @Column(name = "length_meters", nullable = false)
+    private Double lengthMeters;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,63 @@
+package com.haven.app.haven.entity;
+
+import com.haven.app.haven.constant.AlertType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+@Entity
+@Table(name = "transaction_alerts", indexes = {
+        @Index(name = "idx_transaction_alerts_transaction", columnList = "transaction_id, created_at")
+})
+public class TransactionAlert {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "transaction_id", nullable = false)
+    private Transactions transaction;
+
+    @Column(name = "tracker_id")
+    private String trackerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AlertType type;
+
+    @Column(nullable = false)
+    private String message;
+
+    // Geofence or other source the alert refers to, if any.
+    @Column(name = "reference_id")
+    private String referenceId;
+
+    @Column(name = "latitude_e7")
+    private Integer latitudeE7;
+
+    @Column(name = "longitude_e7")
+    private Integer longitudeE7;
+
+    @Column(name = "recorded_at")
+    private LocalDateTime recordedAt;
+
+    @Column(nullable = false)
+    private Boolean acknowledged;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (acknowledged == null) {
+            acknowledged = false;
+        }
+    }
+}
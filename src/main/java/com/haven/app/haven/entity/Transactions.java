@@ -50,6 +50,16 @@ public class Transactions {
     @Column(name = "payment_url")
     private String paymentUrl;
 
+    // Running trip statistics, written by TripStatsTracker while the hike is in progress.
+    @Column(name = "distance_meters")
+    private Double distanceMeters;
+
+    @Column(name = "elevation_gain_meters")
+    private Double elevationGainMeters;
+
+    @Column(name = "moving_seconds")
+    private Long movingSeconds;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -0,0 +1,7 @@
+package com.haven.app.haven.exception;
+
+public class AlertException extends RuntimeException {
+    public AlertException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.haven.app.haven.exception;
+
+public class ElevationException extends RuntimeException {
+    public ElevationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.haven.app.haven.exception;
+
+public class GeofenceException extends RuntimeException {
+    public GeofenceException(String message) {
+        super(message);
+    }
+}
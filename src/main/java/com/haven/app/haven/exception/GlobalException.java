@@ -4,6 +4,7 @@ import com.haven.app.haven.dto.response.ErrorResponse;
 import com.haven.app.haven.dto.response.ValidationErrorResponse;
 import com.haven.app.haven.utils.LogUtils;
 import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -101,6 +102,20 @@ public class GlobalException {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequestsException(
+            TooManyRequestsException exception
+    ) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .message(exception.getMessage())
+                .error("too many requests")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(exception.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(PriceException.class)
     public ResponseEntity<ErrorResponse> handlePriceException(
             PriceException exception
@@ -125,6 +140,78 @@ public class GlobalException {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    @ExceptionHandler(GeofenceException.class)
+    public ResponseEntity<ErrorResponse> handleGeofenceException(
+            GeofenceException exception
+    ) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .message(exception.getMessage())
+                .error("geofence error")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(HeatmapException.class)
+    public ResponseEntity<ErrorResponse> handleHeatmapException(
+            HeatmapException exception
+    ) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .message(exception.getMessage())
+                .error("heatmap error")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(RescueException.class)
+    public ResponseEntity<ErrorResponse> handleRescueException(
+            RescueException exception
+    ) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .message(exception.getMessage())
+                .error("rescue error")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(TrailException.class)
+    public ResponseEntity<ErrorResponse> handleTrailException(
+            TrailException exception
+    ) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .message(exception.getMessage())
+                .error("trail error")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(ElevationException.class)
+    public ResponseEntity<ErrorResponse> handleElevationException(
+            ElevationException exception
+    ) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .message(exception.getMessage())
+                .error("elevation error")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(AlertException.class)
+    public ResponseEntity<ErrorResponse> handleAlertException(
+            AlertException exception
+    ) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .message(exception.getMessage())
+                .error("alert error")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
     @ExceptionHandler(TransactionsException.class)
     public ResponseEntity<ErrorResponse> handleTransactionException(
             TransactionsException exception
@@ -0,0 +1,7 @@
+package com.haven.app.haven.exception;
+
+public class HeatmapException extends RuntimeException {
+    public HeatmapException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.haven.app.haven.exception;
+
+public class RescueException extends RuntimeException {
+    public RescueException(String message) {
+        super(message);
+    }
+}
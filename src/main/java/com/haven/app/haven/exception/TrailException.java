@@ -0,0 +1,7 @@
+package com.haven.app.haven.exception;
+
+public class TrailException extends RuntimeException {
+    public TrailException(String message) {
+        super(message);
+    }
+}
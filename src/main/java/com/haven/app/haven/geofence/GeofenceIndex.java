@@ -0,0 +1,154 @@
+package com.haven.app.haven.geofence;
+
+import com.haven.app.haven.constant.GeofenceType;
+import com.haven.app.haven.entity.Geofence;
+import com.haven.app.haven.repository.GeofenceRepository;
+import com.haven.app.haven.utils.LogUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * In-memory uniform grid over the active geofences. Each grid cell lists the geofences
+ * whose bounding box overlaps it, so a fix only runs point-in-polygon tests against the
+ * few candidates of its own cell. The index is an immutable snapshot swapped atomically
+ * whenever geofences change; lookups never lock.
+ */
+@Slf4j
+@Component
+public class GeofenceIndex {
+    // Geofences spanning more cells than this are tested on every lookup instead.
+    private static final long MAX_CELLS_PER_FENCE = 10_000;
+
+    private final GeofenceRepository geofenceRepository;
+    private final int cellSizeE7;
+
+    private volatile Snapshot snapshot = new Snapshot(List.of(), Map.of(), new int[0], false);
+
+    public GeofenceIndex(GeofenceRepository geofenceRepository,
+                         @Value("${geofence.grid-cell-degrees:0.01}") double cellSizeDegrees) {
+        this.geofenceRepository = geofenceRepository;
+        this.cellSizeE7 = (int) Math.round(cellSizeDegrees * 10_000_000d);
+    }
+
+    public record Fence(String id, String name, GeofenceType type, GeofencePolygon polygon) {
+    }
+
+    private record Snapshot(List<Fence> fences, Map<Long, int[]> cells, int[] oversized, boolean corridors) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        try {
+            List<Geofence> geofences = geofenceRepository.findAllByActiveTrue();
+            List<Fence> fences = new ArrayList<>(geofences.size());
+            for (Geofence geofence : geofences) {
+                fences.add(new Fence(geofence.getId(), geofence.getName(), geofence.getType(),
+                        GeofencePolygon.parse(geofence.getVertices())));
+            }
+            rebuild(fences);
+            log.info("[GeofenceIndex] Indexed {} active geofences", fences.size());
+        } catch (Exception e) {
+            LogUtils.getError("GeofenceIndex.reload", e);
+        }
+    }
+
+    public void rebuild(List<Fence> fences) {
+        Map<Long, List<Integer>> building = new HashMap<>();
+        List<Integer> oversized = new ArrayList<>();
+        for (int f = 0; f < fences.size(); f++) {
+            GeofencePolygon polygon = fences.get(f).polygon();
+            int minRow = cell(polygon.getMinLatitudeE7());
+            int maxRow = cell(polygon.getMaxLatitudeE7());
+            int minColumn = cell(polygon.getMinLongitudeE7());
+            int maxColumn = cell(polygon.getMaxLongitudeE7());
+            if ((long) (maxRow - minRow + 1) * (maxColumn - minColumn + 1) > MAX_CELLS_PER_FENCE) {
+                oversized.add(f);
+                continue;
+            }
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    building.computeIfAbsent(key(row, column), k -> new ArrayList<>(2)).add(f);
+                }
+            }
+        }
+
+        Map<Long, int[]> cells = new HashMap<>(building.size() * 2);
+        building.forEach((key, list) -> cells.put(key, list.stream().mapToInt(Integer::intValue).toArray()));
+        boolean corridors = fences.stream().anyMatch(fence -> fence.type() == GeofenceType.CORRIDOR);
+        snapshot = new Snapshot(List.copyOf(fences), cells, oversized.stream().mapToInt(Integer::intValue).toArray(), corridors);
+    }
+
+    public boolean isEmpty() {
+        return snapshot.fences().isEmpty();
+    }
+
+    public Optional<Fence> getFence(String id) {
+        for (Fence fence : snapshot.fences()) {
+            if (fence.id().equals(id)) {
+                return Optional.of(fence);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Whether the point lies outside every corridor. Without any corridor there is no
+     * known route, so nothing is off-route.
+     */
+    public boolean isOffRoute(int latitudeE7, int longitudeE7) {
+        if (!snapshot.corridors()) {
+            return false;
+        }
+        for (Fence fence : containing(latitudeE7, longitudeE7)) {
+            if (fence.type() == GeofenceType.CORRIDOR) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Geofences containing the point, in index order.
+     */
+    public List<Fence> containing(int latitudeE7, int longitudeE7) {
+        Snapshot current = snapshot;
+        if (current.fences().isEmpty()) {
+            return List.of();
+        }
+
+        List<Fence> result = null;
+        int[] candidates = current.cells().get(key(cell(latitudeE7), cell(longitudeE7)));
+        if (candidates != null) {
+            for (int candidate : candidates) {
+                result = addIfContains(result, current.fences().get(candidate), latitudeE7, longitudeE7);
+            }
+        }
+        for (int candidate : current.oversized()) {
+            result = addIfContains(result, current.fences().get(candidate), latitudeE7, longitudeE7);
+        }
+        return result != null ? result : List.of();
+    }
+
+    private static List<Fence> addIfContains(List<Fence> result, Fence fence, int latitudeE7, int longitudeE7) {
+        if (fence.polygon().contains(latitudeE7, longitudeE7)) {
+            if (result == null) {
+                result = new ArrayList<>(2);
+            }
+            result.add(fence);
+        }
+        return result;
+    }
+
+    private int cell(int valueE7) {
+        return Math.floorDiv(valueE7, cellSizeE7);
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,105 @@
+package com.haven.app.haven.geofence;
+
+import com.haven.app.haven.alert.TransactionAlertEvent;
+import com.haven.app.haven.constant.AlertType;
+import com.haven.app.haven.constant.GeofenceType;
+import com.haven.app.haven.constant.TransactionStatus;
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import com.haven.app.haven.realtime.TransactionStatusChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which geofences each active transaction is inside and raises an alert on every
+ * transition. The first fix of a hike only establishes its state, except that starting
+ * inside a closed zone is reported straight away. Fixes older than the last one seen for
+ * the transaction are ignored so late deliveries cannot produce false transitions.
+ */
+@Component
+@RequiredArgsConstructor
+public class GeofenceMonitor {
+    private final GeofenceIndex geofenceIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    private record State(LocalDateTime recordedAt, Set<String> inside) {
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCoordinateAccepted(CoordinateAcceptedEvent event) {
+        if (geofenceIndex.isEmpty() && !states.containsKey(event.getTransactionId())) {
+            return;
+        }
+
+        List<GeofenceIndex.Fence> containing = geofenceIndex.containing(event.getLatitudeE7(), event.getLongitudeE7());
+        Set<String> inside = new HashSet<>(containing.size() * 2);
+        for (GeofenceIndex.Fence fence : containing) {
+            inside.add(fence.id());
+        }
+
+        List<TransactionAlertEvent> alerts = new ArrayList<>(0);
+        states.compute(event.getTransactionId(), (transactionId, previous) -> {
+            if (previous != null && event.getRecordedAt().isBefore(previous.recordedAt())) {
+                return previous;
+            }
+            if (previous == null) {
+                for (GeofenceIndex.Fence fence : containing) {
+                    if (fence.type() == GeofenceType.CLOSED_ZONE) {
+                        alerts.add(alert(event, fence, AlertType.GEOFENCE_ENTER));
+                    }
+                }
+                return new State(event.getRecordedAt(), inside);
+            }
+
+            for (GeofenceIndex.Fence fence : containing) {
+                if (!previous.inside().contains(fence.id())) {
+                    alerts.add(alert(event, fence, AlertType.GEOFENCE_ENTER));
+                }
+            }
+            for (String fenceId : previous.inside()) {
+                if (!inside.contains(fenceId)) {
+                    // A geofence deleted or deactivated since the last fix is not an exit.
+                    geofenceIndex.getFence(fenceId)
+                            .ifPresent(fence -> alerts.add(alert(event, fence, AlertType.GEOFENCE_EXIT)));
+                }
+            }
+            return new State(event.getRecordedAt(), inside);
+        });
+
+        alerts.forEach(eventPublisher::publishEvent);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionStatusChanged(TransactionStatusChangedEvent event) {
+        if (event.getStatus() != TransactionStatus.START) {
+            states.remove(event.getTransactionId());
+        }
+    }
+
+    public Set<String> getInside(String transactionId) {
+        State state = states.get(transactionId);
+        return state != null ? Collections.unmodifiableSet(state.inside()) : Set.of();
+    }
+
+    private static TransactionAlertEvent alert(CoordinateAcceptedEvent event, GeofenceIndex.Fence fence, AlertType type) {
+        boolean violation = (type == AlertType.GEOFENCE_EXIT) == (fence.type() == GeofenceType.CORRIDOR);
+        String verb = type == AlertType.GEOFENCE_ENTER ? "entered" : "left";
+        return TransactionAlertEvent.builder()
+                .transactionId(event.getTransactionId())
+                .trackerId(event.getTrackerId())
+                .type(type)
+                .message((violation ? "Violation: " : "") + "hiker " + verb + " " + fence.name())
+                .referenceId(fence.id())
+                .latitudeE7(event.getLatitudeE7())
+                .longitudeE7(event.getLongitudeE7())
+                .recordedAt(event.getRecordedAt())
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.haven.app.haven.geofence;
+
+import com.haven.app.haven.exception.GeofenceException;
+import com.haven.app.haven.utils.GeoUtils;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A simple polygon ring in 1e-7 degrees with its bounding box. The ring is implicitly
+ * closed; a repeated closing vertex is dropped.
+ */
+@Getter
+public final class GeofencePolygon {
+    private final int[] latitudesE7;
+    private final int[] longitudesE7;
+    private final int minLatitudeE7;
+    private final int maxLatitudeE7;
+    private final int minLongitudeE7;
+    private final int maxLongitudeE7;
+
+    public GeofencePolygon(int[] latitudesE7, int[] longitudesE7) {
+        int n = latitudesE7.length;
+        if (n > 3 && latitudesE7[0] == latitudesE7[n - 1] && longitudesE7[0] == longitudesE7[n - 1]) {
+            n--;
+        }
+        if (n < 3) {
+            throw new GeofenceException("Geofence polygon needs at least 3 distinct points");
+        }
+        this.latitudesE7 = Arrays.copyOf(latitudesE7, n);
+        this.longitudesE7 = Arrays.copyOf(longitudesE7, n);
+
+        int minLat = Integer.MAX_VALUE, maxLat = Integer.MIN_VALUE;
+        int minLon = Integer.MAX_VALUE, maxLon = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            minLat = Math.min(minLat, this.latitudesE7[i]);
+            maxLat = Math.max(maxLat, this.latitudesE7[i]);
+            minLon = Math.min(minLon, this.longitudesE7[i]);
+            maxLon = Math.max(maxLon, this.longitudesE7[i]);
+        }
+        this.minLatitudeE7 = minLat;
+        this.maxLatitudeE7 = maxLat;
+        this.minLongitudeE7 = minLon;
+        this.maxLongitudeE7 = maxLon;
+    }
+
+    public static GeofencePolygon fromDegrees(List<List<Double>> points) {
+        if (points == null || points.size() < 3) {
+            throw new GeofenceException("Geofence polygon needs at least 3 points");
+        }
+        int[] latitudes = new int[points.size()];
+        int[] longitudes = new int[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            List<Double> point = points.get(i);
+            if (point == null || point.size() != 2
+                    || !GeoUtils.isValidLatitude(point.get(0)) || !GeoUtils.isValidLongitude(point.get(1))) {
+                throw new GeofenceException("Geofence point " + i + " must be [latitude, longitude] within range");
+            }
+            latitudes[i] = GeoUtils.toE7(point.get(0));
+            longitudes[i] = GeoUtils.toE7(point.get(1));
+        }
+        return new GeofencePolygon(latitudes, longitudes);
+    }
+
+    public static GeofencePolygon parse(String vertices) {
+        String[] pairs = vertices.split(",");
+        int[] latitudes = new int[pairs.length];
+        int[] longitudes = new int[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            String pair = pairs[i].trim();
+            int space = pair.indexOf(' ');
+            latitudes[i] = Integer.parseInt(pair.substring(0, space));
+            longitudes[i] = Integer.parseInt(pair.substring(space + 1));
+        }
+        return new GeofencePolygon(latitudes, longitudes);
+    }
+
+    public String format() {
+        StringBuilder builder = new StringBuilder(latitudesE7.length * 22);
+        for (int i = 0; i < latitudesE7.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(latitudesE7[i]).append(' ').append(longitudesE7[i]);
+        }
+        return builder.toString();
+    }
+
+    public List<List<Double>> toDegrees() {
+        List<List<Double>> points = new ArrayList<>(latitudesE7.length);
+        for (int i = 0; i < latitudesE7.length; i++) {
+            points.add(List.of(GeoUtils.fromE7(latitudesE7[i]), GeoUtils.fromE7(longitudesE7[i])));
+        }
+        return points;
+    }
+
+    /**
+     * Even-odd ray casting on the fixed-point coordinates. Vertices are widened to long so
+     * the differences between them cannot overflow; only the edge crossing is computed in
+     * floating point.
+     */
+    public boolean contains(int latitudeE7, int longitudeE7) {
+        if (latitudeE7 < minLatitudeE7 || latitudeE7 > maxLatitudeE7
+                || longitudeE7 < minLongitudeE7 || longitudeE7 > maxLongitudeE7) {
+            return false;
+        }
+        boolean inside = false;
+        int n = latitudesE7.length;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            long yi = latitudesE7[i], yj = latitudesE7[j];
+            if ((yi > latitudeE7) != (yj > latitudeE7)) {
+                long xi = longitudesE7[i], xj = longitudesE7[j];
+                double crossing = xi + (double) (xj - xi) * (latitudeE7 - yi) / (yj - yi);
+                if (longitudeE7 < crossing) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+}
@@ -0,0 +1,302 @@
+package com.haven.app.haven.heatmap;
+
+import com.haven.app.haven.dto.response.HeatmapRebuildResponse;
+import com.haven.app.haven.exception.HeatmapException;
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import com.haven.app.haven.track.TrackArchiveCodec;
+import com.haven.app.haven.track.TrackPoints;
+import com.haven.app.haven.utils.LogUtils;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Maintains fix counts per Web Mercator tile for every zoom from {@code heatmap.min-zoom}
+ * to {@code heatmap.max-zoom} in the {@code heatmap_tiles} table, so heatmap reads never
+ * touch raw coordinates.
+ * <p>
+ * Live fixes cost one map update at the deepest zoom; every {@code heatmap.flush-ms} the
+ * pending counts are rolled up to the coarser zooms and added to the table in one batch
+ * upsert. {@link #rebuild()} recounts the whole history, raw rows and archived tracks, in
+ * chunks binned on the fork-join pool and replaces the table. Pending fixes that its
+ * snapshot already contains are dropped; the rest, including fixes still queued for
+ * write-behind, are added on top afterwards.
+ * <p>
+ * At most {@code heatmap.max-pending} fixes wait for a flush. Beyond that, for example
+ * while the database is down, new fixes are dropped and counted in
+ * {@code heatmap.pending.dropped}; the next rebuild counts them again from storage.
+ */
+@Slf4j
+@Component
+public class HeatmapAggregator {
+    private static final String UPSERT = "INSERT INTO heatmap_tiles (tile_key, zoom, tile_x, tile_y, fix_count) " +
+            "VALUES (?, ?, ?, ?, ?) ON CONFLICT (tile_key) DO UPDATE SET fix_count = heatmap_tiles.fix_count + EXCLUDED.fix_count";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final boolean enabled;
+    @Getter
+    private final int minZoom;
+    @Getter
+    private final int maxZoom;
+    private final int chunkSize;
+    private static final int ID_CHUNK = 1000;
+
+    private final int fetchSize;
+
+    // Fixes not yet written to the table, keyed at max zoom. The id lets a rebuild tell
+    // which of them its snapshot already counted.
+    private final Queue<PendingFix> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingSize = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final int maxPending;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public HeatmapAggregator(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${heatmap.enabled:true}") boolean enabled,
+                             @Value("${heatmap.min-zoom:10}") int minZoom,
+                             @Value("${heatmap.max-zoom:18}") int maxZoom,
+                             @Value("${heatmap.rebuild-chunk:131072}") int chunkSize,
+                             @Value("${heatmap.rebuild-fetch-size:5000}") int fetchSize,
+                             @Value("${heatmap.max-pending:200000}") int maxPending,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Read-only so PostgreSQL honours the fetch size with a server-side cursor, and
+        // repeatable read so every query of a rebuild sees the same snapshot.
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.readOnlyTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.enabled = enabled;
+        this.maxZoom = Math.max(0, Math.min(HeatmapTiles.MAX_ZOOM, maxZoom));
+        this.minZoom = Math.max(0, Math.min(this.maxZoom, minZoom));
+        this.chunkSize = Math.max(1, chunkSize);
+        this.fetchSize = fetchSize;
+        this.maxPending = Math.max(1, maxPending);
+        FunctionCounter.builder("heatmap.pending.dropped", dropped, AtomicLong::get)
+                .description("Fixes left out of the heatmap because too many were waiting for a flush")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCoordinateAccepted(CoordinateAcceptedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        long key = HeatmapTiles.key(maxZoom,
+                HeatmapTiles.tileX(event.getLongitudeE7(), maxZoom),
+                HeatmapTiles.tileY(event.getLatitudeE7(), maxZoom));
+        addPending(new PendingFix(event.getCoordinateId(), key));
+    }
+
+    // Number of fixes not yet written to the table.
+    public int getPendingCount() {
+        return pendingSize.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @Scheduled(fixedDelayString = "${heatmap.flush-ms:60000}")
+    public void flush() {
+        // A running rebuild owns the table; its pending counts wait for the next flush.
+        if (!enabled || !writeLock.tryLock()) {
+            return;
+        }
+        try {
+            writePending();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Recounts every stored fix and replaces the table with the result.
+     */
+    public HeatmapRebuildResponse rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new HeatmapException("Heatmap rebuild is already running");
+        }
+        writeLock.lock();
+        try {
+            long started = System.currentTimeMillis();
+            // Taken before the snapshot; the ones it turns out to contain are dropped below.
+            List<PendingFix> candidates = takePending();
+            List<PendingFix> unseen = new ArrayList<>();
+
+            Map<Long, long[]> counts = new HashMap<>();
+            Chunk chunk = new Chunk(chunkSize, maxZoom - minZoom + 1);
+            HeatmapTiles.TileCountConsumer merge = (key, count) -> counts.computeIfAbsent(key, k -> new long[1])[0] += count;
+
+            long[] fixes = new long[1];
+            readOnlyTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.query(connection -> {
+                    var statement = connection.prepareStatement("SELECT latitude_e7, longitude_e7 FROM coordinates");
+                    statement.setFetchSize(fetchSize);
+                    return statement;
+                }, rs -> {
+                    chunk.add(rs.getInt(1), rs.getInt(2));
+                    fixes[0]++;
+                    if (chunk.size == chunkSize) {
+                        chunk.drain(minZoom, maxZoom, merge);
+                    }
+                });
+                chunk.drain(minZoom, maxZoom, merge);
+
+                List<String> archived = jdbcTemplate.queryForList("SELECT transaction_id FROM track_archives", String.class);
+                for (String transactionId : archived) {
+                    byte[] data = jdbcTemplate.queryForObject(
+                            "SELECT data FROM track_archives WHERE transaction_id = ?", byte[].class, transactionId);
+                    TrackPoints track = TrackArchiveCodec.decode(data);
+                    for (int i = 0; i < track.getSize(); i++) {
+                        chunk.add(track.getLatitudesE7()[i], track.getLongitudesE7()[i]);
+                        if (chunk.size == chunkSize) {
+                            chunk.drain(minZoom, maxZoom, merge);
+                        }
+                    }
+                    fixes[0] += track.getSize();
+                }
+                chunk.drain(minZoom, maxZoom, merge);
+
+                // Fixes accepted during the scan may or may not be in the snapshot either.
+                // Anything accepted after this point is flushed as usual.
+                candidates.addAll(takePending());
+                Set<String> counted = storedIds(candidates);
+                for (PendingFix fix : candidates) {
+                    if (!counted.contains(fix.coordinateId())) {
+                        unseen.add(fix);
+                    }
+                }
+            });
+
+            List<Object[]> rows = new ArrayList<>(counts.size());
+            counts.forEach((key, count) -> rows.add(row(key, count[0])));
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM heatmap_tiles");
+                jdbcTemplate.batchUpdate(UPSERT, rows);
+            });
+            unseen.forEach(this::addPending);
+
+            long duration = System.currentTimeMillis() - started;
+            log.info("[HeatmapAggregator] Rebuilt {} tiles from {} fixes in {} ms", rows.size(), fixes[0], duration);
+            return HeatmapRebuildResponse.builder()
+                    .fixes(fixes[0])
+                    .tiles(rows.size())
+                    .durationMillis(duration)
+                    .build();
+        } finally {
+            writeLock.unlock();
+            rebuilding.set(false);
+        }
+    }
+
+    private void writePending() {
+        List<PendingFix> taken = takePending();
+        if (taken.isEmpty()) {
+            return;
+        }
+
+        Map<Long, long[]> rolledUp = new HashMap<>();
+        for (PendingFix fix : taken) {
+            for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+                rolledUp.computeIfAbsent(HeatmapTiles.ancestor(fix.key(), zoom), k -> new long[1])[0]++;
+            }
+        }
+        List<Object[]> rows = new ArrayList<>(rolledUp.size());
+        rolledUp.forEach((key, count) -> rows.add(row(key, count[0])));
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT, rows);
+        } catch (Exception e) {
+            LogUtils.getError("HeatmapAggregator.flush", e);
+            taken.forEach(this::addPending);
+        }
+    }
+
+    private void addPending(PendingFix fix) {
+        if (pendingSize.incrementAndGet() > maxPending) {
+            pendingSize.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        pending.add(fix);
+    }
+
+    private List<PendingFix> takePending() {
+        List<PendingFix> taken = new ArrayList<>();
+        PendingFix fix;
+        while ((fix = pending.poll()) != null) {
+            pendingSize.decrementAndGet();
+            taken.add(fix);
+        }
+        return taken;
+    }
+
+    // Which of the fixes are already stored, as seen by the current transaction's snapshot.
+    private Set<String> storedIds(List<PendingFix> fixes) {
+        Set<String> stored = new HashSet<>();
+        for (int from = 0; from < fixes.size(); from += ID_CHUNK) {
+            Object[] ids = fixes.subList(from, Math.min(fixes.size(), from + ID_CHUNK)).stream()
+                    .map(PendingFix::coordinateId)
+                    .toArray();
+            jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement("SELECT id FROM coordinates WHERE id = ANY (?)");
+                statement.setArray(1, connection.createArrayOf("varchar", ids));
+                return statement;
+            }, (RowCallbackHandler) rs -> stored.add(rs.getString(1)));
+        }
+        return stored;
+    }
+
+    private static Object[] row(long key, long count) {
+        return new Object[]{key, HeatmapTiles.zoom(key), HeatmapTiles.x(key), HeatmapTiles.y(key), count};
+    }
+
+    private record PendingFix(String coordinateId, long key) {
+    }
+
+    private static final class Chunk {
+        private final int[] latitudesE7;
+        private final int[] longitudesE7;
+        private final long[] keys;
+        private int size;
+
+        private Chunk(int capacity, int levels) {
+            this.latitudesE7 = new int[capacity];
+            this.longitudesE7 = new int[capacity];
+            this.keys = new long[capacity * levels];
+        }
+
+        private void add(int latitudeE7, int longitudeE7) {
+            latitudesE7[size] = latitudeE7;
+            longitudesE7[size] = longitudeE7;
+            size++;
+        }
+
+        private void drain(int minZoom, int maxZoom, HeatmapTiles.TileCountConsumer consumer) {
+            HeatmapTiles.bin(latitudesE7, longitudesE7, size, minZoom, maxZoom, keys, consumer);
+            size = 0;
+        }
+    }
+}
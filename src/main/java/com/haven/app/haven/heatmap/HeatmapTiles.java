@@ -0,0 +1,147 @@
+package com.haven.app.haven.heatmap;
+
+import com.haven.app.haven.utils.GeoUtils;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Web Mercator (slippy map) tile arithmetic for the heatmap. A tile is packed into one
+ * {@code long} key of zoom, x and y so counts can be kept in primitive arrays and sorted.
+ * Tile coordinates are computed once at the deepest zoom; every coarser tile containing
+ * the same point is that tile shifted right by the zoom difference.
+ */
+public final class HeatmapTiles {
+    public static final int MAX_ZOOM = 24;
+
+    private static final int AXIS_BITS = 28;
+    private static final long AXIS_MASK = (1L << AXIS_BITS) - 1;
+    // Beyond this latitude Web Mercator is undefined; the square map stops here.
+    private static final double MAX_LATITUDE = 85.05112878d;
+    // Points per leaf of the fork-join binning pass.
+    private static final int BIN_THRESHOLD = 8192;
+
+    private HeatmapTiles() {
+    }
+
+    @FunctionalInterface
+    public interface TileCountConsumer {
+        void accept(long key, long count);
+    }
+
+    public static long key(int zoom, int x, int y) {
+        return ((long) zoom << (2 * AXIS_BITS)) | ((long) x << AXIS_BITS) | y;
+    }
+
+    public static int zoom(long key) {
+        return (int) (key >>> (2 * AXIS_BITS));
+    }
+
+    public static int x(long key) {
+        return (int) ((key >>> AXIS_BITS) & AXIS_MASK);
+    }
+
+    public static int y(long key) {
+        return (int) (key & AXIS_MASK);
+    }
+
+    public static int tileX(int longitudeE7, int zoom) {
+        double fraction = (GeoUtils.fromE7(longitudeE7) + 180d) / 360d;
+        return clamp(fraction, zoom);
+    }
+
+    public static int tileY(int latitudeE7, int zoom) {
+        double latitude = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, GeoUtils.fromE7(latitudeE7))));
+        double fraction = (1d - Math.log(Math.tan(latitude) + 1d / Math.cos(latitude)) / Math.PI) / 2d;
+        return clamp(fraction, zoom);
+    }
+
+    /**
+     * Key of the tile at {@code zoom} containing the given tile from a deeper zoom.
+     */
+    public static long ancestor(long key, int zoom) {
+        int shift = zoom(key) - zoom;
+        return key(zoom, x(key) >>> shift, y(key) >>> shift);
+    }
+
+    public static boolean isValid(int zoom, int x, int y) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            return false;
+        }
+        long size = 1L << zoom;
+        return x >= 0 && x < size && y >= 0 && y < size;
+    }
+
+    /**
+     * Bins {@code size} points into every zoom from {@code minZoom} to {@code maxZoom} on
+     * the fork-join pool, then sorts the keys so equal tiles are adjacent and reports one
+     * count per tile. {@code keys} is scratch space of at least {@code size} times the
+     * number of zoom levels.
+     */
+    public static void bin(int[] latitudesE7, int[] longitudesE7, int size, int minZoom, int maxZoom,
+                           long[] keys, TileCountConsumer consumer) {
+        if (size == 0) {
+            return;
+        }
+        int levels = maxZoom - minZoom + 1;
+        ForkJoinPool.commonPool().invoke(new BinTask(latitudesE7, longitudesE7, 0, size, minZoom, maxZoom, keys));
+
+        int length = size * levels;
+        Arrays.parallelSort(keys, 0, length);
+        int start = 0;
+        for (int i = 1; i <= length; i++) {
+            if (i == length || keys[i] != keys[start]) {
+                consumer.accept(keys[start], i - start);
+                start = i;
+            }
+        }
+    }
+
+    private static int clamp(double fraction, int zoom) {
+        long size = 1L << zoom;
+        long tile = (long) Math.floor(fraction * size);
+        return (int) Math.max(0, Math.min(size - 1, tile));
+    }
+
+    private static final class BinTask extends RecursiveAction {
+        private final int[] latitudesE7;
+        private final int[] longitudesE7;
+        private final int from;
+        private final int to;
+        private final int minZoom;
+        private final int maxZoom;
+        private final long[] keys;
+
+        private BinTask(int[] latitudesE7, int[] longitudesE7, int from, int to, int minZoom, int maxZoom, long[] keys) {
+            this.latitudesE7 = latitudesE7;
+            this.longitudesE7 = longitudesE7;
+            this.from = from;
+            this.to = to;
+            this.minZoom = minZoom;
+            this.maxZoom = maxZoom;
+            this.keys = keys;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BIN_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BinTask(latitudesE7, longitudesE7, from, middle, minZoom, maxZoom, keys),
+                        new BinTask(latitudesE7, longitudesE7, middle, to, minZoom, maxZoom, keys));
+                return;
+            }
+
+            int levels = maxZoom - minZoom + 1;
+            for (int i = from; i < to; i++) {
+                int x = tileX(longitudesE7[i], maxZoom);
+                int y = tileY(latitudesE7[i], maxZoom);
+                int offset = i * levels;
+                for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+                    int shift = maxZoom - zoom;
+                    keys[offset + zoom - minZoom] = key(zoom, x >>> shift, y >>> shift);
+                }
+            }
+        }
+    }
+}
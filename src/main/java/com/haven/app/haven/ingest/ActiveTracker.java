@@ -0,0 +1,16 @@
+package com.haven.app.haven.ingest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ActiveTracker {
+    private final String trackerId;
+    private final String serialNumber;
+    private final String transactionId;
+
+    public boolean hasTransaction() {
+        return transactionId != null;
+    }
+}
@@ -0,0 +1,141 @@
+package com.haven.app.haven.ingest;
+
+import com.haven.app.haven.constant.TransactionStatus;
+import com.haven.app.haven.entity.TrackerDevices;
+import com.haven.app.haven.entity.Transactions;
+import com.haven.app.haven.exception.NotFoundException;
+import com.haven.app.haven.repository.TrackerDevicesRepository;
+import com.haven.app.haven.repository.TransactionsRepository;
+import com.haven.app.haven.utils.LogUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maps a tracker serial number to the tracker and its START transaction so that
+ * coordinate ingestion does not hit the database on every ping. Entries are
+ * written by device assignment and evicted whenever the transaction leaves START
+ * or the tracker is changed or deleted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActiveTrackerCache {
+    private final TrackerDevicesRepository trackerDevicesRepository;
+    private final TransactionsRepository transactionsRepository;
+
+    private final Map<String, ActiveTracker> bySerialNumber = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation so a lookup racing with an eviction does not re-insert stale data.
+    private final AtomicLong generation = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            List<Transactions> transactions = transactionsRepository.findAllByStatus(TransactionStatus.START);
+            for (Transactions transaction : transactions) {
+                if (transaction.getTracker() != null) {
+                    put(transaction.getTracker(), transaction);
+                }
+            }
+            log.info("[ActiveTrackerCache] Loaded {} active trackers", bySerialNumber.size());
+        } catch (Exception e) {
+            LogUtils.getError("ActiveTrackerCache.warmUp", e);
+        }
+    }
+
+    public ActiveTracker resolve(String serialNumber) {
+        ActiveTracker activeTracker = bySerialNumber.get(serialNumber);
+        if (activeTracker != null) {
+            return activeTracker;
+        }
+
+        long observed = generation.get();
+        TrackerDevices trackerDevices = trackerDevicesRepository.findBySerialNumber(serialNumber);
+        if (trackerDevices == null) {
+            throw new NotFoundException("Tracker device not found");
+        }
+        Transactions transactions = transactionsRepository.findFirstByTrackerAndStatus(trackerDevices, TransactionStatus.START)
+                .orElseThrow(() -> new NotFoundException("Transactions not found"));
+
+        activeTracker = new ActiveTracker(trackerDevices.getId(), serialNumber, transactions.getId());
+        cacheIfCurrent(observed, activeTracker);
+        return activeTracker;
+    }
+
+    /**
+     * Resolves many serial numbers with at most two queries for the cache misses. A serial
+     * number without a tracker is absent from the result; a tracker without a START
+     * transaction is returned with a null transaction id.
+     */
+    public Map<String, ActiveTracker> resolveAll(Collection<String> serialNumbers) {
+        Map<String, ActiveTracker> resolved = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+        for (String serialNumber : serialNumbers) {
+            ActiveTracker activeTracker = bySerialNumber.get(serialNumber);
+            if (activeTracker != null) {
+                resolved.put(serialNumber, activeTracker);
+            } else {
+                missing.add(serialNumber);
+            }
+        }
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+
+        long observed = generation.get();
+        List<TrackerDevices> trackers = trackerDevicesRepository.findAllBySerialNumberIn(missing);
+        if (trackers.isEmpty()) {
+            return resolved;
+        }
+
+        Map<String, String> transactionIdByTracker = new HashMap<>();
+        for (Transactions transactions : transactionsRepository.findAllByTrackerInAndStatus(trackers, TransactionStatus.START)) {
+            transactionIdByTracker.putIfAbsent(transactions.getTracker().getId(), transactions.getId());
+        }
+
+        for (TrackerDevices trackerDevices : trackers) {
+            ActiveTracker activeTracker = new ActiveTracker(
+                    trackerDevices.getId(),
+                    trackerDevices.getSerialNumber(),
+                    transactionIdByTracker.get(trackerDevices.getId()));
+            resolved.put(trackerDevices.getSerialNumber(), activeTracker);
+            if (activeTracker.hasTransaction()) {
+                cacheIfCurrent(observed, activeTracker);
+            }
+        }
+        return resolved;
+    }
+
+    public void put(TrackerDevices trackerDevices, Transactions transactions) {
+        generation.incrementAndGet();
+        bySerialNumber.put(trackerDevices.getSerialNumber(),
+                new ActiveTracker(trackerDevices.getId(), trackerDevices.getSerialNumber(), transactions.getId()));
+    }
+
+    public void evict(String serialNumber) {
+        if (serialNumber == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        bySerialNumber.remove(serialNumber);
+    }
+
+    public void evictTracker(String trackerId) {
+        generation.incrementAndGet();
+        bySerialNumber.values().removeIf(activeTracker -> activeTracker.getTrackerId().equals(trackerId));
+    }
+
+    private void cacheIfCurrent(long observed, ActiveTracker activeTracker) {
+        bySerialNumber.putIfAbsent(activeTracker.getSerialNumber(), activeTracker);
+        if (generation.get() != observed) {
+            bySerialNumber.remove(activeTracker.getSerialNumber(), activeTracker);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.haven.app.haven.ingest;
+
+import com.haven.app.haven.entity.Coordinates;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published for every fix the ingest path accepts, once it is persisted; with write-behind
+ * that is after its group commit, on the flusher thread. Listeners receive plain values
+ * rather than the entity so they can run on any thread.
+ */
+@Getter
+@AllArgsConstructor
+public class CoordinateAcceptedEvent {
+    private final String coordinateId;
+    private final String trackerId;
+    private final String transactionId;
+    private final int latitudeE7;
+    private final int longitudeE7;
+    private final LocalDateTime recordedAt;
+    private final Short battery;
+    private final Integer altitudeDm;
+
+    public static CoordinateAcceptedEvent of(Coordinates coordinates) {
+        return new CoordinateAcceptedEvent(
+                coordinates.getId(),
+                coordinates.getTracker().getId(),
+                coordinates.getTransaction().getId(),
+                coordinates.getLatitudeE7(),
+                coordinates.getLongitudeE7(),
+                coordinates.getRecordedAt(),
+                coordinates.getBattery(),
+                coordinates.getAltitudeDm());
+    }
+}
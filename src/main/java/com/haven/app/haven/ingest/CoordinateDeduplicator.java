@@ -0,0 +1,191 @@
+package com.haven.app.haven.ingest;
+
+import com.haven.app.haven.constant.TransactionStatus;
+import com.haven.app.haven.realtime.TransactionStatusChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drops fixes a tracker has already delivered, before they reach the database. Each
+ * tracker has a small window guarded by its own lock:
+ * <ul>
+ *     <li>with a device sequence number, a circular bitmap over the last
+ *     {@code coordinate.dedup.sequence-window} sequence numbers, as in transport
+ *     anti-replay windows;</li>
+ *     <li>otherwise, with a device timestamp, a ring of the last
+ *     {@code coordinate.dedup.timestamp-window} timestamps.</li>
+ * </ul>
+ * A fix with neither cannot be told apart from a retry and always passes. A sequence far
+ * below the newest one seen is taken as a firmware restart and resets the window instead
+ * of being dropped.
+ */
+@Component
+public class CoordinateDeduplicator {
+    private final boolean enabled;
+    private final int sequenceWindow;
+    private final int timestampWindow;
+    private final Counter sequenceDuplicates;
+    private final Counter timestampDuplicates;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    public CoordinateDeduplicator(MeterRegistry meterRegistry,
+                                  @Value("${coordinate.dedup.enabled:true}") boolean enabled,
+                                  @Value("${coordinate.dedup.sequence-window:1024}") int sequenceWindow,
+                                  @Value("${coordinate.dedup.timestamp-window:64}") int timestampWindow) {
+        this.enabled = enabled;
+        // Whole words only, so the bitmap never has a partial last word.
+        this.sequenceWindow = Math.max(64, (sequenceWindow + 63) / 64 * 64);
+        this.timestampWindow = Math.max(1, timestampWindow);
+        this.sequenceDuplicates = duplicates(meterRegistry, "sequence");
+        this.timestampDuplicates = duplicates(meterRegistry, "timestamp");
+    }
+
+    /**
+     * Records the fix and returns true, or returns false if the tracker already sent it.
+     */
+    public boolean accept(String trackerId, Long sequence, Long timestamp) {
+        if (!enabled || (sequence == null && timestamp == null)) {
+            return true;
+        }
+        Window window = windows.computeIfAbsent(trackerId, key -> new Window());
+        if (sequence != null) {
+            if (window.acceptSequence(sequence, sequenceWindow)) {
+                return true;
+            }
+            sequenceDuplicates.increment();
+            return false;
+        }
+        if (window.acceptTimestamp(timestamp, timestampWindow)) {
+            return true;
+        }
+        timestampDuplicates.increment();
+        return false;
+    }
+
+    /**
+     * Undoes {@link #accept} for a fix that was not stored after all, so its retry goes through.
+     */
+    public void forget(String trackerId, Long sequence, Long timestamp) {
+        if (!enabled || (sequence == null && timestamp == null)) {
+            return;
+        }
+        Window window = windows.get(trackerId);
+        if (window == null) {
+            return;
+        }
+        if (sequence != null) {
+            window.forgetSequence(sequence, sequenceWindow);
+        } else {
+            window.forgetTimestamp(timestamp);
+        }
+    }
+
+    public long getDuplicateCount() {
+        return (long) (sequenceDuplicates.count() + timestampDuplicates.count());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionStatusChanged(TransactionStatusChangedEvent event) {
+        if (event.getStatus() != TransactionStatus.START && event.getTrackerId() != null) {
+            windows.remove(event.getTrackerId());
+        }
+    }
+
+    private static Counter duplicates(MeterRegistry meterRegistry, String mode) {
+        return Counter.builder("coordinate.ingest.duplicates")
+                .description("Fixes dropped because the tracker already delivered them")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+
+    private static final class Window {
+        private long[] bits;
+        private long highest = -1;
+        private long[] timestamps;
+        private int next;
+
+        private synchronized boolean acceptSequence(long sequence, int capacity) {
+            if (bits == null) {
+                bits = new long[capacity / 64];
+            }
+            if (sequence > highest) {
+                if (highest < 0 || sequence - highest >= capacity) {
+                    Arrays.fill(bits, 0L);
+                } else {
+                    for (long skipped = highest + 1; skipped < sequence; skipped++) {
+                        clear(skipped, capacity);
+                    }
+                }
+                highest = sequence;
+                set(sequence, capacity);
+                return true;
+            }
+            if (highest - sequence >= capacity) {
+                Arrays.fill(bits, 0L);
+                highest = sequence;
+                set(sequence, capacity);
+                return true;
+            }
+            if (isSet(sequence, capacity)) {
+                return false;
+            }
+            set(sequence, capacity);
+            return true;
+        }
+
+        private synchronized void forgetSequence(long sequence, int capacity) {
+            if (bits != null && sequence <= highest && highest - sequence < capacity) {
+                clear(sequence, capacity);
+            }
+        }
+
+        private synchronized boolean acceptTimestamp(long timestamp, int capacity) {
+            if (timestamps == null) {
+                timestamps = new long[capacity];
+                Arrays.fill(timestamps, Long.MIN_VALUE);
+            }
+            for (long seen : timestamps) {
+                if (seen == timestamp) {
+                    return false;
+                }
+            }
+            timestamps[next] = timestamp;
+            next = (next + 1) % timestamps.length;
+            return true;
+        }
+
+        private synchronized void forgetTimestamp(long timestamp) {
+            if (timestamps == null) {
+                return;
+            }
+            for (int i = 0; i < timestamps.length; i++) {
+                if (timestamps[i] == timestamp) {
+                    timestamps[i] = Long.MIN_VALUE;
+                }
+            }
+        }
+
+        private boolean isSet(long sequence, int capacity) {
+            int bit = (int) Math.floorMod(sequence, (long) capacity);
+            return (bits[bit >>> 6] & (1L << bit)) != 0;
+        }
+
+        private void set(long sequence, int capacity) {
+            int bit = (int) Math.floorMod(sequence, (long) capacity);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+
+        private void clear(long sequence, int capacity) {
+            int bit = (int) Math.floorMod(sequence, (long) capacity);
+            bits[bit >>> 6] &= ~(1L << bit);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.haven.app.haven.ingest;
+
+import com.haven.app.haven.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token-bucket limits on the public ingest endpoints, one bucket family keyed by tracker
+ * serial number and one by source address. Buckets are kept as GCRA theoretical arrival
+ * times in a fixed, striped {@link AtomicLongArray}: a check is one hash, one clock read
+ * and one compare-and-set, with no locks, no allocation and bounded memory however many
+ * distinct (possibly spoofed) keys arrive. Keys that share a stripe share a bucket, so the
+ * stripe count should stay well above the number of live trackers.
+ */
+@Component
+public class CoordinateRateLimiter {
+    private final boolean enabled;
+    private final Buckets serialBuckets;
+    private final Buckets addressBuckets;
+    private final Counter serialThrottled;
+    private final Counter addressThrottled;
+    private final long origin = System.nanoTime();
+
+    public CoordinateRateLimiter(MeterRegistry meterRegistry,
+                                 @Value("${coordinate.rate-limit.enabled:true}") boolean enabled,
+                                 @Value("${coordinate.rate-limit.stripes:8192}") int stripes,
+                                 @Value("${coordinate.rate-limit.serial.per-second:2}") double serialPerSecond,
+                                 @Value("${coordinate.rate-limit.serial.burst:10}") int serialBurst,
+                                 @Value("${coordinate.rate-limit.address.per-second:100}") double addressPerSecond,
+                                 @Value("${coordinate.rate-limit.address.burst:500}") int addressBurst) {
+        this.enabled = enabled;
+        this.serialBuckets = new Buckets(stripes, serialPerSecond, serialBurst);
+        this.addressBuckets = new Buckets(stripes, addressPerSecond, addressBurst);
+        this.serialThrottled = throttled(meterRegistry, "serial");
+        this.addressThrottled = throttled(meterRegistry, "address");
+    }
+
+    /**
+     * Takes a token for the serial number, or throws {@link TooManyRequestsException}.
+     */
+    public void acquireSerial(String serialNumber) {
+        if (!enabled || serialNumber == null) {
+            return;
+        }
+        long waitNanos = serialBuckets.tryAcquire(serialNumber, now());
+        if (waitNanos > 0) {
+            serialThrottled.increment();
+            throw new TooManyRequestsException("Too many coordinates from this tracker, retry later",
+                    retryAfterSeconds(waitNanos));
+        }
+    }
+
+    /**
+     * Takes a token for the source address and returns 0, or the seconds to wait before retrying.
+     */
+    public long acquireAddress(String address) {
+        if (!enabled || address == null) {
+            return 0;
+        }
+        long waitNanos = addressBuckets.tryAcquire(address, now());
+        if (waitNanos > 0) {
+            addressThrottled.increment();
+            return retryAfterSeconds(waitNanos);
+        }
+        return 0;
+    }
+
+    private long now() {
+        return System.nanoTime() - origin;
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private static Counter throttled(MeterRegistry meterRegistry, String key) {
+        return Counter.builder("coordinate.ingest.throttled")
+                .description("Ingest calls rejected by the rate limiter")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    static final class Buckets {
+        private final AtomicLongArray arrivals;
+        private final int mask;
+        private final long emissionNanos;
+        private final long limitNanos;
+
+        Buckets(int stripes, double perSecond, int burst) {
+            int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+            this.arrivals = new AtomicLongArray(size);
+            this.mask = size - 1;
+            this.emissionNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / perSecond));
+            this.limitNanos = emissionNanos * Math.max(1, burst);
+        }
+
+        /**
+         * Returns 0 and consumes a token, or returns how long until one is available.
+         */
+        long tryAcquire(String key, long nowNanos) {
+            int hash = key.hashCode();
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (true) {
+                long arrival = arrivals.get(slot);
+                long next = Math.max(arrival, nowNanos) + emissionNanos;
+                long excess = next - nowNanos - limitNanos;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (arrivals.compareAndSet(slot, arrival, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.haven.app.haven.ingest;
+
+import com.haven.app.haven.constant.WriteDurability;
+import com.haven.app.haven.entity.Coordinates;
+import com.haven.app.haven.exception.CoordinateException;
+import com.haven.app.haven.exception.TooManyRequestsException;
+import com.haven.app.haven.repository.CoordinateRepository;
+import com.haven.app.haven.repository.TrackerDevicesRepository;
+import com.haven.app.haven.repository.TransactionsRepository;
+import com.haven.app.haven.utils.LogUtils;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional write-behind stage for coordinate ingestion. Accepted fixes are queued in a
+ * bounded buffer and a single flusher thread persists them in group commits, closing a
+ * group when it reaches the batch size or when the flush interval since its first fix
+ * has elapsed. A full buffer is reported as 429 so trackers back off and retry.
+ * {@link CoordinateAcceptedEvent} is published for each fix only once its group has
+ * committed, so live views, alerts and statistics never see a fix that was then lost.
+ */
+@Slf4j
+@Component
+public class CoordinateWriteBuffer {
+    // Upper bound on a single wait, so shutdown is noticed without sitting out a long flush interval.
+    private static final long WAKE_CHECK_MS = 50L;
+
+    private final CoordinateRepository coordinateRepository;
+    private final TrackerDevicesRepository trackerDevicesRepository;
+    private final TransactionsRepository transactionsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${coordinate.write-behind.enabled:false}")
+    protected boolean enabled;
+
+    @Value("${coordinate.write-behind.capacity:10000}")
+    protected Integer capacity;
+
+    @Value("${coordinate.write-behind.batch-size:500}")
+    protected Integer batchSize;
+
+    @Value("${coordinate.write-behind.flush-interval-ms:200}")
+    protected Long flushIntervalMs;
+
+    @Value("${coordinate.write-behind.durability:ENQUEUE}")
+    protected WriteDurability durability;
+
+    @Value("${coordinate.write-behind.commit-timeout-ms:5000}")
+    protected Long commitTimeoutMs;
+
+    @Value("${coordinate.write-behind.shutdown-timeout-ms:10000}")
+    protected Long shutdownTimeoutMs;
+
+    private BlockingQueue<PendingCoordinate> queue;
+    private Thread flusher;
+    private volatile boolean running;
+    private final AtomicLong lost = new AtomicLong();
+
+    public CoordinateWriteBuffer(CoordinateRepository coordinateRepository,
+                                 TrackerDevicesRepository trackerDevicesRepository,
+                                 TransactionsRepository transactionsRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 ApplicationEventPublisher eventPublisher,
+                                 MeterRegistry meterRegistry) {
+        this.coordinateRepository = coordinateRepository;
+        this.trackerDevicesRepository = trackerDevicesRepository;
+        this.transactionsRepository = transactionsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        FunctionCounter.builder("coordinate.write-behind.lost", lost, AtomicLong::get)
+                .description("Acknowledged fixes whose group commit failed")
+                .register(meterRegistry);
+        Gauge.builder("coordinate.write-behind.queued", this, CoordinateWriteBuffer::size)
+                .description("Fixes waiting for the next group commit")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(capacity);
+        running = true;
+        flusher = new Thread(this::runFlusher, "coordinate-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("[CoordinateWriteBuffer] Write-behind enabled: capacity={}, batchSize={}, flushIntervalMs={}, durability={}",
+                capacity, batchSize, flushIntervalMs, durability);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int size() {
+        return queue != null ? queue.size() : 0;
+    }
+
+    public long getLost() {
+        return lost.get();
+    }
+
+    /**
+     * Queues a fix for the next group commit. With COMMIT durability the caller blocks until
+     * that group is committed; with ENQUEUE it returns immediately.
+     * <p>
+     * {@code onLost} runs whenever the fix ends up not stored, so the caller never has to
+     * guess. If a COMMIT caller times out, the group may still commit afterwards. The fix
+     * is then left recorded as delivered, so the client's retry is answered as a duplicate
+     * instead of being stored twice, and {@code onLost} runs only if the group finally fails.
+     */
+    public void submit(Coordinates coordinates, Runnable onLost) {
+        if (!running) {
+            onLost.run();
+            throw new CoordinateException("Coordinate buffer is not accepting writes");
+        }
+
+        CompletableFuture<Void> committed = durability == WriteDurability.COMMIT ? new CompletableFuture<>() : null;
+        if (!queue.offer(new PendingCoordinate(coordinates, committed, onLost))) {
+            onLost.run();
+            throw new TooManyRequestsException("Coordinate buffer is full, retry later");
+        }
+        if (committed == null) {
+            return;
+        }
+
+        try {
+            committed.get(commitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandon(committed);
+            throw new CoordinateException("Interrupted while waiting for coordinate commit");
+        } catch (ExecutionException e) {
+            throw new CoordinateException("Failed to commit coordinate");
+        } catch (TimeoutException e) {
+            abandon(committed);
+            throw new CoordinateException("Coordinate commit is still pending, retry later");
+        }
+    }
+
+    // Hands the outcome over to the flusher; if the group finished meanwhile, report it.
+    private static void abandon(CompletableFuture<Void> committed) {
+        if (!committed.cancel(false) && committed.isCompletedExceptionally()) {
+            throw new CoordinateException("Failed to commit coordinate");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            flusher.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!flusher.isAlive() && !queue.isEmpty()) {
+            // Fixes offered while the flusher was exiting.
+            List<PendingCoordinate> remaining = new ArrayList<>(queue.size());
+            queue.drainTo(remaining);
+            flush(remaining);
+        }
+        if (!queue.isEmpty()) {
+            log.warn("[CoordinateWriteBuffer] Shutdown timed out with {} coordinates unflushed", queue.size());
+        } else {
+            log.info("[CoordinateWriteBuffer] Drained on shutdown");
+        }
+    }
+
+    private void runFlusher() {
+        List<PendingCoordinate> group = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCoordinate first = queue.poll(Math.min(flushIntervalMs, WAKE_CHECK_MS), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (group.size() < batchSize) {
+                    queue.drainTo(group, batchSize - group.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (group.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    PendingCoordinate next = queue.poll(
+                            Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(WAKE_CHECK_MS)), TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        group.add(next);
+                    }
+                }
+
+                flush(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingCoordinate> group) {
+        List<Coordinates> coordinates = new ArrayList<>(group.size());
+        List<CoordinateAcceptedEvent> events = new ArrayList<>(group.size());
+        for (PendingCoordinate pending : group) {
+            coordinates.add(pending.coordinates());
+            events.add(CoordinateAcceptedEvent.of(pending.coordinates()));
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Re-attach the tracker/transaction references to this thread's persistence context.
+                for (Coordinates coordinate : coordinates) {
+                    coordinate.setTracker(trackerDevicesRepository.getReferenceById(coordinate.getTracker().getId()));
+                    coordinate.setTransaction(transactionsRepository.getReferenceById(coordinate.getTransaction().getId()));
+                }
+                coordinateRepository.saveAll(coordinates);
+                coordinateRepository.flush();
+            });
+            for (PendingCoordinate pending : group) {
+                if (pending.committed() != null) {
+                    pending.committed().complete(null);
+                }
+            }
+        } catch (Exception e) {
+            LogUtils.getError("CoordinateWriteBuffer.flush", e);
+            for (PendingCoordinate pending : group) {
+                // Only ENQUEUE fixes were acknowledged as stored; a COMMIT caller is told, or
+                // already gave up with a "still pending" answer.
+                if (pending.committed() != null) {
+                    pending.committed().completeExceptionally(e);
+                } else {
+                    lost.incrementAndGet();
+                }
+                pending.onLost().run();
+            }
+            return;
+        }
+
+        for (CoordinateAcceptedEvent event : events) {
+            try {
+                eventPublisher.publishEvent(event);
+            } catch (RuntimeException e) {
+                LogUtils.getError("CoordinateWriteBuffer.publish", e);
+            }
+        }
+    }
+
+    private record PendingCoordinate(Coordinates coordinates, CompletableFuture<Void> committed, Runnable onLost) {
+    }
+}
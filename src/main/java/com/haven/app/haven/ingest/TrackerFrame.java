@@ -0,0 +1,35 @@
+package com.haven.app.haven.ingest;
+
+import lombok.Getter;
+
+/**
+ * Decoded binary uplink frame: one tracker and its fixes held in primitive arrays,
+ * so decoding allocates per frame rather than per field.
+ */
+@Getter
+public class TrackerFrame {
+    public static final short NO_BATTERY = -1;
+
+    private final String serialNumber;
+    private final int count;
+    private final long[] timestamps;
+    private final int[] latitudesE7;
+    private final int[] longitudesE7;
+    private final short[] battery;
+
+    public TrackerFrame(String serialNumber, int count) {
+        this.serialNumber = serialNumber;
+        this.count = count;
+        this.timestamps = new long[count];
+        this.latitudesE7 = new int[count];
+        this.longitudesE7 = new int[count];
+        this.battery = new short[count];
+    }
+
+    public void set(int index, long timestampMillis, int latitudeE7, int longitudeE7, short batteryLevel) {
+        timestamps[index] = timestampMillis;
+        latitudesE7[index] = latitudeE7;
+        longitudesE7[index] = longitudeE7;
+        battery[index] = batteryLevel;
+    }
+}
@@ -0,0 +1,157 @@
+package com.haven.app.haven.ingest;
+
+import com.haven.app.haven.exception.CoordinateException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary uplink format for trackers.
+ *
+ * <pre>
+ * frame   := magic(0x48) version(0x01) serialLength(u8) serial(ASCII) count(varint) fix*
+ * fix     := flags(u8) time(varint) latitude(varint) longitude(varint) [battery(u8)]
+ * </pre>
+ *
+ * The first fix carries absolute values: time in epoch seconds (unsigned) and latitude /
+ * longitude as zigzag-encoded degrees * 1e7. Every later fix carries zigzag deltas from
+ * the previous one, so a slow-moving hiker costs about 6-8 bytes per fix. Flag bit 0 marks
+ * a battery percentage byte after the position.
+ */
+public class TrackerFrameCodec {
+    public static final String CONTENT_TYPE = "application/vnd.hikesafe.frame";
+
+    public static final byte MAGIC = 0x48;
+    public static final byte VERSION = 1;
+    public static final int FLAG_BATTERY = 0x01;
+
+    private static final int MAX_SERIAL_LENGTH = 64;
+    private static final int MIN_FIX_BYTES = 4;
+
+    public static TrackerFrame decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    public static TrackerFrame decode(ByteBuffer buffer) {
+        try {
+            if (buffer.get() != MAGIC) {
+                throw new CoordinateException("Invalid frame header");
+            }
+            if (buffer.get() != VERSION) {
+                throw new CoordinateException("Unsupported frame version");
+            }
+
+            int serialLength = buffer.get() & 0xFF;
+            if (serialLength == 0 || serialLength > MAX_SERIAL_LENGTH) {
+                throw new CoordinateException("Invalid serial number length");
+            }
+            byte[] serial = new byte[serialLength];
+            buffer.get(serial);
+
+            long count = readVarLong(buffer);
+            if (count <= 0 || count > buffer.remaining() / MIN_FIX_BYTES) {
+                throw new CoordinateException("Invalid fix count");
+            }
+
+            TrackerFrame frame = new TrackerFrame(new String(serial, StandardCharsets.US_ASCII), (int) count);
+            long seconds = 0;
+            long latitude = 0;
+            long longitude = 0;
+            for (int i = 0; i < count; i++) {
+                int flags = buffer.get() & 0xFF;
+                if (i == 0) {
+                    seconds = readVarLong(buffer);
+                    latitude = zigzagDecode(readVarLong(buffer));
+                    longitude = zigzagDecode(readVarLong(buffer));
+                } else {
+                    seconds += zigzagDecode(readVarLong(buffer));
+                    latitude += zigzagDecode(readVarLong(buffer));
+                    longitude += zigzagDecode(readVarLong(buffer));
+                }
+                short battery = (flags & FLAG_BATTERY) != 0 ? (short) (buffer.get() & 0xFF) : TrackerFrame.NO_BATTERY;
+
+                if (latitude < Integer.MIN_VALUE || latitude > Integer.MAX_VALUE
+                        || longitude < Integer.MIN_VALUE || longitude > Integer.MAX_VALUE) {
+                    throw new CoordinateException("Invalid fix position");
+                }
+                frame.set(i, seconds * 1000L, (int) latitude, (int) longitude, battery);
+            }
+
+            if (buffer.hasRemaining()) {
+                throw new CoordinateException("Unexpected trailing bytes in frame");
+            }
+            return frame;
+        } catch (BufferUnderflowException e) {
+            throw new CoordinateException("Truncated frame");
+        }
+    }
+
+    public static byte[] encode(TrackerFrame frame) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 + frame.getCount() * 10);
+        byte[] serial = frame.getSerialNumber().getBytes(StandardCharsets.US_ASCII);
+        out.write(MAGIC);
+        out.write(VERSION);
+        out.write(serial.length);
+        out.write(serial, 0, serial.length);
+        writeVarLong(out, frame.getCount());
+
+        long previousSeconds = 0;
+        long previousLatitude = 0;
+        long previousLongitude = 0;
+        for (int i = 0; i < frame.getCount(); i++) {
+            long seconds = frame.getTimestamps()[i] / 1000L;
+            long latitude = frame.getLatitudesE7()[i];
+            long longitude = frame.getLongitudesE7()[i];
+            short battery = frame.getBattery()[i];
+
+            out.write(battery >= 0 ? FLAG_BATTERY : 0);
+            if (i == 0) {
+                writeVarLong(out, seconds);
+                writeVarLong(out, zigzagEncode(latitude));
+                writeVarLong(out, zigzagEncode(longitude));
+            } else {
+                writeVarLong(out, zigzagEncode(seconds - previousSeconds));
+                writeVarLong(out, zigzagEncode(latitude - previousLatitude));
+                writeVarLong(out, zigzagEncode(longitude - previousLongitude));
+            }
+            if (battery >= 0) {
+                out.write(battery);
+            }
+
+            previousSeconds = seconds;
+            previousLatitude = latitude;
+            previousLongitude = longitude;
+        }
+        return out.toByteArray();
+    }
+
+    public static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new CoordinateException("Malformed varint");
+    }
+
+    public static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    public static long zigzagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    public static long zigzagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,238 @@
+package com.haven.app.haven.ingest;
+
+import com.haven.app.haven.dto.response.CoordinateBatchResponse;
+import com.haven.app.haven.exception.CoordinateException;
+import com.haven.app.haven.exception.TooManyRequestsException;
+import com.haven.app.haven.service.CoordinateService;
+import com.haven.app.haven.utils.LogUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optional UDP listener that takes signed binary frames straight from trackers, bypassing
+ * the servlet stack. One receiver thread reads datagrams into a reused direct buffer and
+ * hands them to a bounded worker pool that authenticates, decodes and ingests them through
+ * {@link CoordinateService#addCoordinateFrame}. When the pool is saturated, datagrams are
+ * dropped and the tracker retries. Each datagram is answered with a small ack:
+ * magic, status and the number of accepted fixes.
+ */
+@Slf4j
+@Component
+public class UdpUplinkListener {
+    public static final byte ACK_OK = 0;
+    public static final byte ACK_UNAUTHORIZED = 1;
+    public static final byte ACK_MALFORMED = 2;
+    public static final byte ACK_ERROR = 3;
+    public static final byte ACK_THROTTLED = 4;
+    // Authentic but replayed or outside the clock skew window; re-sign with a fresh counter.
+    public static final byte ACK_STALE = 5;
+
+    private static final int MAX_DATAGRAM = 2048;
+
+    private final CoordinateService coordinateService;
+    private final UplinkAuthenticator uplinkAuthenticator;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${tracker.uplink.udp.enabled:false}")
+    protected boolean enabled;
+
+    @Value("${tracker.uplink.udp.host:0.0.0.0}")
+    protected String host;
+
+    @Value("${tracker.uplink.udp.port:5684}")
+    protected Integer port;
+
+    @Value("${tracker.uplink.udp.workers:4}")
+    protected Integer workers;
+
+    @Value("${tracker.uplink.udp.queue-capacity:10000}")
+    protected Integer queueCapacity;
+
+    private DatagramChannel channel;
+    private Thread receiver;
+    private ThreadPoolExecutor executor;
+    private volatile boolean running;
+
+    private Counter received;
+    private Counter accepted;
+    private Counter unauthorized;
+    private Counter stale;
+    private Counter malformed;
+    private Counter dropped;
+    private Counter throttled;
+    private Counter failed;
+    private Counter fixes;
+    private Timer processing;
+
+    public UdpUplinkListener(CoordinateService coordinateService, UplinkAuthenticator uplinkAuthenticator, MeterRegistry meterRegistry) {
+        this.coordinateService = coordinateService;
+        this.uplinkAuthenticator = uplinkAuthenticator;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (!uplinkAuthenticator.isConfigured()) {
+            throw new IllegalStateException("tracker.uplink.secret must be set when the UDP uplink is enabled");
+        }
+
+        received = counter("received");
+        accepted = counter("accepted");
+        unauthorized = counter("unauthorized");
+        stale = counter("stale");
+        malformed = counter("malformed");
+        dropped = counter("dropped");
+        throttled = counter("throttled");
+        failed = counter("failed");
+        fixes = Counter.builder("tracker.uplink.fixes").description("Fixes accepted over the uplink").register(meterRegistry);
+        processing = Timer.builder("tracker.uplink.processing").description("Time to authenticate, decode and ingest a datagram").register(meterRegistry);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "uplink-worker-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> dropped.increment());
+        meterRegistry.gauge("tracker.uplink.queue", executor.getQueue(), BlockingQueue::size);
+
+        channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(host, port));
+        running = true;
+
+        receiver = new Thread(this::receive, "uplink-udp-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+        log.info("[UdpUplinkListener] Listening on {}", channel.getLocalAddress());
+    }
+
+    public InetSocketAddress getLocalAddress() throws IOException {
+        return channel != null ? (InetSocketAddress) channel.getLocalAddress() : null;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            channel.close();
+            receiver.join(1000);
+        } catch (IOException e) {
+            LogUtils.getError("UdpUplinkListener.stop", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    private void receive() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_DATAGRAM);
+        while (running) {
+            try {
+                buffer.clear();
+                SocketAddress source = channel.receive(buffer);
+                if (source == null) {
+                    continue;
+                }
+                buffer.flip();
+                byte[] datagram = new byte[buffer.remaining()];
+                buffer.get(datagram);
+                received.increment();
+                executor.execute(() -> handle(datagram, source));
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (Exception e) {
+                if (running) {
+                    LogUtils.getError("UdpUplinkListener.receive", e);
+                }
+            }
+        }
+    }
+
+    private void handle(byte[] datagram, SocketAddress source) {
+        long started = System.nanoTime();
+        byte status;
+        int acceptedFixes = 0;
+        try {
+            int frameLength = datagram.length - UplinkAuthenticator.TRAILER_LENGTH;
+            if (frameLength <= 0) {
+                throw new CoordinateException("Datagram too short");
+            }
+            TrackerFrame frame = TrackerFrameCodec.decode(ByteBuffer.wrap(datagram, 0, frameLength));
+            if (!uplinkAuthenticator.verify(frame.getSerialNumber(), datagram, frameLength)) {
+                unauthorized.increment();
+                status = ACK_UNAUTHORIZED;
+            } else if (!uplinkAuthenticator.isFresh(frame.getSerialNumber(), datagram, frameLength)) {
+                stale.increment();
+                status = ACK_STALE;
+            } else {
+                CoordinateBatchResponse response = coordinateService.addCoordinateFrame(frame);
+                acceptedFixes = response.getAccepted();
+                accepted.increment();
+                fixes.increment(acceptedFixes);
+                status = ACK_OK;
+            }
+        } catch (TooManyRequestsException e) {
+            throttled.increment();
+            status = ACK_THROTTLED;
+        } catch (CoordinateException e) {
+            malformed.increment();
+            status = ACK_MALFORMED;
+        } catch (Exception e) {
+            LogUtils.getError("UdpUplinkListener.handle", e);
+            failed.increment();
+            status = ACK_ERROR;
+        }
+        processing.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        acknowledge(source, status, acceptedFixes);
+    }
+
+    private void acknowledge(SocketAddress source, byte status, int acceptedFixes) {
+        ByteBuffer ack = ByteBuffer.allocate(6);
+        ack.put(TrackerFrameCodec.MAGIC).put(status).putInt(acceptedFixes).flip();
+        try {
+            channel.send(ack, source);
+        } catch (IOException e) {
+            if (running) {
+                LogUtils.getError("UdpUplinkListener.acknowledge", e);
+            }
+        }
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("tracker.uplink.datagrams")
+                .description("Tracker uplink datagrams by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
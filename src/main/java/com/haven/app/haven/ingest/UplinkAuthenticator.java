@@ -0,0 +1,134 @@
+package com.haven.app.haven.ingest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-device authentication for raw uplink datagrams. Each tracker key is derived as
+ * HMAC-SHA256(uplink secret, serial number), so no key table is stored. A datagram is
+ *
+ * <pre>
+ * datagram := frame counter(u64, big-endian) tag
+ * tag      := first {@value #TAG_LENGTH} bytes of HMAC-SHA256(device key, frame counter)
+ * </pre>
+ *
+ * The counter is the device's send time in epoch milliseconds, bumped by one if the clock
+ * has not moved since the last datagram. A datagram is only fresh if its counter is within
+ * the allowed clock skew and above the last counter accepted from that tracker, so a
+ * captured datagram cannot be replayed. A retry must be signed again with a new counter.
+ */
+@Component
+public class UplinkAuthenticator {
+    public static final int COUNTER_LENGTH = 8;
+    public static final int TAG_LENGTH = 8;
+    public static final int TRAILER_LENGTH = COUNTER_LENGTH + TAG_LENGTH;
+    private static final String ALGORITHM = "HmacSHA256";
+
+    @Value("${tracker.uplink.secret:}")
+    protected String secret;
+
+    @Value("${tracker.uplink.max-skew-seconds:300}")
+    protected Long maxSkewSeconds;
+
+    protected LongSupplier clock = System::currentTimeMillis;
+
+    // Highest counter accepted per serial number. Only verified datagrams get here, so the
+    // map is bounded by the fleet. Lost on restart, where the skew window still bounds replays.
+    private final Map<String, AtomicLong> lastCounters = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<Mac> derivationMacs = ThreadLocal.withInitial(() -> newMac(secret));
+    private final ThreadLocal<Mac> tagMacs = ThreadLocal.withInitial(() -> newMac(null));
+    private final ThreadLocal<byte[]> tags = ThreadLocal.withInitial(() -> new byte[32]);
+
+    public boolean isConfigured() {
+        return secret != null && !secret.isEmpty();
+    }
+
+    public byte[] deviceKey(String serialNumber) {
+        if (!isConfigured()) {
+            throw new IllegalStateException("tracker.uplink.secret is not configured");
+        }
+        return derivationMacs.get().doFinal(serialNumber.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Checks the tag over the frame and counter. {@code frameLength} is the datagram length
+     * minus {@link #TRAILER_LENGTH}.
+     */
+    public boolean verify(String serialNumber, byte[] datagram, int frameLength) {
+        if (!isConfigured() || datagram.length - frameLength != TRAILER_LENGTH) {
+            return false;
+        }
+        int signedLength = frameLength + COUNTER_LENGTH;
+        byte[] expected = tag(serialNumber, datagram, signedLength);
+        int difference = 0;
+        for (int i = 0; i < TAG_LENGTH; i++) {
+            difference |= expected[i] ^ datagram[signedLength + i];
+        }
+        return difference == 0;
+    }
+
+    /**
+     * Accepts the counter of a verified datagram if it is within the skew window and newer
+     * than any accepted before for this tracker. Call only after {@link #verify} succeeded,
+     * so a forged datagram cannot advance the counter.
+     */
+    public boolean isFresh(String serialNumber, byte[] datagram, int frameLength) {
+        long counter = ByteBuffer.wrap(datagram, frameLength, COUNTER_LENGTH).getLong();
+        if (Math.abs(clock.getAsLong() - counter) > maxSkewSeconds * 1000L) {
+            return false;
+        }
+        AtomicLong last = lastCounters.computeIfAbsent(serialNumber, key -> new AtomicLong(Long.MIN_VALUE));
+        long seen;
+        do {
+            seen = last.get();
+            if (counter <= seen) {
+                return false;
+            }
+        } while (!last.compareAndSet(seen, counter));
+        return true;
+    }
+
+    public byte[] sign(String serialNumber, byte[] frame, long counter) {
+        byte[] datagram = new byte[frame.length + TRAILER_LENGTH];
+        ByteBuffer.wrap(datagram).put(frame).putLong(counter);
+        int signedLength = frame.length + COUNTER_LENGTH;
+        System.arraycopy(tag(serialNumber, datagram, signedLength), 0, datagram, signedLength, TAG_LENGTH);
+        return datagram;
+    }
+
+    private byte[] tag(String serialNumber, byte[] data, int length) {
+        try {
+            Mac mac = tagMacs.get();
+            mac.init(new SecretKeySpec(deviceKey(serialNumber), ALGORITHM));
+            mac.update(data, 0, length);
+            byte[] tag = tags.get();
+            mac.doFinal(tag, 0);
+            return tag;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to compute uplink tag", e);
+        }
+    }
+
+    private static Mac newMac(String key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            if (key != null && !key.isEmpty()) {
+                mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            }
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.haven.app.haven.realtime;
+
+import com.haven.app.haven.constant.TransactionStatus;
+import com.haven.app.haven.entity.Coordinates;
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import com.haven.app.haven.repository.CoordinateRepository;
+import com.haven.app.haven.utils.GeoUtils;
+import com.haven.app.haven.utils.LogUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Latest accepted fix per tracker, kept in memory so "where is everyone now" never touches
+ * the coordinates table. Each tracker owns an {@link AtomicReference} that ingest threads
+ * update with compare-and-set, keeping whichever fix has the newer device time. Rebuilt
+ * from the newest stored fix of every START transaction on startup, and cleared for a
+ * tracker when its transaction leaves START.
+ * <p>
+ * Positions are also bucketed in a uniform grid of {@link #CELL_E7} cells for the
+ * proximity queries used by rescue dispatch. Readers never lock; a tracker's grid
+ * membership is moved under that tracker's own monitor, so trackers update in parallel.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LatestPositionRegistry {
+    private final CoordinateRepository coordinateRepository;
+
+    // About 550 m of latitude, so a search radius of a few kilometres spans a few dozen cells.
+    static final int CELL_E7 = 50_000;
+    private static final long NO_CELL = Long.MIN_VALUE;
+
+    private final Map<String, Slot> byTracker = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Slot>> cells = new ConcurrentHashMap<>();
+
+    public record Nearby(CoordinateAcceptedEvent position, double distanceMeters) {
+    }
+
+    // The tracker's latest fix, plus the grid cell it is currently listed in.
+    private static final class Slot extends AtomicReference<CoordinateAcceptedEvent> {
+        private long cell = NO_CELL;
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            List<Coordinates> latest = coordinateRepository.findLatestForActiveTransactions();
+            for (Coordinates coordinates : latest) {
+                update(CoordinateAcceptedEvent.of(coordinates));
+            }
+            log.info("[LatestPositionRegistry] Loaded {} latest positions", byTracker.size());
+        } catch (Exception e) {
+            LogUtils.getError("LatestPositionRegistry.rebuild", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCoordinateAccepted(CoordinateAcceptedEvent event) {
+        update(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionStatusChanged(TransactionStatusChangedEvent event) {
+        if (event.getStatus() == TransactionStatus.START || event.getTrackerId() == null) {
+            return;
+        }
+        Slot slot = byTracker.get(event.getTrackerId());
+        if (slot == null) {
+            return;
+        }
+        CoordinateAcceptedEvent current = slot.get();
+        if (current != null && current.getTransactionId().equals(event.getTransactionId())
+                && byTracker.remove(event.getTrackerId(), slot)) {
+            relocate(event.getTrackerId(), slot);
+        }
+    }
+
+    public void update(CoordinateAcceptedEvent event) {
+        Slot slot = byTracker.computeIfAbsent(event.getTrackerId(), key -> new Slot());
+        CoordinateAcceptedEvent current;
+        do {
+            current = slot.get();
+            if (current != null && !isNewer(event, current)) {
+                return;
+            }
+        } while (!slot.compareAndSet(current, event));
+        relocate(event.getTrackerId(), slot);
+    }
+
+    public List<CoordinateAcceptedEvent> getAll() {
+        List<CoordinateAcceptedEvent> positions = new ArrayList<>(byTracker.size());
+        for (Slot slot : byTracker.values()) {
+            CoordinateAcceptedEvent position = slot.get();
+            if (position != null) {
+                positions.add(position);
+            }
+        }
+        return positions;
+    }
+
+    public List<CoordinateAcceptedEvent> getByTransactions(Collection<String> transactionIds) {
+        Set<String> wanted = new HashSet<>(transactionIds);
+        List<CoordinateAcceptedEvent> positions = new ArrayList<>(Math.min(wanted.size(), byTracker.size()));
+        for (Slot slot : byTracker.values()) {
+            CoordinateAcceptedEvent position = slot.get();
+            if (position != null && wanted.contains(position.getTransactionId())) {
+                positions.add(position);
+            }
+        }
+        return positions;
+    }
+
+    public Optional<CoordinateAcceptedEvent> getByTracker(String trackerId) {
+        Slot slot = byTracker.get(trackerId);
+        return slot != null ? Optional.ofNullable(slot.get()) : Optional.empty();
+    }
+
+    /**
+     * The {@code k} trackers closest to the point, nearest first. Searches rings of grid
+     * cells outwards from the point's cell and stops once no unvisited ring can hold
+     * anything closer than the current k-th result.
+     */
+    public List<Nearby> nearest(int latitudeE7, int longitudeE7, int k, String excludeTrackerId) {
+        if (k <= 0) {
+            return List.of();
+        }
+        // Max-heap on distance holding the best k seen so far.
+        PriorityQueue<Nearby> best = new PriorityQueue<>(k + 1,
+                Comparator.comparingDouble(Nearby::distanceMeters).reversed());
+        int row = cell(latitudeE7);
+        int column = cell(longitudeE7);
+        int occupied = cells.size();
+
+        for (int ring = 0; ; ring++) {
+            // Once the rings cover more cells than are occupied, scanning those is cheaper.
+            if ((long) (2 * ring + 1) * (2 * ring + 1) > 4L * occupied + 16) {
+                best.clear();
+                for (Set<Slot> members : cells.values()) {
+                    offer(best, members, latitudeE7, longitudeE7, k, excludeTrackerId);
+                }
+                break;
+            }
+            for (int r = row - ring; r <= row + ring; r++) {
+                boolean edgeRow = r == row - ring || r == row + ring;
+                for (int c = column - ring; c <= column + ring; c += edgeRow || ring == 0 ? 1 : 2 * ring) {
+                    Set<Slot> members = cells.get(key(r, c));
+                    if (members != null) {
+                        offer(best, members, latitudeE7, longitudeE7, k, excludeTrackerId);
+                    }
+                }
+            }
+            // Everything in ring + 1 and beyond is at least this far away.
+            if (best.size() == k && best.peek().distanceMeters() <= ring * minCellSideMeters(latitudeE7, ring + 1)) {
+                break;
+            }
+        }
+
+        List<Nearby> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(Nearby::distanceMeters));
+        return result;
+    }
+
+    /**
+     * Every tracker within {@code radiusMeters} of the point, nearest first.
+     */
+    public List<Nearby> within(int latitudeE7, int longitudeE7, double radiusMeters, String excludeTrackerId) {
+        int rows = (int) Math.ceil(radiusMeters / (CELL_E7 * GeoUtils.METERS_PER_E7));
+        int columns = (int) Math.min(Integer.MAX_VALUE / 4, Math.ceil(radiusMeters / minCellSideMeters(latitudeE7, rows)));
+        int row = cell(latitudeE7);
+        int column = cell(longitudeE7);
+
+        List<Nearby> result = new ArrayList<>();
+        if ((long) (2 * rows + 1) * (2 * columns + 1) > cells.size()) {
+            for (Set<Slot> members : cells.values()) {
+                collect(result, members, latitudeE7, longitudeE7, radiusMeters, excludeTrackerId);
+            }
+        } else {
+            for (int r = row - rows; r <= row + rows; r++) {
+                for (int c = column - columns; c <= column + columns; c++) {
+                    Set<Slot> members = cells.get(key(r, c));
+                    if (members != null) {
+                        collect(result, members, latitudeE7, longitudeE7, radiusMeters, excludeTrackerId);
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparingDouble(Nearby::distanceMeters));
+        return result;
+    }
+
+    /**
+     * Moves the slot to the grid cell of its current fix, or out of the grid once it is no
+     * longer registered. Re-reads the fix under the slot's monitor, so whichever of two
+     * racing updates relocates last leaves the slot in the right cell.
+     */
+    private void relocate(String trackerId, Slot slot) {
+        synchronized (slot) {
+            CoordinateAcceptedEvent position = slot.get();
+            long target = position != null && byTracker.get(trackerId) == slot
+                    ? key(cell(position.getLatitudeE7()), cell(position.getLongitudeE7()))
+                    : NO_CELL;
+            if (target == slot.cell) {
+                return;
+            }
+            if (target != NO_CELL) {
+                cells.compute(target, (key, members) -> {
+                    Set<Slot> updated = members != null ? members : ConcurrentHashMap.newKeySet();
+                    updated.add(slot);
+                    return updated;
+                });
+            }
+            if (slot.cell != NO_CELL) {
+                cells.computeIfPresent(slot.cell, (key, members) -> {
+                    members.remove(slot);
+                    return members.isEmpty() ? null : members;
+                });
+            }
+            slot.cell = target;
+        }
+    }
+
+    private static void offer(PriorityQueue<Nearby> best, Set<Slot> members, int latitudeE7, int longitudeE7,
+                              int k, String excludeTrackerId) {
+        for (Slot slot : members) {
+            CoordinateAcceptedEvent position = slot.get();
+            if (position == null || position.getTrackerId().equals(excludeTrackerId)) {
+                continue;
+            }
+            double distance = GeoUtils.haversineMeters(latitudeE7, longitudeE7,
+                    position.getLatitudeE7(), position.getLongitudeE7());
+            if (best.size() < k) {
+                best.add(new Nearby(position, distance));
+            } else if (distance < best.peek().distanceMeters()) {
+                best.poll();
+                best.add(new Nearby(position, distance));
+            }
+        }
+    }
+
+    private static void collect(List<Nearby> result, Set<Slot> members, int latitudeE7, int longitudeE7,
+                                double radiusMeters, String excludeTrackerId) {
+        for (Slot slot : members) {
+            CoordinateAcceptedEvent position = slot.get();
+            if (position == null || position.getTrackerId().equals(excludeTrackerId)) {
+                continue;
+            }
+            double distance = GeoUtils.haversineMeters(latitudeE7, longitudeE7,
+                    position.getLatitudeE7(), position.getLongitudeE7());
+            if (distance <= radiusMeters) {
+                result.add(new Nearby(position, distance));
+            }
+        }
+    }
+
+    // Shortest side of a cell up to the given number of rows from the point; cells narrow towards the poles.
+    private static double minCellSideMeters(int latitudeE7, int rows) {
+        double latitude = Math.min(89d, Math.abs(GeoUtils.fromE7(latitudeE7)) + GeoUtils.fromE7(CELL_E7) * (rows + 1));
+        return CELL_E7 * GeoUtils.METERS_PER_E7 * Math.cos(Math.toRadians(latitude));
+    }
+
+    private static int cell(int valueE7) {
+        return Math.floorDiv(valueE7, CELL_E7);
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    private static boolean isNewer(CoordinateAcceptedEvent candidate, CoordinateAcceptedEvent current) {
+        // A tracker moving to a new hike always replaces the fix from its previous one.
+        if (!candidate.getTransactionId().equals(current.getTransactionId())) {
+            return true;
+        }
+        return !candidate.getRecordedAt().isBefore(current.getRecordedAt());
+    }
+}
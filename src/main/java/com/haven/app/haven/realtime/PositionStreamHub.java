@@ -0,0 +1,240 @@
+package com.haven.app.haven.realtime;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haven.app.haven.dto.response.PositionEventResponse;
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import com.haven.app.haven.utils.LogUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Server-Sent Events fan-out of accepted fixes. Every fix gets a sequence number used as the
+ * SSE event id and is kept in a fixed-size replay ring, so a client reconnecting with
+ * Last-Event-ID receives what it missed while the ring still holds it. Each subscriber has a
+ * bounded buffer drained by a small sender pool; when a slow subscriber's buffer is full,
+ * a new fix replaces the queued fix of the same transaction, or the oldest fix if there is none.
+ * <p>
+ * Numbering a fix, writing it to the ring and queueing it for subscribers happen under one
+ * lock, as do the replay snapshot and registration of a new subscriber. Every subscriber
+ * therefore sees ids in increasing order, and a resuming client gets each fix exactly once,
+ * either from the ring or live.
+ */
+@Slf4j
+@Component
+public class PositionStreamHub {
+    private final ObjectMapper objectMapper;
+
+    @Value("${coordinate.stream.replay-size:4096}")
+    protected Integer replaySize;
+
+    @Value("${coordinate.stream.subscriber-buffer:256}")
+    protected Integer subscriberBuffer;
+
+    @Value("${coordinate.stream.heartbeat-seconds:15}")
+    protected Long heartbeatSeconds;
+
+    private final Object publishLock = new Object();
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeat;
+    private AtomicReferenceArray<PositionEvent> replay;
+
+    public PositionStreamHub(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.senders = Executors.newFixedThreadPool(4, daemon("sse-sender"));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(daemon("sse-heartbeat"));
+    }
+
+    @PostConstruct
+    public void start() {
+        replay = new AtomicReferenceArray<>(replaySize);
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeat.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public SseEmitter subscribe(String transactionId, Long lastEventId) {
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(emitter, transactionId);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        synchronized (publishLock) {
+            if (lastEventId != null) {
+                for (PositionEvent event : replayAfter(lastEventId)) {
+                    if (subscriber.accepts(event)) {
+                        subscriber.offer(event, subscriberBuffer);
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    protected SseEmitter createEmitter() {
+        return new SseEmitter(0L);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCoordinateAccepted(CoordinateAcceptedEvent event) {
+        try {
+            String data = objectMapper.writeValueAsString(PositionEventResponse.fromEvent(event));
+
+            List<Subscriber> targets = new ArrayList<>();
+            synchronized (publishLock) {
+                long id = sequence.incrementAndGet();
+                PositionEvent positionEvent = new PositionEvent(id, event.getTransactionId(), data);
+                replay.set((int) (id % replay.length()), positionEvent);
+
+                for (Subscriber subscriber : subscribers) {
+                    if (subscriber.accepts(positionEvent)) {
+                        subscriber.offer(positionEvent, subscriberBuffer);
+                        targets.add(subscriber);
+                    }
+                }
+            }
+            targets.forEach(this::schedule);
+        } catch (JsonProcessingException e) {
+            LogUtils.getError("PositionStreamHub.onCoordinateAccepted", e);
+        }
+    }
+
+    // Caller holds publishLock.
+    private List<PositionEvent> replayAfter(long lastEventId) {
+        long newest = sequence.get();
+        long oldest = Math.max(lastEventId + 1, newest - replay.length() + 1);
+        List<PositionEvent> events = new ArrayList<>();
+        for (long id = oldest; id <= newest; id++) {
+            PositionEvent event = replay.get((int) (id % replay.length()));
+            if (event != null && event.id() == id) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            PositionEvent event;
+            while ((event = subscriber.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(Long.toString(event.id()))
+                        .name("position")
+                        .data(event.data(), MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        if (subscriber.hasPending() && subscribers.contains(subscriber)) {
+            schedule(subscriber);
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("keepalive"));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(subscriber);
+                subscriber.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicLong index = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record PositionEvent(long id, String transactionId, String data) {
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final String transactionId;
+        private final ArrayDeque<PositionEvent> pending = new ArrayDeque<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, String transactionId) {
+            this.emitter = emitter;
+            this.transactionId = transactionId;
+        }
+
+        private boolean accepts(PositionEvent event) {
+            return transactionId == null || transactionId.equals(event.transactionId());
+        }
+
+        private synchronized void offer(PositionEvent event, int capacity) {
+            if (pending.size() >= capacity) {
+                boolean coalesced = false;
+                for (Iterator<PositionEvent> iterator = pending.iterator(); iterator.hasNext(); ) {
+                    if (iterator.next().transactionId().equals(event.transactionId())) {
+                        iterator.remove();
+                        coalesced = true;
+                        break;
+                    }
+                }
+                if (!coalesced) {
+                    pending.pollFirst();
+                }
+            }
+            pending.addLast(event);
+        }
+
+        private synchronized PositionEvent poll() {
+            return pending.pollFirst();
+        }
+
+        private synchronized boolean hasPending() {
+            return !pending.isEmpty();
+        }
+    }
+}
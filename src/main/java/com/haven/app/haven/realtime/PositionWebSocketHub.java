@@ -0,0 +1,265 @@
+package com.haven.app.haven.realtime;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haven.app.haven.alert.TransactionAlertEvent;
+import com.haven.app.haven.dto.request.RealtimeSubscriptionRequest;
+import com.haven.app.haven.dto.response.PositionEventResponse;
+import com.haven.app.haven.dto.response.RealtimeMessageResponse;
+import com.haven.app.haven.dto.response.TransactionAlertResponse;
+import com.haven.app.haven.dto.response.TransactionStatusEventResponse;
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import com.haven.app.haven.utils.LogUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * WebSocket fan-out for ranger dashboards at {@code /ws/positions}. Clients send
+ * {@code {"action":"subscribe","topic":"..."}} where the topic is {@code all},
+ * {@code transaction:<id>} or {@code tracker:<id>}, and receive position and status
+ * messages for it, plus alerts raised for those hikes. A message is serialised once into
+ * a single {@link TextMessage} that is queued on every matching connection. Each connection has a bounded queue drained
+ * by a shared sender pool, so a slow socket never blocks ingest; when its queue is full
+ * the oldest message is dropped.
+ */
+@Slf4j
+@Component
+public class PositionWebSocketHub extends TextWebSocketHandler {
+    public static final String TOPIC_ALL = "all";
+    public static final String TOPIC_TRANSACTION = "transaction:";
+    public static final String TOPIC_TRACKER = "tracker:";
+
+    private final ObjectMapper objectMapper;
+    private final ExecutorService senders;
+
+    @Value("${realtime.websocket.send-queue:256}")
+    protected Integer sendQueue;
+
+    @Value("${realtime.websocket.max-topics:64}")
+    protected Integer maxTopics;
+
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+    private final Map<String, Set<Connection>> topics = new ConcurrentHashMap<>();
+
+    public PositionWebSocketHub(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "ws-sender-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        senders.shutdownNow();
+    }
+
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        connections.put(session.getId(), new Connection(session));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Connection connection = connections.remove(session.getId());
+        if (connection != null) {
+            for (String topic : connection.topics) {
+                unsubscribe(connection, topic);
+            }
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        LogUtils.getError("PositionWebSocketHub.handleTransportError", new Exception(exception));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        Connection connection = connections.get(session.getId());
+        if (connection == null) {
+            return;
+        }
+
+        RealtimeSubscriptionRequest request;
+        try {
+            request = objectMapper.readValue(message.getPayload(), RealtimeSubscriptionRequest.class);
+        } catch (JsonProcessingException e) {
+            connection.offer(error("Invalid subscription message"), sendQueue);
+            schedule(connection);
+            return;
+        }
+
+        String topic = request.getTopic();
+        if (!isValidTopic(topic)) {
+            connection.offer(error("Unknown topic"), sendQueue);
+        } else if ("subscribe".equals(request.getAction())) {
+            if (connection.topics.size() >= maxTopics) {
+                connection.offer(error("Too many subscriptions"), sendQueue);
+            } else if (connection.topics.add(topic)) {
+                topics.compute(topic, (key, subscribers) -> {
+                    Set<Connection> updated = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                    updated.add(connection);
+                    return updated;
+                });
+            }
+        } else if ("unsubscribe".equals(request.getAction())) {
+            if (connection.topics.remove(topic)) {
+                unsubscribe(connection, topic);
+            }
+        } else {
+            connection.offer(error("Unknown action"), sendQueue);
+        }
+        schedule(connection);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCoordinateAccepted(CoordinateAcceptedEvent event) {
+        publish("position", PositionEventResponse.fromEvent(event), event.getTransactionId(), event.getTrackerId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionStatusChanged(TransactionStatusChangedEvent event) {
+        publish("status", TransactionStatusEventResponse.fromEvent(event), event.getTransactionId(), event.getTrackerId());
+    }
+
+    @EventListener
+    public void onAlert(TransactionAlertEvent event) {
+        publish("alert", TransactionAlertResponse.fromEvent(event), event.getTransactionId(), event.getTrackerId());
+    }
+
+    private void publish(String type, Object data, String transactionId, String trackerId) {
+        Set<Connection> targets = Collections.newSetFromMap(new IdentityHashMap<>());
+        collect(targets, TOPIC_ALL);
+        if (transactionId != null) {
+            collect(targets, TOPIC_TRANSACTION + transactionId);
+        }
+        if (trackerId != null) {
+            collect(targets, TOPIC_TRACKER + trackerId);
+        }
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        TextMessage message;
+        try {
+            message = new TextMessage(objectMapper.writeValueAsString(
+                    RealtimeMessageResponse.builder().type(type).data(data).build()));
+        } catch (JsonProcessingException e) {
+            LogUtils.getError("PositionWebSocketHub.publish", e);
+            return;
+        }
+
+        for (Connection connection : targets) {
+            connection.offer(message, sendQueue);
+            schedule(connection);
+        }
+    }
+
+    private void collect(Set<Connection> targets, String topic) {
+        Set<Connection> subscribers = topics.get(topic);
+        if (subscribers != null) {
+            targets.addAll(subscribers);
+        }
+    }
+
+    private void unsubscribe(Connection connection, String topic) {
+        topics.computeIfPresent(topic, (key, subscribers) -> {
+            subscribers.remove(connection);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private void schedule(Connection connection) {
+        if (connection.scheduled.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(connection));
+            } catch (RejectedExecutionException e) {
+                connection.scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain(Connection connection) {
+        try {
+            TextMessage message;
+            while ((message = connection.poll()) != null) {
+                if (!connection.session.isOpen()) {
+                    return;
+                }
+                connection.session.sendMessage(message);
+            }
+        } catch (IOException | IllegalStateException e) {
+            try {
+                connection.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException ignored) {
+                // Already broken; afterConnectionClosed cleans up.
+            }
+        } finally {
+            connection.scheduled.set(false);
+        }
+        if (connection.hasPending() && connection.session.isOpen()) {
+            schedule(connection);
+        }
+    }
+
+    private TextMessage error(String message) throws JsonProcessingException {
+        return new TextMessage(objectMapper.writeValueAsString(
+                RealtimeMessageResponse.builder().type("error").data(message).build()));
+    }
+
+    private static boolean isValidTopic(String topic) {
+        if (topic == null) {
+            return false;
+        }
+        return topic.equals(TOPIC_ALL)
+                || (topic.startsWith(TOPIC_TRANSACTION) && topic.length() > TOPIC_TRANSACTION.length())
+                || (topic.startsWith(TOPIC_TRACKER) && topic.length() > TOPIC_TRACKER.length());
+    }
+
+    private static class Connection {
+        private final WebSocketSession session;
+        private final Set<String> topics = ConcurrentHashMap.newKeySet();
+        private final ArrayDeque<TextMessage> pending = new ArrayDeque<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Connection(WebSocketSession session) {
+            this.session = session;
+        }
+
+        private synchronized void offer(TextMessage message, int capacity) {
+            if (pending.size() >= capacity) {
+                pending.pollFirst();
+            }
+            pending.addLast(message);
+        }
+
+        private synchronized TextMessage poll() {
+            return pending.pollFirst();
+        }
+
+        private synchronized boolean hasPending() {
+            return !pending.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.haven.app.haven.realtime;
+
+import com.haven.app.haven.constant.TransactionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a transaction moves between statuses, so live dashboards can show a hike
+ * starting or finishing without polling.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionStatusChangedEvent {
+    private final String transactionId;
+    private final String trackerId;
+    private final TransactionStatus previousStatus;
+    private final TransactionStatus status;
+}
@@ -4,7 +4,43 @@ import com.haven.app.haven.entity.Coordinates;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 public interface CoordinateRepository extends JpaRepository<Coordinates, String> {
     Page<Coordinates> findAllByTransaction_Id(Pageable pageable, String transactionId);
+
+    @Query(value = "SELECT DISTINCT ON (c.tracker_id) c.* FROM coordinates c " +
+            "JOIN transactions t ON t.id = c.transaction_id " +
+            "WHERE t.status = 'START' " +
+            "ORDER BY c.tracker_id, c.recorded_at DESC", nativeQuery = true)
+    List<Coordinates> findLatestForActiveTransactions();
+
+    // Tailing reads go in insertion order and stop settleMs short of now, so a row whose
+    // transaction has not committed yet cannot be skipped by a cursor handed out meanwhile.
+    @Query(value = "SELECT * FROM coordinates WHERE transaction_id = :transactionId " +
+            "AND ingested_at < :visibleBefore " +
+            "ORDER BY ingested_at, id LIMIT :limit", nativeQuery = true)
+    List<Coordinates> findFirstByTransaction(@Param("transactionId") String transactionId,
+                                             @Param("visibleBefore") LocalDateTime visibleBefore,
+                                             @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM coordinates WHERE transaction_id = :transactionId " +
+            "ORDER BY recorded_at DESC, id DESC LIMIT 1", nativeQuery = true)
+    Optional<Coordinates> findLatestByTransaction(@Param("transactionId") String transactionId);
+
+    // Row-value comparison lets PostgreSQL seek directly into idx_coordinates_transaction_ingested.
+    @Query(value = "SELECT * FROM coordinates WHERE transaction_id = :transactionId " +
+            "AND (ingested_at, id) > (:ingestedAt, :id) " +
+            "AND ingested_at < :visibleBefore " +
+            "ORDER BY ingested_at, id LIMIT :limit", nativeQuery = true)
+    List<Coordinates> findAfterByTransaction(@Param("transactionId") String transactionId,
+                                             @Param("ingestedAt") LocalDateTime ingestedAt,
+                                             @Param("id") String id,
+                                             @Param("visibleBefore") LocalDateTime visibleBefore,
+                                             @Param("limit") int limit);
 }
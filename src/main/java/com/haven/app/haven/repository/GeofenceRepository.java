@@ -0,0 +1,10 @@
+package com.haven.app.haven.repository;
+
+import com.haven.app.haven.entity.Geofence;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface GeofenceRepository extends JpaRepository<Geofence, String> {
+    List<Geofence> findAllByActiveTrue();
+}
@@ -0,0 +1,11 @@
+package com.haven.app.haven.repository;
+
+import com.haven.app.haven.entity.HeatmapTile;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface HeatmapTileRepository extends JpaRepository<HeatmapTile, Long> {
+    List<HeatmapTile> findAllByZoomAndTileXBetweenAndTileYBetween(Integer zoom, Integer minX, Integer maxX,
+                                                                  Integer minY, Integer maxY);
+}
@@ -0,0 +1,10 @@
+package com.haven.app.haven.repository;
+
+import com.haven.app.haven.entity.RangerPost;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface RangerPostRepository extends JpaRepository<RangerPost, String> {
+    List<RangerPost> findAllByActiveTrue();
+}
@@ -0,0 +1,7 @@
+package com.haven.app.haven.repository;
+
+import com.haven.app.haven.entity.TrackArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TrackArchiveRepository extends JpaRepository<TrackArchive, String> {
+}
@@ -8,7 +8,12 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface TrackerDevicesRepository extends JpaRepository<TrackerDevices, String>, JpaSpecificationExecutor<TrackerDevices> {
     TrackerDevices findBySerialNumber(String serialNumber);
+
+    List<TrackerDevices> findAllBySerialNumberIn(Collection<String> serialNumbers);
 }
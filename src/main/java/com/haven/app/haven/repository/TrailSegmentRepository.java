@@ -0,0 +1,7 @@
+package com.haven.app.haven.repository;
+
+import com.haven.app.haven.entity.TrailSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TrailSegmentRepository extends JpaRepository<TrailSegment, String> {
+}
@@ -0,0 +1,12 @@
+package com.haven.app.haven.repository;
+
+import com.haven.app.haven.entity.TransactionAlert;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TransactionAlertRepository extends JpaRepository<TransactionAlert, String> {
+    Page<TransactionAlert> findAllByTransaction_Id(String transactionId, Pageable pageable);
+    Page<TransactionAlert> findAllByAcknowledged(Boolean acknowledged, Pageable pageable);
+    Page<TransactionAlert> findAllByTransaction_IdAndAcknowledged(String transactionId, Boolean acknowledged, Pageable pageable);
+}
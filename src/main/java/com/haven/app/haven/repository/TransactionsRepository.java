@@ -1,15 +1,19 @@
 package com.haven.app.haven.repository;
 
+import com.haven.app.haven.constant.TransactionStatus;
 import com.haven.app.haven.entity.TrackerDevices;
 import com.haven.app.haven.entity.Transactions;
 import com.haven.app.haven.entity.Users;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TransactionsRepository extends JpaRepository<Transactions, String>, JpaSpecificationExecutor<Transactions> {
@@ -19,4 +23,11 @@ public interface TransactionsRepository extends JpaRepository<Transactions, Stri
     List<Transactions> findAllByUser(Users user);
 
     List<Transactions> findAllByTracker(TrackerDevices tracker);
+
+    List<Transactions> findAllByTrackerInAndStatus(Collection<TrackerDevices> trackers, TransactionStatus status);
+
+    Optional<Transactions> findFirstByTrackerAndStatus(TrackerDevices tracker, TransactionStatus status);
+
+    @EntityGraph(attributePaths = "tracker")
+    List<Transactions> findAllByStatus(TransactionStatus status);
 }
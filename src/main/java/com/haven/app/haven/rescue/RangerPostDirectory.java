@@ -0,0 +1,53 @@
+package com.haven.app.haven.rescue;
+
+import com.haven.app.haven.entity.RangerPost;
+import com.haven.app.haven.repository.RangerPostRepository;
+import com.haven.app.haven.utils.GeoUtils;
+import com.haven.app.haven.utils.LogUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Active ranger posts held in memory so an SOS lookup does not wait on the database.
+ * A park has a handful of posts, so a linear scan of the snapshot is all a query needs;
+ * the snapshot is replaced whenever a post changes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RangerPostDirectory {
+    private final RangerPostRepository rangerPostRepository;
+
+    private volatile List<RangerPost> posts = List.of();
+
+    public record Nearby(RangerPost post, double distanceMeters) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        try {
+            posts = List.copyOf(rangerPostRepository.findAllByActiveTrue());
+            log.info("[RangerPostDirectory] Loaded {} active ranger posts", posts.size());
+        } catch (Exception e) {
+            LogUtils.getError("RangerPostDirectory.reload", e);
+        }
+    }
+
+    public List<Nearby> nearest(int latitudeE7, int longitudeE7, int k) {
+        List<RangerPost> current = posts;
+        List<Nearby> result = new ArrayList<>(current.size());
+        for (RangerPost post : current) {
+            result.add(new Nearby(post, GeoUtils.haversineMeters(latitudeE7, longitudeE7,
+                    post.getLatitudeE7(), post.getLongitudeE7())));
+        }
+        result.sort(Comparator.comparingDouble(Nearby::distanceMeters));
+        return result.size() > k ? result.subList(0, k) : result;
+    }
+}
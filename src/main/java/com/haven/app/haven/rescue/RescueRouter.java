@@ -0,0 +1,60 @@
+package com.haven.app.haven.rescue;
+
+import com.haven.app.haven.exception.RescueException;
+import com.haven.app.haven.trail.TrailNetwork;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Plans how a ranger reaches a hiker: both ends are snapped onto the nearest trail, the
+ * route between them comes from {@link TrailNetwork#route}, and the ETA prices the trail
+ * part at {@code rescue.trail-speed-kmh} and the walk to and from the trail at the slower
+ * {@code rescue.off-trail-speed-kmh}.
+ */
+@Component
+public class RescueRouter {
+    private final TrailNetwork trailNetwork;
+    private final double snapRadiusMeters;
+    private final double trailMetersPerSecond;
+    private final double offTrailMetersPerSecond;
+
+    public RescueRouter(TrailNetwork trailNetwork,
+                        @Value("${rescue.snap-radius-meters:500}") double snapRadiusMeters,
+                        @Value("${rescue.trail-speed-kmh:3.0}") double trailSpeedKmh,
+                        @Value("${rescue.off-trail-speed-kmh:1.0}") double offTrailSpeedKmh) {
+        this.trailNetwork = trailNetwork;
+        this.snapRadiusMeters = snapRadiusMeters;
+        this.trailMetersPerSecond = trailSpeedKmh / 3.6d;
+        this.offTrailMetersPerSecond = offTrailSpeedKmh / 3.6d;
+    }
+
+    public record Plan(TrailNetwork.Route route, double offTrailMeters, double etaSeconds) {
+        public double distanceMeters() {
+            return route.distanceMeters() + offTrailMeters;
+        }
+    }
+
+    public Plan plan(int fromLatitudeE7, int fromLongitudeE7, int toLatitudeE7, int toLongitudeE7) {
+        if (trailNetwork.isEmpty()) {
+            throw new RescueException("No trail network has been imported");
+        }
+        TrailNetwork.Candidate from = snap(fromLatitudeE7, fromLongitudeE7, "Ranger post is not near any trail");
+        TrailNetwork.Candidate to = snap(toLatitudeE7, toLongitudeE7, "Hiker is not near any trail");
+        TrailNetwork.Route route = trailNetwork.route(from, to)
+                .orElseThrow(() -> new RescueException("No trail connects the ranger post and the hiker"));
+
+        double offTrailMeters = from.distanceMeters() + to.distanceMeters();
+        double etaSeconds = route.distanceMeters() / trailMetersPerSecond + offTrailMeters / offTrailMetersPerSecond;
+        return new Plan(route, offTrailMeters, etaSeconds);
+    }
+
+    private TrailNetwork.Candidate snap(int latitudeE7, int longitudeE7, String message) {
+        List<TrailNetwork.Candidate> candidates = trailNetwork.candidates(latitudeE7, longitudeE7, snapRadiusMeters, 1);
+        if (candidates.isEmpty()) {
+            throw new RescueException(message);
+        }
+        return candidates.get(0);
+    }
+}
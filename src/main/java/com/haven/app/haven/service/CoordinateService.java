@@ -1,12 +1,27 @@
 package com.haven.app.haven.service;
 
 import com.haven.app.haven.dto.request.CoordinateRequest;
+import com.haven.app.haven.dto.response.CoordinateBatchResponse;
+import com.haven.app.haven.dto.response.CoordinateCursorResponse;
 import com.haven.app.haven.dto.response.CoordinateResponse;
+import com.haven.app.haven.dto.response.PositionEventResponse;
+import com.haven.app.haven.dto.response.SimplifiedTrackResponse;
+import com.haven.app.haven.ingest.TrackerFrame;
+import com.haven.app.haven.track.TrackExportFormat;
 import org.springframework.data.domain.Page;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
 public interface CoordinateService {
     CoordinateResponse addCoordinate(CoordinateRequest coordinateRequest);
+    CoordinateBatchResponse addCoordinates(List<CoordinateRequest> coordinateRequests);
+    CoordinateBatchResponse addCoordinateFrame(TrackerFrame frame);
     Page<CoordinateResponse> getCoordinate(String transactionId, Integer page, Integer size);
+    CoordinateCursorResponse getCoordinateAfter(String transactionId, String after, Integer limit);
+    SimplifiedTrackResponse getSimplifiedCoordinate(String transactionId, Double tolerance, Integer maxPoints);
+    StreamingResponseBody exportCoordinate(String transactionId, TrackExportFormat format);
+    SseEmitter streamCoordinates(String transactionId, String lastEventId);
+    List<PositionEventResponse> getLatestPositions(List<String> transactionIds);
 }
@@ -0,0 +1,9 @@
+package com.haven.app.haven.service;
+
+import com.haven.app.haven.dto.response.ElevationBackfillResponse;
+import com.haven.app.haven.dto.response.ElevationResponse;
+
+public interface ElevationService {
+    ElevationResponse getElevation(Double latitude, Double longitude);
+    ElevationBackfillResponse backfill();
+}
@@ -0,0 +1,14 @@
+package com.haven.app.haven.service;
+
+import com.haven.app.haven.dto.request.GeofenceRequest;
+import com.haven.app.haven.dto.response.GeofenceResponse;
+
+import java.util.List;
+
+public interface GeofenceService {
+    GeofenceResponse createGeofence(GeofenceRequest geofenceRequest);
+    List<GeofenceResponse> getGeofences();
+    GeofenceResponse getGeofenceById(String id);
+    GeofenceResponse updateGeofence(String id, GeofenceRequest geofenceRequest);
+    void deleteGeofence(String id);
+}
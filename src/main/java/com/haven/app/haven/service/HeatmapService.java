@@ -0,0 +1,9 @@
+package com.haven.app.haven.service;
+
+import com.haven.app.haven.dto.response.HeatmapRebuildResponse;
+import com.haven.app.haven.dto.response.HeatmapTileResponse;
+
+public interface HeatmapService {
+    HeatmapTileResponse getTile(Integer zoom, Integer x, Integer y);
+    HeatmapRebuildResponse rebuild();
+}
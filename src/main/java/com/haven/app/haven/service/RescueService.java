@@ -0,0 +1,18 @@
+package com.haven.app.haven.service;
+
+import com.haven.app.haven.dto.request.RangerPostRequest;
+import com.haven.app.haven.dto.response.NearbyHikerResponse;
+import com.haven.app.haven.dto.response.RangerPostResponse;
+import com.haven.app.haven.dto.response.RescueNearestResponse;
+import com.haven.app.haven.dto.response.RescueRouteResponse;
+
+import java.util.List;
+
+public interface RescueService {
+    RescueNearestResponse getNearest(Double latitude, Double longitude, Integer k, Integer rangers, String excludeTrackerId);
+    List<NearbyHikerResponse> getWithin(Double latitude, Double longitude, Double radius, String excludeTrackerId);
+    RescueRouteResponse getRoute(String transactionId, String rangerPostId);
+    RangerPostResponse createRangerPost(RangerPostRequest rangerPostRequest);
+    List<RangerPostResponse> getRangerPosts();
+    void deleteRangerPost(String id);
+}
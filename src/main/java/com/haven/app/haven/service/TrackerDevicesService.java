@@ -4,6 +4,7 @@ import com.haven.app.haven.dto.request.SearchTrackerDeviceRequest;
 import com.haven.app.haven.dto.request.TrackerDevicesRequest;
 import com.haven.app.haven.dto.request.TrackerDevicesStatusRequest;
 import com.haven.app.haven.dto.response.TrackerDevicesResponse;
+import com.haven.app.haven.dto.response.TrackerUplinkKeyResponse;
 import com.haven.app.haven.entity.TrackerDevices;
 import org.springframework.data.domain.Page;
 
@@ -19,4 +20,5 @@ public interface TrackerDevicesService {
     TrackerDevicesResponse updateStatus(String id, TrackerDevicesStatusRequest trackerDevicesStatusRequest);
     void deleteTracker(String id);
     TrackerDevices getBySerialNumber(String serialNumber);
+    TrackerUplinkKeyResponse getUplinkKey(String id);
 }
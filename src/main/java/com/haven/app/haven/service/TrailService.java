@@ -0,0 +1,12 @@
+package com.haven.app.haven.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.haven.app.haven.dto.response.TrailImportResponse;
+import com.haven.app.haven.dto.response.TrailSegmentResponse;
+
+import java.util.List;
+
+public interface TrailService {
+    TrailImportResponse importTrails(JsonNode geoJson);
+    List<TrailSegmentResponse> getTrailSegments();
+}
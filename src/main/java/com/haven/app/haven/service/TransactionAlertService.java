@@ -0,0 +1,9 @@
+package com.haven.app.haven.service;
+
+import com.haven.app.haven.dto.response.TransactionAlertResponse;
+import org.springframework.data.domain.Page;
+
+public interface TransactionAlertService {
+    Page<TransactionAlertResponse> getAlerts(String transactionId, Boolean acknowledged, Integer page, Integer size);
+    TransactionAlertResponse acknowledgeAlert(String id);
+}
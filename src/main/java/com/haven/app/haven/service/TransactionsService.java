@@ -4,6 +4,7 @@ import com.haven.app.haven.dto.request.SearchRequestTransaction;
 import com.haven.app.haven.dto.request.TransactionsRequest;
 import com.haven.app.haven.dto.request.TransactionsStatusRequest;
 import com.haven.app.haven.dto.response.TransactionsResponse;
+import com.haven.app.haven.dto.response.TripStatsResponse;
 import com.haven.app.haven.entity.TrackerDevices;
 import com.haven.app.haven.entity.Transactions;
 import org.springframework.data.domain.Page;
@@ -21,4 +22,5 @@ public interface TransactionsService {
     void deviceAssignment(String id, String deviceId);
     Transactions getTransactionByTracker(TrackerDevices trackerDevices);
     List<TransactionsResponse> getTransactionsWithoutPage(SearchRequestTransaction searchRequest);
+    TripStatsResponse getTransactionStats(String id);
 }
@@ -1,62 +1,340 @@
 package com.haven.app.haven.service.impl;
 
+import com.haven.app.haven.constant.CoordinateIngestStatus;
+import com.haven.app.haven.constant.TransactionStatus;
 import com.haven.app.haven.dto.request.CoordinateRequest;
+import com.haven.app.haven.dto.response.CoordinateBatchItemResponse;
+import com.haven.app.haven.dto.response.CoordinateBatchResponse;
+import com.haven.app.haven.dto.response.CoordinateCursorResponse;
 import com.haven.app.haven.dto.response.CoordinateResponse;
+import com.haven.app.haven.dto.response.PositionEventResponse;
+import com.haven.app.haven.dto.response.SimplifiedTrackResponse;
+import com.haven.app.haven.dto.response.TrackPointResponse;
+import com.haven.app.haven.elevation.ElevationModel;
 import com.haven.app.haven.entity.Coordinates;
-import com.haven.app.haven.entity.TrackerDevices;
 import com.haven.app.haven.entity.Transactions;
 import com.haven.app.haven.exception.CoordinateException;
 import com.haven.app.haven.exception.NotFoundException;
+import com.haven.app.haven.exception.TooManyRequestsException;
+import com.haven.app.haven.ingest.ActiveTracker;
+import com.haven.app.haven.ingest.ActiveTrackerCache;
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import com.haven.app.haven.ingest.CoordinateDeduplicator;
+import com.haven.app.haven.ingest.CoordinateRateLimiter;
+import com.haven.app.haven.ingest.CoordinateWriteBuffer;
+import com.haven.app.haven.ingest.TrackerFrame;
+import com.haven.app.haven.realtime.LatestPositionRegistry;
+import com.haven.app.haven.realtime.PositionStreamHub;
 import com.haven.app.haven.repository.CoordinateRepository;
+import com.haven.app.haven.repository.TrackerDevicesRepository;
+import com.haven.app.haven.repository.TransactionsRepository;
 import com.haven.app.haven.service.CoordinateService;
-import com.haven.app.haven.service.TrackerDevicesService;
-import com.haven.app.haven.service.TransactionsService;
+import com.haven.app.haven.trail.TrailMatcher;
+import com.haven.app.haven.track.ArchivedTrack;
+import com.haven.app.haven.track.CoordinateCursor;
+import com.haven.app.haven.track.TrackExportFormat;
+import com.haven.app.haven.track.TrackExporter;
+import com.haven.app.haven.track.SimplifiedTrackCache;
+import com.haven.app.haven.track.TrackPoints;
+import com.haven.app.haven.track.TrackSimplifier;
+import com.haven.app.haven.track.TrackStore;
+import com.haven.app.haven.utils.GeoUtils;
 import com.haven.app.haven.utils.LogUtils;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CoordinateServiceImpl implements CoordinateService {
     private final CoordinateRepository coordinateRepository;
-    private final TrackerDevicesService trackerDevicesService;
-    private final TransactionsService transactionsService;
+    private final TrackerDevicesRepository trackerDevicesRepository;
+    private final TransactionsRepository transactionsRepository;
+    private final ActiveTrackerCache activeTrackerCache;
+    private final CoordinateWriteBuffer coordinateWriteBuffer;
+    private final CoordinateDeduplicator coordinateDeduplicator;
+    private final CoordinateRateLimiter coordinateRateLimiter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PositionStreamHub positionStreamHub;
+    private final LatestPositionRegistry latestPositionRegistry;
+    private final TrailMatcher trailMatcher;
+    private final ElevationModel elevationModel;
+    private final TrackStore trackStore;
+    private final SimplifiedTrackCache simplifiedTrackCache;
+
+    @Value("${coordinate.batch.max-size:1000}")
+    protected Integer maxBatchSize;
+
+    @Value("${coordinate.cursor.max-limit:1000}")
+    protected Integer maxCursorLimit;
+
+    // Extra delay on top of the open-transaction horizon, see TrackStore.ingestHorizon.
+    @Value("${coordinate.cursor.settle-ms:500}")
+    protected Long cursorSettleMs;
+
+    @Value("${coordinate.track.default-max-points:500}")
+    protected Integer defaultMaxPoints;
 
     @Override
     public CoordinateResponse addCoordinate(CoordinateRequest coordinateRequest) {
         try {
-            TrackerDevices trackerDevices = trackerDevicesService.getBySerialNumber(coordinateRequest.getSerialNumber());
-            System.out.println(trackerDevices.getSerialNumber());
-            Transactions transactions = transactionsService.getTransactionByTracker(trackerDevices);
-
-            Coordinates coordinates = Coordinates.builder()
-                .tracker(trackerDevices)
-                    .transaction(transactions)
-                    .longitude(coordinateRequest.getLongitude())
-                    .latitude(coordinateRequest.getLatitude())
-                    .build();
+            if (!GeoUtils.isValidLatitude(coordinateRequest.getLatitude()) || !GeoUtils.isValidLongitude(coordinateRequest.getLongitude())) {
+                throw new CoordinateException("Latitude or longitude out of range");
+            }
 
-            coordinateRepository.saveAndFlush(coordinates);
+            coordinateRateLimiter.acquireSerial(coordinateRequest.getSerialNumber());
+
+            ActiveTracker activeTracker = activeTrackerCache.resolve(coordinateRequest.getSerialNumber());
+
+            Coordinates coordinates = toCoordinates(activeTracker, coordinateRequest);
+
+            // A replayed fix is answered like the original so the firmware stops retrying.
+            if (!coordinateDeduplicator.accept(activeTracker.getTrackerId(), coordinateRequest.getSequence(), coordinateRequest.getTimestamp())) {
+                CoordinateResponse coordinateResponse = CoordinateResponse.CoordinateToCoordinateResponse(coordinates);
+                coordinateResponse.setDuplicate(true);
+                return coordinateResponse;
+            }
+
+            // Until the fix is durable, any failure must let the firmware's retry through.
+            Runnable forget = () -> coordinateDeduplicator.forget(activeTracker.getTrackerId(),
+                    coordinateRequest.getSequence(), coordinateRequest.getTimestamp());
+            try {
+                trailMatcher.match(coordinates);
+            } catch (RuntimeException e) {
+                forget.run();
+                throw e;
+            }
+            if (coordinateWriteBuffer.isEnabled()) {
+                // The buffer runs the undo itself once it knows the fix was not stored, and
+                // publishes the accepted event once its group has committed.
+                coordinateWriteBuffer.submit(coordinates, forget);
+            } else {
+                try {
+                    coordinateRepository.saveAndFlush(coordinates);
+                } catch (RuntimeException e) {
+                    forget.run();
+                    throw e;
+                }
+                eventPublisher.publishEvent(CoordinateAcceptedEvent.of(coordinates));
+            }
 
             LogUtils.logSuccess("CoordinateService", "addCoordinate");
 
-            return CoordinateResponse.CoordinateToCoordinateResponse(coordinates);
+            CoordinateResponse coordinateResponse = CoordinateResponse.CoordinateToCoordinateResponse(coordinates);
+            coordinateResponse.setDuplicate(false);
+            return coordinateResponse;
         } catch (Exception e) {
             LogUtils.getError("CoordinateService.addCoordinate", e);
+            if (e instanceof TooManyRequestsException || e instanceof CoordinateException) {
+                throw e;
+            }
             throw new CoordinateException("Failed to add coordinate");
         }
     }
 
+    @Override
+    @Transactional
+    public CoordinateBatchResponse addCoordinates(List<CoordinateRequest> coordinateRequests) {
+        try {
+            if (coordinateRequests == null || coordinateRequests.isEmpty()) {
+                throw new CoordinateException("Coordinate batch cannot be empty");
+            }
+            if (coordinateRequests.size() > maxBatchSize) {
+                throw new CoordinateException("Coordinate batch cannot exceed " + maxBatchSize + " items");
+            }
+
+            Set<String> serialNumbers = coordinateRequests.stream()
+                    .map(CoordinateRequest::getSerialNumber)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+
+            // One token per tracker per batch: a batch is one request and one transaction.
+            Set<String> throttled = new HashSet<>();
+            for (String serialNumber : serialNumbers) {
+                try {
+                    coordinateRateLimiter.acquireSerial(serialNumber);
+                } catch (TooManyRequestsException e) {
+                    throttled.add(serialNumber);
+                }
+            }
+            serialNumbers.removeAll(throttled);
+
+            Map<String, ActiveTracker> activeTrackers = activeTrackerCache.resolveAll(serialNumbers);
+
+            List<CoordinateBatchItemResponse> items = new ArrayList<>(coordinateRequests.size());
+            List<Coordinates> accepted = new ArrayList<>(coordinateRequests.size());
+            List<CoordinateBatchItemResponse> acceptedItems = new ArrayList<>(coordinateRequests.size());
+            List<Runnable> undo = new ArrayList<>(coordinateRequests.size());
+            forgetUnlessCommitted(undo);
+
+            for (int i = 0; i < coordinateRequests.size(); i++) {
+                CoordinateRequest request = coordinateRequests.get(i);
+                CoordinateBatchItemResponse item = CoordinateBatchItemResponse.builder()
+                        .index(i)
+                        .serialNumber(request.getSerialNumber())
+                        .build();
+                items.add(item);
+
+                ActiveTracker activeTracker = request.getSerialNumber() != null ? activeTrackers.get(request.getSerialNumber()) : null;
+                String error = null;
+                if (request.getSerialNumber() == null || request.getSerialNumber().isEmpty()) {
+                    error = "Serial number is required";
+                } else if (throttled.contains(request.getSerialNumber())) {
+                    error = "Too many coordinates from this tracker, retry later";
+                } else if (!GeoUtils.isValidLatitude(request.getLatitude())) {
+                    error = "Latitude must be between -90 and 90";
+                } else if (!GeoUtils.isValidLongitude(request.getLongitude())) {
+                    error = "Longitude must be between -180 and 180";
+                } else if (activeTracker == null) {
+                    error = "Tracker device not found";
+                } else if (!activeTracker.hasTransaction()) {
+                    error = "Transactions not found";
+                }
+
+                if (error != null) {
+                    item.setStatus(CoordinateIngestStatus.REJECTED.toString());
+                    item.setMessage(error);
+                    continue;
+                }
+                if (!coordinateDeduplicator.accept(activeTracker.getTrackerId(), request.getSequence(), request.getTimestamp())) {
+                    item.setStatus(CoordinateIngestStatus.DUPLICATE.toString());
+                    continue;
+                }
+
+                String trackerId = activeTracker.getTrackerId();
+                undo.add(() -> coordinateDeduplicator.forget(trackerId, request.getSequence(), request.getTimestamp()));
+                Coordinates coordinates = toCoordinates(activeTracker, request);
+                trailMatcher.match(coordinates);
+                accepted.add(coordinates);
+                acceptedItems.add(item);
+            }
+
+            CoordinateBatchResponse response = saveBatch(items, accepted, acceptedItems, undo);
+
+            LogUtils.logSuccess("CoordinateService", "addCoordinates");
+
+            return response;
+        } catch (Exception e) {
+            LogUtils.getError("CoordinateService.addCoordinates", e);
+            if (e instanceof CoordinateException) {
+                throw e;
+            }
+            throw new CoordinateException("Failed to add coordinates");
+        }
+    }
+
+    @Override
+    @Transactional
+    public CoordinateBatchResponse addCoordinateFrame(TrackerFrame frame) {
+        try {
+            if (frame.getCount() > maxBatchSize) {
+                throw new CoordinateException("Coordinate batch cannot exceed " + maxBatchSize + " items");
+            }
+
+            String serialNumber = frame.getSerialNumber();
+            coordinateRateLimiter.acquireSerial(serialNumber);
+
+            ActiveTracker activeTracker = activeTrackerCache.resolveAll(List.of(serialNumber)).get(serialNumber);
+            String trackerError = null;
+            if (activeTracker == null) {
+                trackerError = "Tracker device not found";
+            } else if (!activeTracker.hasTransaction()) {
+                trackerError = "Transactions not found";
+            }
+
+            List<CoordinateBatchItemResponse> items = new ArrayList<>(frame.getCount());
+            List<Coordinates> accepted = new ArrayList<>(frame.getCount());
+            List<CoordinateBatchItemResponse> acceptedItems = new ArrayList<>(frame.getCount());
+            List<Runnable> undo = new ArrayList<>(frame.getCount());
+            forgetUnlessCommitted(undo);
+
+            for (int i = 0; i < frame.getCount(); i++) {
+                CoordinateBatchItemResponse item = CoordinateBatchItemResponse.builder()
+                        .index(i)
+                        .serialNumber(serialNumber)
+                        .build();
+                items.add(item);
+
+                int latitudeE7 = frame.getLatitudesE7()[i];
+                int longitudeE7 = frame.getLongitudesE7()[i];
+                short battery = frame.getBattery()[i];
+                String error = trackerError;
+                if (error == null && Math.abs(latitudeE7) > 90 * GeoUtils.E7) {
+                    error = "Latitude must be between -90 and 90";
+                } else if (error == null && Math.abs(longitudeE7) > 180 * GeoUtils.E7) {
+                    error = "Longitude must be between -180 and 180";
+                } else if (error == null && battery > 100) {
+                    error = "Battery must be between 0 and 100";
+                }
+
+                if (error != null) {
+                    item.setStatus(CoordinateIngestStatus.REJECTED.toString());
+                    item.setMessage(error);
+                    continue;
+                }
+                // Frames carry no sequence number; the device timestamp identifies a fix.
+                long timestamp = frame.getTimestamps()[i];
+                if (!coordinateDeduplicator.accept(activeTracker.getTrackerId(), null, timestamp)) {
+                    item.setStatus(CoordinateIngestStatus.DUPLICATE.toString());
+                    continue;
+                }
+
+                undo.add(() -> coordinateDeduplicator.forget(activeTracker.getTrackerId(), null, timestamp));
+                Coordinates coordinates = toCoordinates(activeTracker, latitudeE7, longitudeE7, timestamp,
+                        battery == TrackerFrame.NO_BATTERY ? null : (int) battery, null);
+                trailMatcher.match(coordinates);
+                accepted.add(coordinates);
+                acceptedItems.add(item);
+            }
+
+            CoordinateBatchResponse response = saveBatch(items, accepted, acceptedItems, undo);
+
+            LogUtils.logSuccess("CoordinateService", "addCoordinateFrame");
+
+            return response;
+        } catch (Exception e) {
+            LogUtils.getError("CoordinateService.addCoordinateFrame", e);
+            if (e instanceof TooManyRequestsException || e instanceof CoordinateException) {
+                throw e;
+            }
+            throw new CoordinateException("Failed to add coordinates");
+        }
+    }
+
     @Override
     public Page<CoordinateResponse> getCoordinate(String transactionId, Integer page, Integer size) {
         try {
-            Pageable pageable = PageRequest.of(page - 1, size);
+            Pageable pageable = PageRequest.of(page - 1, size, Sort.by("recordedAt", "id"));
+
+            Optional<ArchivedTrack> archive = trackStore.findArchive(transactionId);
+            if (archive.isPresent()) {
+                ArchivedTrack track = archive.get();
+                int from = (int) Math.min(pageable.getOffset(), track.points().getSize());
+                int to = Math.min(from + pageable.getPageSize(), track.points().getSize());
+                LogUtils.logSuccess("CoordinateService", "getCoordinate");
+                return new PageImpl<>(archivedFixes(track, from, to), pageable, track.points().getSize());
+            }
 
             Page<Coordinates> coordinates = coordinateRepository.findAllByTransaction_Id(pageable, transactionId);
 
@@ -71,4 +349,314 @@ public class CoordinateServiceImpl implements CoordinateService {
             throw new CoordinateException("Failed to get coordinate list");
         }
     }
+
+    @Override
+    public CoordinateCursorResponse getCoordinateAfter(String transactionId, String after, Integer limit) {
+        try {
+            if (limit > maxCursorLimit) {
+                throw new CoordinateException("Limit cannot exceed " + maxCursorLimit);
+            }
+            if (!transactionsRepository.existsById(transactionId)) {
+                throw new NotFoundException("Transactions not found");
+            }
+
+            Optional<ArchivedTrack> archive = trackStore.findArchive(transactionId);
+            if (archive.isPresent()) {
+                LogUtils.logSuccess("CoordinateService", "getCoordinateAfter");
+                return archivedCursorPage(archive.get(), after, limit);
+            }
+
+            // One extra row tells whether another page exists without a count query.
+            LocalDateTime visibleBefore = trackStore.ingestHorizon(cursorSettleMs);
+            List<Coordinates> coordinates;
+            if (after == null || after.isBlank()) {
+                coordinates = coordinateRepository.findFirstByTransaction(transactionId, visibleBefore, limit + 1);
+            } else {
+                CoordinateCursor cursor = CoordinateCursor.decode(after);
+                if (cursor.isArchived()) {
+                    throw new CoordinateException("Invalid cursor");
+                }
+                coordinates = coordinateRepository.findAfterByTransaction(
+                        transactionId, cursor.ingestedAt(), cursor.id(), visibleBefore, limit + 1);
+            }
+
+            boolean hasMore = coordinates.size() > limit;
+            if (hasMore) {
+                coordinates = coordinates.subList(0, limit);
+            }
+
+            // With nothing new the client keeps polling from the cursor it sent.
+            String nextCursor = coordinates.isEmpty()
+                    ? (after == null || after.isBlank() ? null : after)
+                    : CoordinateCursor.of(coordinates.get(coordinates.size() - 1)).encode();
+
+            LogUtils.logSuccess("CoordinateService", "getCoordinateAfter");
+
+            return CoordinateCursorResponse.builder()
+                    .items(coordinates.stream().map(CoordinateResponse::CoordinateToCoordinateResponse).toList())
+                    .nextCursor(nextCursor)
+                    .hasMore(hasMore)
+                    .build();
+        } catch (Exception e) {
+            LogUtils.getError("CoordinateService.getCoordinateAfter", e);
+            if (e instanceof NotFoundException || e instanceof CoordinateException) {
+                throw e;
+            }
+            throw new CoordinateException("Failed to get coordinate list");
+        }
+    }
+
+    @Override
+    public SimplifiedTrackResponse getSimplifiedCoordinate(String transactionId, Double tolerance, Integer maxPoints) {
+        try {
+            Transactions transactions = transactionsRepository.findById(transactionId)
+                    .orElseThrow(() -> new NotFoundException("Transactions not found"));
+
+            if (tolerance == null && maxPoints == null) {
+                maxPoints = defaultMaxPoints;
+            }
+
+            // Finished tracks are immutable, so their simplified forms can be reused.
+            boolean cacheable = transactions.getStatus() == TransactionStatus.DONE;
+            String key = SimplifiedTrackCache.key(transactionId, tolerance, maxPoints);
+            if (cacheable) {
+                SimplifiedTrackResponse cached = simplifiedTrackCache.get(key);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+
+            TrackPoints track = trackStore.load(transactionId);
+            int[] kept = TrackSimplifier.simplify(track,
+                    tolerance != null ? tolerance : 0d,
+                    maxPoints != null ? maxPoints : 0);
+
+            List<TrackPointResponse> points = new ArrayList<>(kept.length);
+            for (int index : kept) {
+                points.add(TrackPointResponse.builder()
+                        .latitude(GeoUtils.formatE7(track.getLatitudesE7()[index]))
+                        .longitude(GeoUtils.formatE7(track.getLongitudesE7()[index]))
+                        .recordedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(track.getRecordedAt()[index]), ZoneId.systemDefault()).toString())
+                        .build());
+            }
+
+            SimplifiedTrackResponse response = SimplifiedTrackResponse.builder()
+                    .transactionId(transactionId)
+                    .originalPoints(track.getSize())
+                    .simplifiedPoints(points.size())
+                    .tolerance(tolerance)
+                    .maxPoints(maxPoints)
+                    .points(points)
+                    .build();
+
+            if (cacheable) {
+                simplifiedTrackCache.put(key, response);
+            }
+
+            LogUtils.logSuccess("CoordinateService", "getSimplifiedCoordinate");
+
+            return response;
+        } catch (Exception e) {
+            LogUtils.getError("CoordinateService.getSimplifiedCoordinate", e);
+            if (e instanceof NotFoundException) {
+                throw e;
+            }
+            throw new CoordinateException("Failed to get simplified coordinate list");
+        }
+    }
+
+    @Override
+    public StreamingResponseBody exportCoordinate(String transactionId, TrackExportFormat format) {
+        try {
+            if (!transactionsRepository.existsById(transactionId)) {
+                throw new NotFoundException("Transactions not found");
+            }
+
+            LogUtils.logSuccess("CoordinateService", "exportCoordinate");
+
+            return outputStream -> {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 16 * 1024);
+                TrackExporter exporter = TrackExporter.of(format, writer, transactionId);
+                exporter.begin();
+                trackStore.stream(transactionId, exporter);
+                exporter.end();
+                writer.flush();
+            };
+        } catch (Exception e) {
+            LogUtils.getError("CoordinateService.exportCoordinate", e);
+            if (e instanceof NotFoundException) {
+                throw e;
+            }
+            throw new CoordinateException("Failed to export coordinate list");
+        }
+    }
+
+    @Override
+    public SseEmitter streamCoordinates(String transactionId, String lastEventId) {
+        try {
+            if (transactionId != null && !transactionsRepository.existsById(transactionId)) {
+                throw new NotFoundException("Transactions not found");
+            }
+
+            Long resumeAfter = null;
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                try {
+                    resumeAfter = Long.parseLong(lastEventId.trim());
+                } catch (NumberFormatException e) {
+                    throw new CoordinateException("Invalid Last-Event-ID");
+                }
+            }
+
+            SseEmitter emitter = positionStreamHub.subscribe(transactionId, resumeAfter);
+
+            LogUtils.logSuccess("CoordinateService", "streamCoordinates");
+
+            return emitter;
+        } catch (Exception e) {
+            LogUtils.getError("CoordinateService.streamCoordinates", e);
+            if (e instanceof NotFoundException || e instanceof CoordinateException) {
+                throw e;
+            }
+            throw new CoordinateException("Failed to open coordinate stream");
+        }
+    }
+
+    @Override
+    public List<PositionEventResponse> getLatestPositions(List<String> transactionIds) {
+        try {
+            List<CoordinateAcceptedEvent> positions = transactionIds == null || transactionIds.isEmpty()
+                    ? latestPositionRegistry.getAll()
+                    : latestPositionRegistry.getByTransactions(transactionIds);
+
+            LogUtils.logSuccess("CoordinateService", "getLatestPositions");
+
+            return positions.stream().map(PositionEventResponse::fromEvent).toList();
+        } catch (Exception e) {
+            LogUtils.getError("CoordinateService.getLatestPositions", e);
+            throw new CoordinateException("Failed to get latest positions");
+        }
+    }
+
+    // A cursor taken while the track was live keys on receive times the archive no longer
+    // keeps, so it cannot be mapped to a position and the client has to start over.
+    private CoordinateCursorResponse archivedCursorPage(ArchivedTrack track, String after, Integer limit) {
+        int from = 0;
+        if (after != null && !after.isBlank()) {
+            CoordinateCursor cursor = CoordinateCursor.decode(after);
+            if (!cursor.isArchived()) {
+                throw new CoordinateException("Track has been archived, restart the cursor without 'after'");
+            }
+            from = Math.min(cursor.archiveOffset(), track.points().getSize());
+        }
+        int to = (int) Math.min((long) from + limit, track.points().getSize());
+
+        return CoordinateCursorResponse.builder()
+                .items(archivedFixes(track, from, to))
+                .nextCursor(to > from || from > 0 ? CoordinateCursor.archived(to).encode() : null)
+                .hasMore(to < track.points().getSize())
+                .build();
+    }
+
+    // Archived fixes keep no row id or receive time, only what the archive block stores.
+    private List<CoordinateResponse> archivedFixes(ArchivedTrack archive, int from, int to) {
+        TrackPoints track = archive.points();
+        List<CoordinateResponse> content = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            short battery = track.getBattery()[i];
+            content.add(CoordinateResponse.builder()
+                    .trackerId(archive.trackerId())
+                    .transactionId(archive.transactionId())
+                    .latitude(GeoUtils.formatE7(track.getLatitudesE7()[i]))
+                    .longitude(GeoUtils.formatE7(track.getLongitudesE7()[i]))
+                    .recordedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(track.getRecordedAt()[i]), ZoneId.systemDefault()).toString())
+                    .battery(battery != TrackPoints.NO_BATTERY ? (int) battery : null)
+                    .altitude(track.getAltitudesDm()[i] != TrackPoints.NO_ALTITUDE
+                            ? GeoUtils.formatDecimeters(track.getAltitudesDm()[i]) : null)
+                    .matchedLatitude(track.getMatchedLatitudesE7()[i] != TrackPoints.NO_MATCH
+                            ? GeoUtils.formatE7(track.getMatchedLatitudesE7()[i]) : null)
+                    .matchedLongitude(track.getMatchedLongitudesE7()[i] != TrackPoints.NO_MATCH
+                            ? GeoUtils.formatE7(track.getMatchedLongitudesE7()[i]) : null)
+                    .trailSegmentId(track.getTrailSegmentIds()[i])
+                    .build());
+        }
+        return content;
+    }
+
+    // The batch methods run in one transaction, which can still fail after saveBatch returns,
+    // at commit. Dedup marks made in it are undone unless that commit succeeds.
+    private void forgetUnlessCommitted(List<Runnable> undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    undo.forEach(Runnable::run);
+                }
+            }
+        });
+    }
+
+    private CoordinateBatchResponse saveBatch(List<CoordinateBatchItemResponse> items,
+                                              List<Coordinates> accepted,
+                                              List<CoordinateBatchItemResponse> acceptedItems,
+                                              List<Runnable> undo) {
+        try {
+            coordinateRepository.saveAll(accepted);
+            coordinateRepository.flush();
+        } catch (RuntimeException e) {
+            // Nothing was stored, so the retry of every fix in the batch has to get through.
+            undo.forEach(Runnable::run);
+            throw e;
+        }
+
+        for (int i = 0; i < accepted.size(); i++) {
+            CoordinateBatchItemResponse item = acceptedItems.get(i);
+            item.setStatus(CoordinateIngestStatus.ACCEPTED.toString());
+            item.setCoordinateId(accepted.get(i).getId());
+            eventPublisher.publishEvent(CoordinateAcceptedEvent.of(accepted.get(i)));
+        }
+
+        int duplicates = (int) items.stream()
+                .filter(item -> CoordinateIngestStatus.DUPLICATE.toString().equals(item.getStatus()))
+                .count();
+
+        return CoordinateBatchResponse.builder()
+                .accepted(accepted.size())
+                .rejected(items.size() - accepted.size() - duplicates)
+                .duplicates(duplicates)
+                .items(items)
+                .build();
+    }
+
+    private Coordinates toCoordinates(ActiveTracker activeTracker, CoordinateRequest request) {
+        return toCoordinates(activeTracker,
+                GeoUtils.toE7(request.getLatitude()),
+                GeoUtils.toE7(request.getLongitude()),
+                request.getTimestamp(),
+                request.getBattery(),
+                request.getAltitude() != null ? GeoUtils.toDecimeters(request.getAltitude()) : null);
+    }
+
+    // References are uninitialized proxies, so building the row costs no reads.
+    private Coordinates toCoordinates(ActiveTracker activeTracker, int latitudeE7, int longitudeE7, Long timestamp, Integer battery, Integer altitudeDm) {
+        LocalDateTime now = LocalDateTime.now();
+        // Most trackers report no altitude; the terrain under the fix stands in for it.
+        if (altitudeDm == null) {
+            int elevationDm = elevationModel.elevationDm(latitudeE7, longitudeE7);
+            altitudeDm = elevationDm != ElevationModel.NO_DATA ? elevationDm : null;
+        }
+        return Coordinates.builder()
+                .id(UUID.randomUUID().toString())
+                .tracker(trackerDevicesRepository.getReferenceById(activeTracker.getTrackerId()))
+                .transaction(transactionsRepository.getReferenceById(activeTracker.getTransactionId()))
+                .latitudeE7(latitudeE7)
+                .longitudeE7(longitudeE7)
+                .recordedAt(timestamp != null ? LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()) : now)
+                .battery(battery != null ? battery.shortValue() : null)
+                .altitudeDm(altitudeDm)
+                .updatedAt(now)
+                .build();
+    }
 }
@@ -0,0 +1,63 @@
+package com.haven.app.haven.service.impl;
+
+import com.haven.app.haven.dto.response.ElevationBackfillResponse;
+import com.haven.app.haven.dto.response.ElevationResponse;
+import com.haven.app.haven.elevation.ElevationBackfill;
+import com.haven.app.haven.elevation.ElevationModel;
+import com.haven.app.haven.exception.ElevationException;
+import com.haven.app.haven.exception.NotFoundException;
+import com.haven.app.haven.service.ElevationService;
+import com.haven.app.haven.utils.GeoUtils;
+import com.haven.app.haven.utils.LogUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class ElevationServiceImpl implements ElevationService {
+    private final ElevationModel elevationModel;
+    private final ElevationBackfill elevationBackfill;
+
+    @Override
+    public ElevationResponse getElevation(Double latitude, Double longitude) {
+        try {
+            int latitudeE7 = GeoUtils.toE7(latitude);
+            int longitudeE7 = GeoUtils.toE7(longitude);
+            int elevationDm = elevationModel.elevationDm(latitudeE7, longitudeE7);
+            if (elevationDm == ElevationModel.NO_DATA) {
+                throw new NotFoundException("No elevation data for this position");
+            }
+
+            LogUtils.logSuccess("ElevationService", "getElevation");
+
+            return ElevationResponse.builder()
+                    .latitude(GeoUtils.formatE7(latitudeE7))
+                    .longitude(GeoUtils.formatE7(longitudeE7))
+                    .elevation(GeoUtils.formatDecimeters(elevationDm))
+                    .build();
+        } catch (Exception e) {
+            LogUtils.getError("ElevationService.getElevation", e);
+            if (e instanceof NotFoundException) {
+                throw e;
+            }
+            throw new ElevationException("Failed to get elevation");
+        }
+    }
+
+    @Override
+    public ElevationBackfillResponse backfill() {
+        try {
+            ElevationBackfillResponse result = elevationBackfill.run();
+
+            LogUtils.logSuccess("ElevationService", "backfill");
+
+            return result;
+        } catch (Exception e) {
+            LogUtils.getError("ElevationService.backfill", e);
+            if (e instanceof ElevationException) {
+                throw e;
+            }
+            throw new ElevationException("Failed to backfill elevation");
+        }
+    }
+}
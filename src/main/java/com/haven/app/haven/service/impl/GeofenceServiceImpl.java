@@ -0,0 +1,144 @@
+package com.haven.app.haven.service.impl;
+
+import com.haven.app.haven.constant.GeofenceType;
+import com.haven.app.haven.dto.request.GeofenceRequest;
+import com.haven.app.haven.dto.response.GeofenceResponse;
+import com.haven.app.haven.entity.Geofence;
+import com.haven.app.haven.exception.GeofenceException;
+import com.haven.app.haven.exception.NotFoundException;
+import com.haven.app.haven.geofence.GeofenceIndex;
+import com.haven.app.haven.geofence.GeofencePolygon;
+import com.haven.app.haven.repository.GeofenceRepository;
+import com.haven.app.haven.service.GeofenceService;
+import com.haven.app.haven.utils.LogUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class GeofenceServiceImpl implements GeofenceService {
+    private final GeofenceRepository geofenceRepository;
+    private final GeofenceIndex geofenceIndex;
+
+    @Override
+    public GeofenceResponse createGeofence(GeofenceRequest geofenceRequest) {
+        try {
+            Geofence geofence = Geofence.builder()
+                    .name(geofenceRequest.getName())
+                    .type(toType(geofenceRequest.getType()))
+                    .vertices(GeofencePolygon.fromDegrees(geofenceRequest.getPoints()).format())
+                    .active(geofenceRequest.getActive() == null || geofenceRequest.getActive())
+                    .build();
+
+            geofenceRepository.saveAndFlush(geofence);
+            geofenceIndex.reload();
+
+            LogUtils.logSuccess("GeofenceService", "createGeofence");
+
+            return GeofenceResponse.geofenceToGeofenceResponse(geofence);
+        } catch (Exception e) {
+            LogUtils.getError("GeofenceService.createGeofence", e);
+            if (e instanceof GeofenceException) {
+                throw e;
+            }
+            throw new GeofenceException("Failed to create geofence");
+        }
+    }
+
+    @Override
+    public List<GeofenceResponse> getGeofences() {
+        try {
+            List<Geofence> geofences = geofenceRepository.findAll();
+
+            LogUtils.logSuccess("GeofenceService", "getGeofences");
+
+            return geofences.stream().map(GeofenceResponse::geofenceToGeofenceResponse).toList();
+        } catch (Exception e) {
+            LogUtils.getError("GeofenceService.getGeofences", e);
+            throw new GeofenceException("Failed to get geofence list");
+        }
+    }
+
+    @Override
+    public GeofenceResponse getGeofenceById(String id) {
+        try {
+            Geofence geofence = getOne(id);
+
+            LogUtils.logSuccess("GeofenceService", "getGeofenceById");
+
+            return GeofenceResponse.geofenceToGeofenceResponse(geofence);
+        } catch (Exception e) {
+            LogUtils.getError("GeofenceService.getGeofenceById", e);
+            if (e instanceof NotFoundException) {
+                throw e;
+            }
+            throw new GeofenceException("Failed to get geofence");
+        }
+    }
+
+    @Override
+    public GeofenceResponse updateGeofence(String id, GeofenceRequest geofenceRequest) {
+        try {
+            Geofence geofence = getOne(id);
+
+            if (geofenceRequest.getName() != null) {
+                geofence.setName(geofenceRequest.getName());
+            }
+            if (geofenceRequest.getType() != null) {
+                geofence.setType(toType(geofenceRequest.getType()));
+            }
+            if (geofenceRequest.getPoints() != null) {
+                geofence.setVertices(GeofencePolygon.fromDegrees(geofenceRequest.getPoints()).format());
+            }
+            if (geofenceRequest.getActive() != null) {
+                geofence.setActive(geofenceRequest.getActive());
+            }
+
+            geofenceRepository.saveAndFlush(geofence);
+            geofenceIndex.reload();
+
+            LogUtils.logSuccess("GeofenceService", "updateGeofence");
+
+            return GeofenceResponse.geofenceToGeofenceResponse(geofence);
+        } catch (Exception e) {
+            LogUtils.getError("GeofenceService.updateGeofence", e);
+            if (e instanceof NotFoundException || e instanceof GeofenceException) {
+                throw e;
+            }
+            throw new GeofenceException("Failed to update geofence");
+        }
+    }
+
+    @Override
+    public void deleteGeofence(String id) {
+        try {
+            Geofence geofence = getOne(id);
+
+            geofenceRepository.delete(geofence);
+            geofenceIndex.reload();
+
+            LogUtils.logSuccess("GeofenceService", "deleteGeofence");
+        } catch (Exception e) {
+            LogUtils.getError("GeofenceService.deleteGeofence", e);
+            if (e instanceof NotFoundException) {
+                throw e;
+            }
+            throw new GeofenceException("Failed to delete geofence");
+        }
+    }
+
+    private Geofence getOne(String id) {
+        return geofenceRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Geofence not found"));
+    }
+
+    private static GeofenceType toType(String value) {
+        GeofenceType type = GeofenceType.fromValue(value);
+        if (type == null) {
+            throw new GeofenceException("Geofence type must be CORRIDOR or CLOSED_ZONE");
+        }
+        return type;
+    }
+}
@@ -0,0 +1,94 @@
+package com.haven.app.haven.service.impl;
+
+import com.haven.app.haven.dto.response.HeatmapCellResponse;
+import com.haven.app.haven.dto.response.HeatmapRebuildResponse;
+import com.haven.app.haven.dto.response.HeatmapTileResponse;
+import com.haven.app.haven.entity.HeatmapTile;
+import com.haven.app.haven.exception.HeatmapException;
+import com.haven.app.haven.heatmap.HeatmapAggregator;
+import com.haven.app.haven.heatmap.HeatmapTiles;
+import com.haven.app.haven.repository.HeatmapTileRepository;
+import com.haven.app.haven.service.HeatmapService;
+import com.haven.app.haven.utils.LogUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class HeatmapServiceImpl implements HeatmapService {
+    private final HeatmapTileRepository heatmapTileRepository;
+    private final HeatmapAggregator heatmapAggregator;
+
+    // A tile is returned as a grid of 2^detail x 2^detail cells from the deeper zoom.
+    @Value("${heatmap.cell-detail:4}")
+    protected Integer cellDetail;
+
+    @Override
+    @Transactional(readOnly = true)
+    public HeatmapTileResponse getTile(Integer zoom, Integer x, Integer y) {
+        try {
+            if (!HeatmapTiles.isValid(zoom, x, y)) {
+                throw new HeatmapException("Invalid tile coordinates");
+            }
+
+            int cellZoom = Math.max(heatmapAggregator.getMinZoom(),
+                    Math.min(zoom + cellDetail, heatmapAggregator.getMaxZoom()));
+            // Below the stored levels a tile would span up to 4^(min zoom) cells.
+            if (cellZoom - zoom > cellDetail) {
+                throw new HeatmapException("Heatmap is not available below zoom " + (heatmapAggregator.getMinZoom() - cellDetail));
+            }
+            List<HeatmapTile> tiles;
+            if (cellZoom >= zoom) {
+                int shift = cellZoom - zoom;
+                tiles = heatmapTileRepository.findAllByZoomAndTileXBetweenAndTileYBetween(cellZoom,
+                        x << shift, ((x + 1) << shift) - 1, y << shift, ((y + 1) << shift) - 1);
+            } else {
+                // Zoomed in past the stored levels: the tile lies inside a single cell.
+                int shift = zoom - cellZoom;
+                tiles = heatmapTileRepository.findAllByZoomAndTileXBetweenAndTileYBetween(cellZoom,
+                        x >> shift, x >> shift, y >> shift, y >> shift);
+            }
+
+            List<HeatmapCellResponse> cells = tiles.stream().map(HeatmapCellResponse::tileToCellResponse).toList();
+            long maxCount = cells.stream().mapToLong(HeatmapCellResponse::getCount).max().orElse(0L);
+
+            LogUtils.logSuccess("HeatmapService", "getTile");
+
+            return HeatmapTileResponse.builder()
+                    .zoom(zoom)
+                    .x(x)
+                    .y(y)
+                    .cellZoom(cellZoom)
+                    .maxCount(maxCount)
+                    .cells(cells)
+                    .build();
+        } catch (Exception e) {
+            LogUtils.getError("HeatmapService.getTile", e);
+            if (e instanceof HeatmapException) {
+                throw e;
+            }
+            throw new HeatmapException("Failed to get heatmap tile");
+        }
+    }
+
+    @Override
+    public HeatmapRebuildResponse rebuild() {
+        try {
+            HeatmapRebuildResponse result = heatmapAggregator.rebuild();
+
+            LogUtils.logSuccess("HeatmapService", "rebuild");
+
+            return result;
+        } catch (Exception e) {
+            LogUtils.getError("HeatmapService.rebuild", e);
+            if (e instanceof HeatmapException) {
+                throw e;
+            }
+            throw new HeatmapException("Failed to rebuild heatmap");
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.haven.app.haven.service.impl;
+
+import com.haven.app.haven.dto.request.RangerPostRequest;
+import com.haven.app.haven.dto.response.NearbyHikerResponse;
+import com.haven.app.haven.dto.response.RangerPostResponse;
+import com.haven.app.haven.dto.response.RescueNearestResponse;
+import com.haven.app.haven.dto.response.RescueRouteResponse;
+import com.haven.app.haven.entity.Coordinates;
+import com.haven.app.haven.entity.RangerPost;
+import com.haven.app.haven.exception.NotFoundException;
+import com.haven.app.haven.exception.RescueException;
+import com.haven.app.haven.realtime.LatestPositionRegistry;
+import com.haven.app.haven.repository.CoordinateRepository;
+import com.haven.app.haven.repository.RangerPostRepository;
+import com.haven.app.haven.rescue.RangerPostDirectory;
+import com.haven.app.haven.rescue.RescueRouter;
+import com.haven.app.haven.service.RescueService;
+import com.haven.app.haven.utils.GeoUtils;
+import com.haven.app.haven.utils.LogUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class RescueServiceImpl implements RescueService {
+    private final LatestPositionRegistry latestPositionRegistry;
+    private final RangerPostDirectory rangerPostDirectory;
+    private final RangerPostRepository rangerPostRepository;
+    private final CoordinateRepository coordinateRepository;
+    private final RescueRouter rescueRouter;
+
+    @Override
+    public RescueNearestResponse getNearest(Double latitude, Double longitude, Integer k, Integer rangers, String excludeTrackerId) {
+        try {
+            int latitudeE7 = GeoUtils.toE7(latitude);
+            int longitudeE7 = GeoUtils.toE7(longitude);
+
+            List<NearbyHikerResponse> hikers = latestPositionRegistry.nearest(latitudeE7, longitudeE7, k, excludeTrackerId)
+                    .stream().map(NearbyHikerResponse::fromNearby).toList();
+            List<RangerPostResponse> rangerPosts = rangerPostDirectory.nearest(latitudeE7, longitudeE7, rangers)
+                    .stream().map(RangerPostResponse::fromNearby).toList();
+
+            LogUtils.logSuccess("RescueService", "getNearest");
+
+            return RescueNearestResponse.builder()
+                    .hikers(hikers)
+                    .rangerPosts(rangerPosts)
+                    .build();
+        } catch (Exception e) {
+            LogUtils.getError("RescueService.getNearest", e);
+            throw new RescueException("Failed to find nearest hikers");
+        }
+    }
+
+    @Override
+    public List<NearbyHikerResponse> getWithin(Double latitude, Double longitude, Double radius, String excludeTrackerId) {
+        try {
+            List<NearbyHikerResponse> hikers = latestPositionRegistry
+                    .within(GeoUtils.toE7(latitude), GeoUtils.toE7(longitude), radius, excludeTrackerId)
+                    .stream().map(NearbyHikerResponse::fromNearby).toList();
+
+            LogUtils.logSuccess("RescueService", "getWithin");
+
+            return hikers;
+        } catch (Exception e) {
+            LogUtils.getError("RescueService.getWithin", e);
+            throw new RescueException("Failed to find hikers within radius");
+        }
+    }
+
+    @Override
+    public RescueRouteResponse getRoute(String transactionId, String rangerPostId) {
+        try {
+            Coordinates fix = coordinateRepository.findLatestByTransaction(transactionId)
+                    .orElseThrow(() -> new NotFoundException("No position recorded for transaction"));
+            RangerPost post = rangerPostRepository.findById(rangerPostId)
+                    .orElseThrow(() -> new NotFoundException("Ranger post not found"));
+
+            // A matched fix already sits on the trail the hiker is walking.
+            int latitudeE7 = fix.getMatchedLatitudeE7() != null ? fix.getMatchedLatitudeE7() : fix.getLatitudeE7();
+            int longitudeE7 = fix.getMatchedLongitudeE7() != null ? fix.getMatchedLongitudeE7() : fix.getLongitudeE7();
+            RescueRouter.Plan plan = rescueRouter.plan(post.getLatitudeE7(), post.getLongitudeE7(), latitudeE7, longitudeE7);
+
+            LogUtils.logSuccess("RescueService", "getRoute");
+
+            return RescueRouteResponse.fromPlan(post, fix, plan);
+        } catch (Exception e) {
+            LogUtils.getError("RescueService.getRoute", e);
+            if (e instanceof NotFoundException || e instanceof RescueException) {
+                throw e;
+            }
+            throw new RescueException("Failed to compute rescue route");
+        }
+    }
+
+    @Override
+    public RangerPostResponse createRangerPost(RangerPostRequest rangerPostRequest) {
+        try {
+            RangerPost post = RangerPost.builder()
+                    .name(rangerPostRequest.getName())
+                    .latitudeE7(GeoUtils.toE7(rangerPostRequest.getLatitude()))
+                    .longitudeE7(GeoUtils.toE7(rangerPostRequest.getLongitude()))
+                    .phone(rangerPostRequest.getPhone())
+                    .active(rangerPostRequest.getActive() == null || rangerPostRequest.getActive())
+                    .build();
+
+            rangerPostRepository.saveAndFlush(post);
+            rangerPostDirectory.reload();
+
+            LogUtils.logSuccess("RescueService", "createRangerPost");
+
+            return RangerPostResponse.rangerPostToRangerPostResponse(post);
+        } catch (Exception e) {
+            LogUtils.getError("RescueService.createRangerPost", e);
+            throw new RescueException("Failed to create ranger post");
+        }
+    }
+
+    @Override
+    public List<RangerPostResponse> getRangerPosts() {
+        try {
+            List<RangerPost> posts = rangerPostRepository.findAll();
+
+            LogUtils.logSuccess("RescueService", "getRangerPosts");
+
+            return posts.stream().map(RangerPostResponse::rangerPostToRangerPostResponse).toList();
+        } catch (Exception e) {
+            LogUtils.getError("RescueService.getRangerPosts", e);
+            throw new RescueException("Failed to get ranger post list");
+        }
+    }
+
+    @Override
+    public void deleteRangerPost(String id) {
+        try {
+            RangerPost post = rangerPostRepository.findById(id)
+                    .orElseThrow(() -> new NotFoundException("Ranger post not found"));
+
+            rangerPostRepository.delete(post);
+            rangerPostDirectory.reload();
+
+            LogUtils.logSuccess("RescueService", "deleteRangerPost");
+        } catch (Exception e) {
+            LogUtils.getError("RescueService.deleteRangerPost", e);
+            if (e instanceof NotFoundException) {
+                throw e;
+            }
+            throw new RescueException("Failed to delete ranger post");
+        }
+    }
+}
@@ -5,9 +5,12 @@ import com.haven.app.haven.dto.request.SearchTrackerDeviceRequest;
 import com.haven.app.haven.dto.request.TrackerDevicesRequest;
 import com.haven.app.haven.dto.request.TrackerDevicesStatusRequest;
 import com.haven.app.haven.dto.response.TrackerDevicesResponse;
+import com.haven.app.haven.dto.response.TrackerUplinkKeyResponse;
 import com.haven.app.haven.entity.TrackerDevices;
 import com.haven.app.haven.exception.NotFoundException;
 import com.haven.app.haven.exception.TrackerDeviceException;
+import com.haven.app.haven.ingest.ActiveTrackerCache;
+import com.haven.app.haven.ingest.UplinkAuthenticator;
 import com.haven.app.haven.repository.TrackerDevicesRepository;
 import com.haven.app.haven.service.TrackerDevicesService;
 import com.haven.app.haven.specification.TrackerDeviceSpecification;
@@ -20,12 +23,15 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.util.Base64;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class TrackerDevicesServiceImpl implements TrackerDevicesService {
     private final TrackerDevicesRepository trackerDevicesRepository;
+    private final ActiveTrackerCache activeTrackerCache;
+    private final UplinkAuthenticator uplinkAuthenticator;
 
 
     @Override
@@ -122,10 +128,14 @@ public class TrackerDevicesServiceImpl implements TrackerDevicesService {
     public TrackerDevicesResponse updateTracker(String id, TrackerDevicesRequest trackerDevicesRequest) {
         try {
             TrackerDevices trackerDevices = getOne(id);
+            String previousSerialNumber = trackerDevices.getSerialNumber();
 
             trackerDevices.setSerialNumber(trackerDevicesRequest.getSerialNumber());
             trackerDevicesRepository.saveAndFlush(trackerDevices);
 
+            activeTrackerCache.evict(previousSerialNumber);
+            activeTrackerCache.evict(trackerDevices.getSerialNumber());
+
             LogUtils.logSuccess("TrackerDevicesService", "updateTracker");
 
             return TrackerDevicesResponse.trackerDevicesToTrackerDevicesResponse(trackerDevices);
@@ -146,6 +156,8 @@ public class TrackerDevicesServiceImpl implements TrackerDevicesService {
 
             trackerDevicesRepository.saveAndFlush(trackerDevices);
 
+            activeTrackerCache.evict(trackerDevices.getSerialNumber());
+
             LogUtils.logSuccess("TrackerDevicesService", "updateStatus");
 
             return TrackerDevicesResponse.trackerDevicesToTrackerDevicesResponse(trackerDevices);
@@ -164,6 +176,8 @@ public class TrackerDevicesServiceImpl implements TrackerDevicesService {
             TrackerDevices trackerDevices = getOne(id);
             trackerDevicesRepository.delete(trackerDevices);
 
+            activeTrackerCache.evictTracker(trackerDevices.getId());
+
             LogUtils.logSuccess("TrackerDevicesService", "deleteTracker");
         } catch (Exception e) {
             LogUtils.getError("TrackerDevicesService.deleteTracker", e);
@@ -191,4 +205,28 @@ public class TrackerDevicesServiceImpl implements TrackerDevicesService {
             throw new TrackerDeviceException("Failed to get tracker device by serial number");
         }
     }
+
+    @Override
+    public TrackerUplinkKeyResponse getUplinkKey(String id) {
+        try {
+            TrackerDevices trackerDevices = getOne(id);
+
+            if (!uplinkAuthenticator.isConfigured()) {
+                throw new TrackerDeviceException("Tracker uplink secret is not configured");
+            }
+
+            LogUtils.logSuccess("TrackerDevicesService", "getUplinkKey");
+
+            return TrackerUplinkKeyResponse.builder()
+                    .serialNumber(trackerDevices.getSerialNumber())
+                    .uplinkKey(Base64.getEncoder().encodeToString(uplinkAuthenticator.deviceKey(trackerDevices.getSerialNumber())))
+                    .build();
+        } catch (Exception e) {
+            LogUtils.getError("TrackerDevicesService.getUplinkKey", e);
+            if (e instanceof NotFoundException || e instanceof TrackerDeviceException) {
+                throw e;
+            }
+            throw new TrackerDeviceException("Failed to get tracker uplink key");
+        }
+    }
 }
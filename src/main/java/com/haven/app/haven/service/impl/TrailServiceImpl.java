@@ -0,0 +1,77 @@
+package com.haven.app.haven.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.haven.app.haven.dto.response.TrailImportResponse;
+import com.haven.app.haven.dto.response.TrailSegmentResponse;
+import com.haven.app.haven.entity.TrailSegment;
+import com.haven.app.haven.exception.TrailException;
+import com.haven.app.haven.repository.TrailSegmentRepository;
+import com.haven.app.haven.service.TrailService;
+import com.haven.app.haven.trail.TrailGeoJson;
+import com.haven.app.haven.trail.TrailNetwork;
+import com.haven.app.haven.utils.LogUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class TrailServiceImpl implements TrailService {
+    private final TrailSegmentRepository trailSegmentRepository;
+    private final TrailNetwork trailNetwork;
+
+    /**
+     * Replaces the whole network. Segment ids are regenerated, so fixes matched before the
+     * import keep pointing at the old ids.
+     */
+    @Override
+    @Transactional
+    public TrailImportResponse importTrails(JsonNode geoJson) {
+        try {
+            List<TrailGeoJson.NamedLine> lines = TrailGeoJson.parse(geoJson);
+            List<TrailGeoJson.NamedLine> split = TrailGeoJson.split(lines);
+
+            List<TrailSegment> segments = split.stream()
+                    .map(named -> TrailSegment.builder()
+                            .name(named.name())
+                            .vertices(named.line().format())
+                            .lengthMeters(named.line().getLengthMeters())
+                            .build())
+                    .toList();
+
+            trailSegmentRepository.deleteAllInBatch();
+            trailSegmentRepository.saveAllAndFlush(segments);
+            trailNetwork.rebuild(segments);
+
+            LogUtils.logSuccess("TrailService", "importTrails");
+
+            return TrailImportResponse.builder()
+                    .lines(lines.size())
+                    .segments(segments.size())
+                    .lengthMeters(Math.round(segments.stream().mapToDouble(TrailSegment::getLengthMeters).sum() * 10d) / 10d)
+                    .build();
+        } catch (Exception e) {
+            LogUtils.getError("TrailService.importTrails", e);
+            if (e instanceof TrailException) {
+                throw e;
+            }
+            throw new TrailException("Failed to import trail network");
+        }
+    }
+
+    @Override
+    public List<TrailSegmentResponse> getTrailSegments() {
+        try {
+            List<TrailSegment> segments = trailSegmentRepository.findAll();
+
+            LogUtils.logSuccess("TrailService", "getTrailSegments");
+
+            return segments.stream().map(TrailSegmentResponse::trailSegmentToTrailSegmentResponse).toList();
+        } catch (Exception e) {
+            LogUtils.getError("TrailService.getTrailSegments", e);
+            throw new TrailException("Failed to get trail segment list");
+        }
+    }
+}
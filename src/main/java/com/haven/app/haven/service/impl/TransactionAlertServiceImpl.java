@@ -0,0 +1,70 @@
+package com.haven.app.haven.service.impl;
+
+import com.haven.app.haven.dto.response.TransactionAlertResponse;
+import com.haven.app.haven.entity.TransactionAlert;
+import com.haven.app.haven.exception.AlertException;
+import com.haven.app.haven.exception.NotFoundException;
+import com.haven.app.haven.repository.TransactionAlertRepository;
+import com.haven.app.haven.service.TransactionAlertService;
+import com.haven.app.haven.utils.LogUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class TransactionAlertServiceImpl implements TransactionAlertService {
+    private final TransactionAlertRepository transactionAlertRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TransactionAlertResponse> getAlerts(String transactionId, Boolean acknowledged, Integer page, Integer size) {
+        try {
+            Pageable pageable = PageRequest.of(page - 1, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+            Page<TransactionAlert> alerts;
+            if (transactionId != null && acknowledged != null) {
+                alerts = transactionAlertRepository.findAllByTransaction_IdAndAcknowledged(transactionId, acknowledged, pageable);
+            } else if (transactionId != null) {
+                alerts = transactionAlertRepository.findAllByTransaction_Id(transactionId, pageable);
+            } else if (acknowledged != null) {
+                alerts = transactionAlertRepository.findAllByAcknowledged(acknowledged, pageable);
+            } else {
+                alerts = transactionAlertRepository.findAll(pageable);
+            }
+
+            LogUtils.logSuccess("TransactionAlertService", "getAlerts");
+
+            return alerts.map(TransactionAlertResponse::alertToAlertResponse);
+        } catch (Exception e) {
+            LogUtils.getError("TransactionAlertService.getAlerts", e);
+            throw new AlertException("Failed to get alert list");
+        }
+    }
+
+    @Override
+    @Transactional
+    public TransactionAlertResponse acknowledgeAlert(String id) {
+        try {
+            TransactionAlert alert = transactionAlertRepository.findById(id)
+                    .orElseThrow(() -> new NotFoundException("Alert not found"));
+
+            alert.setAcknowledged(true);
+            transactionAlertRepository.saveAndFlush(alert);
+
+            LogUtils.logSuccess("TransactionAlertService", "acknowledgeAlert");
+
+            return TransactionAlertResponse.alertToAlertResponse(alert);
+        } catch (Exception e) {
+            LogUtils.getError("TransactionAlertService.acknowledgeAlert", e);
+            if (e instanceof NotFoundException) {
+                throw e;
+            }
+            throw new AlertException("Failed to acknowledge alert");
+        }
+    }
+}
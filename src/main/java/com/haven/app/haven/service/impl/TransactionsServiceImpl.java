@@ -8,19 +8,24 @@ import com.haven.app.haven.dto.request.TicketRequest;
 import com.haven.app.haven.dto.request.TransactionsRequest;
 import com.haven.app.haven.dto.request.TransactionsStatusRequest;
 import com.haven.app.haven.dto.response.TransactionsResponse;
+import com.haven.app.haven.dto.response.TripStatsResponse;
 import com.haven.app.haven.entity.*;
 import com.haven.app.haven.exception.NotFoundException;
 import com.haven.app.haven.exception.TrackerDeviceException;
 import com.haven.app.haven.exception.TransactionsException;
+import com.haven.app.haven.ingest.ActiveTrackerCache;
+import com.haven.app.haven.realtime.TransactionStatusChangedEvent;
 import com.haven.app.haven.repository.*;
 import com.haven.app.haven.service.TrackerDevicesService;
 import com.haven.app.haven.service.TransactionsService;
 import com.haven.app.haven.service.UsersService;
 import com.haven.app.haven.specification.TransactionSpecification;
+import com.haven.app.haven.track.TripStatsTracker;
 import jakarta.validation.constraints.Null;
 import com.haven.app.haven.utils.LogUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -43,6 +48,9 @@ public class TransactionsServiceImpl implements TransactionsService {
     private final PricesRepository pricesRepository;
     private final TrackerDevicesService trackerDevicesService;
     private final TrackerDevicesRepository trackerDevicesRepository;
+    private final ActiveTrackerCache activeTrackerCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TripStatsTracker tripStatsTracker;
 
     @Override
     public TransactionsResponse createTransaction(TransactionsRequest request) {
@@ -133,7 +141,9 @@ public class TransactionsServiceImpl implements TransactionsService {
 
             LogUtils.logSuccess("TransactionsService", "getTransactionById");
 
-            return TransactionsResponse.toTransactionResponse(transactions);
+            TransactionsResponse transactionsResponse = TransactionsResponse.toTransactionResponse(transactions);
+            tripStatsTracker.get(id).ifPresent(transactionsResponse::setStats);
+            return transactionsResponse;
         } catch (Exception e) {
             LogUtils.getError("TransactionsService.getTransactionById", e);
             if (e instanceof NotFoundException) {
@@ -219,6 +229,22 @@ public class TransactionsServiceImpl implements TransactionsService {
                 trackerDevicesRepository.saveAndFlush(trackerDevices);
             }
 
+            if (transactions.getTracker() != null) {
+                if (transactions.getStatus() == TransactionStatus.START) {
+                    activeTrackerCache.put(transactions.getTracker(), transactions);
+                } else if (status == TransactionStatus.START) {
+                    activeTrackerCache.evict(transactions.getTracker().getSerialNumber());
+                }
+            }
+
+            if (status != transactions.getStatus()) {
+                eventPublisher.publishEvent(new TransactionStatusChangedEvent(
+                        transactions.getId(),
+                        transactions.getTracker() != null ? transactions.getTracker().getId() : null,
+                        status,
+                        transactions.getStatus()));
+            }
+
             LogUtils.logSuccess("TransactionsService", "updateTransactionStatus");
 
             return TransactionsResponse.toTransactionResponse(transactions);
@@ -265,6 +291,8 @@ public class TransactionsServiceImpl implements TransactionsService {
                 throw new TrackerDeviceException("Tracker device already assigned");
             }
 
+            TransactionStatus previousStatus = transactions.getStatus();
+
             transactions.setTracker(trackerDevices);
 
             trackerDevices.setStatus(TrackerStatus.USED);
@@ -275,6 +303,13 @@ public class TransactionsServiceImpl implements TransactionsService {
 
             transactionsRepository.saveAndFlush(transactions);
 
+            activeTrackerCache.put(trackerDevices, transactions);
+
+            if (previousStatus != TransactionStatus.START) {
+                eventPublisher.publishEvent(new TransactionStatusChangedEvent(
+                        transactions.getId(), trackerDevices.getId(), previousStatus, TransactionStatus.START));
+            }
+
             LogUtils.logSuccess("TransactionsService", "deviceAssignment");
         } catch (Exception e) {
             LogUtils.getError("TransactionsService.deviceAssignment", e);
@@ -288,18 +323,12 @@ public class TransactionsServiceImpl implements TransactionsService {
     @Override
     public Transactions getTransactionByTracker(TrackerDevices trackerDevices) {
         try {
-            List<Transactions> transactionsList = transactionsRepository.findAllByTracker(trackerDevices);
-
-            if(transactionsList == null) {
-                throw new NotFoundException("Transactions not found");
-            }
+            Transactions transactions = transactionsRepository.findFirstByTrackerAndStatus(trackerDevices, TransactionStatus.START)
+                    .orElseThrow(() -> new NotFoundException("Transactions not found"));
 
             LogUtils.logSuccess("TransactionsService", "getTransactionByTracker");
 
-            return transactionsList.stream()
-                    .filter(transactions -> transactions.getStatus() == TransactionStatus.START)
-                    .findFirst()
-                    .orElseThrow(() -> new NotFoundException("Transactions not found"));
+            return transactions;
         } catch (Exception e) {
             LogUtils.getError("TransactionsService.getTransactionByTracker", e);
             if (e instanceof NotFoundException) {
@@ -329,4 +358,23 @@ public class TransactionsServiceImpl implements TransactionsService {
             throw new TransactionsException("Failed to get transactions list");
         }
     }
+
+    @Override
+    public TripStatsResponse getTransactionStats(String id) {
+        try {
+            // Live figures for a hike in progress, otherwise the last values written to the row.
+            TripStatsResponse tripStatsResponse = tripStatsTracker.get(id)
+                    .orElseGet(() -> TripStatsResponse.transactionToTripStatsResponse(getOne(id)));
+
+            LogUtils.logSuccess("TransactionsService", "getTransactionStats");
+
+            return tripStatsResponse;
+        } catch (Exception e) {
+            LogUtils.getError("TransactionsService.getTransactionStats", e);
+            if (e instanceof NotFoundException) {
+                throw e;
+            }
+            throw new TransactionsException("Failed to get transaction statistics");
+        }
+    }
 }
@@ -0,0 +1,7 @@
+package com.haven.app.haven.track;
+
+/**
+ * A decoded track archive together with the tracker it was recorded by.
+ */
+public record ArchivedTrack(String transactionId, String trackerId, TrackPoints points) {
+}
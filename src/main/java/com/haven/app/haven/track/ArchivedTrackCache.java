@@ -0,0 +1,38 @@
+package com.haven.app.haven.track;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of decoded track archives, so paging through an archived track decodes its
+ * block once rather than on every page. Archives only change when the elevation backfill
+ * rewrites them, which evicts the entry.
+ */
+@Component
+public class ArchivedTrackCache {
+    private final Map<String, ArchivedTrack> entries;
+
+    public ArchivedTrackCache(@Value("${coordinate.archive.decoded-cache-size:32}") int capacity) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ArchivedTrack> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized ArchivedTrack get(String transactionId) {
+        return entries.get(transactionId);
+    }
+
+    public synchronized void put(ArchivedTrack track) {
+        entries.put(track.transactionId(), track);
+    }
+
+    public synchronized void evictTransaction(String transactionId) {
+        entries.remove(transactionId);
+    }
+}
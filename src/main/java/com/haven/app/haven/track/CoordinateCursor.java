@@ -0,0 +1,64 @@
+package com.haven.app.haven.track;
+
+import com.haven.app.haven.entity.Coordinates;
+import com.haven.app.haven.exception.CoordinateException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in a transaction's track: the (ingestedAt, id) of the last fix a
+ * client has seen, encoded as URL-safe Base64. It follows the server's insertion order
+ * rather than device time, so a fix uploaded late with an old timestamp is still returned.
+ * An archived track keeps neither value, so its cursor is the offset of the next fix in
+ * the archive block instead.
+ */
+public record CoordinateCursor(LocalDateTime ingestedAt, String id, Integer archiveOffset) {
+    private static final char SEPARATOR = '|';
+    private static final String ARCHIVE_PREFIX = "archive" + SEPARATOR;
+
+    public CoordinateCursor(LocalDateTime ingestedAt, String id) {
+        this(ingestedAt, id, null);
+    }
+
+    public static CoordinateCursor of(Coordinates coordinates) {
+        return new CoordinateCursor(coordinates.getIngestedAt(), coordinates.getId());
+    }
+
+    public static CoordinateCursor archived(int offset) {
+        return new CoordinateCursor(null, null, offset);
+    }
+
+    public boolean isArchived() {
+        return archiveOffset != null;
+    }
+
+    public static CoordinateCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(ARCHIVE_PREFIX)) {
+                int offset = Integer.parseInt(decoded.substring(ARCHIVE_PREFIX.length()));
+                if (offset < 0) {
+                    throw new CoordinateException("Invalid cursor");
+                }
+                return archived(offset);
+            }
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == decoded.length() - 1) {
+                throw new CoordinateException("Invalid cursor");
+            }
+            return new CoordinateCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    decoded.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new CoordinateException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = isArchived() ? ARCHIVE_PREFIX + archiveOffset : ingestedAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,42 @@
+package com.haven.app.haven.track;
+
+import com.haven.app.haven.dto.response.SimplifiedTrackResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of simplified tracks for finished transactions. A DONE track never changes, so
+ * each zoom level (tolerance and point budget) is computed once and reused.
+ */
+@Component
+public class SimplifiedTrackCache {
+    private final Map<String, SimplifiedTrackResponse> entries;
+
+    public SimplifiedTrackCache(@Value("${coordinate.track.simplified-cache-size:256}") int capacity) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SimplifiedTrackResponse> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public static String key(String transactionId, Double toleranceMeters, Integer maxPoints) {
+        return transactionId + "|" + toleranceMeters + "|" + maxPoints;
+    }
+
+    public synchronized SimplifiedTrackResponse get(String key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(String key, SimplifiedTrackResponse response) {
+        entries.put(key, response);
+    }
+
+    public synchronized void evictTransaction(String transactionId) {
+        entries.keySet().removeIf(key -> key.startsWith(transactionId + "|"));
+    }
+}
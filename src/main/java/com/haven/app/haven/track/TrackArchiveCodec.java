@@ -0,0 +1,244 @@
+package com.haven.app.haven.track;
+
+import com.haven.app.haven.exception.CoordinateException;
+import com.haven.app.haven.ingest.TrackerFrameCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary block for an archived track. Fields are stored column by column, each as zigzag
+ * varint deltas from the previous fix: timestamps in milliseconds, then latitudes, then
+ * longitudes in 1e-7 degrees, then battery levels offset by one so that "no reading" is
+ * zero. Consecutive fixes differ by small amounts, so most values take one or two bytes,
+ * and grouping similar values makes the optional Deflate pass considerably more effective.
+ * <p>
+ * The optional columns of a coordinate row follow: altitude in decimetres and the
+ * trail-matched latitude / longitude, each as a delta from the previous present value plus
+ * one so that zero means absent, and the trail segment as a 1-based index into a dictionary
+ * of the distinct segment ids.
+ *
+ * <pre>
+ * magic 'T' | version | flags (bit 0: deflated) | payload
+ * payload: count varint | time column | latitude column | longitude column | battery column
+ *          | altitude column | matched latitude column | matched longitude column
+ *          | segment count varint | (length varint, UTF-8 id)* | segment column
+ * </pre>
+ */
+public final class TrackArchiveCodec {
+    public static final byte MAGIC = 0x54;
+    public static final byte VERSION = 1;
+    public static final int FLAG_DEFLATED = 0x01;
+
+    private static final int HEADER_LENGTH = 3;
+
+    private TrackArchiveCodec() {
+    }
+
+    public static byte[] encode(TrackPoints track, boolean deflate) {
+        int n = track.getSize();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_LENGTH + n * 8);
+        TrackerFrameCodec.writeVarLong(out, n);
+
+        long previousTime = 0;
+        for (int i = 0; i < n; i++) {
+            long time = track.getRecordedAt()[i];
+            TrackerFrameCodec.writeVarLong(out, TrackerFrameCodec.zigzagEncode(time - previousTime));
+            previousTime = time;
+        }
+        writeColumn(out, track.getLatitudesE7(), n);
+        writeColumn(out, track.getLongitudesE7(), n);
+        for (int i = 0; i < n; i++) {
+            TrackerFrameCodec.writeVarLong(out, track.getBattery()[i] + 1L);
+        }
+        writeOptionalColumn(out, track.getAltitudesDm(), n, TrackPoints.NO_ALTITUDE);
+        writeOptionalColumn(out, track.getMatchedLatitudesE7(), n, TrackPoints.NO_MATCH);
+        writeOptionalColumn(out, track.getMatchedLongitudesE7(), n, TrackPoints.NO_MATCH);
+        writeSegments(out, track.getTrailSegmentIds(), n);
+
+        byte[] payload = out.toByteArray();
+        byte flags = 0;
+        if (deflate) {
+            payload = deflate(payload);
+            flags |= FLAG_DEFLATED;
+        }
+
+        byte[] block = new byte[HEADER_LENGTH + payload.length];
+        block[0] = MAGIC;
+        block[1] = VERSION;
+        block[2] = flags;
+        System.arraycopy(payload, 0, block, HEADER_LENGTH, payload.length);
+        return block;
+    }
+
+    public static TrackPoints decode(byte[] block) {
+        if (block.length < HEADER_LENGTH || block[0] != MAGIC) {
+            throw new CoordinateException("Invalid track archive");
+        }
+        if (block[1] != VERSION) {
+            throw new CoordinateException("Unsupported track archive version " + block[1]);
+        }
+
+        ByteBuffer buffer = (block[2] & FLAG_DEFLATED) != 0
+                ? ByteBuffer.wrap(inflate(block))
+                : ByteBuffer.wrap(block, HEADER_LENGTH, block.length - HEADER_LENGTH);
+
+        try {
+            int n = Math.toIntExact(TrackerFrameCodec.readVarLong(buffer));
+            long[] times = new long[n];
+            long time = 0;
+            for (int i = 0; i < n; i++) {
+                time += TrackerFrameCodec.zigzagDecode(TrackerFrameCodec.readVarLong(buffer));
+                times[i] = time;
+            }
+            int[] latitudes = readColumn(buffer, n);
+            int[] longitudes = readColumn(buffer, n);
+
+            short[] batteries = new short[n];
+            for (int i = 0; i < n; i++) {
+                batteries[i] = (short) (TrackerFrameCodec.readVarLong(buffer) - 1);
+            }
+
+            int[] altitudes = readOptionalColumn(buffer, n, TrackPoints.NO_ALTITUDE);
+            int[] matchedLatitudes = readOptionalColumn(buffer, n, TrackPoints.NO_MATCH);
+            int[] matchedLongitudes = readOptionalColumn(buffer, n, TrackPoints.NO_MATCH);
+            String[] segments = readSegments(buffer, n);
+
+            TrackPoints track = new TrackPoints(n);
+            for (int i = 0; i < n; i++) {
+                track.add(latitudes[i], longitudes[i], times[i], batteries[i],
+                        altitudes[i], matchedLatitudes[i], matchedLongitudes[i], segments[i]);
+            }
+            return track;
+        } catch (BufferUnderflowException | ArithmeticException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new CoordinateException("Truncated track archive");
+        }
+    }
+
+    private static void writeColumn(ByteArrayOutputStream out, int[] values, int n) {
+        int previous = 0;
+        for (int i = 0; i < n; i++) {
+            TrackerFrameCodec.writeVarLong(out, TrackerFrameCodec.zigzagEncode((long) values[i] - previous));
+            previous = values[i];
+        }
+    }
+
+    private static int[] readColumn(ByteBuffer buffer, int n) {
+        int[] values = new int[n];
+        long value = 0;
+        for (int i = 0; i < n; i++) {
+            value += TrackerFrameCodec.zigzagDecode(TrackerFrameCodec.readVarLong(buffer));
+            values[i] = (int) value;
+        }
+        return values;
+    }
+
+    private static void writeOptionalColumn(ByteArrayOutputStream out, int[] values, int n, int absent) {
+        long previous = 0;
+        for (int i = 0; i < n; i++) {
+            if (values[i] == absent) {
+                TrackerFrameCodec.writeVarLong(out, 0);
+            } else {
+                TrackerFrameCodec.writeVarLong(out, TrackerFrameCodec.zigzagEncode(values[i] - previous) + 1);
+                previous = values[i];
+            }
+        }
+    }
+
+    private static int[] readOptionalColumn(ByteBuffer buffer, int n, int absent) {
+        int[] values = new int[n];
+        long value = 0;
+        for (int i = 0; i < n; i++) {
+            long encoded = TrackerFrameCodec.readVarLong(buffer);
+            if (encoded == 0) {
+                values[i] = absent;
+            } else {
+                value += TrackerFrameCodec.zigzagDecode(encoded - 1);
+                values[i] = (int) value;
+            }
+        }
+        return values;
+    }
+
+    private static void writeSegments(ByteArrayOutputStream out, String[] ids, int n) {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        int[] references = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (ids[i] != null) {
+                references[i] = dictionary.computeIfAbsent(ids[i], id -> dictionary.size() + 1);
+            }
+        }
+        TrackerFrameCodec.writeVarLong(out, dictionary.size());
+        for (String id : dictionary.keySet()) {
+            byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+            TrackerFrameCodec.writeVarLong(out, bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+        for (int i = 0; i < n; i++) {
+            TrackerFrameCodec.writeVarLong(out, references[i]);
+        }
+    }
+
+    private static String[] readSegments(ByteBuffer buffer, int n) {
+        int count = Math.toIntExact(TrackerFrameCodec.readVarLong(buffer));
+        if (count > buffer.remaining()) {
+            throw new CoordinateException("Truncated track archive");
+        }
+        String[] dictionary = new String[count];
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = new byte[Math.toIntExact(TrackerFrameCodec.readVarLong(buffer))];
+            buffer.get(bytes);
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        String[] ids = new String[n];
+        for (int i = 0; i < n; i++) {
+            int reference = Math.toIntExact(TrackerFrameCodec.readVarLong(buffer));
+            ids[i] = reference == 0 ? null : dictionary[reference - 1];
+        }
+        return ids;
+    }
+
+    private static byte[] deflate(byte[] payload) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, payload.length / 2));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] block) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(block, HEADER_LENGTH, block.length - HEADER_LENGTH);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(block.length * 4);
+            byte[] chunk = new byte[8192];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(chunk);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new CoordinateException("Truncated track archive");
+                }
+                out.write(chunk, 0, inflated);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new CoordinateException("Corrupt track archive");
+        } finally {
+            inflater.end();
+        }
+    }
+}
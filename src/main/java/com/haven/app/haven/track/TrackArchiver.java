@@ -0,0 +1,120 @@
+package com.haven.app.haven.track;
+
+import com.haven.app.haven.constant.TransactionStatus;
+import com.haven.app.haven.entity.TrackArchive;
+import com.haven.app.haven.entity.Transactions;
+import com.haven.app.haven.repository.TrackArchiveRepository;
+import com.haven.app.haven.repository.TransactionsRepository;
+import com.haven.app.haven.utils.LogUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Packs the fixes of finished transactions into a single {@link TrackArchive} block and
+ * deletes the raw rows. A transaction becomes eligible once it has been DONE for the grace
+ * period, which leaves time for write-behind and late uplink fixes to land first. Each
+ * transaction is archived in its own database transaction.
+ */
+@Slf4j
+@Component
+public class TrackArchiver {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TrackStore trackStore;
+    private final TrackArchiveRepository trackArchiveRepository;
+    private final TransactionsRepository transactionsRepository;
+
+    @Value("${coordinate.archive.enabled:false}")
+    protected boolean enabled;
+
+    @Value("${coordinate.archive.compress:true}")
+    protected boolean compress;
+
+    @Value("${coordinate.archive.grace-minutes:60}")
+    protected Long graceMinutes;
+
+    @Value("${coordinate.archive.batch-size:50}")
+    protected Integer batchSize;
+
+    public TrackArchiver(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         TrackStore trackStore,
+                         TrackArchiveRepository trackArchiveRepository,
+                         TransactionsRepository transactionsRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.trackStore = trackStore;
+        this.trackArchiveRepository = trackArchiveRepository;
+        this.transactionsRepository = transactionsRepository;
+    }
+
+    @Scheduled(cron = "${coordinate.archive.cron:0 */10 * * * *}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<String> transactionIds = jdbcTemplate.queryForList(
+                    "SELECT t.id FROM transactions t WHERE t.status = 'DONE' AND t.updated_at < ? " +
+                            "AND NOT EXISTS (SELECT 1 FROM track_archives a WHERE a.transaction_id = t.id) " +
+                            "ORDER BY t.updated_at LIMIT ?",
+                    String.class, Timestamp.valueOf(LocalDateTime.now().minusMinutes(graceMinutes)), batchSize);
+
+            for (String transactionId : transactionIds) {
+                try {
+                    archive(transactionId);
+                } catch (Exception e) {
+                    LogUtils.getError("TrackArchiver.archive", e);
+                }
+            }
+        } catch (Exception e) {
+            LogUtils.getError("TrackArchiver.sweep", e);
+        }
+    }
+
+    public void archive(String transactionId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Transactions transactions = transactionsRepository.findById(transactionId).orElse(null);
+            if (transactions == null || transactions.getStatus() != TransactionStatus.DONE
+                    || trackArchiveRepository.existsById(transactionId)) {
+                return;
+            }
+
+            TrackPoints track = trackStore.loadRows(transactionId);
+            byte[] data = TrackArchiveCodec.encode(track, compress);
+            int n = track.getSize();
+
+            trackArchiveRepository.save(TrackArchive.builder()
+                    .transactionId(transactionId)
+                    .trackerId(transactions.getTracker() != null ? transactions.getTracker().getId() : null)
+                    .pointCount(n)
+                    .firstRecordedAt(n > 0 ? toLocalDateTime(track.getRecordedAt()[0]) : null)
+                    .lastRecordedAt(n > 0 ? toLocalDateTime(track.getRecordedAt()[n - 1]) : null)
+                    .compressed(compress)
+                    .data(data)
+                    .build());
+            int deleted = jdbcTemplate.update("DELETE FROM coordinates WHERE transaction_id = ?", transactionId);
+            if (deleted != n) {
+                // A fix committed after the track was read; roll back and retry on the next sweep.
+                throw new IllegalStateException("Track of transaction " + transactionId + " changed while archiving");
+            }
+
+            log.info("[TrackArchiver] Archived transaction {}: {} fixes into {} bytes", transactionId, deleted, data.length);
+        });
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
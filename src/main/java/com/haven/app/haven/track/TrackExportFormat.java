@@ -0,0 +1,30 @@
+package com.haven.app.haven.track;
+
+import com.haven.app.haven.exception.CoordinateException;
+import lombok.Getter;
+
+@Getter
+public enum TrackExportFormat {
+    GEOJSON("geojson", "application/geo+json", "geojson"),
+    POLYLINE("polyline", "text/plain", "txt"),
+    GPX("gpx", "application/gpx+xml", "gpx");
+
+    private final String value;
+    private final String contentType;
+    private final String extension;
+
+    TrackExportFormat(String value, String contentType, String extension) {
+        this.value = value;
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public static TrackExportFormat fromValue(String value) {
+        for (TrackExportFormat format : TrackExportFormat.values()) {
+            if (format.value.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new CoordinateException("Unsupported export format: " + value);
+    }
+}
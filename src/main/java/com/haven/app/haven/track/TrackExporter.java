@@ -0,0 +1,157 @@
+package com.haven.app.haven.track;
+
+import com.haven.app.haven.utils.GeoUtils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+
+/**
+ * Writes a track point by point in one of the {@link TrackExportFormat}s. Nothing is
+ * buffered beyond the writer itself, so exports run in constant memory whatever the
+ * track length.
+ */
+public abstract class TrackExporter implements TrackPointHandler {
+    protected final Writer writer;
+    protected final String transactionId;
+    protected int count;
+
+    protected TrackExporter(Writer writer, String transactionId) {
+        this.writer = writer;
+        this.transactionId = transactionId;
+    }
+
+    public static TrackExporter of(TrackExportFormat format, Writer writer, String transactionId) {
+        return switch (format) {
+            case GEOJSON -> new GeoJson(writer, transactionId);
+            case POLYLINE -> new Polyline(writer, transactionId);
+            case GPX -> new Gpx(writer, transactionId);
+        };
+    }
+
+    public abstract void begin() throws IOException;
+
+    public abstract void end() throws IOException;
+
+    /**
+     * A single LineString feature. Start and end times are written as properties after the
+     * geometry, once they are known.
+     */
+    private static class GeoJson extends TrackExporter {
+        private long firstTime;
+        private long lastTime;
+
+        private GeoJson(Writer writer, String transactionId) {
+            super(writer, transactionId);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            writer.write("{\"type\":\"Feature\",\"geometry\":{\"type\":\"LineString\",\"coordinates\":[");
+        }
+
+        @Override
+        public void accept(int latitudeE7, int longitudeE7, long recordedAtMillis, short battery) throws IOException {
+            if (count == 0) {
+                firstTime = recordedAtMillis;
+            } else {
+                writer.write(',');
+            }
+            lastTime = recordedAtMillis;
+            count++;
+            writer.write('[');
+            writer.write(GeoUtils.formatE7(longitudeE7));
+            writer.write(',');
+            writer.write(GeoUtils.formatE7(latitudeE7));
+            writer.write(']');
+        }
+
+        @Override
+        public void end() throws IOException {
+            writer.write("]},\"properties\":{\"transactionId\":\"");
+            writer.write(transactionId);
+            writer.write("\",\"pointCount\":");
+            writer.write(Integer.toString(count));
+            if (count > 0) {
+                writer.write(",\"startTime\":\"");
+                writer.write(Instant.ofEpochMilli(firstTime).toString());
+                writer.write("\",\"endTime\":\"");
+                writer.write(Instant.ofEpochMilli(lastTime).toString());
+                writer.write('"');
+            }
+            writer.write("}}");
+        }
+    }
+
+    /**
+     * Google encoded polyline at 1e-5 degree precision.
+     */
+    private static class Polyline extends TrackExporter {
+        private long previousLatitude;
+        private long previousLongitude;
+
+        private Polyline(Writer writer, String transactionId) {
+            super(writer, transactionId);
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void accept(int latitudeE7, int longitudeE7, long recordedAtMillis, short battery) throws IOException {
+            long latitude = Math.round(latitudeE7 / 100d);
+            long longitude = Math.round(longitudeE7 / 100d);
+            encode(latitude - previousLatitude);
+            encode(longitude - previousLongitude);
+            previousLatitude = latitude;
+            previousLongitude = longitude;
+            count++;
+        }
+
+        @Override
+        public void end() {
+        }
+
+        private void encode(long delta) throws IOException {
+            long value = delta < 0 ? ~(delta << 1) : delta << 1;
+            while (value >= 0x20) {
+                writer.write((int) ((0x20 | (value & 0x1f)) + 63));
+                value >>= 5;
+            }
+            writer.write((int) (value + 63));
+        }
+    }
+
+    private static class Gpx extends TrackExporter {
+        private Gpx(Writer writer, String transactionId) {
+            super(writer, transactionId);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            writer.write("<gpx version=\"1.1\" creator=\"HikeSafe\" xmlns=\"http://www.topografix.com/GPX/1/1\">\n");
+            writer.write("<trk><name>");
+            writer.write(transactionId);
+            writer.write("</name><trkseg>\n");
+        }
+
+        @Override
+        public void accept(int latitudeE7, int longitudeE7, long recordedAtMillis, short battery) throws IOException {
+            writer.write("<trkpt lat=\"");
+            writer.write(GeoUtils.formatE7(latitudeE7));
+            writer.write("\" lon=\"");
+            writer.write(GeoUtils.formatE7(longitudeE7));
+            writer.write("\"><time>");
+            writer.write(Instant.ofEpochMilli(recordedAtMillis).toString());
+            writer.write("</time></trkpt>\n");
+            count++;
+        }
+
+        @Override
+        public void end() throws IOException {
+            writer.write("</trkseg></trk>\n</gpx>\n");
+        }
+    }
+}
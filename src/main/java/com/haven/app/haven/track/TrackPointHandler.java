@@ -0,0 +1,8 @@
+package com.haven.app.haven.track;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface TrackPointHandler {
+    void accept(int latitudeE7, int longitudeE7, long recordedAtMillis, short battery) throws IOException;
+}
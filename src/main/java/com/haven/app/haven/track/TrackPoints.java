@@ -0,0 +1,74 @@
+package com.haven.app.haven.track;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * A transaction's fixes in recording order as parallel primitive arrays, so long tracks
+ * can be processed without materialising an entity per fix.
+ */
+@Getter
+public class TrackPoints {
+    public static final short NO_BATTERY = -1;
+    public static final int NO_ALTITUDE = Integer.MIN_VALUE;
+    public static final int NO_MATCH = Integer.MIN_VALUE;
+
+    private int size;
+    private int[] latitudesE7;
+    private int[] longitudesE7;
+    private long[] recordedAt;
+    private short[] battery;
+    private int[] altitudesDm;
+    private int[] matchedLatitudesE7;
+    private int[] matchedLongitudesE7;
+    private String[] trailSegmentIds;
+
+    public TrackPoints(int capacity) {
+        int initial = Math.max(capacity, 16);
+        this.latitudesE7 = new int[initial];
+        this.longitudesE7 = new int[initial];
+        this.recordedAt = new long[initial];
+        this.battery = new short[initial];
+        this.altitudesDm = new int[initial];
+        this.matchedLatitudesE7 = new int[initial];
+        this.matchedLongitudesE7 = new int[initial];
+        this.trailSegmentIds = new String[initial];
+    }
+
+    public void add(int latitudeE7, int longitudeE7, long recordedAtMillis) {
+        add(latitudeE7, longitudeE7, recordedAtMillis, NO_BATTERY);
+    }
+
+    public void add(int latitudeE7, int longitudeE7, long recordedAtMillis, short batteryLevel) {
+        add(latitudeE7, longitudeE7, recordedAtMillis, batteryLevel, NO_ALTITUDE, NO_MATCH, NO_MATCH, null);
+    }
+
+    public void add(int latitudeE7, int longitudeE7, long recordedAtMillis, short batteryLevel,
+                    int altitudeDm, int matchedLatitudeE7, int matchedLongitudeE7, String trailSegmentId) {
+        if (size == latitudesE7.length) {
+            int grown = size + (size >> 1);
+            latitudesE7 = Arrays.copyOf(latitudesE7, grown);
+            longitudesE7 = Arrays.copyOf(longitudesE7, grown);
+            recordedAt = Arrays.copyOf(recordedAt, grown);
+            battery = Arrays.copyOf(battery, grown);
+            altitudesDm = Arrays.copyOf(altitudesDm, grown);
+            matchedLatitudesE7 = Arrays.copyOf(matchedLatitudesE7, grown);
+            matchedLongitudesE7 = Arrays.copyOf(matchedLongitudesE7, grown);
+            trailSegmentIds = Arrays.copyOf(trailSegmentIds, grown);
+        }
+        latitudesE7[size] = latitudeE7;
+        longitudesE7[size] = longitudeE7;
+        recordedAt[size] = recordedAtMillis;
+        battery[size] = batteryLevel;
+        altitudesDm[size] = altitudeDm;
+        matchedLatitudesE7[size] = matchedLatitudeE7;
+        matchedLongitudesE7[size] = matchedLongitudeE7;
+        trailSegmentIds[size] = trailSegmentId;
+        size++;
+    }
+
+    public void setAltitudeDm(int index, int altitudeDm) {
+        altitudesDm[index] = altitudeDm;
+    }
+}
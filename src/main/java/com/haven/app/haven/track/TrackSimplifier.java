@@ -0,0 +1,121 @@
+package com.haven.app.haven.track;
+
+import com.haven.app.haven.utils.GeoUtils;
+
+import java.util.PriorityQueue;
+
+/**
+ * Douglas-Peucker simplification driven by a priority queue instead of recursion. Every
+ * pending segment is keyed by its farthest intermediate point; the worst segment is split
+ * first, so the process can stop either when no point deviates more than the tolerance or
+ * as soon as the point budget is spent, and the budget is always spent on the largest
+ * errors. Distances are measured in metres on an equirectangular projection around the
+ * track, which is accurate at hiking scale.
+ */
+public final class TrackSimplifier {
+
+    private TrackSimplifier() {
+    }
+
+    /**
+     * @param toleranceMeters stop splitting once the worst deviation is at or below this; 0 to ignore
+     * @param maxPoints       maximum number of points to keep, at least 2; 0 for no limit
+     * @return indexes of the kept points, ascending
+     */
+    public static int[] simplify(TrackPoints track, double toleranceMeters, int maxPoints) {
+        int n = track.getSize();
+        int budget = maxPoints > 0 ? Math.max(2, maxPoints) : n;
+        if (n <= 2 || budget >= n && toleranceMeters <= 0) {
+            return range(n);
+        }
+
+        int[] lat = track.getLatitudesE7();
+        int[] lon = track.getLongitudesE7();
+        double scaleX = Math.cos(Math.toRadians(GeoUtils.fromE7(lat[0]))) * GeoUtils.METERS_PER_E7;
+        double scaleY = GeoUtils.METERS_PER_E7;
+
+        boolean[] keep = new boolean[n];
+        keep[0] = true;
+        keep[n - 1] = true;
+        int kept = 2;
+
+        PriorityQueue<Segment> queue = new PriorityQueue<>();
+        Segment first = farthest(lat, lon, scaleX, scaleY, 0, n - 1);
+        if (first != null) {
+            queue.add(first);
+        }
+
+        while (!queue.isEmpty() && kept < budget) {
+            Segment worst = queue.poll();
+            if (worst.distance <= toleranceMeters) {
+                break;
+            }
+            keep[worst.split] = true;
+            kept++;
+
+            Segment left = farthest(lat, lon, scaleX, scaleY, worst.start, worst.split);
+            if (left != null) {
+                queue.add(left);
+            }
+            Segment right = farthest(lat, lon, scaleX, scaleY, worst.split, worst.end);
+            if (right != null) {
+                queue.add(right);
+            }
+        }
+
+        int[] indexes = new int[kept];
+        for (int i = 0, j = 0; i < n; i++) {
+            if (keep[i]) {
+                indexes[j++] = i;
+            }
+        }
+        return indexes;
+    }
+
+    private static Segment farthest(int[] lat, int[] lon, double scaleX, double scaleY, int start, int end) {
+        if (end - start < 2) {
+            return null;
+        }
+
+        // Work relative to the segment start so the projection stays well-conditioned.
+        double dx = (lon[end] - lon[start]) * scaleX;
+        double dy = (lat[end] - lat[start]) * scaleY;
+        double lengthSquared = dx * dx + dy * dy;
+
+        double maxDistanceSquared = -1;
+        int split = -1;
+        for (int i = start + 1; i < end; i++) {
+            double px = (lon[i] - lon[start]) * scaleX;
+            double py = (lat[i] - lat[start]) * scaleY;
+            double distanceSquared;
+            if (lengthSquared == 0) {
+                distanceSquared = px * px + py * py;
+            } else {
+                double t = Math.max(0, Math.min(1, (px * dx + py * dy) / lengthSquared));
+                double ex = px - t * dx;
+                double ey = py - t * dy;
+                distanceSquared = ex * ex + ey * ey;
+            }
+            if (distanceSquared > maxDistanceSquared) {
+                maxDistanceSquared = distanceSquared;
+                split = i;
+            }
+        }
+        return new Segment(start, end, split, Math.sqrt(maxDistanceSquared));
+    }
+
+    private static int[] range(int n) {
+        int[] indexes = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexes[i] = i;
+        }
+        return indexes;
+    }
+
+    private record Segment(int start, int end, int split, double distance) implements Comparable<Segment> {
+        @Override
+        public int compareTo(Segment other) {
+            return Double.compare(other.distance, distance);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.haven.app.haven.track;
+
+import com.haven.app.haven.entity.TrackArchive;
+import com.haven.app.haven.repository.TrackArchiveRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Single read path for a transaction's track. Archived tracks are decoded from their
+ * {@link TrackArchive} block in one read and kept in the {@link ArchivedTrackCache}; live
+ * tracks are streamed from the coordinates table into {@link TrackPoints} with a bounded
+ * fetch size rather than as entities.
+ */
+@Component
+@RequiredArgsConstructor
+public class TrackStore {
+    private final JdbcTemplate jdbcTemplate;
+    private final TrackArchiveRepository trackArchiveRepository;
+    private final ArchivedTrackCache archivedTrackCache;
+
+    @Value("${coordinate.track.fetch-size:2000}")
+    protected Integer fetchSize;
+
+    public Optional<ArchivedTrack> findArchive(String transactionId) {
+        ArchivedTrack cached = archivedTrackCache.get(transactionId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return trackArchiveRepository.findById(transactionId).map(archive -> {
+            ArchivedTrack track = new ArchivedTrack(archive.getTransactionId(), archive.getTrackerId(),
+                    TrackArchiveCodec.decode(archive.getData()));
+            archivedTrackCache.put(track);
+            return track;
+        });
+    }
+
+    /**
+     * Receive time below which the set of coordinates is final. {@code ingested_at} is taken
+     * at INSERT, not at commit, so a row of a transaction that is still open can later appear
+     * behind rows a cursor has already passed. Every such transaction holds an xid and started
+     * no later than its rows' {@code ingested_at}, so the horizon is the start of the oldest
+     * of them. The margin covers the instant between a row's default being evaluated and its
+     * transaction being assigned an xid.
+     */
+    public LocalDateTime ingestHorizon(long marginMs) {
+        return jdbcTemplate.queryForObject(
+                "SELECT least(clock_timestamp() - ? * interval '1 millisecond', " +
+                        "(SELECT min(xact_start) FROM pg_stat_activity WHERE datname = current_database() " +
+                        "AND backend_xid IS NOT NULL AND pid <> pg_backend_pid()))::timestamp",
+                LocalDateTime.class, marginMs);
+    }
+
+    @Transactional(readOnly = true)
+    public TrackPoints load(String transactionId) {
+        Optional<ArchivedTrack> archive = findArchive(transactionId);
+        if (archive.isPresent()) {
+            return archive.get().points();
+        }
+        return loadRows(transactionId);
+    }
+
+    @Transactional(readOnly = true)
+    public TrackPoints loadRows(String transactionId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM coordinates WHERE transaction_id = ?", Integer.class, transactionId);
+        TrackPoints track = new TrackPoints(count != null ? count : 0);
+
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(
+                    "SELECT latitude_e7, longitude_e7, recorded_at, battery, altitude_dm, " +
+                            "matched_latitude_e7, matched_longitude_e7, trail_segment_id FROM coordinates " +
+                            "WHERE transaction_id = ? ORDER BY recorded_at, id");
+            statement.setFetchSize(fetchSize);
+            statement.setString(1, transactionId);
+            return statement;
+        }, rs -> {
+            short battery = rs.getShort(4);
+            if (rs.wasNull()) {
+                battery = TrackPoints.NO_BATTERY;
+            }
+            track.add(rs.getInt(1), rs.getInt(2), rs.getTimestamp(3).getTime(), battery,
+                    intOr(rs, 5, TrackPoints.NO_ALTITUDE),
+                    intOr(rs, 6, TrackPoints.NO_MATCH),
+                    intOr(rs, 7, TrackPoints.NO_MATCH),
+                    rs.getString(8));
+        });
+        return track;
+    }
+
+    private static int intOr(ResultSet rs, int column, int absent) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? absent : value;
+    }
+
+    /**
+     * Feeds every fix of a track to the handler in recording order. Live tracks are read
+     * through a server-side cursor (the read-only transaction keeps the fetch size effective),
+     * so memory use does not depend on the track length.
+     */
+    @Transactional(readOnly = true)
+    public void stream(String transactionId, TrackPointHandler handler) throws IOException {
+        Optional<ArchivedTrack> archive = findArchive(transactionId);
+        if (archive.isPresent()) {
+            TrackPoints track = archive.get().points();
+            for (int i = 0; i < track.getSize(); i++) {
+                handler.accept(track.getLatitudesE7()[i], track.getLongitudesE7()[i],
+                        track.getRecordedAt()[i], track.getBattery()[i]);
+            }
+            return;
+        }
+
+        try {
+            jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement(
+                        "SELECT latitude_e7, longitude_e7, recorded_at, battery FROM coordinates " +
+                                "WHERE transaction_id = ? ORDER BY recorded_at, id");
+                statement.setFetchSize(fetchSize);
+                statement.setString(1, transactionId);
+                return statement;
+            }, rs -> {
+                short battery = rs.getShort(4);
+                if (rs.wasNull()) {
+                    battery = TrackPoints.NO_BATTERY;
+                }
+                try {
+                    handler.accept(rs.getInt(1), rs.getInt(2), rs.getTimestamp(3).getTime(), battery);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
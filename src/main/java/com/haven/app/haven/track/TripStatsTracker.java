@@ -0,0 +1,234 @@
+package com.haven.app.haven.track;
+
+import com.haven.app.haven.constant.TransactionStatus;
+import com.haven.app.haven.dto.response.TripStatsResponse;
+import com.haven.app.haven.entity.Transactions;
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import com.haven.app.haven.realtime.TransactionStatusChangedEvent;
+import com.haven.app.haven.repository.TransactionsRepository;
+import com.haven.app.haven.utils.GeoUtils;
+import com.haven.app.haven.utils.LogUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Running distance, elevation gain and moving time per active transaction, updated in
+ * constant time per accepted fix and written to the transaction row every
+ * {@code trip.stats.flush-ms}. Distance is summed between fixes at least
+ * {@code trip.stats.min-step-meters} apart so GPS jitter at rest does not add up; a step
+ * counts as moving time when its speed is at least {@code trip.stats.min-speed-kmh} and
+ * it spans no more than {@code trip.stats.max-gap-seconds}. Elevation gain uses a
+ * {@code trip.stats.elevation-threshold-meters} hysteresis against altimeter noise.
+ * <p>
+ * State exists only for START transactions. A fix for a transaction without state is
+ * counted only if its row is still START, resuming from the persisted totals, so a late
+ * fix after the trip finished cannot overwrite them.
+ */
+@Slf4j
+@Component
+public class TripStatsTracker {
+    private final TransactionsRepository transactionsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final double minStepMeters;
+    private final double minSpeedMetersPerSecond;
+    private final long maxGapMillis;
+    private final int elevationThresholdDm;
+
+    private final Map<String, Stats> states = new ConcurrentHashMap<>();
+
+    public TripStatsTracker(TransactionsRepository transactionsRepository,
+                            JdbcTemplate jdbcTemplate,
+                            @Value("${trip.stats.min-step-meters:10}") double minStepMeters,
+                            @Value("${trip.stats.min-speed-kmh:0.5}") double minSpeedKmh,
+                            @Value("${trip.stats.max-gap-seconds:600}") long maxGapSeconds,
+                            @Value("${trip.stats.elevation-threshold-meters:3}") double elevationThresholdMeters) {
+        this.transactionsRepository = transactionsRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.minStepMeters = minStepMeters;
+        this.minSpeedMetersPerSecond = minSpeedKmh / 3.6d;
+        this.maxGapMillis = maxGapSeconds * 1000L;
+        this.elevationThresholdDm = GeoUtils.toDecimeters(elevationThresholdMeters);
+    }
+
+    private static final class Stats {
+        private double distanceMeters;
+        private double elevationGainMeters;
+        private long movingMillis;
+
+        private boolean anchored;
+        private int anchorLatitudeE7;
+        private int anchorLongitudeE7;
+        private long anchorMillis;
+        private Integer referenceAltitudeDm;
+
+        private boolean dirty;
+        private boolean finished;
+
+        private Stats(double distanceMeters, double elevationGainMeters, long movingMillis) {
+            this.distanceMeters = distanceMeters;
+            this.elevationGainMeters = elevationGainMeters;
+            this.movingMillis = movingMillis;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            for (Transactions transactions : transactionsRepository.findAllByStatus(TransactionStatus.START)) {
+                states.put(transactions.getId(), resume(transactions));
+            }
+            log.info("[TripStatsTracker] Resumed statistics for {} active transactions", states.size());
+        } catch (Exception e) {
+            LogUtils.getError("TripStatsTracker.warmUp", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCoordinateAccepted(CoordinateAcceptedEvent event) {
+        long millis = event.getRecordedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+        // Loaded outside compute so the map is not locked during the query.
+        Stats resumed = states.containsKey(event.getTransactionId()) ? null : resumeIfStarted(event.getTransactionId());
+        states.compute(event.getTransactionId(), (transactionId, stats) -> {
+            if (stats == null) {
+                if (resumed == null) {
+                    return null;
+                }
+                stats = resumed;
+            }
+            accumulate(stats, event, millis);
+            return stats;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionStatusChanged(TransactionStatusChangedEvent event) {
+        if (event.getStatus() == TransactionStatus.START) {
+            states.putIfAbsent(event.getTransactionId(), new Stats(0d, 0d, 0L));
+            return;
+        }
+        // Written and dropped by the next flush, outside the committing transaction.
+        states.computeIfPresent(event.getTransactionId(), (transactionId, stats) -> {
+            stats.finished = true;
+            stats.dirty = true;
+            return stats;
+        });
+    }
+
+    public Optional<TripStatsResponse> get(String transactionId) {
+        TripStatsResponse[] result = new TripStatsResponse[1];
+        states.computeIfPresent(transactionId, (key, stats) -> {
+            result[0] = TripStatsResponse.of(key, stats.distanceMeters, stats.elevationGainMeters, stats.movingMillis / 1000L);
+            return stats;
+        });
+        return Optional.ofNullable(result[0]);
+    }
+
+    @Scheduled(fixedDelayString = "${trip.stats.flush-ms:30000}")
+    public void flush() {
+        List<Object[]> rows = new ArrayList<>();
+        List<String> finished = new ArrayList<>();
+        for (String transactionId : states.keySet()) {
+            states.computeIfPresent(transactionId, (key, stats) -> {
+                if (stats.dirty) {
+                    rows.add(new Object[]{stats.distanceMeters, stats.elevationGainMeters, stats.movingMillis / 1000L, key});
+                    stats.dirty = false;
+                }
+                if (stats.finished) {
+                    finished.add(key);
+                }
+                return stats;
+            });
+        }
+        if (rows.isEmpty() && finished.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate("UPDATE transactions SET distance_meters = ?, elevation_gain_meters = ?, " +
+                    "moving_seconds = ? WHERE id = ?", rows);
+            finished.forEach(states::remove);
+        } catch (Exception e) {
+            LogUtils.getError("TripStatsTracker.flush", e);
+            for (Object[] row : rows) {
+                states.computeIfPresent((String) row[3], (key, stats) -> {
+                    stats.dirty = true;
+                    return stats;
+                });
+            }
+        }
+    }
+
+    private Stats resumeIfStarted(String transactionId) {
+        try {
+            return transactionsRepository.findById(transactionId)
+                    .filter(transactions -> transactions.getStatus() == TransactionStatus.START)
+                    .map(TripStatsTracker::resume)
+                    .orElse(null);
+        } catch (Exception e) {
+            LogUtils.getError("TripStatsTracker.resumeIfStarted", e);
+            return null;
+        }
+    }
+
+    private static Stats resume(Transactions transactions) {
+        return new Stats(
+                transactions.getDistanceMeters() != null ? transactions.getDistanceMeters() : 0d,
+                transactions.getElevationGainMeters() != null ? transactions.getElevationGainMeters() : 0d,
+                transactions.getMovingSeconds() != null ? transactions.getMovingSeconds() * 1000L : 0L);
+    }
+
+    private void accumulate(Stats stats, CoordinateAcceptedEvent event, long millis) {
+        if (stats.anchored && millis <= stats.anchorMillis) {
+            return;
+        }
+
+        if (event.getAltitudeDm() != null) {
+            int altitudeDm = event.getAltitudeDm();
+            if (stats.referenceAltitudeDm == null) {
+                stats.referenceAltitudeDm = altitudeDm;
+            } else if (altitudeDm - stats.referenceAltitudeDm >= elevationThresholdDm) {
+                stats.elevationGainMeters += (altitudeDm - stats.referenceAltitudeDm) / 10d;
+                stats.referenceAltitudeDm = altitudeDm;
+                stats.dirty = true;
+            } else if (stats.referenceAltitudeDm - altitudeDm >= elevationThresholdDm) {
+                stats.referenceAltitudeDm = altitudeDm;
+            }
+        }
+
+        if (!stats.anchored) {
+            anchor(stats, event, millis);
+            return;
+        }
+
+        double step = GeoUtils.haversineMeters(stats.anchorLatitudeE7, stats.anchorLongitudeE7,
+                event.getLatitudeE7(), event.getLongitudeE7());
+        if (step < minStepMeters) {
+            return;
+        }
+
+        long elapsed = millis - stats.anchorMillis;
+        stats.distanceMeters += step;
+        if (elapsed <= maxGapMillis && step * 1000d / elapsed >= minSpeedMetersPerSecond) {
+            stats.movingMillis += elapsed;
+        }
+        stats.dirty = true;
+        anchor(stats, event, millis);
+    }
+
+    private static void anchor(Stats stats, CoordinateAcceptedEvent event, long millis) {
+        stats.anchored = true;
+        stats.anchorLatitudeE7 = event.getLatitudeE7();
+        stats.anchorLongitudeE7 = event.getLongitudeE7();
+        stats.anchorMillis = millis;
+    }
+}
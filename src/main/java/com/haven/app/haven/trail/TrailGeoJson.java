@@ -0,0 +1,118 @@
+package com.haven.app.haven.trail;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.haven.app.haven.exception.TrailException;
+import com.haven.app.haven.utils.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the trail network from GeoJSON and splits it into graph edges. Lines are cut at
+ * every vertex shared with another line (or revisited by the same line), so trails that
+ * cross at a common vertex become connected junctions, as routing exports expect.
+ */
+public final class TrailGeoJson {
+    private TrailGeoJson() {
+    }
+
+    public record NamedLine(String name, TrailLine line) {
+    }
+
+    /**
+     * Accepts a FeatureCollection, a Feature or a bare geometry of LineString or
+     * MultiLineString. Other geometry types are skipped.
+     */
+    public static List<NamedLine> parse(JsonNode geoJson) {
+        if (geoJson == null || !geoJson.hasNonNull("type")) {
+            throw new TrailException("Trail network must be GeoJSON");
+        }
+        List<NamedLine> lines = new ArrayList<>();
+        collect(geoJson, null, lines);
+        if (lines.isEmpty()) {
+            throw new TrailException("Trail network has no LineString features");
+        }
+        return lines;
+    }
+
+    public static List<NamedLine> split(List<NamedLine> lines) {
+        Map<Long, Integer> visits = new HashMap<>();
+        for (NamedLine named : lines) {
+            TrailLine line = named.line();
+            for (int i = 0; i < line.size(); i++) {
+                // Endpoints always become nodes; counting them twice makes that so.
+                int weight = i == 0 || i == line.size() - 1 ? 2 : 1;
+                visits.merge(vertex(line, i), weight, Integer::sum);
+            }
+        }
+
+        List<NamedLine> segments = new ArrayList<>();
+        for (NamedLine named : lines) {
+            TrailLine line = named.line();
+            int start = 0;
+            for (int i = 1; i < line.size(); i++) {
+                if (i == line.size() - 1 || visits.get(vertex(line, i)) > 1) {
+                    TrailLine segment = line.slice(start, i);
+                    if (segment.getLengthMeters() > 0) {
+                        segments.add(new NamedLine(named.name(), segment));
+                    }
+                    start = i;
+                }
+            }
+        }
+        return segments;
+    }
+
+    private static void collect(JsonNode node, String name, List<NamedLine> lines) {
+        String type = node.path("type").asText();
+        switch (type) {
+            case "FeatureCollection" -> {
+                for (JsonNode feature : node.path("features")) {
+                    collect(feature, null, lines);
+                }
+            }
+            case "Feature" -> {
+                JsonNode properties = node.path("properties");
+                String featureName = properties.hasNonNull("name") ? properties.get("name").asText() : null;
+                if (node.hasNonNull("geometry")) {
+                    collect(node.get("geometry"), featureName, lines);
+                }
+            }
+            case "LineString" -> lines.add(new NamedLine(name, line(node.path("coordinates"))));
+            case "MultiLineString" -> {
+                for (JsonNode coordinates : node.path("coordinates")) {
+                    lines.add(new NamedLine(name, line(coordinates)));
+                }
+            }
+            default -> {
+                // Points, polygons and the like carry no trail geometry.
+            }
+        }
+    }
+
+    // GeoJSON positions are [longitude, latitude(, elevation)].
+    private static TrailLine line(JsonNode coordinates) {
+        if (!coordinates.isArray() || coordinates.size() < 2) {
+            throw new TrailException("Trail line needs at least 2 points");
+        }
+        int[] latitudes = new int[coordinates.size()];
+        int[] longitudes = new int[coordinates.size()];
+        for (int i = 0; i < coordinates.size(); i++) {
+            JsonNode position = coordinates.get(i);
+            double longitude = position.path(0).asDouble(Double.NaN);
+            double latitude = position.path(1).asDouble(Double.NaN);
+            if (!GeoUtils.isValidLatitude(latitude) || !GeoUtils.isValidLongitude(longitude)) {
+                throw new TrailException("Trail position " + i + " must be [longitude, latitude] within range");
+            }
+            latitudes[i] = GeoUtils.toE7(latitude);
+            longitudes[i] = GeoUtils.toE7(longitude);
+        }
+        return new TrailLine(latitudes, longitudes);
+    }
+
+    private static long vertex(TrailLine line, int i) {
+        return ((long) line.getLatitudesE7()[i] << 32) | (line.getLongitudesE7()[i] & 0xFFFFFFFFL);
+    }
+}
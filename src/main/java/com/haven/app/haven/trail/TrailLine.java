@@ -0,0 +1,78 @@
+package com.haven.app.haven.trail;
+
+import com.haven.app.haven.exception.TrailException;
+import com.haven.app.haven.utils.GeoUtils;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A trail polyline in 1e-7 degrees with the running distance to each vertex, stored in the
+ * same {@code "latE7 lonE7,..."} text form as geofence vertices.
+ */
+@Getter
+public final class TrailLine {
+    private final int[] latitudesE7;
+    private final int[] longitudesE7;
+    // Metres from the first vertex to each vertex.
+    private final double[] offsets;
+
+    public TrailLine(int[] latitudesE7, int[] longitudesE7) {
+        if (latitudesE7.length < 2 || latitudesE7.length != longitudesE7.length) {
+            throw new TrailException("Trail line needs at least 2 points");
+        }
+        this.latitudesE7 = latitudesE7;
+        this.longitudesE7 = longitudesE7;
+        this.offsets = new double[latitudesE7.length];
+        for (int i = 1; i < latitudesE7.length; i++) {
+            offsets[i] = offsets[i - 1] + GeoUtils.haversineMeters(latitudesE7[i - 1], longitudesE7[i - 1],
+                    latitudesE7[i], longitudesE7[i]);
+        }
+    }
+
+    public int size() {
+        return latitudesE7.length;
+    }
+
+    public double getLengthMeters() {
+        return offsets[offsets.length - 1];
+    }
+
+    public TrailLine slice(int from, int to) {
+        return new TrailLine(Arrays.copyOfRange(latitudesE7, from, to + 1), Arrays.copyOfRange(longitudesE7, from, to + 1));
+    }
+
+    public static TrailLine parse(String vertices) {
+        String[] pairs = vertices.split(",");
+        int[] latitudes = new int[pairs.length];
+        int[] longitudes = new int[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            String pair = pairs[i].trim();
+            int space = pair.indexOf(' ');
+            latitudes[i] = Integer.parseInt(pair.substring(0, space));
+            longitudes[i] = Integer.parseInt(pair.substring(space + 1));
+        }
+        return new TrailLine(latitudes, longitudes);
+    }
+
+    public String format() {
+        StringBuilder builder = new StringBuilder(latitudesE7.length * 22);
+        for (int i = 0; i < latitudesE7.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(latitudesE7[i]).append(' ').append(longitudesE7[i]);
+        }
+        return builder.toString();
+    }
+
+    public List<List<Double>> toDegrees() {
+        List<List<Double>> points = new ArrayList<>(latitudesE7.length);
+        for (int i = 0; i < latitudesE7.length; i++) {
+            points.add(List.of(GeoUtils.fromE7(latitudesE7[i]), GeoUtils.fromE7(longitudesE7[i])));
+        }
+        return points;
+    }
+}
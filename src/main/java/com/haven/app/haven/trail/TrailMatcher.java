@@ -0,0 +1,180 @@
+package com.haven.app.haven.trail;
+
+import com.haven.app.haven.constant.TransactionStatus;
+import com.haven.app.haven.entity.Coordinates;
+import com.haven.app.haven.realtime.TransactionStatusChangedEvent;
+import com.haven.app.haven.utils.GeoUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Snaps fixes onto the trail network with a hidden Markov model in the style of Newson and
+ * Krumm: the hidden states are the trail edges near each fix, emissions score the GPS
+ * offset from the edge and transitions score how well the walking distance along the
+ * network agrees with the straight-line distance between fixes. Viterbi runs forward
+ * one fix at a time, keeping only the scores of the previous fix's candidates per
+ * transaction, and each fix is matched to the best state at its own step.
+ * <p>
+ * Per fix the work is at most {@code trail.match.max-candidates} route searches, each
+ * cut off at {@code trail.match.max-detour-meters} beyond the straight-line distance, so
+ * it can run inline with ingest. A fix with no trail nearby, or after a long silence,
+ * starts a new chain.
+ */
+@Component
+public class TrailMatcher {
+    private final TrailNetwork trailNetwork;
+    private final boolean enabled;
+    private final double searchRadiusMeters;
+    private final int maxCandidates;
+    private final double sigmaMeters;
+    private final double betaMeters;
+    private final double maxDetourMeters;
+    private final long breakMillis;
+
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    public TrailMatcher(TrailNetwork trailNetwork,
+                        @Value("${trail.match.enabled:true}") boolean enabled,
+                        @Value("${trail.match.search-radius-meters:50}") double searchRadiusMeters,
+                        @Value("${trail.match.max-candidates:4}") int maxCandidates,
+                        @Value("${trail.match.sigma-meters:10}") double sigmaMeters,
+                        @Value("${trail.match.beta-meters:20}") double betaMeters,
+                        @Value("${trail.match.max-detour-meters:500}") double maxDetourMeters,
+                        @Value("${trail.match.break-seconds:300}") long breakSeconds) {
+        this.trailNetwork = trailNetwork;
+        this.enabled = enabled;
+        this.searchRadiusMeters = searchRadiusMeters;
+        this.maxCandidates = Math.max(1, maxCandidates);
+        this.sigmaMeters = sigmaMeters;
+        this.betaMeters = betaMeters;
+        this.maxDetourMeters = maxDetourMeters;
+        this.breakMillis = breakSeconds * 1000L;
+    }
+
+    private record State(long millis, int latitudeE7, int longitudeE7,
+                         List<TrailNetwork.Candidate> candidates, double[] scores) {
+    }
+
+    public record Match(String segmentId, int latitudeE7, int longitudeE7) {
+    }
+
+    /**
+     * Fills in the matched position and segment of a fix about to be stored, if a trail is
+     * close enough.
+     */
+    public void match(Coordinates coordinates) {
+        match(coordinates.getTransaction().getId(), coordinates.getLatitudeE7(), coordinates.getLongitudeE7(),
+                coordinates.getRecordedAt().toInstant(ZoneOffset.UTC).toEpochMilli())
+                .ifPresent(match -> {
+                    coordinates.setMatchedLatitudeE7(match.latitudeE7());
+                    coordinates.setMatchedLongitudeE7(match.longitudeE7());
+                    coordinates.setTrailSegmentId(match.segmentId());
+                });
+    }
+
+    public Optional<Match> match(String transactionId, int latitudeE7, int longitudeE7, long millis) {
+        if (!enabled || trailNetwork.isEmpty()) {
+            return Optional.empty();
+        }
+        List<TrailNetwork.Candidate> candidates = trailNetwork.candidates(latitudeE7, longitudeE7,
+                searchRadiusMeters, maxCandidates);
+
+        TrailNetwork.Candidate[] chosen = new TrailNetwork.Candidate[1];
+        states.compute(transactionId, (key, previous) -> {
+            if (candidates.isEmpty()) {
+                return null;
+            }
+            double[] emissions = new double[candidates.size()];
+            for (int j = 0; j < candidates.size(); j++) {
+                double z = candidates.get(j).distanceMeters() / sigmaMeters;
+                emissions[j] = -0.5d * z * z;
+            }
+
+            // A late fix is matched on its own and leaves the chain alone.
+            if (previous != null && millis <= previous.millis()) {
+                chosen[0] = candidates.get(argmax(emissions));
+                return previous;
+            }
+
+            double[] scores = previous != null && millis - previous.millis() <= breakMillis
+                    ? step(previous, candidates, emissions, latitudeE7, longitudeE7)
+                    : null;
+            if (scores == null) {
+                scores = emissions;
+            }
+            chosen[0] = candidates.get(argmax(scores));
+            return new State(millis, latitudeE7, longitudeE7, candidates, normalise(scores));
+        });
+
+        TrailNetwork.Candidate candidate = chosen[0];
+        if (candidate == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Match(trailNetwork.getEdge(candidate.edge()).id(),
+                candidate.latitudeE7(), candidate.longitudeE7()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionStatusChanged(TransactionStatusChangedEvent event) {
+        if (event.getStatus() != TransactionStatus.START) {
+            states.remove(event.getTransactionId());
+        }
+    }
+
+    public int getTrackedCount() {
+        return states.size();
+    }
+
+    // One Viterbi step; null when no candidate is reachable from the previous ones.
+    private double[] step(State previous, List<TrailNetwork.Candidate> candidates, double[] emissions,
+                          int latitudeE7, int longitudeE7) {
+        double straight = GeoUtils.haversineMeters(previous.latitudeE7(), previous.longitudeE7(), latitudeE7, longitudeE7);
+        double limit = straight + maxDetourMeters;
+
+        double[] scores = new double[candidates.size()];
+        Arrays.fill(scores, Double.NEGATIVE_INFINITY);
+        boolean reachable = false;
+        for (int i = 0; i < previous.candidates().size(); i++) {
+            double[] routes = trailNetwork.routeDistances(previous.candidates().get(i), candidates, limit);
+            for (int j = 0; j < candidates.size(); j++) {
+                if (Double.isInfinite(routes[j])) {
+                    continue;
+                }
+                double score = previous.scores()[i] - Math.abs(routes[j] - straight) / betaMeters + emissions[j];
+                if (score > scores[j]) {
+                    scores[j] = score;
+                    reachable = true;
+                }
+            }
+        }
+        return reachable ? scores : null;
+    }
+
+    private static int argmax(double[] values) {
+        int best = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    // Keeps log scores near zero however long the chain gets.
+    private static double[] normalise(double[] scores) {
+        double max = scores[argmax(scores)];
+        double[] normalised = new double[scores.length];
+        for (int i = 0; i < scores.length; i++) {
+            normalised[i] = scores[i] - max;
+        }
+        return normalised;
+    }
+}
@@ -0,0 +1,518 @@
+package com.haven.app.haven.trail;
+
+import com.haven.app.haven.entity.TrailSegment;
+import com.haven.app.haven.repository.TrailSegmentRepository;
+import com.haven.app.haven.utils.GeoUtils;
+import com.haven.app.haven.utils.LogUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * The trail network as an undirected graph held in memory: each stored
+ * {@link TrailSegment} is an edge between the nodes at its two ends, and segments whose
+ * ends share a coordinate meet at the same node. A uniform grid over the individual
+ * line pieces finds the segments near a fix without scanning the network. Like the
+ * geofence index, the whole graph is an immutable snapshot swapped on reload, so
+ * readers never lock.
+ * <p>
+ * Point-to-point routes use A* with ALT landmarks: on every rebuild a few nodes spread
+ * out by farthest-point selection get their distance to every node precomputed, and the
+ * triangle inequality over those tables gives a much tighter lower bound than the
+ * straight-line distance on winding mountain trails.
+ */
+@Slf4j
+@Component
+public class TrailNetwork {
+    private final TrailSegmentRepository trailSegmentRepository;
+    private final int cellSizeE7;
+    private final int landmarkCount;
+
+    private volatile Snapshot snapshot = new Snapshot(List.of(), new int[0], new int[0], new int[0][], Map.of(), new double[0][]);
+
+    public TrailNetwork(TrailSegmentRepository trailSegmentRepository,
+                        @Value("${trail.grid-cell-degrees:0.002}") double cellSizeDegrees,
+                        @Value("${trail.route.landmarks:8}") int landmarkCount) {
+        this.trailSegmentRepository = trailSegmentRepository;
+        this.cellSizeE7 = (int) Math.round(cellSizeDegrees * GeoUtils.E7);
+        this.landmarkCount = Math.max(0, landmarkCount);
+    }
+
+    public record Edge(String id, String name, TrailLine line, int from, int to) {
+        public double length() {
+            return line.getLengthMeters();
+        }
+    }
+
+    /**
+     * A fix projected onto an edge: the closest point of the edge and how far along the
+     * edge it lies.
+     */
+    public record Candidate(int edge, double offsetMeters, int latitudeE7, int longitudeE7, double distanceMeters) {
+    }
+
+    /**
+     * A walk along the network between two candidates, as the segments it uses and the
+     * polyline from the first candidate's point to the second's.
+     */
+    public record Route(double distanceMeters, List<String> segmentIds, int[] latitudesE7, int[] longitudesE7) {
+    }
+
+    // Cells hold (edge, piece) index pairs, flattened; landmarks[l][n] is the walking
+    // distance from landmark l to node n.
+    private record Snapshot(List<Edge> edges, int[] nodeLatitudesE7, int[] nodeLongitudesE7,
+                            int[][] incident, Map<Long, int[]> cells, double[][] landmarks) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        try {
+            List<TrailSegment> segments = trailSegmentRepository.findAll();
+            rebuild(segments);
+            log.info("[TrailNetwork] Loaded {} trail segments", segments.size());
+        } catch (Exception e) {
+            LogUtils.getError("TrailNetwork.reload", e);
+        }
+    }
+
+    public void rebuild(List<TrailSegment> segments) {
+        Map<Long, Integer> nodeIds = new HashMap<>();
+        List<int[]> nodes = new ArrayList<>();
+        List<Edge> edges = new ArrayList<>(segments.size());
+        for (TrailSegment segment : segments) {
+            TrailLine line = TrailLine.parse(segment.getVertices());
+            int from = node(nodeIds, nodes, line.getLatitudesE7()[0], line.getLongitudesE7()[0]);
+            int last = line.size() - 1;
+            int to = node(nodeIds, nodes, line.getLatitudesE7()[last], line.getLongitudesE7()[last]);
+            edges.add(new Edge(segment.getId(), segment.getName(), line, from, to));
+        }
+
+        int[] nodeLatitudes = new int[nodes.size()];
+        int[] nodeLongitudes = new int[nodes.size()];
+        List<List<Integer>> building = new ArrayList<>(nodes.size());
+        for (int n = 0; n < nodes.size(); n++) {
+            nodeLatitudes[n] = nodes.get(n)[0];
+            nodeLongitudes[n] = nodes.get(n)[1];
+            building.add(new ArrayList<>(3));
+        }
+        Map<Long, List<Integer>> cellBuilding = new HashMap<>();
+        for (int e = 0; e < edges.size(); e++) {
+            Edge edge = edges.get(e);
+            building.get(edge.from()).add(e);
+            if (edge.to() != edge.from()) {
+                building.get(edge.to()).add(e);
+            }
+            TrailLine line = edge.line();
+            for (int piece = 0; piece < line.size() - 1; piece++) {
+                int minRow = cell(Math.min(line.getLatitudesE7()[piece], line.getLatitudesE7()[piece + 1]));
+                int maxRow = cell(Math.max(line.getLatitudesE7()[piece], line.getLatitudesE7()[piece + 1]));
+                int minColumn = cell(Math.min(line.getLongitudesE7()[piece], line.getLongitudesE7()[piece + 1]));
+                int maxColumn = cell(Math.max(line.getLongitudesE7()[piece], line.getLongitudesE7()[piece + 1]));
+                for (int row = minRow; row <= maxRow; row++) {
+                    for (int column = minColumn; column <= maxColumn; column++) {
+                        List<Integer> entries = cellBuilding.computeIfAbsent(key(row, column), k -> new ArrayList<>(4));
+                        entries.add(e);
+                        entries.add(piece);
+                    }
+                }
+            }
+        }
+
+        int[][] incident = new int[nodes.size()][];
+        for (int n = 0; n < nodes.size(); n++) {
+            incident[n] = building.get(n).stream().mapToInt(Integer::intValue).toArray();
+        }
+        Map<Long, int[]> cells = new HashMap<>(cellBuilding.size() * 2);
+        cellBuilding.forEach((cellKey, entries) -> cells.put(cellKey, entries.stream().mapToInt(Integer::intValue).toArray()));
+
+        List<Edge> frozen = List.copyOf(edges);
+        snapshot = new Snapshot(frozen, nodeLatitudes, nodeLongitudes, incident, cells,
+                landmarks(frozen, incident, landmarkCount));
+    }
+
+    public boolean isEmpty() {
+        return snapshot.edges().isEmpty();
+    }
+
+    public Edge getEdge(int edge) {
+        return snapshot.edges().get(edge);
+    }
+
+    /**
+     * Up to {@code max} edges passing within {@code radiusMeters} of the point, each
+     * projected onto its closest piece, nearest first.
+     */
+    public List<Candidate> candidates(int latitudeE7, int longitudeE7, double radiusMeters, int max) {
+        Snapshot current = snapshot;
+        if (current.edges().isEmpty()) {
+            return List.of();
+        }
+        double cos = Math.cos(Math.toRadians(GeoUtils.fromE7(latitudeE7)));
+        double metersPerE7Longitude = GeoUtils.METERS_PER_E7 * cos;
+        int rows = (int) Math.ceil(radiusMeters / (cellSizeE7 * GeoUtils.METERS_PER_E7));
+        int columns = (int) Math.ceil(radiusMeters / (cellSizeE7 * metersPerE7Longitude));
+        int row = cell(latitudeE7);
+        int column = cell(longitudeE7);
+
+        Map<Integer, Candidate> best = new HashMap<>();
+        for (int r = row - rows; r <= row + rows; r++) {
+            for (int c = column - columns; c <= column + columns; c++) {
+                int[] entries = current.cells().get(key(r, c));
+                if (entries == null) {
+                    continue;
+                }
+                for (int i = 0; i < entries.length; i += 2) {
+                    Candidate candidate = project(current.edges(), entries[i], entries[i + 1],
+                            latitudeE7, longitudeE7, metersPerE7Longitude);
+                    if (candidate.distanceMeters() > radiusMeters) {
+                        continue;
+                    }
+                    Candidate previous = best.get(candidate.edge());
+                    if (previous == null || candidate.distanceMeters() < previous.distanceMeters()) {
+                        best.put(candidate.edge(), candidate);
+                    }
+                }
+            }
+        }
+
+        List<Candidate> result = new ArrayList<>(best.values());
+        result.sort(Comparator.comparingDouble(Candidate::distanceMeters));
+        return result.size() > max ? result.subList(0, max) : result;
+    }
+
+    /**
+     * Walking distance along the network from {@code from} to each target, or infinity
+     * where it exceeds {@code limitMeters}. One Dijkstra search, cut off at the limit, so
+     * the cost depends on the limit rather than on the size of the network.
+     */
+    public double[] routeDistances(Candidate from, List<Candidate> targets, double limitMeters) {
+        Snapshot current = snapshot;
+        double[] result = new double[targets.size()];
+        Arrays.fill(result, Double.POSITIVE_INFINITY);
+        for (int j = 0; j < targets.size(); j++) {
+            if (targets.get(j).edge() == from.edge()) {
+                result[j] = Math.abs(targets.get(j).offsetMeters() - from.offsetMeters());
+            }
+        }
+
+        Edge start = current.edges().get(from.edge());
+        Map<Integer, Double> distances = new HashMap<>();
+        PriorityQueue<double[]> queue = new PriorityQueue<>(Comparator.comparingDouble(entry -> entry[0]));
+        relax(distances, queue, start.from(), from.offsetMeters(), limitMeters);
+        relax(distances, queue, start.to(), start.length() - from.offsetMeters(), limitMeters);
+        while (!queue.isEmpty()) {
+            double[] entry = queue.poll();
+            int node = (int) entry[1];
+            if (entry[0] > distances.get(node)) {
+                continue;
+            }
+            for (int e : current.incident()[node]) {
+                Edge edge = current.edges().get(e);
+                int other = edge.from() == node ? edge.to() : edge.from();
+                relax(distances, queue, other, entry[0] + edge.length(), limitMeters);
+            }
+        }
+
+        for (int j = 0; j < targets.size(); j++) {
+            Candidate target = targets.get(j);
+            Edge edge = current.edges().get(target.edge());
+            Double viaFrom = distances.get(edge.from());
+            Double viaTo = distances.get(edge.to());
+            if (viaFrom != null) {
+                result[j] = Math.min(result[j], viaFrom + target.offsetMeters());
+            }
+            if (viaTo != null) {
+                result[j] = Math.min(result[j], viaTo + edge.length() - target.offsetMeters());
+            }
+            if (result[j] > limitMeters) {
+                result[j] = Double.POSITIVE_INFINITY;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Shortest walk from {@code from} to {@code to}, or empty when they lie on parts of the
+     * network that do not connect.
+     */
+    public Optional<Route> route(Candidate from, Candidate to) {
+        Snapshot current = snapshot;
+        List<Edge> edges = current.edges();
+        Edge start = edges.get(from.edge());
+        Edge goal = edges.get(to.edge());
+        int nodes = current.incident().length;
+
+        double[] distances = new double[nodes];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        int[] via = new int[nodes];
+        Arrays.fill(via, -1);
+        boolean[] settled = new boolean[nodes];
+
+        // Staying on the shared edge needs no search, but a walk round may still be shorter.
+        double best = from.edge() == to.edge() ? Math.abs(to.offsetMeters() - from.offsetMeters()) : Double.POSITIVE_INFINITY;
+        int bestNode = -1;
+
+        PriorityQueue<double[]> queue = new PriorityQueue<>(Comparator.comparingDouble(entry -> entry[0]));
+        for (int node : new int[]{start.from(), start.to()}) {
+            double distance = node == start.from() ? from.offsetMeters() : start.length() - from.offsetMeters();
+            if (distance < distances[node]) {
+                distances[node] = distance;
+                queue.add(new double[]{distance + estimate(current, node, goal, to.offsetMeters()), node});
+            }
+        }
+        while (!queue.isEmpty()) {
+            double[] entry = queue.poll();
+            if (entry[0] >= best) {
+                break;
+            }
+            int node = (int) entry[1];
+            if (settled[node]) {
+                continue;
+            }
+            settled[node] = true;
+            if (node == goal.from() && distances[node] + to.offsetMeters() < best) {
+                best = distances[node] + to.offsetMeters();
+                bestNode = node;
+            }
+            if (node == goal.to() && distances[node] + goal.length() - to.offsetMeters() < best) {
+                best = distances[node] + goal.length() - to.offsetMeters();
+                bestNode = node;
+            }
+            for (int e : current.incident()[node]) {
+                Edge edge = edges.get(e);
+                int other = edge.from() == node ? edge.to() : edge.from();
+                double distance = distances[node] + edge.length();
+                if (!settled[other] && distance < distances[other]) {
+                    distances[other] = distance;
+                    via[other] = e;
+                    queue.add(new double[]{distance + estimate(current, other, goal, to.offsetMeters()), other});
+                }
+            }
+        }
+        if (Double.isInfinite(best)) {
+            return Optional.empty();
+        }
+        return Optional.of(path(edges, from, to, bestNode, via, best));
+    }
+
+    // Walks the search tree back from the node where the route leaves for the goal edge.
+    private static Route path(List<Edge> edges, Candidate from, Candidate to, int bestNode, int[] via, double distance) {
+        Edge start = edges.get(from.edge());
+        Edge goal = edges.get(to.edge());
+        List<String> segmentIds = new ArrayList<>();
+        Polyline polyline = new Polyline();
+        polyline.add(from.latitudeE7(), from.longitudeE7());
+        segmentIds.add(start.id());
+
+        if (bestNode < 0) {
+            polyline.along(start.line(), from.offsetMeters(), to.offsetMeters());
+        } else {
+            Deque<Integer> walked = new ArrayDeque<>();
+            int node = bestNode;
+            while (via[node] >= 0) {
+                walked.push(via[node]);
+                Edge edge = edges.get(via[node]);
+                node = edge.from() == node ? edge.to() : edge.from();
+            }
+            polyline.along(start.line(), from.offsetMeters(), node == start.from() ? 0 : start.length());
+            for (int e : walked) {
+                Edge edge = edges.get(e);
+                boolean forward = edge.from() == node;
+                polyline.along(edge.line(), forward ? 0 : edge.length(), forward ? edge.length() : 0);
+                node = forward ? edge.to() : edge.from();
+                segmentIds.add(edge.id());
+            }
+            segmentIds.add(goal.id());
+            polyline.along(goal.line(), node == goal.from() ? 0 : goal.length(), to.offsetMeters());
+        }
+        polyline.add(to.latitudeE7(), to.longitudeE7());
+
+        List<String> distinct = new ArrayList<>(segmentIds.size());
+        for (String id : segmentIds) {
+            if (distinct.isEmpty() || !distinct.get(distinct.size() - 1).equals(id)) {
+                distinct.add(id);
+            }
+        }
+        return new Route(distance, distinct, polyline.latitudes(), polyline.longitudes());
+    }
+
+    // Lower bound on the walk from a node to the target point on the goal edge.
+    private static double estimate(Snapshot snapshot, int node, Edge goal, double offsetMeters) {
+        return Math.min(bound(snapshot, node, goal.from()) + offsetMeters,
+                bound(snapshot, node, goal.to()) + goal.length() - offsetMeters);
+    }
+
+    private static double bound(Snapshot snapshot, int node, int target) {
+        double bound = GeoUtils.haversineMeters(snapshot.nodeLatitudesE7()[node], snapshot.nodeLongitudesE7()[node],
+                snapshot.nodeLatitudesE7()[target], snapshot.nodeLongitudesE7()[target]);
+        for (double[] landmark : snapshot.landmarks()) {
+            boolean nodeReached = !Double.isInfinite(landmark[node]);
+            boolean targetReached = !Double.isInfinite(landmark[target]);
+            if (nodeReached != targetReached) {
+                // Different components: the target cannot be reached at all.
+                return Double.POSITIVE_INFINITY;
+            }
+            if (nodeReached) {
+                bound = Math.max(bound, Math.abs(landmark[node] - landmark[target]));
+            }
+        }
+        return bound;
+    }
+
+    // Farthest-point selection: each landmark is the node farthest from those already chosen,
+    // preferring nodes none of them reach so every component gets one.
+    private static double[][] landmarks(List<Edge> edges, int[][] incident, int count) {
+        int nodes = incident.length;
+        List<double[]> tables = new ArrayList<>(count);
+        if (nodes == 0 || count == 0) {
+            return new double[0][];
+        }
+        double[] closest = new double[nodes];
+        Arrays.fill(closest, Double.POSITIVE_INFINITY);
+        int next = argmax(shortestDistances(edges, incident, 0));
+        while (tables.size() < count && closest[next] > 0) {
+            double[] table = shortestDistances(edges, incident, next);
+            tables.add(table);
+            for (int n = 0; n < nodes; n++) {
+                closest[n] = Math.min(closest[n], table[n]);
+            }
+            next = argmax(closest);
+        }
+        return tables.toArray(new double[0][]);
+    }
+
+    private static double[] shortestDistances(List<Edge> edges, int[][] incident, int source) {
+        double[] distances = new double[incident.length];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        distances[source] = 0;
+        PriorityQueue<double[]> queue = new PriorityQueue<>(Comparator.comparingDouble(entry -> entry[0]));
+        queue.add(new double[]{0, source});
+        while (!queue.isEmpty()) {
+            double[] entry = queue.poll();
+            int node = (int) entry[1];
+            if (entry[0] > distances[node]) {
+                continue;
+            }
+            for (int e : incident[node]) {
+                Edge edge = edges.get(e);
+                int other = edge.from() == node ? edge.to() : edge.from();
+                double distance = entry[0] + edge.length();
+                if (distance < distances[other]) {
+                    distances[other] = distance;
+                    queue.add(new double[]{distance, other});
+                }
+            }
+        }
+        return distances;
+    }
+
+    private static int argmax(double[] values) {
+        int best = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private static void relax(Map<Integer, Double> distances, PriorityQueue<double[]> queue, int node,
+                              double distance, double limitMeters) {
+        if (distance > limitMeters) {
+            return;
+        }
+        Double known = distances.get(node);
+        if (known == null || distance < known) {
+            distances.put(node, distance);
+            queue.add(new double[]{distance, node});
+        }
+    }
+
+    // Closest point of one piece, in a local plane around the fix.
+    private static Candidate project(List<Edge> edges, int e, int piece, int latitudeE7, int longitudeE7,
+                                     double metersPerE7Longitude) {
+        TrailLine line = edges.get(e).line();
+        double ax = (line.getLongitudesE7()[piece] - longitudeE7) * metersPerE7Longitude;
+        double ay = (line.getLatitudesE7()[piece] - latitudeE7) * GeoUtils.METERS_PER_E7;
+        double bx = (line.getLongitudesE7()[piece + 1] - longitudeE7) * metersPerE7Longitude;
+        double by = (line.getLatitudesE7()[piece + 1] - latitudeE7) * GeoUtils.METERS_PER_E7;
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, -(ax * dx + ay * dy) / lengthSquared));
+        double px = ax + t * dx;
+        double py = ay + t * dy;
+
+        double[] offsets = line.getOffsets();
+        return new Candidate(e,
+                offsets[piece] + t * (offsets[piece + 1] - offsets[piece]),
+                latitudeE7 + (int) Math.round(py / GeoUtils.METERS_PER_E7),
+                longitudeE7 + (int) Math.round(px / metersPerE7Longitude),
+                Math.sqrt(px * px + py * py));
+    }
+
+    private static final class Polyline {
+        private int[] latitudes = new int[16];
+        private int[] longitudes = new int[16];
+        private int size;
+
+        private void add(int latitudeE7, int longitudeE7) {
+            if (size > 0 && latitudes[size - 1] == latitudeE7 && longitudes[size - 1] == longitudeE7) {
+                return;
+            }
+            if (size == latitudes.length) {
+                latitudes = Arrays.copyOf(latitudes, size * 2);
+                longitudes = Arrays.copyOf(longitudes, size * 2);
+            }
+            latitudes[size] = latitudeE7;
+            longitudes[size] = longitudeE7;
+            size++;
+        }
+
+        // Vertices of the line strictly between two offsets, in walking order, then the
+        // vertex at the end offset if there is one.
+        private void along(TrailLine line, double fromOffset, double toOffset) {
+            double[] offsets = line.getOffsets();
+            if (fromOffset <= toOffset) {
+                for (int i = 0; i < line.size(); i++) {
+                    if (offsets[i] > fromOffset && offsets[i] <= toOffset) {
+                        add(line.getLatitudesE7()[i], line.getLongitudesE7()[i]);
+                    }
+                }
+            } else {
+                for (int i = line.size() - 1; i >= 0; i--) {
+                    if (offsets[i] < fromOffset && offsets[i] >= toOffset) {
+                        add(line.getLatitudesE7()[i], line.getLongitudesE7()[i]);
+                    }
+                }
+            }
+        }
+
+        private int[] latitudes() {
+            return Arrays.copyOf(latitudes, size);
+        }
+
+        private int[] longitudes() {
+            return Arrays.copyOf(longitudes, size);
+        }
+    }
+
+    private static int node(Map<Long, Integer> nodeIds, List<int[]> nodes, int latitudeE7, int longitudeE7) {
+        return nodeIds.computeIfAbsent(key(latitudeE7, longitudeE7), k -> {
+            nodes.add(new int[]{latitudeE7, longitudeE7});
+            return nodes.size() - 1;
+        });
+    }
+
+    private int cell(int valueE7) {
+        return Math.floorDiv(valueE7, cellSizeE7);
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+}
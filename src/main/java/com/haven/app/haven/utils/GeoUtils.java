@@ -0,0 +1,62 @@
+package com.haven.app.haven.utils;
+
+import java.math.BigDecimal;
+
+public class GeoUtils {
+    public static final double E7 = 10_000_000d;
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8d;
+
+    // Metres per 1e-7 degree of latitude, used to project e7 values onto a local plane.
+    public static final double METERS_PER_E7 = Math.toRadians(1d / E7) * EARTH_RADIUS_METERS;
+
+    public static int toE7(double degrees) {
+        return (int) Math.round(degrees * E7);
+    }
+
+    public static double fromE7(int e7) {
+        return e7 / E7;
+    }
+
+    public static String formatE7(int e7) {
+        return BigDecimal.valueOf(e7, 7).stripTrailingZeros().toPlainString();
+    }
+
+    public static int toDecimeters(double meters) {
+        return (int) Math.round(meters * 10d);
+    }
+
+    public static String formatDecimeters(int decimeters) {
+        return BigDecimal.valueOf(decimeters, 1).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Equirectangular distance in metres, accurate to well under a percent over the few
+     * kilometres between consecutive fixes and far cheaper than haversine.
+     */
+    public static double distanceMeters(int latitude1E7, int longitude1E7, int latitude2E7, int longitude2E7) {
+        double meanLatitude = Math.toRadians(fromE7(latitude1E7) / 2d + fromE7(latitude2E7) / 2d);
+        double dx = (double) (longitude2E7 - longitude1E7) * Math.cos(meanLatitude) * METERS_PER_E7;
+        double dy = (double) (latitude2E7 - latitude1E7) * METERS_PER_E7;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Great-circle distance in metres.
+     */
+    public static double haversineMeters(int latitude1E7, int longitude1E7, int latitude2E7, int longitude2E7) {
+        double latitude1 = Math.toRadians(fromE7(latitude1E7));
+        double latitude2 = Math.toRadians(fromE7(latitude2E7));
+        double sinLatitude = Math.sin((latitude2 - latitude1) / 2d);
+        double sinLongitude = Math.sin(Math.toRadians(fromE7(longitude2E7) - fromE7(longitude1E7)) / 2d);
+        double a = sinLatitude * sinLatitude + Math.cos(latitude1) * Math.cos(latitude2) * sinLongitude * sinLongitude;
+        return 2d * EARTH_RADIUS_METERS * Math.asin(Math.min(1d, Math.sqrt(a)));
+    }
+
+    public static boolean isValidLatitude(Double latitude) {
+        return latitude != null && latitude >= -90d && latitude <= 90d;
+    }
+
+    public static boolean isValidLongitude(Double longitude) {
+        return longitude != null && longitude >= -180d && longitude <= 180d;
+    }
+}
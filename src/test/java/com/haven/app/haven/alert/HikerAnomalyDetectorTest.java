@@ -0,0 +1,100 @@
+package com.haven.app.haven.alert;
+
+import com.haven.app.haven.constant.AlertType;
+import com.haven.app.haven.constant.GeofenceType;
+import com.haven.app.haven.constant.TransactionStatus;
+import com.haven.app.haven.geofence.GeofenceIndex;
+import com.haven.app.haven.geofence.GeofencePolygon;
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import com.haven.app.haven.realtime.TransactionStatusChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HikerAnomalyDetectorTest {
+    // Roughly 11 m of latitude.
+    private static final int STEP_E7 = 1000;
+
+    private final List<TransactionAlertEvent> alerts = new ArrayList<>();
+    private final GeofenceIndex index = new GeofenceIndex(null, 0.01);
+    private final HikerAnomalyDetector detector = new HikerAnomalyDetector(index,
+            event -> alerts.add((TransactionAlertEvent) event), 15, 50, 20, 5, 10, 500);
+    private final LocalDateTime now = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    @Test
+    void flagsStationaryHikerOnce() {
+        for (int minute = 0; minute <= 30; minute++) {
+            detector.onCoordinateAccepted(fix(-62000000 + (minute % 2) * 100, 1068000000, now.plusMinutes(minute)));
+        }
+
+        assertEquals(List.of(AlertType.STATIONARY), types());
+    }
+
+    @Test
+    void walkingHikerRaisesNothing() {
+        for (int minute = 0; minute <= 60; minute++) {
+            detector.onCoordinateAccepted(fix(-62000000 + minute * 6 * STEP_E7, 1068000000, now.plusMinutes(minute)));
+        }
+
+        assertTrue(alerts.isEmpty());
+    }
+
+    @Test
+    void flagsImplausibleSpeed() {
+        detector.onCoordinateAccepted(fix(-62000000, 1068000000, now));
+        // About 1.1 km every 30 seconds, well above walking pace.
+        for (int i = 1; i <= 4; i++) {
+            detector.onCoordinateAccepted(fix(-62000000 + i * 100 * STEP_E7, 1068000000, now.plusSeconds(i * 30L)));
+        }
+
+        assertEquals(List.of(AlertType.IMPLAUSIBLE_SPEED), types());
+    }
+
+    @Test
+    void ignoresJitterBetweenCloseFixes() {
+        detector.onCoordinateAccepted(fix(-62000000, 1068000000, now));
+        detector.onCoordinateAccepted(fix(-62000000 + 3 * STEP_E7, 1068000000, now.plusSeconds(1)));
+        detector.onCoordinateAccepted(fix(-62000000, 1068000000, now.plusSeconds(2)));
+
+        assertTrue(alerts.isEmpty());
+    }
+
+    @Test
+    void flagsBacktrackingOnlyOffRoute() {
+        index.rebuild(List.of(new GeofenceIndex.Fence("trail", "Summit trail", GeofenceType.CORRIDOR,
+                new GeofencePolygon(new int[]{-62010000, -62010000, -61000000, -61000000},
+                        new int[]{1067990000, 1068010000, 1068010000, 1067990000}))));
+
+        // Up the corridor and back down it: a normal descent.
+        walk(-62000000, 1068000000, 100, STEP_E7, 0, 0);
+        walk(-62000000 + 100 * STEP_E7, 1068000000, 80, -STEP_E7, 0, 100);
+        assertTrue(alerts.isEmpty());
+
+        // Off to the east, then back toward the trailhead outside the corridor.
+        detector.onTransactionStatusChanged(new TransactionStatusChangedEvent("trx-1", "trk-1",
+                TransactionStatus.START, TransactionStatus.DONE));
+        walk(-62000000, 1068000000, 100, STEP_E7, STEP_E7, 0);
+        walk(-62000000 + 100 * STEP_E7, 1068000000 + 100 * STEP_E7, 80, -STEP_E7, -STEP_E7, 100);
+
+        assertEquals(List.of(AlertType.BACKTRACKING), types());
+    }
+
+    private void walk(int latitudeE7, int longitudeE7, int steps, int latitudeStep, int longitudeStep, int minuteOffset) {
+        for (int i = 0; i < steps; i++) {
+            detector.onCoordinateAccepted(fix(latitudeE7 + i * latitudeStep, longitudeE7 + i * longitudeStep,
+                    now.plusSeconds((minuteOffset + i) * 10L)));
+        }
+    }
+
+    private List<AlertType> types() {
+        return alerts.stream().map(TransactionAlertEvent::getType).toList();
+    }
+
+    private static CoordinateAcceptedEvent fix(int latitudeE7, int longitudeE7, LocalDateTime recordedAt) {
+        return new CoordinateAcceptedEvent("c", "trk-1", "trx-1", latitudeE7, longitudeE7, recordedAt, null, null);
+    }
+}
@@ -0,0 +1,92 @@
+package com.haven.app.haven.alert;
+
+import com.haven.app.haven.constant.AlertType;
+import com.haven.app.haven.constant.TransactionStatus;
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import com.haven.app.haven.realtime.TransactionStatusChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackerWatchdogTest {
+    private static final long TICK_MILLIS = 10_000L;
+
+    private final List<TransactionAlertEvent> alerts = new ArrayList<>();
+    private final TrackerWatchdog watchdog = new TrackerWatchdog(null, event -> alerts.add((TransactionAlertEvent) event), null);
+    private long now = 1_700_000_000_000L;
+
+    @BeforeEach
+    void setUp() {
+        watchdog.enabled = true;
+        watchdog.silenceMinutes = 30L;
+        watchdog.tickSeconds = TICK_MILLIS / 1000L;
+        // Smaller than the silence window, so entries wait several rounds.
+        watchdog.wheelSize = 16;
+        watchdog.clock = () -> now;
+        watchdog.init();
+        watchdog.onTransactionStatusChanged(new TransactionStatusChangedEvent("trx-1", "trk-1",
+                TransactionStatus.BOOKED, TransactionStatus.START));
+    }
+
+    @Test
+    void raisesOverdueOnceAfterSilenceWindow() {
+        advanceMinutes(29);
+        assertTrue(alerts.isEmpty());
+
+        advanceMinutes(2);
+        assertEquals(1, alerts.size());
+        assertEquals(AlertType.TRACKER_OVERDUE, alerts.get(0).getType());
+        assertEquals("trk-1", alerts.get(0).getTrackerId());
+
+        advanceMinutes(60);
+        assertEquals(1, alerts.size());
+    }
+
+    @Test
+    void fixesPostponeTheDeadline() {
+        for (int i = 0; i < 6; i++) {
+            advanceMinutes(20);
+            watchdog.onCoordinateAccepted(fix());
+        }
+        assertTrue(alerts.isEmpty());
+
+        advanceMinutes(31);
+        assertEquals(1, alerts.size());
+        assertNotNull(alerts.get(0).getLatitudeE7());
+    }
+
+    @Test
+    void fixAfterOverdueRearms() {
+        advanceMinutes(31);
+        watchdog.onCoordinateAccepted(fix());
+        advanceMinutes(31);
+
+        assertEquals(2, alerts.size());
+    }
+
+    @Test
+    void finishedTransactionIsNotWatched() {
+        watchdog.onTransactionStatusChanged(new TransactionStatusChangedEvent("trx-1", "trk-1",
+                TransactionStatus.START, TransactionStatus.DONE));
+        advanceMinutes(60);
+
+        assertTrue(alerts.isEmpty());
+        assertEquals(0, watchdog.getWatchedCount());
+    }
+
+    private void advanceMinutes(int minutes) {
+        for (long elapsed = 0; elapsed < minutes * 60_000L; elapsed += TICK_MILLIS) {
+            now += TICK_MILLIS;
+            watchdog.tick(now);
+        }
+    }
+
+    private CoordinateAcceptedEvent fix() {
+        return new CoordinateAcceptedEvent("c", "trk-1", "trx-1", -62088000, 1068456000, LocalDateTime.now(), null, null);
+    }
+}
@@ -0,0 +1,150 @@
+package com.haven.app.haven.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CoordinatePartitionManagerTest {
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final CoordinatePartitionManager manager =
+            new CoordinatePartitionManager(jdbcTemplate, mock(PlatformTransactionManager.class));
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        manager.premakeMonths = 3;
+        manager.retentionMonths = 0;
+        manager.dropExpired = false;
+        manager.currentMonth = () -> YearMonth.of(2026, 11);
+        when(jdbcTemplate.query(contains("relkind"), any(ResultSetExtractor.class))).thenReturn("p");
+        when(jdbcTemplate.queryForObject(contains("relname = ?"), eq(Integer.class), anyString())).thenReturn(0);
+    }
+
+    @Test
+    void partitionNamesAreYearAndMonth() {
+        assertEquals("coordinates_p202603", CoordinatePartitionManager.partitionName(YearMonth.of(2026, 3)));
+        assertEquals("coordinates_p202612", CoordinatePartitionManager.partitionName(YearMonth.of(2026, 12)));
+    }
+
+    @Test
+    void partitionCoversExactlyItsMonth() {
+        manager.createPartition(YearMonth.of(2026, 12));
+
+        List<String> statements = executed();
+        assertEquals("CREATE TABLE coordinates_p202612 (LIKE coordinates INCLUDING DEFAULTS)", statements.get(0));
+        assertEquals("ALTER TABLE coordinates ATTACH PARTITION coordinates_p202612 " +
+                "FOR VALUES FROM ('2026-12-01') TO ('2027-01-01')", statements.get(1));
+    }
+
+    @Test
+    void existingPartitionIsLeftAlone() {
+        when(jdbcTemplate.queryForObject(contains("relname = ?"), eq(Integer.class), eq("coordinates_p202603"))).thenReturn(1);
+
+        manager.createPartition(YearMonth.of(2026, 3));
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void rowsInTheDefaultPartitionAreMovedBeforeAttaching() {
+        when(jdbcTemplate.queryForObject(contains("relname = ?"), eq(Integer.class),
+                eq(CoordinatePartitionManager.DEFAULT_PARTITION))).thenReturn(1);
+
+        manager.createPartition(YearMonth.of(2026, 2));
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).update(sql.capture());
+        assertTrue(sql.getValue().contains("DELETE FROM coordinates_default " +
+                "WHERE recorded_at >= '2026-02-01' AND recorded_at < '2026-03-01'"));
+        assertTrue(sql.getValue().contains("INSERT INTO coordinates_p202602"));
+    }
+
+    @Test
+    void premakesTheCurrentMonthAndTheWindowAhead() {
+        manager.maintain();
+
+        List<String> created = executed().stream().filter(sql -> sql.startsWith("CREATE TABLE")).toList();
+        assertEquals(List.of(
+                "CREATE TABLE coordinates_p202611 (LIKE coordinates INCLUDING DEFAULTS)",
+                "CREATE TABLE coordinates_p202612 (LIKE coordinates INCLUDING DEFAULTS)",
+                "CREATE TABLE coordinates_p202701 (LIKE coordinates INCLUDING DEFAULTS)",
+                "CREATE TABLE coordinates_p202702 (LIKE coordinates INCLUDING DEFAULTS)"), created);
+    }
+
+    @Test
+    void plainTableIsNotMaintained() {
+        when(jdbcTemplate.query(contains("relkind"), any(ResultSetExtractor.class))).thenReturn("r");
+
+        manager.maintain();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void retentionDetachesOnlyManagedPartitionsOlderThanTheWindow() {
+        manager.premakeMonths = 0;
+        manager.retentionMonths = 6;
+        when(jdbcTemplate.queryForList(contains("pg_inherits"), eq(String.class))).thenReturn(List.of(
+                "coordinates_p202604", "coordinates_p202605", "coordinates_p202606",
+                "coordinates_default", "coordinates_archive_2020"));
+
+        manager.maintain();
+
+        List<String> statements = executed();
+        assertTrue(statements.contains("ALTER TABLE coordinates DETACH PARTITION coordinates_p202604"));
+        assertFalse(statements.contains("ALTER TABLE coordinates DETACH PARTITION coordinates_p202605"));
+        assertTrue(statements.stream().noneMatch(sql -> sql.contains("DETACH PARTITION coordinates_p202606")));
+        assertTrue(statements.stream().noneMatch(sql -> sql.contains("DETACH PARTITION coordinates_default")));
+        assertTrue(statements.stream().noneMatch(sql -> sql.startsWith("DROP TABLE")));
+    }
+
+    @Test
+    void retentionDropsWhenConfigured() {
+        manager.premakeMonths = 0;
+        manager.retentionMonths = 1;
+        manager.dropExpired = true;
+        when(jdbcTemplate.queryForList(contains("pg_inherits"), eq(String.class))).thenReturn(List.of(
+                "coordinates_p202609", "coordinates_p202610"));
+
+        manager.maintain();
+
+        List<String> statements = executed();
+        assertTrue(statements.contains("DROP TABLE coordinates_p202609"));
+        assertFalse(statements.contains("DROP TABLE coordinates_p202610"));
+    }
+
+    @Test
+    void expiryIsDecidedByMonthOnly() {
+        YearMonth oldestKept = YearMonth.of(2026, 1);
+
+        assertTrue(CoordinatePartitionManager.isExpired("coordinates_p202512", oldestKept));
+        assertFalse(CoordinatePartitionManager.isExpired("coordinates_p202601", oldestKept));
+        assertFalse(CoordinatePartitionManager.isExpired("coordinates_default", oldestKept));
+        assertFalse(CoordinatePartitionManager.isExpired("coordinates_p2025", oldestKept));
+    }
+
+    @Test
+    void monthRangeIsInclusiveAndCrossesYears() {
+        assertEquals(List.of(YearMonth.of(2026, 11), YearMonth.of(2026, 12), YearMonth.of(2027, 1)),
+                CoordinatePartitionManager.monthRange(YearMonth.of(2026, 11), YearMonth.of(2027, 1)));
+        assertEquals(List.of(YearMonth.of(2026, 5)),
+                CoordinatePartitionManager.monthRange(YearMonth.of(2026, 5), YearMonth.of(2026, 5)));
+        assertTrue(CoordinatePartitionManager.monthRange(YearMonth.of(2026, 6), YearMonth.of(2026, 5)).isEmpty());
+    }
+
+    private List<String> executed() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, atLeast(0)).execute(sql.capture());
+        return sql.getAllValues();
+    }
+}
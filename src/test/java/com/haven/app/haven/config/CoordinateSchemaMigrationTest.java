@@ -0,0 +1,73 @@
+package com.haven.app.haven.config;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CoordinateSchemaMigrationTest {
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final CoordinatePartitionManager partitionManager = mock(CoordinatePartitionManager.class);
+    private final CoordinateSchemaMigration migration =
+            new CoordinateSchemaMigration(jdbcTemplate, mock(PlatformTransactionManager.class), partitionManager);
+
+    @Test
+    void partitioningSplitsHistoryIntoAPartitionPerMonth() {
+        YearMonth current = YearMonth.now();
+        YearMonth oldest = current.minusMonths(2);
+        when(jdbcTemplate.queryForObject(contains("min(recorded_at)"), eq(Timestamp.class)))
+                .thenReturn(Timestamp.valueOf(oldest.atDay(15).atStartOfDay()));
+
+        migration.run(null);
+
+        verify(jdbcTemplate).execute(contains("PARTITION BY RANGE (recorded_at)"));
+        verify(jdbcTemplate).execute("CREATE TABLE coordinates_default PARTITION OF coordinates_partitioned DEFAULT");
+        verify(partitionManager).createPartition(oldest);
+        verify(partitionManager).createPartition(oldest.plusMonths(1));
+        verify(partitionManager).createPartition(current);
+        verify(partitionManager, times(3)).createPartition(any());
+    }
+
+    @Test
+    void emptyTableGetsTheCurrentMonth() {
+        migration.run(null);
+
+        verify(partitionManager).createPartition(YearMonth.now());
+        verify(partitionManager, times(1)).createPartition(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ingestedAtIsBackfilledBeforeItBecomesRequired() {
+        when(partitionManager.isPartitioned()).thenReturn(true);
+        when(jdbcTemplate.query(contains("is_nullable"), any(ResultSetExtractor.class), eq("coordinates"), eq("ingested_at")))
+                .thenReturn("YES");
+        when(jdbcTemplate.query(contains("is_nullable"), any(ResultSetExtractor.class), eq("coordinates"), eq("recorded_at")))
+                .thenReturn("NO");
+
+        migration.run(null);
+
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).update(contains("SET ingested_at = coalesce(updated_at, recorded_at)"));
+        order.verify(jdbcTemplate).execute("ALTER TABLE coordinates ALTER COLUMN ingested_at SET DEFAULT clock_timestamp()");
+        order.verify(jdbcTemplate).execute("ALTER TABLE coordinates ALTER COLUMN ingested_at SET NOT NULL");
+        order.verify(jdbcTemplate).execute(contains("ON coordinates (transaction_id, ingested_at, id)"));
+    }
+
+    @Test
+    void alreadyPartitionedTableIsLeftAlone() {
+        when(partitionManager.isPartitioned()).thenReturn(true);
+
+        migration.run(null);
+
+        verify(jdbcTemplate, never()).execute(contains("PARTITION BY"));
+        verify(partitionManager, never()).createPartition(any());
+    }
+}
@@ -0,0 +1,32 @@
+package com.haven.app.haven.config.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthenticationFilterTest {
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(null, null);
+
+    @Test
+    void staffOnlyCoordinateReadsAreAuthenticated() {
+        assertFalse(filter.shouldNotFilter(get("/api/v1/coordinate/stream")));
+        assertFalse(filter.shouldNotFilter(get("/api/v1/coordinate/latest")));
+        assertFalse(filter.shouldNotFilter(get("/api/v1/coordinate/trx-1/export")));
+        assertFalse(filter.shouldNotFilter(get("/api/v1/coordinate/trx-1/cursor")));
+        assertFalse(filter.shouldNotFilter(get("/api/v1/coordinate/trx-1/simplified")));
+    }
+
+    @Test
+    void ingestStaysPublic() {
+        assertTrue(filter.shouldNotFilter(get("/api/v1/coordinate")));
+        assertTrue(filter.shouldNotFilter(get("/api/v1/coordinate/batch")));
+        assertTrue(filter.shouldNotFilter(get("/api/v1/coordinate/trx-1")));
+    }
+
+    private static MockHttpServletRequest get(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+}
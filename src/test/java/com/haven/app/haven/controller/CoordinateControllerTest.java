@@ -2,8 +2,16 @@ package com.haven.app.haven.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.haven.app.haven.dto.request.CoordinateRequest;
+import com.haven.app.haven.dto.response.CoordinateBatchItemResponse;
+import com.haven.app.haven.dto.response.CoordinateBatchResponse;
+import com.haven.app.haven.dto.response.CoordinateCursorResponse;
 import com.haven.app.haven.dto.response.CoordinateResponse;
+import com.haven.app.haven.dto.response.PositionEventResponse;
+import com.haven.app.haven.dto.response.SimplifiedTrackResponse;
+import com.haven.app.haven.ingest.TrackerFrame;
+import com.haven.app.haven.ingest.TrackerFrameCodec;
 import com.haven.app.haven.service.CoordinateService;
+import com.haven.app.haven.track.TrackExportFormat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -15,14 +23,18 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -42,10 +54,27 @@ class CoordinateControllerTest {
     @Test
     void addCoordinate() throws Exception {
         CoordinateRequest coordinateRequest = CoordinateRequest.builder()
+                .latitude(-6.2088)
+                .longitude(106.8456)
+                .build();
+
+        CoordinateResponse coordinateResponse = CoordinateResponse.builder()
+                .id("1")
                 .latitude("-6.2088")
                 .longitude("106.8456")
                 .build();
 
+        when(service.addCoordinate(any(CoordinateRequest.class)))
+                .thenReturn(coordinateResponse);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/coordinate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(coordinateRequest)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void addCoordinateWithStringValues() throws Exception {
         CoordinateResponse coordinateResponse = CoordinateResponse.builder()
                 .id("1")
                 .latitude("-6.2088")
@@ -55,9 +84,75 @@ class CoordinateControllerTest {
         when(service.addCoordinate(any(CoordinateRequest.class)))
                 .thenReturn(coordinateResponse);
 
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/coordinate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"serialNumber\":\"SN-1\",\"latitude\":\"-6.2088\",\"longitude\":\"106.8456\"}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void addCoordinateOutOfRange() throws Exception {
+        CoordinateRequest coordinateRequest = CoordinateRequest.builder()
+                .serialNumber("SN-1")
+                .latitude(-96.2088)
+                .longitude(106.8456)
+                .build();
+
         mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/coordinate")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(mapper.writeValueAsString(coordinateRequest)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void addCoordinates() throws Exception {
+        List<CoordinateRequest> coordinateRequests = List.of(
+                CoordinateRequest.builder()
+                        .serialNumber("SN-1")
+                        .latitude(-6.2088)
+                        .longitude(106.8456)
+                        .build(),
+                CoordinateRequest.builder()
+                        .serialNumber("SN-unknown")
+                        .latitude(-6.2090)
+                        .longitude(106.8460)
+                        .build());
+
+        CoordinateBatchResponse coordinateBatchResponse = CoordinateBatchResponse.builder()
+                .accepted(1)
+                .rejected(1)
+                .items(List.of(
+                        CoordinateBatchItemResponse.builder().index(0).serialNumber("SN-1").status("ACCEPTED").coordinateId("1").build(),
+                        CoordinateBatchItemResponse.builder().index(1).serialNumber("SN-unknown").status("REJECTED").message("Tracker device not found").build()))
+                .build();
+
+        when(service.addCoordinates(anyList()))
+                .thenReturn(coordinateBatchResponse);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/coordinate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(coordinateRequests)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void addCoordinateFrame() throws Exception {
+        TrackerFrame frame = new TrackerFrame("SN-1", 2);
+        frame.set(0, 1_700_000_000_000L, -62088000, 1068456000, (short) 90);
+        frame.set(1, 1_700_000_010_000L, -62088100, 1068456100, TrackerFrame.NO_BATTERY);
+
+        CoordinateBatchResponse coordinateBatchResponse = CoordinateBatchResponse.builder()
+                .accepted(2)
+                .rejected(0)
+                .items(List.of())
+                .build();
+
+        when(service.addCoordinateFrame(any(TrackerFrame.class)))
+                .thenReturn(coordinateBatchResponse);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/coordinate")
+                        .contentType(TrackerFrameCodec.CONTENT_TYPE)
+                        .content(TrackerFrameCodec.encode(frame)))
                 .andExpect(status().isOk());
     }
 
@@ -81,4 +176,86 @@ class CoordinateControllerTest {
                 .andExpect(status().isOk());
     }
 
-}
\ No newline at end of file
+    @Test
+    void streamCoordinates() throws Exception {
+        when(service.streamCoordinates(eq("transaction1"), eq("42")))
+                .thenReturn(new SseEmitter());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/coordinate/stream")
+                        .param("transactionId", "transaction1")
+                        .header("Last-Event-ID", "42")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void getLatestPositions() throws Exception {
+        PositionEventResponse position = PositionEventResponse.builder()
+                .coordinateId("1")
+                .transactionId("transaction1")
+                .latitude("-6.2088")
+                .longitude("106.8456")
+                .build();
+
+        when(service.getLatestPositions(eq(List.of("transaction1", "transaction2"))))
+                .thenReturn(List.of(position));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/coordinate/latest")
+                        .param("transactionIds", "transaction1,transaction2"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getSimplifiedCoordinate() throws Exception {
+        SimplifiedTrackResponse simplifiedTrackResponse = SimplifiedTrackResponse.builder()
+                .transactionId("transaction1")
+                .originalPoints(1000)
+                .simplifiedPoints(0)
+                .maxPoints(100)
+                .points(Collections.emptyList())
+                .build();
+
+        when(service.getSimplifiedCoordinate(eq("transaction1"), eq(null), eq(100)))
+                .thenReturn(simplifiedTrackResponse);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/coordinate/transaction1/simplified")
+                        .param("maxPoints", "100"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getCoordinateAfter() throws Exception {
+        CoordinateResponse coordinateResponse = CoordinateResponse.builder()
+                .id("2")
+                .latitude("-6.2088")
+                .longitude("106.8456")
+                .build();
+
+        CoordinateCursorResponse coordinateCursorResponse = CoordinateCursorResponse.builder()
+                .items(Collections.singletonList(coordinateResponse))
+                .nextCursor("next")
+                .hasMore(false)
+                .build();
+
+        when(service.getCoordinateAfter(eq("transaction1"), eq("cursor1"), eq(50)))
+                .thenReturn(coordinateCursorResponse);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/coordinate/transaction1/cursor")
+                        .param("after", "cursor1")
+                        .param("limit", "50"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void exportCoordinate() throws Exception {
+        StreamingResponseBody body = outputStream -> outputStream.write("_p~iF~ps|U".getBytes());
+
+        when(service.exportCoordinate(eq("transaction1"), eq(TrackExportFormat.POLYLINE)))
+                .thenReturn(body);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/coordinate/transaction1/export")
+                        .param("format", "polyline"))
+                .andExpect(request().asyncStarted());
+    }
+
+}
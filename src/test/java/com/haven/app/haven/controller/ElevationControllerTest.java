@@ -0,0 +1,57 @@
+package com.haven.app.haven.controller;
+
+import com.haven.app.haven.dto.response.ElevationBackfillResponse;
+import com.haven.app.haven.dto.response.ElevationResponse;
+import com.haven.app.haven.service.ElevationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ElevationControllerTest {
+    @Mock
+    private ElevationService elevationService;
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ElevationController controller = new ElevationController(elevationService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void getElevation() throws Exception {
+        when(elevationService.getElevation(eq(-8.4), eq(116.45))).thenReturn(ElevationResponse.builder()
+                .latitude("-8.4")
+                .longitude("116.45")
+                .elevation("1060")
+                .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/elevation")
+                        .param("latitude", "-8.4")
+                        .param("longitude", "116.45"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.elevation").value("1060"));
+    }
+
+    @Test
+    void backfill() throws Exception {
+        when(elevationService.backfill())
+                .thenReturn(ElevationBackfillResponse.builder().scanned(3L).updated(2L).durationMillis(5L).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/elevation/backfill"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.updated").value(2));
+    }
+}
@@ -0,0 +1,114 @@
+package com.haven.app.haven.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haven.app.haven.dto.request.GeofenceRequest;
+import com.haven.app.haven.dto.response.GeofenceResponse;
+import com.haven.app.haven.service.GeofenceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class GeofenceControllerTest {
+    @Mock
+    private GeofenceService geofenceService;
+    MockMvc mockMvc;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final List<List<Double>> points = List.of(
+            List.of(-6.20, 106.80),
+            List.of(-6.20, 106.90),
+            List.of(-6.30, 106.90));
+
+    @BeforeEach
+    void setUp() {
+        GeofenceController controller = new GeofenceController(geofenceService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void createGeofence() throws Exception {
+        GeofenceRequest geofenceRequest = GeofenceRequest.builder()
+                .name("Summit trail")
+                .type("CORRIDOR")
+                .points(points)
+                .build();
+
+        GeofenceResponse geofenceResponse = GeofenceResponse.builder()
+                .id("1")
+                .name("Summit trail")
+                .type("CORRIDOR")
+                .active(true)
+                .points(points)
+                .build();
+
+        when(geofenceService.createGeofence(any(GeofenceRequest.class)))
+                .thenReturn(geofenceResponse);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/geofences")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(geofenceRequest)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void createGeofenceWithTooFewPoints() throws Exception {
+        GeofenceRequest geofenceRequest = GeofenceRequest.builder()
+                .name("Crater")
+                .type("CLOSED_ZONE")
+                .points(points.subList(0, 2))
+                .build();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/geofences")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(geofenceRequest)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getGeofences() throws Exception {
+        when(geofenceService.getGeofences())
+                .thenReturn(List.of(GeofenceResponse.builder().id("1").name("Summit trail").build()));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/geofences"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void updateGeofence() throws Exception {
+        GeofenceRequest geofenceRequest = GeofenceRequest.builder()
+                .active(false)
+                .build();
+
+        when(geofenceService.updateGeofence(eq("1"), any(GeofenceRequest.class)))
+                .thenReturn(GeofenceResponse.builder().id("1").active(false).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/geofences/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(geofenceRequest)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deleteGeofence() throws Exception {
+        doNothing().when(geofenceService).deleteGeofence("1");
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/geofences/1"))
+                .andExpect(status().isOk());
+    }
+}
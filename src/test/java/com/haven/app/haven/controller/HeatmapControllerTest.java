@@ -0,0 +1,61 @@
+package com.haven.app.haven.controller;
+
+import com.haven.app.haven.dto.response.HeatmapCellResponse;
+import com.haven.app.haven.dto.response.HeatmapRebuildResponse;
+import com.haven.app.haven.dto.response.HeatmapTileResponse;
+import com.haven.app.haven.service.HeatmapService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class HeatmapControllerTest {
+    @Mock
+    private HeatmapService heatmapService;
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        HeatmapController controller = new HeatmapController(heatmapService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void getTile() throws Exception {
+        HeatmapTileResponse tile = HeatmapTileResponse.builder()
+                .zoom(12)
+                .x(3373)
+                .y(2150)
+                .cellZoom(16)
+                .maxCount(42L)
+                .cells(List.of(HeatmapCellResponse.builder().x(53968).y(34400).count(42L).build()))
+                .build();
+
+        when(heatmapService.getTile(12, 3373, 2150)).thenReturn(tile);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/heatmap/12/3373/2150"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.cells[0].count").value(42));
+    }
+
+    @Test
+    void rebuild() throws Exception {
+        when(heatmapService.rebuild())
+                .thenReturn(HeatmapRebuildResponse.builder().fixes(1000L).tiles(120).durationMillis(35L).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/heatmap/rebuild"))
+                .andExpect(status().isOk());
+    }
+}
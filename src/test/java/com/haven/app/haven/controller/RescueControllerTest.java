@@ -0,0 +1,107 @@
+package com.haven.app.haven.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haven.app.haven.dto.request.RangerPostRequest;
+import com.haven.app.haven.dto.response.NearbyHikerResponse;
+import com.haven.app.haven.dto.response.RangerPostResponse;
+import com.haven.app.haven.dto.response.RescueNearestResponse;
+import com.haven.app.haven.dto.response.RescueRouteResponse;
+import com.haven.app.haven.service.RescueService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RescueControllerTest {
+    @Mock
+    private RescueService rescueService;
+    MockMvc mockMvc;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        RescueController controller = new RescueController(rescueService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void getNearest() throws Exception {
+        NearbyHikerResponse hiker = NearbyHikerResponse.builder()
+                .trackerId("tracker2")
+                .transactionId("transaction2")
+                .distanceMeters(120.5)
+                .build();
+        RangerPostResponse post = RangerPostResponse.builder().id("post1").name("Pos Sembalun").distanceMeters(900.0).build();
+
+        when(rescueService.getNearest(eq(-8.4), eq(116.45), eq(3), eq(1), eq("tracker1")))
+                .thenReturn(RescueNearestResponse.builder().hikers(List.of(hiker)).rangerPosts(List.of(post)).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/rescue/nearest")
+                        .param("latitude", "-8.4")
+                        .param("longitude", "116.45")
+                        .param("k", "3")
+                        .param("excludeTrackerId", "tracker1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.hikers[0].trackerId").value("tracker2"));
+    }
+
+    @Test
+    void getWithin() throws Exception {
+        when(rescueService.getWithin(eq(-8.4), eq(116.45), eq(2000.0), any()))
+                .thenReturn(List.of(NearbyHikerResponse.builder().trackerId("tracker2").distanceMeters(120.5).build()));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/rescue/within")
+                        .param("latitude", "-8.4")
+                        .param("longitude", "116.45")
+                        .param("radius", "2000"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getRoute() throws Exception {
+        when(rescueService.getRoute("transaction1", "post1")).thenReturn(RescueRouteResponse.builder()
+                .transactionId("transaction1")
+                .distanceMeters(1662.0)
+                .etaMinutes(33.2)
+                .points(List.of(List.of(-8.40, 116.405), List.of(-8.40, 116.41), List.of(-8.41, 116.41)))
+                .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/rescue/route")
+                        .param("transactionId", "transaction1")
+                        .param("rangerPostId", "post1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.etaMinutes").value(33.2));
+    }
+
+    @Test
+    void createRangerPost() throws Exception {
+        RangerPostRequest request = RangerPostRequest.builder()
+                .name("Pos Sembalun")
+                .latitude(-8.37)
+                .longitude(116.52)
+                .build();
+
+        when(rescueService.createRangerPost(any(RangerPostRequest.class)))
+                .thenReturn(RangerPostResponse.builder().id("post1").name("Pos Sembalun").active(true).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/rescue/ranger-posts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+    }
+}
@@ -6,6 +6,7 @@ import com.haven.app.haven.dto.request.SearchTrackerDeviceRequest;
 import com.haven.app.haven.dto.request.TrackerDevicesRequest;
 import com.haven.app.haven.dto.request.TrackerDevicesStatusRequest;
 import com.haven.app.haven.dto.response.TrackerDevicesResponse;
+import com.haven.app.haven.dto.response.TrackerUplinkKeyResponse;
 import com.haven.app.haven.entity.TrackerDevices;
 import com.haven.app.haven.service.TrackerDevicesService;
 import org.junit.jupiter.api.BeforeEach;
@@ -156,4 +157,17 @@ class TrackerDevicesControllerTest {
         mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/tracker-devices/1"))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getUplinkKey() throws Exception {
+        TrackerUplinkKeyResponse trackerUplinkKeyResponse = TrackerUplinkKeyResponse.builder()
+                .serialNumber("T1")
+                .uplinkKey("a2V5")
+                .build();
+
+        when(trackerDevicesService.getUplinkKey("1")).thenReturn(trackerUplinkKeyResponse);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/tracker-devices/1/uplink-key"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,61 @@
+package com.haven.app.haven.controller;
+
+import com.haven.app.haven.dto.response.TrailImportResponse;
+import com.haven.app.haven.dto.response.TrailSegmentResponse;
+import com.haven.app.haven.service.TrailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TrailControllerTest {
+    @Mock
+    private TrailService trailService;
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        TrailController controller = new TrailController(trailService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void importTrails() throws Exception {
+        when(trailService.importTrails(any()))
+                .thenReturn(TrailImportResponse.builder().lines(1).segments(1).lengthMeters(1100.0).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/trails/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\": \"LineString\", \"coordinates\": [[116.40, -8.40], [116.41, -8.40]]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.segments").value(1));
+    }
+
+    @Test
+    void getTrailSegments() throws Exception {
+        when(trailService.getTrailSegments()).thenReturn(List.of(TrailSegmentResponse.builder()
+                .id("segment1")
+                .name("Ridge")
+                .lengthMeters(1100.0)
+                .points(List.of(List.of(-8.4, 116.4), List.of(-8.4, 116.41)))
+                .build()));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/trails"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].name").value("Ridge"));
+    }
+}
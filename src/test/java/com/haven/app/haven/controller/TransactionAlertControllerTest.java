@@ -0,0 +1,60 @@
+package com.haven.app.haven.controller;
+
+import com.haven.app.haven.dto.response.TransactionAlertResponse;
+import com.haven.app.haven.service.TransactionAlertService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TransactionAlertControllerTest {
+    @Mock
+    private TransactionAlertService transactionAlertService;
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        TransactionAlertController controller = new TransactionAlertController(transactionAlertService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void getAlerts() throws Exception {
+        TransactionAlertResponse alert = TransactionAlertResponse.builder()
+                .id("1")
+                .transactionId("transaction1")
+                .type("GEOFENCE_EXIT")
+                .acknowledged(false)
+                .build();
+
+        when(transactionAlertService.getAlerts(eq("transaction1"), eq(false), eq(1), eq(10)))
+                .thenReturn(new PageImpl<>(List.of(alert)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/alerts")
+                        .param("transactionId", "transaction1")
+                        .param("acknowledged", "false"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void acknowledgeAlert() throws Exception {
+        when(transactionAlertService.acknowledgeAlert("1"))
+                .thenReturn(TransactionAlertResponse.builder().id("1").acknowledged(true).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/alerts/1/acknowledge"))
+                .andExpect(status().isOk());
+    }
+}
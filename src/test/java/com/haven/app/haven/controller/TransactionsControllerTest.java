@@ -7,6 +7,7 @@ import com.haven.app.haven.dto.request.TransactionsRequest;
 import com.haven.app.haven.dto.request.TransactionsStatusRequest;
 import com.haven.app.haven.dto.response.LoginResponse;
 import com.haven.app.haven.dto.response.TransactionsResponse;
+import com.haven.app.haven.dto.response.TripStatsResponse;
 import com.haven.app.haven.service.TransactionsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -164,4 +165,15 @@ class TransactionsControllerTest {
         mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/transactions/1/device/device1"))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getTransactionStats() throws Exception {
+        TripStatsResponse tripStatsResponse = TripStatsResponse.of("1", 5230.4, 612.0, 7200L);
+
+        when(transactionsService.getTransactionStats("1"))
+                .thenReturn(tripStatsResponse);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/transactions/1/stats"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,100 @@
+package com.haven.app.haven.elevation;
+
+import com.haven.app.haven.dto.response.ElevationBackfillResponse;
+import com.haven.app.haven.exception.ElevationException;
+import com.haven.app.haven.track.ArchivedTrackCache;
+import com.haven.app.haven.track.TrackArchiveCodec;
+import com.haven.app.haven.track.TrackPoints;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ElevationBackfillTest {
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ElevationModel elevationModel = mock(ElevationModel.class);
+    private final ArchivedTrackCache archivedTrackCache = mock(ArchivedTrackCache.class);
+    private final ElevationBackfill backfill = new ElevationBackfill(jdbcTemplate, elevationModel, archivedTrackCache, 2);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fillsCoveredFixesChunkByChunk() {
+        when(elevationModel.elevationDm(anyInt(), anyInt())).thenReturn(ElevationModel.NO_DATA);
+        when(elevationModel.elevationDm(-84_000_000, 1_164_500_000)).thenReturn(10600);
+        when(jdbcTemplate.queryForList(anyString(), eq(""), eq(2))).thenReturn(List.of(
+                row("a", -84_000_000, 1_164_500_000), row("b", -70_000_000, 1_100_000_000)));
+        when(jdbcTemplate.queryForList(anyString(), eq("b"), eq(2))).thenReturn(List.of(
+                row("c", -84_000_000, 1_164_500_000)));
+        when(jdbcTemplate.queryForList(anyString(), eq("c"), eq(2))).thenReturn(List.of());
+
+        ElevationBackfillResponse result = backfill.run();
+
+        assertEquals(3, result.getScanned());
+        assertEquals(2, result.getUpdated());
+        ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("UPDATE coordinates"), updates.capture());
+        assertArrayEquals(new Object[]{10600, "a"}, updates.getAllValues().get(0).get(0));
+        assertArrayEquals(new Object[]{10600, "c"}, updates.getAllValues().get(1).get(0));
+    }
+
+    @Test
+    void fillsArchivedTracks() {
+        TrackPoints track = new TrackPoints(3);
+        track.add(-84_000_000, 1_164_500_000, 1_700_000_000_000L);
+        track.add(-70_000_000, 1_100_000_000, 1_700_000_010_000L);
+        track.add(-84_000_000, 1_164_500_000, 1_700_000_020_000L, (short) 80, 500, TrackPoints.NO_MATCH, TrackPoints.NO_MATCH, null);
+        when(elevationModel.elevationDm(anyInt(), anyInt())).thenReturn(ElevationModel.NO_DATA);
+        when(elevationModel.elevationDm(-84_000_000, 1_164_500_000)).thenReturn(10600);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq(""), eq(2))).thenReturn(List.of("t1"));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("t1"), eq(2))).thenReturn(List.of());
+        when(jdbcTemplate.queryForList(startsWith("SELECT compressed"), eq("t1"))).thenReturn(List.of(
+                Map.of("compressed", true, "data", TrackArchiveCodec.encode(track, true))));
+
+        ElevationBackfillResponse result = backfill.run();
+
+        assertEquals(2, result.getScanned());
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getArchivesUpdated());
+        ArgumentCaptor<byte[]> block = ArgumentCaptor.forClass(byte[].class);
+        verify(jdbcTemplate).update(startsWith("UPDATE track_archives"), block.capture(), eq("t1"));
+        TrackPoints stored = TrackArchiveCodec.decode(block.getValue());
+        assertEquals(10600, stored.getAltitudesDm()[0]);
+        assertEquals(TrackPoints.NO_ALTITUDE, stored.getAltitudesDm()[1]);
+        assertEquals(500, stored.getAltitudesDm()[2]);
+        assertEquals(80, stored.getBattery()[2]);
+        verify(archivedTrackCache).evictTransaction("t1");
+    }
+
+    @Test
+    void leavesCompleteArchivesAlone() {
+        TrackPoints track = new TrackPoints(1);
+        track.add(-84_000_000, 1_164_500_000, 1_700_000_000_000L, (short) 80, 500, TrackPoints.NO_MATCH, TrackPoints.NO_MATCH, null);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq(""), eq(2))).thenReturn(List.of("t1"));
+        when(jdbcTemplate.queryForList(startsWith("SELECT compressed"), eq("t1"))).thenReturn(List.of(
+                Map.of("compressed", false, "data", TrackArchiveCodec.encode(track, false))));
+
+        ElevationBackfillResponse result = backfill.run();
+
+        assertEquals(0, result.getScanned());
+        assertEquals(0, result.getArchivesUpdated());
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE track_archives"), any(), any());
+    }
+
+    @Test
+    void refusesWithoutTiles() {
+        when(elevationModel.isEmpty()).thenReturn(true);
+
+        assertThrows(ElevationException.class, backfill::run);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static Map<String, Object> row(String id, int latitudeE7, int longitudeE7) {
+        return Map.of("id", id, "latitude_e7", latitudeE7, "longitude_e7", longitudeE7);
+    }
+}
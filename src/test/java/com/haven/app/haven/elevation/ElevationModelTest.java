@@ -0,0 +1,75 @@
+package com.haven.app.haven.elevation;
+
+import com.haven.app.haven.utils.GeoUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ElevationModelTest {
+    private static final int SAMPLES = 1201;
+
+    @TempDir
+    Path directory;
+
+    private ElevationModel model;
+
+    // An SRTM3 tile sloping up to the east and down to the south: 1000 m at the
+    // north-west corner plus one metre per sample east, minus one per sample south.
+    @BeforeEach
+    void setUp() throws Exception {
+        ByteBuffer tile = ByteBuffer.allocate(SAMPLES * SAMPLES * 2);
+        for (int row = 0; row < SAMPLES; row++) {
+            for (int column = 0; column < SAMPLES; column++) {
+                tile.putShort((short) (1000 + column - row));
+            }
+        }
+        // One void sample at row 600, column 600.
+        tile.putShort((600 * SAMPLES + 600) * 2, (short) -32768);
+        Files.write(directory.resolve("S09E116.hgt"), tile.array());
+        Files.writeString(directory.resolve("README.txt"), "not a tile");
+
+        model = new ElevationModel(directory.toString());
+        model.reload();
+    }
+
+    @Test
+    void mapsTilesByName() {
+        assertEquals(1, model.getTileCount());
+        assertFalse(model.isEmpty());
+    }
+
+    @Test
+    void readsCornerSamples() {
+        // The north edge at exactly -8 belongs to the S08 tile, so step just inside.
+        assertEquals(10000, model.elevationDm(GeoUtils.toE7(-8.0) - 1, GeoUtils.toE7(116.0)));
+        assertEquals(10000, model.elevationDm(GeoUtils.toE7(-9.0), GeoUtils.toE7(117.0) - 1));
+        assertEquals(22000, model.elevationDm(GeoUtils.toE7(-8.0) - 1, GeoUtils.toE7(117.0) - 1));
+    }
+
+    @Test
+    void interpolatesBetweenSamples() {
+        // 480 samples south and 540 east of the corner.
+        assertEquals(10600, model.elevationDm(GeoUtils.toE7(-8.4), GeoUtils.toE7(116.45)));
+        // Half a sample east of column 540: half a metre higher.
+        assertEquals(10605, model.elevationDm(GeoUtils.toE7(-8.4), GeoUtils.toE7(116.45 + 0.5 / 1200)));
+    }
+
+    @Test
+    void skipsVoidSamples() {
+        // Midway between rows and columns 600 and 601; the void corner drops out.
+        int elevationDm = model.elevationDm(GeoUtils.toE7(-8.5 - 0.5 / 1200), GeoUtils.toE7(116.5 + 0.5 / 1200));
+        assertEquals((1001 + 999 + 1000) * 10 / 3, elevationDm);
+    }
+
+    @Test
+    void reportsNoDataOutsideTiles() {
+        assertEquals(ElevationModel.NO_DATA, model.elevationDm(GeoUtils.toE7(-7.5), GeoUtils.toE7(116.5)));
+        assertEquals(ElevationModel.NO_DATA, new ElevationModel("").elevationDm(GeoUtils.toE7(-8.4), GeoUtils.toE7(116.45)));
+    }
+}
@@ -0,0 +1,91 @@
+package com.haven.app.haven.geofence;
+
+import com.haven.app.haven.alert.TransactionAlertEvent;
+import com.haven.app.haven.constant.AlertType;
+import com.haven.app.haven.constant.GeofenceType;
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeofenceMonitorTest {
+    private final List<TransactionAlertEvent> alerts = new ArrayList<>();
+    private final GeofenceIndex index = new GeofenceIndex(null, 0.01);
+    private final GeofenceMonitor monitor = new GeofenceMonitor(index, event -> alerts.add((TransactionAlertEvent) event));
+    private final LocalDateTime now = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    @BeforeEach
+    void setUp() {
+        index.rebuild(List.of(
+                new GeofenceIndex.Fence("trail", "Summit trail", GeofenceType.CORRIDOR, square(-63000000, 1068000000, 1000000)),
+                new GeofenceIndex.Fence("crater", "Crater", GeofenceType.CLOSED_ZONE, square(-62500000, 1068500000, 200000))));
+    }
+
+    @Test
+    void polygonContainsOnlyInteriorPoints() {
+        GeofencePolygon triangle = GeofencePolygon.fromDegrees(List.of(
+                List.of(0.0, 0.0), List.of(0.0, 1.0), List.of(1.0, 0.0)));
+
+        assertTrue(triangle.contains(2000000, 2000000));
+        assertFalse(triangle.contains(8000000, 8000000));
+        assertEquals(triangle.format(), GeofencePolygon.parse(triangle.format()).format());
+    }
+
+    @Test
+    void indexFindsNestedFences() {
+        assertEquals(List.of("trail", "crater"), index.containing(-62400000, 1068600000).stream()
+                .map(GeofenceIndex.Fence::id).toList());
+        assertTrue(index.containing(-50000000, 1068600000).isEmpty());
+    }
+
+    @Test
+    void raisesEnterAndExitOnTransitions() {
+        monitor.onCoordinateAccepted(fix(-62100000, 1068100000, now));
+        assertTrue(alerts.isEmpty());
+
+        monitor.onCoordinateAccepted(fix(-62400000, 1068600000, now.plusSeconds(10)));
+        monitor.onCoordinateAccepted(fix(-50000000, 1068600000, now.plusSeconds(20)));
+
+        assertEquals(3, alerts.size());
+        assertEquals(AlertType.GEOFENCE_ENTER, alerts.get(0).getType());
+        assertEquals("crater", alerts.get(0).getReferenceId());
+        assertEquals(Set.of("trail", "crater"), alerts.subList(1, 3).stream()
+                .filter(alert -> alert.getType() == AlertType.GEOFENCE_EXIT)
+                .map(TransactionAlertEvent::getReferenceId).collect(Collectors.toSet()));
+        assertTrue(monitor.getInside("trx-1").isEmpty());
+    }
+
+    @Test
+    void ignoresOutOfOrderFix() {
+        monitor.onCoordinateAccepted(fix(-62100000, 1068100000, now.plusSeconds(10)));
+        monitor.onCoordinateAccepted(fix(-50000000, 1068600000, now));
+
+        assertTrue(alerts.isEmpty());
+        assertEquals(1, monitor.getInside("trx-1").size());
+    }
+
+    @Test
+    void firstFixInsideClosedZoneAlerts() {
+        monitor.onCoordinateAccepted(fix(-62400000, 1068600000, now));
+
+        assertEquals(1, alerts.size());
+        assertEquals("crater", alerts.get(0).getReferenceId());
+    }
+
+    private static GeofencePolygon square(int southE7, int westE7, int sizeE7) {
+        return new GeofencePolygon(
+                new int[]{southE7, southE7, southE7 + sizeE7, southE7 + sizeE7},
+                new int[]{westE7, westE7 + sizeE7, westE7 + sizeE7, westE7});
+    }
+
+    private static CoordinateAcceptedEvent fix(int latitudeE7, int longitudeE7, LocalDateTime recordedAt) {
+        return new CoordinateAcceptedEvent("c", "trk-1", "trx-1", latitudeE7, longitudeE7, recordedAt, null, null);
+    }
+}
@@ -0,0 +1,142 @@
+package com.haven.app.haven.heatmap;
+
+import com.haven.app.haven.dto.response.HeatmapRebuildResponse;
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class HeatmapAggregatorTest {
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HeatmapAggregator aggregator = new HeatmapAggregator(jdbcTemplate,
+            mock(PlatformTransactionManager.class), true, 14, 16, 4, 100, 3, meterRegistry);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushRollsPendingCountsUpToCoarserZooms() {
+        aggregator.onCoordinateAccepted(fix("c1", -84_000_000, 1_164_600_000));
+        aggregator.onCoordinateAccepted(fix("c2", -84_000_000, 1_164_600_000));
+        aggregator.onCoordinateAccepted(fix("c3", -84_000_000, 1_164_610_000));
+        assertEquals(3, aggregator.getPendingCount());
+
+        aggregator.flush();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("ON CONFLICT"), rows.capture());
+        long perZoom14 = rows.getValue().stream().filter(row -> (int) row[1] == 14).mapToLong(row -> (long) row[4]).sum();
+        long perZoom16 = rows.getValue().stream().filter(row -> (int) row[1] == 16).mapToLong(row -> (long) row[4]).sum();
+        assertEquals(3, perZoom14);
+        assertEquals(3, perZoom16);
+        assertEquals(0, aggregator.getPendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedFlushKeepsCountsPending() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new RuntimeException("down"));
+        aggregator.onCoordinateAccepted(fix("c1", -84_000_000, 1_164_600_000));
+
+        aggregator.flush();
+
+        assertEquals(1, aggregator.getPendingCount());
+    }
+
+    @Test
+    void pendingFixesAreBoundedDuringAnOutage() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new RuntimeException("down"));
+        for (int i = 0; i < 5; i++) {
+            aggregator.onCoordinateAccepted(fix("c" + i, -84_000_000, 1_164_600_000));
+        }
+
+        aggregator.flush();
+        aggregator.onCoordinateAccepted(fix("c5", -84_000_000, 1_164_600_000));
+
+        assertEquals(3, aggregator.getPendingCount());
+        assertEquals(3, aggregator.getDroppedCount());
+        assertEquals(3.0, meterRegistry.get("heatmap.pending.dropped").functionCounter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuildRecountsHistoryAndReplacesTable() throws Exception {
+        // Ten rows with a chunk size of four exercises the partial last chunk.
+        givenSnapshot(10, List.of("c1"));
+        aggregator.onCoordinateAccepted(fix("c1", -84_000_000, 1_164_600_000));
+
+        HeatmapRebuildResponse result = aggregator.rebuild();
+
+        assertEquals(10, result.getFixes());
+        assertEquals(3, result.getTiles());
+        assertEquals(0, aggregator.getPendingCount());
+        verify(jdbcTemplate).update("DELETE FROM heatmap_tiles");
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertTrue(rows.getValue().stream().allMatch(row -> (long) row[4] == 10));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuildKeepsPendingFixesItsSnapshotDidNotContain() throws Exception {
+        givenSnapshot(1, List.of("c1"));
+        aggregator.onCoordinateAccepted(fix("c1", -84_000_000, 1_164_600_000));
+        // Still queued for write-behind when the snapshot was taken.
+        aggregator.onCoordinateAccepted(fix("c2", -84_000_000, 1_164_600_000));
+
+        aggregator.rebuild();
+        assertEquals(1, aggregator.getPendingCount());
+
+        aggregator.flush();
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), rows.capture());
+        List<Object[]> flushed = rows.getAllValues().get(1);
+        assertEquals(3, flushed.size());
+        assertTrue(flushed.stream().allMatch(row -> (long) row[4] == 1));
+    }
+
+    // Answers the coordinates scan with the given number of rows at one spot, and the
+    // stored-id check with the given ids.
+    private void givenSnapshot(int rows, List<String> storedIds) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getInt(1)).thenReturn(-84_000_000);
+        when(resultSet.getInt(2)).thenReturn(1_164_600_000);
+        doAnswer(invocation -> {
+            PreparedStatementCreator creator = invocation.getArgument(0);
+            RowCallbackHandler handler = invocation.getArgument(1);
+            Connection connection = mock(Connection.class, RETURNS_MOCKS);
+            creator.createPreparedStatement(connection);
+            ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+            verify(connection).prepareStatement(sql.capture());
+            if (sql.getValue().contains("ANY")) {
+                for (String id : storedIds) {
+                    when(resultSet.getString(1)).thenReturn(id);
+                    handler.processRow(resultSet);
+                }
+            } else {
+                for (int i = 0; i < rows; i++) {
+                    handler.processRow(resultSet);
+                }
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of());
+    }
+
+    private static CoordinateAcceptedEvent fix(String coordinateId, int latitudeE7, int longitudeE7) {
+        return new CoordinateAcceptedEvent(coordinateId, "tracker-1", "trx-1", latitudeE7, longitudeE7,
+                LocalDateTime.of(2025, 1, 1, 8, 0), null, null);
+    }
+}
@@ -0,0 +1,71 @@
+package com.haven.app.haven.heatmap;
+
+import com.haven.app.haven.utils.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeatmapTilesTest {
+    @Test
+    void projectsToSlippyMapTiles() {
+        // London at zoom 10 is tile 511/340 on every slippy map.
+        assertEquals(511, HeatmapTiles.tileX(GeoUtils.toE7(-0.1278), 10));
+        assertEquals(340, HeatmapTiles.tileY(GeoUtils.toE7(51.5074), 10));
+        assertEquals(1, HeatmapTiles.tileX(0, 1));
+        assertEquals(1, HeatmapTiles.tileY(0, 1));
+        // Poles clamp to the edge rows.
+        assertEquals(0, HeatmapTiles.tileY(GeoUtils.toE7(90), 4));
+        assertEquals(15, HeatmapTiles.tileY(GeoUtils.toE7(-90), 4));
+    }
+
+    @Test
+    void packsKeysAndFindsAncestors() {
+        long key = HeatmapTiles.key(18, 209_715, 135_001);
+        assertEquals(18, HeatmapTiles.zoom(key));
+        assertEquals(209_715, HeatmapTiles.x(key));
+        assertEquals(135_001, HeatmapTiles.y(key));
+
+        long parent = HeatmapTiles.ancestor(key, 16);
+        assertEquals(HeatmapTiles.key(16, 209_715 >> 2, 135_001 >> 2), parent);
+
+        assertTrue(HeatmapTiles.isValid(3, 7, 0));
+        assertFalse(HeatmapTiles.isValid(3, 8, 0));
+        assertFalse(HeatmapTiles.isValid(25, 0, 0));
+    }
+
+    @Test
+    void binsEveryZoomInParallel() {
+        int size = 50_000;
+        int[] latitudes = new int[size];
+        int[] longitudes = new int[size];
+        Random random = new Random(7);
+        for (int i = 0; i < size; i++) {
+            latitudes[i] = -84_100_000 + random.nextInt(500_000);
+            longitudes[i] = 1_164_500_000 + random.nextInt(500_000);
+        }
+
+        Map<Long, Long> counts = new HashMap<>();
+        HeatmapTiles.bin(latitudes, longitudes, size, 12, 16, new long[size * 5],
+                (key, count) -> assertNull(counts.put(key, count)));
+
+        Map<Integer, Long> perZoom = new HashMap<>();
+        counts.forEach((key, count) -> perZoom.merge(HeatmapTiles.zoom(key), count, Long::sum));
+        for (int zoom = 12; zoom <= 16; zoom++) {
+            assertEquals(size, perZoom.get(zoom));
+        }
+
+        long expected = 0;
+        long probe = HeatmapTiles.key(16, HeatmapTiles.tileX(longitudes[0], 16), HeatmapTiles.tileY(latitudes[0], 16));
+        for (int i = 0; i < size; i++) {
+            if (HeatmapTiles.tileX(longitudes[i], 16) == HeatmapTiles.x(probe)
+                    && HeatmapTiles.tileY(latitudes[i], 16) == HeatmapTiles.y(probe)) {
+                expected++;
+            }
+        }
+        assertEquals(expected, counts.get(probe));
+    }
+}
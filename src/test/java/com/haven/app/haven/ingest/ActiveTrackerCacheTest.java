@@ -0,0 +1,142 @@
+package com.haven.app.haven.ingest;
+
+import com.haven.app.haven.constant.TransactionStatus;
+import com.haven.app.haven.entity.TrackerDevices;
+import com.haven.app.haven.entity.Transactions;
+import com.haven.app.haven.exception.NotFoundException;
+import com.haven.app.haven.repository.TrackerDevicesRepository;
+import com.haven.app.haven.repository.TransactionsRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class ActiveTrackerCacheTest {
+    private final TrackerDevicesRepository trackerDevicesRepository = mock(TrackerDevicesRepository.class);
+    private final TransactionsRepository transactionsRepository = mock(TransactionsRepository.class);
+    private final ActiveTrackerCache cache = new ActiveTrackerCache(trackerDevicesRepository, transactionsRepository);
+
+    private final TrackerDevices tracker = TrackerDevices.builder().id("trk-1").serialNumber("SN-1").build();
+    private final Transactions transaction = Transactions.builder().id("trx-1").tracker(tracker).status(TransactionStatus.START).build();
+
+    @Test
+    void resolveLoadsOnMissAndServesHitsFromMemory() {
+        givenActive();
+
+        ActiveTracker first = cache.resolve("SN-1");
+        ActiveTracker second = cache.resolve("SN-1");
+
+        assertEquals("trk-1", first.getTrackerId());
+        assertEquals("trx-1", first.getTransactionId());
+        assertSame(first, second);
+        verify(trackerDevicesRepository, times(1)).findBySerialNumber("SN-1");
+    }
+
+    @Test
+    void resolveRejectsUnknownTrackerAndTrackerWithoutStart() {
+        assertThrows(NotFoundException.class, () -> cache.resolve("SN-404"));
+
+        when(trackerDevicesRepository.findBySerialNumber("SN-1")).thenReturn(tracker);
+        when(transactionsRepository.findFirstByTrackerAndStatus(tracker, TransactionStatus.START)).thenReturn(Optional.empty());
+        assertThrows(NotFoundException.class, () -> cache.resolve("SN-1"));
+    }
+
+    @Test
+    void resolveAllQueriesOnlyTheMisses() {
+        TrackerDevices idle = TrackerDevices.builder().id("trk-2").serialNumber("SN-2").build();
+        cache.put(tracker, transaction);
+        when(trackerDevicesRepository.findAllBySerialNumberIn(anyCollection())).thenReturn(List.of(idle));
+        when(transactionsRepository.findAllByTrackerInAndStatus(anyCollection(), any())).thenReturn(List.of());
+
+        Map<String, ActiveTracker> resolved = cache.resolveAll(List.of("SN-1", "SN-2", "SN-404"));
+
+        assertEquals("trx-1", resolved.get("SN-1").getTransactionId());
+        assertFalse(resolved.get("SN-2").hasTransaction());
+        assertFalse(resolved.containsKey("SN-404"));
+        verify(trackerDevicesRepository).findAllBySerialNumberIn(Set.of("SN-2", "SN-404"));
+
+        // A tracker without a START transaction is not cached, so it is looked up again.
+        cache.resolveAll(List.of("SN-2"));
+        verify(trackerDevicesRepository, times(2)).findAllBySerialNumberIn(anyCollection());
+    }
+
+    @Test
+    void resolveAllCachesActiveTrackers() {
+        when(trackerDevicesRepository.findAllBySerialNumberIn(anyCollection())).thenReturn(List.of(tracker));
+        when(transactionsRepository.findAllByTrackerInAndStatus(anyCollection(), any())).thenReturn(List.of(transaction));
+
+        cache.resolveAll(List.of("SN-1"));
+        ActiveTracker hit = cache.resolve("SN-1");
+
+        assertEquals("trx-1", hit.getTransactionId());
+        verify(trackerDevicesRepository, never()).findBySerialNumber(any());
+    }
+
+    @Test
+    void evictionDuringLoadDoesNotCacheTheStaleValue() {
+        when(trackerDevicesRepository.findBySerialNumber("SN-1")).thenAnswer(invocation -> {
+            // The transaction finishes while this lookup is still reading the old row.
+            cache.evict("SN-1");
+            return tracker;
+        });
+        when(transactionsRepository.findFirstByTrackerAndStatus(tracker, TransactionStatus.START)).thenReturn(Optional.of(transaction));
+
+        cache.resolve("SN-1");
+        cache.resolve("SN-1");
+
+        verify(trackerDevicesRepository, times(2)).findBySerialNumber("SN-1");
+    }
+
+    @Test
+    void evictionDuringBatchLoadDoesNotCacheTheStaleValue() {
+        when(trackerDevicesRepository.findAllBySerialNumberIn(anyCollection())).thenReturn(List.of(tracker));
+        when(transactionsRepository.findAllByTrackerInAndStatus(anyCollection(), any())).thenAnswer(invocation -> {
+            cache.evictTracker("trk-1");
+            return List.of(transaction);
+        });
+
+        cache.resolveAll(List.of("SN-1"));
+        cache.resolveAll(List.of("SN-1"));
+
+        verify(trackerDevicesRepository, times(2)).findAllBySerialNumberIn(anyCollection());
+    }
+
+    @Test
+    void evictAndEvictTrackerDropEntries() {
+        TrackerDevices other = TrackerDevices.builder().id("trk-2").serialNumber("SN-2").build();
+        cache.put(tracker, transaction);
+        cache.put(other, Transactions.builder().id("trx-2").build());
+        givenActive();
+
+        cache.evict("SN-1");
+        cache.evictTracker("trk-2");
+        cache.evict(null);
+
+        cache.resolve("SN-1");
+        verify(trackerDevicesRepository).findBySerialNumber("SN-1");
+        assertThrows(NotFoundException.class, () -> cache.resolve("SN-2"));
+    }
+
+    @Test
+    void warmUpLoadsStartTransactionsWithTracker() {
+        Transactions unassigned = Transactions.builder().id("trx-2").status(TransactionStatus.START).build();
+        when(transactionsRepository.findAllByStatus(TransactionStatus.START)).thenReturn(List.of(transaction, unassigned));
+
+        cache.warmUp();
+
+        assertEquals("trx-1", cache.resolve("SN-1").getTransactionId());
+        verify(trackerDevicesRepository, never()).findBySerialNumber(any());
+    }
+
+    private void givenActive() {
+        when(trackerDevicesRepository.findBySerialNumber("SN-1")).thenReturn(tracker);
+        when(transactionsRepository.findFirstByTrackerAndStatus(tracker, TransactionStatus.START)).thenReturn(Optional.of(transaction));
+    }
+}
@@ -0,0 +1,79 @@
+package com.haven.app.haven.ingest;
+
+import com.haven.app.haven.constant.TransactionStatus;
+import com.haven.app.haven.realtime.TransactionStatusChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoordinateDeduplicatorTest {
+    private final CoordinateDeduplicator deduplicator = new CoordinateDeduplicator(new SimpleMeterRegistry(), true, 128, 4);
+
+    @Test
+    void dropsReplayedSequenceNumbers() {
+        assertTrue(deduplicator.accept("trk-1", 10L, null));
+        assertTrue(deduplicator.accept("trk-1", 12L, null));
+        assertFalse(deduplicator.accept("trk-1", 10L, null));
+        assertFalse(deduplicator.accept("trk-1", 12L, null));
+
+        // Late but never seen, inside the window.
+        assertTrue(deduplicator.accept("trk-1", 11L, null));
+        assertTrue(deduplicator.accept("trk-2", 10L, null));
+        assertEquals(2, deduplicator.getDuplicateCount());
+    }
+
+    @Test
+    void windowSlidesForward() {
+        for (long sequence = 0; sequence < 1000; sequence++) {
+            assertTrue(deduplicator.accept("trk-1", sequence, null));
+        }
+        assertFalse(deduplicator.accept("trk-1", 999L, null));
+        assertFalse(deduplicator.accept("trk-1", 900L, null));
+
+        // Skipped numbers are not remembered from an earlier lap of the bitmap.
+        assertTrue(deduplicator.accept("trk-1", 1100L, null));
+        assertTrue(deduplicator.accept("trk-1", 1050L, null));
+    }
+
+    @Test
+    void farOlderSequenceIsTreatedAsRestart() {
+        assertTrue(deduplicator.accept("trk-1", 5000L, null));
+        assertTrue(deduplicator.accept("trk-1", 0L, null));
+        assertTrue(deduplicator.accept("trk-1", 1L, null));
+        assertFalse(deduplicator.accept("trk-1", 0L, null));
+    }
+
+    @Test
+    void fallsBackToTimestamps() {
+        assertTrue(deduplicator.accept("trk-1", null, 1_000L));
+        assertFalse(deduplicator.accept("trk-1", null, 1_000L));
+        for (long timestamp = 2_000L; timestamp < 6_000L; timestamp += 1_000L) {
+            assertTrue(deduplicator.accept("trk-1", null, timestamp));
+        }
+        // Pushed out of the ring of four.
+        assertTrue(deduplicator.accept("trk-1", null, 1_000L));
+        assertTrue(deduplicator.accept("trk-1", null, null));
+        assertTrue(deduplicator.accept("trk-1", null, null));
+    }
+
+    @Test
+    void forgottenFixIsAcceptedAgain() {
+        assertTrue(deduplicator.accept("trk-1", 7L, null));
+        deduplicator.forget("trk-1", 7L, null);
+        assertTrue(deduplicator.accept("trk-1", 7L, null));
+
+        assertTrue(deduplicator.accept("trk-1", null, 1_000L));
+        deduplicator.forget("trk-1", null, 1_000L);
+        assertTrue(deduplicator.accept("trk-1", null, 1_000L));
+    }
+
+    @Test
+    void finishedTransactionResetsWindow() {
+        assertTrue(deduplicator.accept("trk-1", 7L, null));
+        deduplicator.onTransactionStatusChanged(new TransactionStatusChangedEvent("trx-1", "trk-1",
+                TransactionStatus.START, TransactionStatus.DONE));
+
+        assertTrue(deduplicator.accept("trk-1", 7L, null));
+    }
+}
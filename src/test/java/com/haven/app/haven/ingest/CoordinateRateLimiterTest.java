@@ -0,0 +1,90 @@
+package com.haven.app.haven.ingest;
+
+import com.haven.app.haven.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoordinateRateLimiterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsBurstThenRefillsAtRate() {
+        CoordinateRateLimiter.Buckets buckets = new CoordinateRateLimiter.Buckets(64, 2, 5);
+        long now = SECOND;
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, buckets.tryAcquire("SN-1", now));
+        }
+        long wait = buckets.tryAcquire("SN-1", now);
+        assertTrue(wait > 0 && wait <= SECOND / 2);
+
+        // Another key has its own bucket.
+        assertEquals(0, buckets.tryAcquire("SN-2", now));
+
+        assertEquals(0, buckets.tryAcquire("SN-1", now + SECOND / 2));
+        assertTrue(buckets.tryAcquire("SN-1", now + SECOND / 2) > 0);
+    }
+
+    @Test
+    void idleBucketDoesNotBankMoreThanBurst() {
+        CoordinateRateLimiter.Buckets buckets = new CoordinateRateLimiter.Buckets(64, 10, 3);
+        long later = 3600 * SECOND;
+
+        int allowed = 0;
+        while (buckets.tryAcquire("SN-1", later) == 0) {
+            allowed++;
+        }
+        assertEquals(3, allowed);
+    }
+
+    @Test
+    void concurrentCallersNeverExceedBurst() throws Exception {
+        CoordinateRateLimiter.Buckets buckets = new CoordinateRateLimiter.Buckets(64, 1, 100);
+        AtomicInteger allowed = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (buckets.tryAcquire("SN-1", SECOND) == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(100, allowed.get());
+    }
+
+    @Test
+    void throttlesSerialWithRetryAfterAndCountsIt() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CoordinateRateLimiter limiter = new CoordinateRateLimiter(meterRegistry, true, 64, 0.5, 1, 100, 100);
+
+        limiter.acquireSerial("SN-1");
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> limiter.acquireSerial("SN-1"));
+
+        assertEquals(2, exception.getRetryAfterSeconds());
+        assertEquals(0, limiter.acquireAddress("10.0.0.1"));
+        assertEquals(1.0, meterRegistry.get("coordinate.ingest.throttled").tag("key", "serial").counter().count());
+    }
+
+    @Test
+    void disabledLimiterAllowsEverything() {
+        CoordinateRateLimiter limiter = new CoordinateRateLimiter(new SimpleMeterRegistry(), false, 64, 0.1, 1, 0.1, 1);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquireSerial("SN-1");
+            assertEquals(0, limiter.acquireAddress("10.0.0.1"));
+        }
+    }
+}
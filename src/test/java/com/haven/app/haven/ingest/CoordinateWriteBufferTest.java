@@ -0,0 +1,226 @@
+package com.haven.app.haven.ingest;
+
+import com.haven.app.haven.constant.WriteDurability;
+import com.haven.app.haven.entity.Coordinates;
+import com.haven.app.haven.entity.TrackerDevices;
+import com.haven.app.haven.entity.Transactions;
+import com.haven.app.haven.exception.CoordinateException;
+import com.haven.app.haven.exception.TooManyRequestsException;
+import com.haven.app.haven.repository.CoordinateRepository;
+import com.haven.app.haven.repository.TrackerDevicesRepository;
+import com.haven.app.haven.repository.TransactionsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class CoordinateWriteBufferTest {
+    private final CoordinateRepository coordinateRepository = mock(CoordinateRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger lostCallbacks = new AtomicInteger();
+    private final List<List<Coordinates>> saved = new ArrayList<>();
+    private CoordinateWriteBuffer buffer;
+
+    private CoordinateWriteBuffer buffer(int capacity, int batchSize, long flushIntervalMs, WriteDurability durability) {
+        TrackerDevicesRepository trackerDevicesRepository = mock(TrackerDevicesRepository.class);
+        TransactionsRepository transactionsRepository = mock(TransactionsRepository.class);
+        when(trackerDevicesRepository.getReferenceById(any()))
+                .thenAnswer(invocation -> TrackerDevices.builder().id(invocation.getArgument(0)).build());
+        when(transactionsRepository.getReferenceById(any()))
+                .thenAnswer(invocation -> Transactions.builder().id(invocation.getArgument(0)).build());
+
+        buffer = new CoordinateWriteBuffer(coordinateRepository, trackerDevicesRepository, transactionsRepository,
+                mock(PlatformTransactionManager.class), eventPublisher, meterRegistry);
+        buffer.enabled = true;
+        buffer.capacity = capacity;
+        buffer.batchSize = batchSize;
+        buffer.flushIntervalMs = flushIntervalMs;
+        buffer.durability = durability;
+        buffer.commitTimeoutMs = 200L;
+        buffer.shutdownTimeoutMs = 5000L;
+        buffer.start();
+        return buffer;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (buffer != null) {
+            buffer.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void groupsFixesIntoOneCommit() {
+        recordSaves();
+        buffer(100, 3, 5000, WriteDurability.ENQUEUE);
+
+        for (int i = 0; i < 3; i++) {
+            buffer.submit(fix(i), lostCallbacks::incrementAndGet);
+        }
+
+        verify(coordinateRepository, timeout(2000)).saveAll(anyList());
+        assertEquals(1, saved.size());
+        assertEquals(3, saved.get(0).size());
+        assertEquals(0, lostCallbacks.get());
+    }
+
+    @Test
+    void acceptedEventsArePublishedAfterTheGroupCommits() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(coordinateRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        buffer(100, 2, 5000, WriteDurability.ENQUEUE);
+
+        buffer.submit(fix(0), lostCallbacks::incrementAndGet);
+        buffer.submit(fix(1), lostCallbacks::incrementAndGet);
+        verify(eventPublisher, after(200).never()).publishEvent(any(Object.class));
+
+        release.countDown();
+        ArgumentCaptor<CoordinateAcceptedEvent> events = ArgumentCaptor.forClass(CoordinateAcceptedEvent.class);
+        verify(eventPublisher, timeout(2000).times(2)).publishEvent(events.capture());
+        assertEquals(List.of("coordinate0", "coordinate1"),
+                events.getAllValues().stream().map(CoordinateAcceptedEvent::getCoordinateId).toList());
+        assertEquals("transaction1", events.getAllValues().get(0).getTransactionId());
+    }
+
+    @Test
+    void fullBufferIsReportedAsTooManyRequests() throws Exception {
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(coordinateRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            flushing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        buffer(1, 1, 10, WriteDurability.ENQUEUE);
+
+        buffer.submit(fix(0), lostCallbacks::incrementAndGet);
+        assertTrue(flushing.await(2, TimeUnit.SECONDS));
+        buffer.submit(fix(1), lostCallbacks::incrementAndGet);
+
+        assertThrows(TooManyRequestsException.class, () -> buffer.submit(fix(2), lostCallbacks::incrementAndGet));
+        assertEquals(1, lostCallbacks.get());
+        assertEquals(1, buffer.size());
+        release.countDown();
+    }
+
+    @Test
+    void failedGroupCountsLostFixesAndRunsTheirUndo() {
+        when(coordinateRepository.saveAll(anyList())).thenThrow(new RuntimeException("database down"));
+        buffer(100, 2, 5000, WriteDurability.ENQUEUE);
+
+        buffer.submit(fix(0), lostCallbacks::incrementAndGet);
+        buffer.submit(fix(1), lostCallbacks::incrementAndGet);
+
+        verify(coordinateRepository, timeout(2000)).saveAll(anyList());
+        waitFor(() -> lostCallbacks.get() == 2);
+        assertEquals(2, buffer.getLost());
+        assertEquals(2.0, meterRegistry.get("coordinate.write-behind.lost").functionCounter().count());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void commitDurabilityWaitsForTheGroup() {
+        recordSaves();
+        buffer(100, 1, 10, WriteDurability.COMMIT);
+
+        buffer.submit(fix(0), lostCallbacks::incrementAndGet);
+
+        assertEquals(1, saved.size());
+        assertEquals(0, lostCallbacks.get());
+    }
+
+    @Test
+    void commitFailureIsReportedToTheCaller() {
+        when(coordinateRepository.saveAll(anyList())).thenThrow(new RuntimeException("database down"));
+        buffer(100, 1, 10, WriteDurability.COMMIT);
+
+        assertThrows(CoordinateException.class, () -> buffer.submit(fix(0), lostCallbacks::incrementAndGet));
+        waitFor(() -> lostCallbacks.get() == 1);
+        // The caller was told, so nothing acknowledged was lost.
+        assertEquals(0, buffer.getLost());
+    }
+
+    @Test
+    void timedOutCommitKeepsTheFixUntilTheGroupFails() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(coordinateRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            throw new RuntimeException("database down");
+        });
+        buffer(100, 1, 10, WriteDurability.COMMIT);
+
+        CoordinateException pending = assertThrows(CoordinateException.class,
+                () -> buffer.submit(fix(0), lostCallbacks::incrementAndGet));
+        assertTrue(pending.getMessage().contains("pending"));
+        // The group may still commit, so the retry must keep being treated as a duplicate.
+        assertEquals(0, lostCallbacks.get());
+
+        release.countDown();
+        waitFor(() -> lostCallbacks.get() == 1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shutdownDrainsQueuedFixes() {
+        recordSaves();
+        buffer(100, 500, 60_000, WriteDurability.ENQUEUE);
+
+        buffer.submit(fix(0), lostCallbacks::incrementAndGet);
+        buffer.submit(fix(1), lostCallbacks::incrementAndGet);
+        buffer.shutdown();
+
+        assertEquals(2, saved.stream().mapToInt(List::size).sum());
+        assertEquals(0, buffer.size());
+        assertThrows(CoordinateException.class, () -> buffer.submit(fix(2), lostCallbacks::incrementAndGet));
+        assertEquals(1, lostCallbacks.get());
+        buffer = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void recordSaves() {
+        when(coordinateRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            synchronized (saved) {
+                saved.add(new ArrayList<>((List<Coordinates>) invocation.getArgument(0)));
+            }
+            return invocation.getArgument(0);
+        });
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not reached in time");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static Coordinates fix(int i) {
+        return Coordinates.builder()
+                .id("coordinate" + i)
+                .tracker(TrackerDevices.builder().id("tracker1").build())
+                .transaction(Transactions.builder().id("transaction1").build())
+                .latitudeE7(-84_000_000 + i)
+                .longitudeE7(1_164_600_000)
+                .recordedAt(LocalDateTime.now())
+                .build();
+    }
+}
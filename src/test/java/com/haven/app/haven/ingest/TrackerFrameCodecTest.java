@@ -0,0 +1,56 @@
+package com.haven.app.haven.ingest;
+
+import com.haven.app.haven.exception.CoordinateException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackerFrameCodecTest {
+
+    @Test
+    void roundTrip() {
+        TrackerFrame frame = new TrackerFrame("SN-0001", 3);
+        frame.set(0, 1_700_000_000_000L, -62088000, 1068456000, (short) 87);
+        frame.set(1, 1_700_000_010_000L, -62088150, 1068456210, TrackerFrame.NO_BATTERY);
+        frame.set(2, 1_700_000_020_000L, -62087990, 1068456050, (short) 86);
+
+        TrackerFrame decoded = TrackerFrameCodec.decode(TrackerFrameCodec.encode(frame));
+
+        assertEquals("SN-0001", decoded.getSerialNumber());
+        assertEquals(3, decoded.getCount());
+        assertArrayEquals(frame.getTimestamps(), decoded.getTimestamps());
+        assertArrayEquals(frame.getLatitudesE7(), decoded.getLatitudesE7());
+        assertArrayEquals(frame.getLongitudesE7(), decoded.getLongitudesE7());
+        assertArrayEquals(frame.getBattery(), decoded.getBattery());
+    }
+
+    @Test
+    void deltaEncodedFixesAreCompact() {
+        int count = 100;
+        TrackerFrame frame = new TrackerFrame("SN-0001", count);
+        for (int i = 0; i < count; i++) {
+            frame.set(i, 1_700_000_000_000L + i * 10_000L, -62088000 + i * 150, 1068456000 - i * 90, TrackerFrame.NO_BATTERY);
+        }
+
+        byte[] encoded = TrackerFrameCodec.encode(frame);
+
+        assertTrue(encoded.length < count * 10, "expected under 10 bytes per fix but was " + encoded.length);
+    }
+
+    @Test
+    void rejectsTruncatedFrame() {
+        TrackerFrame frame = new TrackerFrame("SN-0001", 1);
+        frame.set(0, 1_700_000_000_000L, -62088000, 1068456000, (short) 50);
+        byte[] encoded = TrackerFrameCodec.encode(frame);
+
+        assertThrows(CoordinateException.class,
+                () -> TrackerFrameCodec.decode(Arrays.copyOf(encoded, encoded.length - 1)));
+    }
+
+    @Test
+    void rejectsUnknownMagic() {
+        assertThrows(CoordinateException.class, () -> TrackerFrameCodec.decode(new byte[]{0x00, 0x01, 0x01, 0x41, 0x01}));
+    }
+}
@@ -0,0 +1,49 @@
+package com.haven.app.haven.ingest;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Simulated tracker for exercising the UDP uplink locally: signs a frame the way device
+ * firmware would and waits for the listener's ack.
+ */
+class TrackerSimulator implements AutoCloseable {
+    private final DatagramChannel channel;
+    private final UplinkAuthenticator authenticator;
+    private long counter;
+
+    TrackerSimulator(InetSocketAddress server, UplinkAuthenticator authenticator) throws IOException {
+        this.authenticator = authenticator;
+        this.channel = DatagramChannel.open();
+        this.channel.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+        this.channel.connect(server);
+        this.channel.socket().setSoTimeout(5000);
+    }
+
+    ByteBuffer send(TrackerFrame frame) throws IOException {
+        return sendRaw(sign(frame));
+    }
+
+    // Firmware counter: the send time in milliseconds, never repeating.
+    byte[] sign(TrackerFrame frame) {
+        counter = Math.max(System.currentTimeMillis(), counter + 1);
+        return authenticator.sign(frame.getSerialNumber(), TrackerFrameCodec.encode(frame), counter);
+    }
+
+    ByteBuffer sendRaw(byte[] datagram) throws IOException {
+        channel.write(ByteBuffer.wrap(datagram));
+        byte[] ack = new byte[16];
+        DatagramPacket packet = new DatagramPacket(ack, ack.length);
+        channel.socket().receive(packet);
+        return ByteBuffer.wrap(ack, 0, packet.getLength());
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
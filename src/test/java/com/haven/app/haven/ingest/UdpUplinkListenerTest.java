@@ -0,0 +1,147 @@
+package com.haven.app.haven.ingest;
+
+import com.haven.app.haven.dto.response.CoordinateBatchResponse;
+import com.haven.app.haven.exception.TooManyRequestsException;
+import com.haven.app.haven.service.CoordinateService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UdpUplinkListenerTest {
+    private final CoordinateService coordinateService = mock(CoordinateService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UplinkAuthenticator authenticator;
+    private UdpUplinkListener listener;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        authenticator = new UplinkAuthenticator();
+        authenticator.secret = "test-secret";
+        authenticator.maxSkewSeconds = 300L;
+
+        listener = new UdpUplinkListener(coordinateService, authenticator, meterRegistry);
+        listener.enabled = true;
+        listener.host = "127.0.0.1";
+        listener.port = 0;
+        listener.workers = 1;
+        listener.queueCapacity = 16;
+        listener.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.stop();
+    }
+
+    @Test
+    void acceptsSignedFrame() throws Exception {
+        when(coordinateService.addCoordinateFrame(any(TrackerFrame.class)))
+                .thenReturn(CoordinateBatchResponse.builder().accepted(2).rejected(0).items(List.of()).build());
+
+        TrackerFrame frame = new TrackerFrame("SN-1", 2);
+        frame.set(0, 1_700_000_000_000L, -62088000, 1068456000, (short) 90);
+        frame.set(1, 1_700_000_010_000L, -62088100, 1068456100, TrackerFrame.NO_BATTERY);
+
+        try (TrackerSimulator tracker = new TrackerSimulator(listener.getLocalAddress(), authenticator)) {
+            ByteBuffer ack = tracker.send(frame);
+
+            assertEquals(TrackerFrameCodec.MAGIC, ack.get());
+            assertEquals(UdpUplinkListener.ACK_OK, ack.get());
+            assertEquals(2, ack.getInt());
+        }
+        verify(coordinateService).addCoordinateFrame(any(TrackerFrame.class));
+        assertEquals(2.0, meterRegistry.get("tracker.uplink.fixes").counter().count());
+    }
+
+    @Test
+    void rejectsFrameSignedForAnotherDevice() throws Exception {
+        TrackerFrame frame = new TrackerFrame("SN-1", 1);
+        frame.set(0, 1_700_000_000_000L, -62088000, 1068456000, TrackerFrame.NO_BATTERY);
+        byte[] datagram = authenticator.sign("SN-2", TrackerFrameCodec.encode(frame), System.currentTimeMillis());
+
+        try (TrackerSimulator tracker = new TrackerSimulator(listener.getLocalAddress(), authenticator)) {
+            ByteBuffer ack = tracker.sendRaw(datagram);
+
+            assertEquals(TrackerFrameCodec.MAGIC, ack.get());
+            assertEquals(UdpUplinkListener.ACK_UNAUTHORIZED, ack.get());
+        }
+        verify(coordinateService, never()).addCoordinateFrame(any(TrackerFrame.class));
+    }
+
+    @Test
+    void rejectsReplayedDatagram() throws Exception {
+        when(coordinateService.addCoordinateFrame(any(TrackerFrame.class)))
+                .thenReturn(CoordinateBatchResponse.builder().accepted(1).rejected(0).items(List.of()).build());
+
+        TrackerFrame frame = new TrackerFrame("SN-1", 1);
+        frame.set(0, 1_700_000_000_000L, -62088000, 1068456000, TrackerFrame.NO_BATTERY);
+
+        try (TrackerSimulator tracker = new TrackerSimulator(listener.getLocalAddress(), authenticator)) {
+            byte[] captured = tracker.sign(frame);
+            ByteBuffer first = tracker.sendRaw(captured);
+            ByteBuffer replay = tracker.sendRaw(captured);
+
+            first.get();
+            assertEquals(UdpUplinkListener.ACK_OK, first.get());
+            replay.get();
+            assertEquals(UdpUplinkListener.ACK_STALE, replay.get());
+
+            // A retry signed with a new counter goes through.
+            ByteBuffer retry = tracker.send(frame);
+            retry.get();
+            assertEquals(UdpUplinkListener.ACK_OK, retry.get());
+        }
+        verify(coordinateService, times(2)).addCoordinateFrame(any(TrackerFrame.class));
+        assertEquals(1.0, meterRegistry.get("tracker.uplink.datagrams").tag("result", "stale").counter().count());
+    }
+
+    @Test
+    void rejectsDatagramOutsideSkewWindow() throws Exception {
+        TrackerFrame frame = new TrackerFrame("SN-1", 1);
+        frame.set(0, 1_700_000_000_000L, -62088000, 1068456000, TrackerFrame.NO_BATTERY);
+        long tenMinutesAgo = System.currentTimeMillis() - 600_000L;
+        byte[] datagram = authenticator.sign("SN-1", TrackerFrameCodec.encode(frame), tenMinutesAgo);
+
+        try (TrackerSimulator tracker = new TrackerSimulator(listener.getLocalAddress(), authenticator)) {
+            ByteBuffer ack = tracker.sendRaw(datagram);
+
+            ack.get();
+            assertEquals(UdpUplinkListener.ACK_STALE, ack.get());
+        }
+        verify(coordinateService, never()).addCoordinateFrame(any(TrackerFrame.class));
+    }
+
+    @Test
+    void rejectsMalformedDatagram() throws Exception {
+        try (TrackerSimulator tracker = new TrackerSimulator(listener.getLocalAddress(), authenticator)) {
+            ByteBuffer ack = tracker.sendRaw(new byte[]{0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08, 0x09, 0x0A});
+
+            assertEquals(TrackerFrameCodec.MAGIC, ack.get());
+            assertEquals(UdpUplinkListener.ACK_MALFORMED, ack.get());
+        }
+    }
+
+    @Test
+    void acknowledgesThrottledTracker() throws Exception {
+        when(coordinateService.addCoordinateFrame(any(TrackerFrame.class)))
+                .thenThrow(new TooManyRequestsException("Too many coordinates from this tracker, retry later"));
+
+        TrackerFrame frame = new TrackerFrame("SN-1", 1);
+        frame.set(0, 1_700_000_000_000L, -62088000, 1068456000, TrackerFrame.NO_BATTERY);
+
+        try (TrackerSimulator tracker = new TrackerSimulator(listener.getLocalAddress(), authenticator)) {
+            ByteBuffer ack = tracker.send(frame);
+
+            assertEquals(TrackerFrameCodec.MAGIC, ack.get());
+            assertEquals(UdpUplinkListener.ACK_THROTTLED, ack.get());
+        }
+    }
+}
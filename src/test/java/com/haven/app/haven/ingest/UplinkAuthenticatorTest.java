@@ -0,0 +1,55 @@
+package com.haven.app.haven.ingest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UplinkAuthenticatorTest {
+    private static final byte[] FRAME = {0x48, 0x01, 0x02, 'S', '1', 0x01, 0x00, 0x01, 0x02, 0x03};
+
+    private final UplinkAuthenticator authenticator = new UplinkAuthenticator();
+    private long now = 1_700_000_000_000L;
+
+    @BeforeEach
+    void setUp() {
+        authenticator.secret = "test-secret";
+        authenticator.maxSkewSeconds = 300L;
+        authenticator.clock = () -> now;
+    }
+
+    @Test
+    void tagCoversTheCounter() {
+        byte[] datagram = authenticator.sign("S1", FRAME, now);
+        assertTrue(authenticator.verify("S1", datagram, FRAME.length));
+
+        // Bumping the counter of a captured datagram breaks the tag.
+        datagram[FRAME.length + UplinkAuthenticator.COUNTER_LENGTH - 1]++;
+        assertFalse(authenticator.verify("S1", datagram, FRAME.length));
+    }
+
+    @Test
+    void countersMustIncreasePerTracker() {
+        assertTrue(fresh("S1", now));
+        assertFalse(fresh("S1", now));
+        assertFalse(fresh("S1", now - 1));
+        assertTrue(fresh("S1", now + 1));
+
+        // Each tracker has its own counter.
+        assertTrue(fresh("S2", now));
+    }
+
+    @Test
+    void countersOutsideTheSkewWindowAreRejected() {
+        assertFalse(fresh("S1", now - 300_001L));
+        assertFalse(fresh("S1", now + 300_001L));
+        assertTrue(fresh("S1", now - 300_000L));
+        assertTrue(fresh("S1", now + 300_000L));
+    }
+
+    private boolean fresh(String serialNumber, long counter) {
+        byte[] datagram = authenticator.sign(serialNumber, FRAME, counter);
+        return authenticator.verify(serialNumber, datagram, FRAME.length)
+                && authenticator.isFresh(serialNumber, datagram, FRAME.length);
+    }
+}
@@ -0,0 +1,124 @@
+package com.haven.app.haven.realtime;
+
+import com.haven.app.haven.constant.TransactionStatus;
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import org.junit.jupiter.api.Test;
+
+import com.haven.app.haven.utils.GeoUtils;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatestPositionRegistryTest {
+    private final LatestPositionRegistry registry = new LatestPositionRegistry(null);
+    private final LocalDateTime now = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    @Test
+    void keepsNewestFixPerTracker() {
+        registry.update(fix("c2", "trk-1", "trx-1", now.plusSeconds(10)));
+        registry.update(fix("c1", "trk-1", "trx-1", now));
+        registry.update(fix("c3", "trk-2", "trx-2", now));
+
+        assertEquals("c2", registry.getByTracker("trk-1").orElseThrow().getCoordinateId());
+        assertEquals(2, registry.getAll().size());
+        assertEquals(List.of("c3"), registry.getByTransactions(List.of("trx-2")).stream()
+                .map(CoordinateAcceptedEvent::getCoordinateId).toList());
+    }
+
+    @Test
+    void removesTrackerWhenTransactionFinishes() {
+        registry.update(fix("c1", "trk-1", "trx-1", now));
+
+        registry.onTransactionStatusChanged(new TransactionStatusChangedEvent("trx-1", "trk-1",
+                TransactionStatus.START, TransactionStatus.DONE));
+
+        assertTrue(registry.getByTracker("trk-1").isEmpty());
+    }
+
+    @Test
+    void concurrentUpdatesKeepNewest() throws Exception {
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int offset = t;
+            threads[t] = new Thread(() -> {
+                for (int i = offset; i < 10_000; i += threads.length) {
+                    registry.update(fix("c" + i, "trk-1", "trx-1", now.plusSeconds(i)));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals("c9999", registry.getByTracker("trk-1").orElseThrow().getCoordinateId());
+    }
+
+    @Test
+    void nearestAndWithinMatchBruteForce() {
+        Random random = new Random(11);
+        for (int i = 0; i < 500; i++) {
+            registry.update(fix("c" + i, "trk-" + i, "trx-" + i, -84_200_000 + random.nextInt(400_000),
+                    1_164_300_000 + random.nextInt(400_000), now));
+        }
+        // Trackers far outside the park still have to be found when nothing is closer.
+        registry.update(fix("far", "trk-far", "trx-far", -60_000_000, 1_060_000_000, now));
+
+        int latitudeE7 = -84_000_000;
+        int longitudeE7 = 1_164_500_000;
+        List<CoordinateAcceptedEvent> sorted = registry.getAll().stream()
+                .filter(position -> !position.getTrackerId().equals("trk-0"))
+                .sorted(Comparator.comparingDouble(position -> GeoUtils.haversineMeters(latitudeE7, longitudeE7,
+                        position.getLatitudeE7(), position.getLongitudeE7())))
+                .toList();
+
+        List<LatestPositionRegistry.Nearby> nearest = registry.nearest(latitudeE7, longitudeE7, 10, "trk-0");
+        assertEquals(sorted.subList(0, 10).stream().map(CoordinateAcceptedEvent::getTrackerId).toList(),
+                nearest.stream().map(nearby -> nearby.position().getTrackerId()).toList());
+        assertEquals(501, registry.nearest(latitudeE7, longitudeE7, 1000, null).size());
+
+        long expected = sorted.stream().filter(position -> GeoUtils.haversineMeters(latitudeE7, longitudeE7,
+                position.getLatitudeE7(), position.getLongitudeE7()) <= 1500).count();
+        List<LatestPositionRegistry.Nearby> within = registry.within(latitudeE7, longitudeE7, 1500, "trk-0");
+        assertEquals(expected, within.size());
+        assertTrue(within.stream().allMatch(nearby -> nearby.distanceMeters() <= 1500));
+    }
+
+    @Test
+    void gridFollowsMovesAndRemovals() throws Exception {
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int offset = t;
+            threads[t] = new Thread(() -> {
+                for (int i = offset; i < 4_000; i += threads.length) {
+                    registry.update(fix("c" + i, "trk-1", "trx-1", -84_000_000 + i * 1_000, 1_164_500_000, now.plusSeconds(i)));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int lastLatitudeE7 = -84_000_000 + 3_999 * 1_000;
+        assertEquals(1, registry.within(lastLatitudeE7, 1_164_500_000, 10, null).size());
+        assertEquals(0, registry.within(-84_000_000, 1_164_500_000, 1000, null).size());
+
+        registry.onTransactionStatusChanged(new TransactionStatusChangedEvent("trx-1", "trk-1",
+                TransactionStatus.START, TransactionStatus.DONE));
+        assertTrue(registry.nearest(lastLatitudeE7, 1_164_500_000, 1, null).isEmpty());
+    }
+
+    private CoordinateAcceptedEvent fix(String id, String trackerId, String transactionId,
+                                        int latitudeE7, int longitudeE7, LocalDateTime recordedAt) {
+        return new CoordinateAcceptedEvent(id, trackerId, transactionId, latitudeE7, longitudeE7, recordedAt, null, null);
+    }
+
+    private CoordinateAcceptedEvent fix(String id, String trackerId, String transactionId, LocalDateTime recordedAt) {
+        return new CoordinateAcceptedEvent(id, trackerId, transactionId, -62088000, 1068456000, recordedAt, null, null);
+    }
+}
@@ -0,0 +1,123 @@
+package com.haven.app.haven.realtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionStreamHubTest {
+    private static final Pattern EVENT_ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private PositionStreamHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new PositionStreamHub(new ObjectMapper()) {
+            @Override
+            protected SseEmitter createEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        hub.replaySize = 8192;
+        hub.subscriberBuffer = 8192;
+        hub.heartbeatSeconds = 60L;
+        hub.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.stop();
+    }
+
+    @Test
+    void resumeReplaysMissedFixesForTheTransaction() throws Exception {
+        hub.onCoordinateAccepted(fix("trx-1"));
+        hub.onCoordinateAccepted(fix("trx-2"));
+        hub.onCoordinateAccepted(fix("trx-1"));
+
+        hub.subscribe("trx-1", 1L);
+        hub.onCoordinateAccepted(fix("trx-1"));
+
+        assertEquals(List.of(3L, 4L), awaitIds(emitters.get(0), 2));
+    }
+
+    @Test
+    void resumeDuringConcurrentPublishingLosesNothing() throws Exception {
+        int publishers = 4;
+        int perPublisher = 1000;
+        AtomicInteger published = new AtomicInteger();
+        Thread[] threads = new Thread[publishers];
+        for (int t = 0; t < publishers; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < perPublisher; i++) {
+                    hub.onCoordinateAccepted(fix("trx-1"));
+                    published.incrementAndGet();
+                }
+            });
+            threads[t].start();
+        }
+        while (published.get() < 200) {
+            Thread.onSpinWait();
+        }
+
+        hub.subscribe(null, 100L);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int total = publishers * perPublisher;
+        List<Long> expected = LongStream.rangeClosed(101, total).boxed().toList();
+        assertEquals(expected, awaitIds(emitters.get(0), expected.size()));
+    }
+
+    private List<Long> awaitIds(RecordingEmitter emitter, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (emitter.ids().size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        return emitter.ids();
+    }
+
+    private static CoordinateAcceptedEvent fix(String transactionId) {
+        return new CoordinateAcceptedEvent("c1", "trk-1", transactionId,
+                -62088000, 1068456000, LocalDateTime.of(2025, 1, 1, 8, 0), (short) 80, null);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<Long> ids = new ArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            for (DataWithMediaType part : builder.build()) {
+                Matcher matcher = EVENT_ID.matcher(part.getData().toString());
+                if (matcher.find()) {
+                    synchronized (ids) {
+                        ids.add(Long.parseLong(matcher.group(1)));
+                    }
+                }
+            }
+        }
+
+        private List<Long> ids() {
+            synchronized (ids) {
+                return new ArrayList<>(ids);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.haven.app.haven.realtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haven.app.haven.constant.TransactionStatus;
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PositionWebSocketHubTest {
+    private PositionWebSocketHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new PositionWebSocketHub(new ObjectMapper());
+        hub.sendQueue = 16;
+        hub.maxTopics = 4;
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.stop();
+    }
+
+    @Test
+    void routesPositionsByTopicAndSharesOneMessage() throws Exception {
+        WebSocketSession all = session("s1");
+        WebSocketSession transaction = session("s2");
+        WebSocketSession otherTracker = session("s3");
+        connect(all, "all");
+        connect(transaction, "transaction:trx-1");
+        connect(otherTracker, "tracker:trk-2");
+
+        hub.onCoordinateAccepted(new CoordinateAcceptedEvent("c1", "trk-1", "trx-1",
+                -62088000, 1068456000, LocalDateTime.now(), (short) 80, null));
+
+        ArgumentCaptor<TextMessage> first = ArgumentCaptor.forClass(TextMessage.class);
+        ArgumentCaptor<TextMessage> second = ArgumentCaptor.forClass(TextMessage.class);
+        verify(all, timeout(1000)).sendMessage(first.capture());
+        verify(transaction, timeout(1000)).sendMessage(second.capture());
+        verify(otherTracker, after(200).never()).sendMessage(any());
+
+        assertSame(first.getValue(), second.getValue());
+        assertTrue(first.getValue().getPayload().contains("\"type\":\"position\""));
+        assertTrue(first.getValue().getPayload().contains("\"latitude\":\"-6.2088\""));
+    }
+
+    @Test
+    void closedConnectionStopsReceiving() throws Exception {
+        WebSocketSession session = session("s1");
+        connect(session, "transaction:trx-1");
+        hub.afterConnectionClosed(session, CloseStatus.NORMAL);
+
+        hub.onTransactionStatusChanged(new TransactionStatusChangedEvent("trx-1", "trk-1",
+                TransactionStatus.START, TransactionStatus.DONE));
+
+        verify(session, after(200).never()).sendMessage(any());
+        assertEquals(0, hub.getConnectionCount());
+    }
+
+    @Test
+    void rejectsUnknownTopic() throws Exception {
+        WebSocketSession session = session("s1");
+        connect(session, "everything");
+
+        ArgumentCaptor<TextMessage> reply = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, timeout(1000)).sendMessage(reply.capture());
+        assertTrue(reply.getValue().getPayload().contains("Unknown topic"));
+    }
+
+    private WebSocketSession session(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+
+    private void connect(WebSocketSession session, String topic) throws Exception {
+        hub.afterConnectionEstablished(session);
+        hub.handleTextMessage(session, new TextMessage("{\"action\":\"subscribe\",\"topic\":\"" + topic + "\"}"));
+    }
+}
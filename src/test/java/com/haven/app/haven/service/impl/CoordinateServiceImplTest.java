@@ -0,0 +1,225 @@
+package com.haven.app.haven.service.impl;
+
+import com.haven.app.haven.dto.request.CoordinateRequest;
+import com.haven.app.haven.dto.response.CoordinateCursorResponse;
+import com.haven.app.haven.dto.response.CoordinateResponse;
+import com.haven.app.haven.entity.Coordinates;
+import com.haven.app.haven.entity.TrackerDevices;
+import com.haven.app.haven.entity.Transactions;
+import com.haven.app.haven.elevation.ElevationModel;
+import com.haven.app.haven.exception.CoordinateException;
+import com.haven.app.haven.ingest.ActiveTracker;
+import com.haven.app.haven.ingest.ActiveTrackerCache;
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import com.haven.app.haven.ingest.CoordinateDeduplicator;
+import com.haven.app.haven.ingest.CoordinateRateLimiter;
+import com.haven.app.haven.ingest.CoordinateWriteBuffer;
+import com.haven.app.haven.repository.CoordinateRepository;
+import com.haven.app.haven.repository.TrackerDevicesRepository;
+import com.haven.app.haven.repository.TransactionsRepository;
+import com.haven.app.haven.track.ArchivedTrack;
+import com.haven.app.haven.track.CoordinateCursor;
+import com.haven.app.haven.track.TrackPoints;
+import com.haven.app.haven.track.TrackStore;
+import com.haven.app.haven.trail.TrailMatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CoordinateServiceImplTest {
+    private final CoordinateRepository coordinateRepository = mock(CoordinateRepository.class);
+    private final TransactionsRepository transactionsRepository = mock(TransactionsRepository.class);
+    private final TrackerDevicesRepository trackerDevicesRepository = mock(TrackerDevicesRepository.class);
+    private final ActiveTrackerCache activeTrackerCache = mock(ActiveTrackerCache.class);
+    private final CoordinateWriteBuffer coordinateWriteBuffer = mock(CoordinateWriteBuffer.class);
+    private final CoordinateDeduplicator coordinateDeduplicator = mock(CoordinateDeduplicator.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final ElevationModel elevationModel = mock(ElevationModel.class);
+    private final TrackStore trackStore = mock(TrackStore.class);
+    private final CoordinateServiceImpl service = new CoordinateServiceImpl(coordinateRepository, trackerDevicesRepository,
+            transactionsRepository, activeTrackerCache, coordinateWriteBuffer, coordinateDeduplicator,
+            mock(CoordinateRateLimiter.class), eventPublisher, null, null, mock(TrailMatcher.class), elevationModel,
+            trackStore, null);
+
+    @BeforeEach
+    void setUp() {
+        service.maxCursorLimit = 1000;
+        service.cursorSettleMs = 2000L;
+        when(transactionsRepository.existsById("t1")).thenReturn(true);
+
+        TrackPoints track = new TrackPoints(5);
+        for (int i = 0; i < 5; i++) {
+            track.add(-62088000 - i * 100, 1068456000 + i * 100, 1_700_000_000_000L + i * 10_000L,
+                    (short) 90, 12_000 + i, TrackPoints.NO_MATCH, TrackPoints.NO_MATCH, i % 2 == 0 ? "seg-a" : null);
+        }
+        when(trackStore.findArchive("t1")).thenReturn(Optional.of(new ArchivedTrack("t1", "tracker1", track)));
+    }
+
+    @Test
+    void writeBehindLeavesTheAcceptedEventToTheBuffer() {
+        givenIngest();
+        when(coordinateWriteBuffer.isEnabled()).thenReturn(true);
+
+        service.addCoordinate(request());
+
+        verify(coordinateWriteBuffer).submit(any(), any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void synchronousSavePublishesTheAcceptedEvent() {
+        givenIngest();
+
+        service.addCoordinate(request());
+
+        verify(coordinateRepository).saveAndFlush(any());
+        verify(eventPublisher).publishEvent(any(CoordinateAcceptedEvent.class));
+    }
+
+    @Test
+    void cursorPagesThroughArchivedTrack() {
+        CoordinateCursorResponse first = service.getCoordinateAfter("t1", null, 2);
+        CoordinateCursorResponse second = service.getCoordinateAfter("t1", first.getNextCursor(), 2);
+        CoordinateCursorResponse third = service.getCoordinateAfter("t1", second.getNextCursor(), 2);
+        CoordinateCursorResponse idle = service.getCoordinateAfter("t1", third.getNextCursor(), 2);
+
+        assertEquals(List.of("-6.2088", "-6.20881"), latitudes(first.getItems()));
+        assertTrue(first.getHasMore());
+        assertEquals(List.of("-6.20882", "-6.20883"), latitudes(second.getItems()));
+        assertEquals(List.of("-6.20884"), latitudes(third.getItems()));
+        assertFalse(third.getHasMore());
+        assertTrue(idle.getItems().isEmpty());
+        assertEquals(third.getNextCursor(), idle.getNextCursor());
+        assertEquals("tracker1", first.getItems().get(0).getTrackerId());
+        assertEquals("seg-a", first.getItems().get(0).getTrailSegmentId());
+        assertNotNull(first.getItems().get(0).getAltitude());
+        verifyNoInteractions(coordinateRepository);
+    }
+
+    @Test
+    void liveCursorOnArchivedTrackIsRejected() {
+        String live = new CoordinateCursor(LocalDateTime.of(2025, 1, 3, 9, 30), "c1").encode();
+
+        CoordinateException e = assertThrows(CoordinateException.class, () -> service.getCoordinateAfter("t1", live, 2));
+        assertTrue(e.getMessage().contains("archived"));
+    }
+
+    @Test
+    void archivedCursorOnLiveTrackIsRejected() {
+        when(transactionsRepository.existsById("t2")).thenReturn(true);
+        when(trackStore.findArchive("t2")).thenReturn(Optional.empty());
+
+        assertThrows(CoordinateException.class,
+                () -> service.getCoordinateAfter("t2", CoordinateCursor.archived(3).encode(), 2));
+        verifyNoInteractions(coordinateRepository);
+    }
+
+    @Test
+    void cursorWaitsForLongOpenInsertingTransaction() {
+        // t0: a large batch opens and inserts c1; it stays open while c2 is inserted and committed.
+        LocalDateTime t0 = LocalDateTime.of(2025, 1, 1, 8, 0);
+        List<Coordinates> table = new ArrayList<>();
+        Set<String> committed = new HashSet<>();
+        AtomicReference<LocalDateTime> horizon = new AtomicReference<>(t0);
+        givenLiveTable("t2", table, committed, horizon);
+
+        table.add(row("c1", "t2", t0.plusSeconds(1)));
+        table.add(row("c2", "t2", t0.plusSeconds(5)));
+        committed.add("c2");
+
+        // Well past any fixed settle delay, the batch started at t0 still holds the horizon there.
+        CoordinateCursorResponse first = service.getCoordinateAfter("t2", null, 10);
+        assertTrue(first.getItems().isEmpty());
+
+        committed.add("c1");
+        horizon.set(t0.plusSeconds(30));
+        CoordinateCursorResponse second = service.getCoordinateAfter("t2", first.getNextCursor(), 10);
+
+        assertEquals(List.of("c1", "c2"), second.getItems().stream().map(CoordinateResponse::getId).toList());
+        verify(trackStore, times(2)).ingestHorizon(2000L);
+    }
+
+    @Test
+    void pageReadsFromArchivedTrack() {
+        Page<CoordinateResponse> page = service.getCoordinate("t1", 2, 2);
+
+        assertEquals(5, page.getTotalElements());
+        assertEquals(List.of("-6.20882", "-6.20883"), latitudes(page.getContent()));
+    }
+
+    private void givenIngest() {
+        when(activeTrackerCache.resolve("SN-1")).thenReturn(new ActiveTracker("tracker1", "SN-1", "t1"));
+        when(coordinateDeduplicator.accept(any(), any(), any())).thenReturn(true);
+        when(elevationModel.elevationDm(anyInt(), anyInt())).thenReturn(ElevationModel.NO_DATA);
+        when(trackerDevicesRepository.getReferenceById(any()))
+                .thenAnswer(invocation -> TrackerDevices.builder().id(invocation.getArgument(0)).build());
+        when(transactionsRepository.getReferenceById(any()))
+                .thenAnswer(invocation -> Transactions.builder().id(invocation.getArgument(0)).build());
+    }
+
+    private static CoordinateRequest request() {
+        CoordinateRequest request = new CoordinateRequest();
+        request.setSerialNumber("SN-1");
+        request.setLatitude(-6.2088);
+        request.setLongitude(106.8456);
+        request.setTimestamp(1_700_000_000_000L);
+        return request;
+    }
+
+    private void givenLiveTable(String transactionId, List<Coordinates> table, Set<String> committed,
+                                AtomicReference<LocalDateTime> horizon) {
+        when(transactionsRepository.existsById(transactionId)).thenReturn(true);
+        when(trackStore.findArchive(transactionId)).thenReturn(Optional.empty());
+        when(trackStore.ingestHorizon(anyLong())).thenAnswer(invocation -> horizon.get());
+        when(coordinateRepository.findFirstByTransaction(eq(transactionId), any(), anyInt()))
+                .thenAnswer(invocation -> visible(table, committed, invocation.getArgument(1), null, null, invocation.getArgument(2)));
+        when(coordinateRepository.findAfterByTransaction(eq(transactionId), any(), any(), any(), anyInt()))
+                .thenAnswer(invocation -> visible(table, committed, invocation.getArgument(3),
+                        invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(4)));
+    }
+
+    // What the cursor queries return: committed rows below the horizon, in (ingested_at, id) order.
+    private static List<Coordinates> visible(List<Coordinates> table, Set<String> committed, LocalDateTime visibleBefore,
+                                             LocalDateTime afterIngestedAt, String afterId, int limit) {
+        Comparator<Coordinates> order = Comparator.comparing(Coordinates::getIngestedAt).thenComparing(Coordinates::getId);
+        return table.stream()
+                .filter(row -> committed.contains(row.getId()))
+                .filter(row -> row.getIngestedAt().isBefore(visibleBefore))
+                .filter(row -> afterIngestedAt == null || row.getIngestedAt().isAfter(afterIngestedAt)
+                        || (row.getIngestedAt().isEqual(afterIngestedAt) && row.getId().compareTo(afterId) > 0))
+                .sorted(order)
+                .limit(limit)
+                .toList();
+    }
+
+    private static Coordinates row(String id, String transactionId, LocalDateTime ingestedAt) {
+        return Coordinates.builder()
+                .id(id)
+                .tracker(TrackerDevices.builder().id("tracker1").build())
+                .transaction(Transactions.builder().id(transactionId).build())
+                .latitudeE7(-62088000)
+                .longitudeE7(1068456000)
+                .recordedAt(ingestedAt)
+                .ingestedAt(ingestedAt)
+                .updatedAt(ingestedAt)
+                .build();
+    }
+
+    private static List<String> latitudes(List<CoordinateResponse> items) {
+        return items.stream().map(CoordinateResponse::getLatitude).toList();
+    }
+}
@@ -0,0 +1,60 @@
+package com.haven.app.haven.service.impl;
+
+import com.haven.app.haven.dto.response.HeatmapTileResponse;
+import com.haven.app.haven.exception.HeatmapException;
+import com.haven.app.haven.heatmap.HeatmapAggregator;
+import com.haven.app.haven.repository.HeatmapTileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class HeatmapServiceImplTest {
+    private final HeatmapTileRepository heatmapTileRepository = mock(HeatmapTileRepository.class);
+    private final HeatmapAggregator heatmapAggregator = mock(HeatmapAggregator.class);
+    private final HeatmapServiceImpl service = new HeatmapServiceImpl(heatmapTileRepository, heatmapAggregator);
+
+    @BeforeEach
+    void setUp() {
+        service.cellDetail = 4;
+        when(heatmapAggregator.getMinZoom()).thenReturn(10);
+        when(heatmapAggregator.getMaxZoom()).thenReturn(18);
+        when(heatmapTileRepository.findAllByZoomAndTileXBetweenAndTileYBetween(anyInt(), anyInt(), anyInt(), anyInt(), anyInt()))
+                .thenReturn(List.of());
+    }
+
+    @Test
+    void tileIsSplitIntoCellsFromTheDeeperZoom() {
+        HeatmapTileResponse tile = service.getTile(12, 3, 5);
+
+        assertEquals(16, tile.getCellZoom());
+        verify(heatmapTileRepository).findAllByZoomAndTileXBetweenAndTileYBetween(16, 48, 63, 80, 95);
+    }
+
+    @Test
+    void lowestSupportedZoomReadsTheMinZoomGrid() {
+        HeatmapTileResponse tile = service.getTile(6, 1, 1);
+
+        assertEquals(10, tile.getCellZoom());
+        verify(heatmapTileRepository).findAllByZoomAndTileXBetweenAndTileYBetween(10, 16, 31, 16, 31);
+    }
+
+    @Test
+    void zoomFarBelowTheStoredLevelsIsRejected() {
+        assertThrows(HeatmapException.class, () -> service.getTile(0, 0, 0));
+        assertThrows(HeatmapException.class, () -> service.getTile(5, 0, 0));
+        verifyNoInteractions(heatmapTileRepository);
+    }
+
+    @Test
+    void zoomPastTheStoredLevelsReadsTheEnclosingCell() {
+        HeatmapTileResponse tile = service.getTile(20, 1000, 2000);
+
+        assertEquals(18, tile.getCellZoom());
+        verify(heatmapTileRepository).findAllByZoomAndTileXBetweenAndTileYBetween(18, 250, 250, 500, 500);
+    }
+}
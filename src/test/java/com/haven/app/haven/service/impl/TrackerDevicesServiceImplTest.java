@@ -0,0 +1,55 @@
+package com.haven.app.haven.service.impl;
+
+import com.haven.app.haven.constant.TrackerStatus;
+import com.haven.app.haven.dto.request.TrackerDevicesRequest;
+import com.haven.app.haven.dto.request.TrackerDevicesStatusRequest;
+import com.haven.app.haven.entity.TrackerDevices;
+import com.haven.app.haven.ingest.ActiveTrackerCache;
+import com.haven.app.haven.ingest.UplinkAuthenticator;
+import com.haven.app.haven.repository.TrackerDevicesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+class TrackerDevicesServiceImplTest {
+    private final TrackerDevicesRepository trackerDevicesRepository = mock(TrackerDevicesRepository.class);
+    private final ActiveTrackerCache activeTrackerCache = mock(ActiveTrackerCache.class);
+    private final TrackerDevicesServiceImpl service = new TrackerDevicesServiceImpl(
+            trackerDevicesRepository, activeTrackerCache, mock(UplinkAuthenticator.class));
+
+    private final TrackerDevices tracker = TrackerDevices.builder()
+            .id("trk-1")
+            .serialNumber("SN-1")
+            .status(TrackerStatus.USED)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        when(trackerDevicesRepository.findById("trk-1")).thenReturn(Optional.of(tracker));
+    }
+
+    @Test
+    void renameEvictsOldAndNewSerialNumber() {
+        service.updateTracker("trk-1", TrackerDevicesRequest.builder().serialNumber("SN-2").build());
+
+        verify(activeTrackerCache).evict("SN-1");
+        verify(activeTrackerCache).evict("SN-2");
+    }
+
+    @Test
+    void statusChangeEvictsSerialNumber() {
+        service.updateStatus("trk-1", TrackerDevicesStatusRequest.builder().status(TrackerStatus.NOT_USED.name()).build());
+
+        verify(activeTrackerCache).evict("SN-1");
+    }
+
+    @Test
+    void deleteEvictsEveryEntryOfTheTracker() {
+        service.deleteTracker("trk-1");
+
+        verify(activeTrackerCache).evictTracker("trk-1");
+    }
+}
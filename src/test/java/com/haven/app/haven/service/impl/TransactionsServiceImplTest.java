@@ -0,0 +1,108 @@
+package com.haven.app.haven.service.impl;
+
+import com.haven.app.haven.constant.TrackerStatus;
+import com.haven.app.haven.constant.TransactionStatus;
+import com.haven.app.haven.dto.request.TransactionsStatusRequest;
+import com.haven.app.haven.entity.TrackerDevices;
+import com.haven.app.haven.entity.Transactions;
+import com.haven.app.haven.entity.Users;
+import com.haven.app.haven.entity.UsersDetail;
+import com.haven.app.haven.ingest.ActiveTrackerCache;
+import com.haven.app.haven.repository.PricesRepository;
+import com.haven.app.haven.repository.TrackerDevicesRepository;
+import com.haven.app.haven.repository.TransactionsRepository;
+import com.haven.app.haven.service.TrackerDevicesService;
+import com.haven.app.haven.service.UsersService;
+import com.haven.app.haven.track.TripStatsTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TransactionsServiceImplTest {
+    private final TransactionsRepository transactionsRepository = mock(TransactionsRepository.class);
+    private final TrackerDevicesService trackerDevicesService = mock(TrackerDevicesService.class);
+    private final TrackerDevicesRepository trackerDevicesRepository = mock(TrackerDevicesRepository.class);
+    private final ActiveTrackerCache activeTrackerCache = mock(ActiveTrackerCache.class);
+    private final TransactionsServiceImpl service = new TransactionsServiceImpl(
+            transactionsRepository,
+            mock(UsersService.class),
+            mock(PricesRepository.class),
+            trackerDevicesService,
+            trackerDevicesRepository,
+            activeTrackerCache,
+            mock(ApplicationEventPublisher.class),
+            mock(TripStatsTracker.class));
+
+    private TrackerDevices tracker;
+    private Transactions transaction;
+
+    @BeforeEach
+    void setUp() {
+        tracker = TrackerDevices.builder().id("trk-1").serialNumber("SN-1").status(TrackerStatus.USED).build();
+        transaction = Transactions.builder()
+                .id("trx-1")
+                .user(Users.builder().id("usr-1").usersDetail(UsersDetail.builder().build()).build())
+                .tracker(tracker)
+                .startDate(LocalDate.now())
+                .endDate(LocalDate.now())
+                .coordinates(new ArrayList<>())
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        when(transactionsRepository.findById("trx-1")).thenReturn(Optional.of(transaction));
+        when(transactionsRepository.saveAndFlush(any(Transactions.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void finishingTheTripEvictsTheTracker() {
+        transaction.setStatus(TransactionStatus.START);
+
+        service.updateTransactionStatus("trx-1", status(TransactionStatus.DONE));
+
+        verify(activeTrackerCache).evict("SN-1");
+        verify(activeTrackerCache, never()).put(any(), any());
+    }
+
+    @Test
+    void startingTheTripCachesTheTracker() {
+        transaction.setStatus(TransactionStatus.BOOKED);
+
+        service.updateTransactionStatus("trx-1", status(TransactionStatus.START));
+
+        verify(activeTrackerCache).put(tracker, transaction);
+        verify(activeTrackerCache, never()).evict(any());
+    }
+
+    @Test
+    void leavingStartForAnotherStatusEvictsTheTracker() {
+        transaction.setStatus(TransactionStatus.START);
+
+        service.updateTransactionStatus("trx-1", status(TransactionStatus.CANCELLED));
+
+        verify(activeTrackerCache).evict("SN-1");
+    }
+
+    @Test
+    void deviceAssignmentCachesTheTracker() {
+        tracker.setStatus(TrackerStatus.NOT_USED);
+        transaction.setTracker(null);
+        transaction.setStatus(TransactionStatus.BOOKED);
+        when(trackerDevicesService.getOne("trk-1")).thenReturn(tracker);
+
+        service.deviceAssignment("trx-1", "trk-1");
+
+        verify(activeTrackerCache).put(tracker, transaction);
+    }
+
+    private static TransactionsStatusRequest status(TransactionStatus status) {
+        return TransactionsStatusRequest.builder().status(status.name()).build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.haven.app.haven.track;
+
+import com.haven.app.haven.entity.Coordinates;
+import com.haven.app.haven.exception.CoordinateException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoordinateCursorTest {
+    @Test
+    void keysOnIngestionTimeNotDeviceTime() {
+        Coordinates backfilled = Coordinates.builder()
+                .id("c1")
+                .recordedAt(LocalDateTime.of(2025, 1, 1, 8, 0))
+                .ingestedAt(LocalDateTime.of(2025, 1, 3, 9, 30, 15, 123_456_000))
+                .build();
+
+        CoordinateCursor cursor = CoordinateCursor.decode(CoordinateCursor.of(backfilled).encode());
+
+        assertEquals(backfilled.getIngestedAt(), cursor.ingestedAt());
+        assertEquals("c1", cursor.id());
+    }
+
+    @Test
+    void archivedCursorKeepsOffset() {
+        CoordinateCursor cursor = CoordinateCursor.decode(CoordinateCursor.archived(250).encode());
+
+        assertTrue(cursor.isArchived());
+        assertEquals(250, cursor.archiveOffset());
+        assertFalse(CoordinateCursor.decode(new CoordinateCursor(LocalDateTime.of(2025, 1, 3, 9, 30), "c1").encode()).isArchived());
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThrows(CoordinateException.class, () -> CoordinateCursor.decode("not base64 !"));
+        String badTime = Base64.getUrlEncoder().encodeToString("yesterday|c1".getBytes(StandardCharsets.UTF_8));
+        assertThrows(CoordinateException.class, () -> CoordinateCursor.decode(badTime));
+        String badOffset = Base64.getUrlEncoder().encodeToString("archive|-1".getBytes(StandardCharsets.UTF_8));
+        assertThrows(CoordinateException.class, () -> CoordinateCursor.decode(badOffset));
+    }
+}
@@ -0,0 +1,82 @@
+package com.haven.app.haven.track;
+
+import com.haven.app.haven.exception.CoordinateException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackArchiveCodecTest {
+
+    @Test
+    void roundTripWithAndWithoutDeflate() {
+        TrackPoints track = walk(500);
+
+        for (boolean deflate : new boolean[]{false, true}) {
+            TrackPoints decoded = TrackArchiveCodec.decode(TrackArchiveCodec.encode(track, deflate));
+
+            assertEquals(track.getSize(), decoded.getSize());
+            int n = track.getSize();
+            assertArrayEquals(Arrays.copyOf(track.getRecordedAt(), n), Arrays.copyOf(decoded.getRecordedAt(), n));
+            assertArrayEquals(Arrays.copyOf(track.getLatitudesE7(), n), Arrays.copyOf(decoded.getLatitudesE7(), n));
+            assertArrayEquals(Arrays.copyOf(track.getLongitudesE7(), n), Arrays.copyOf(decoded.getLongitudesE7(), n));
+            assertArrayEquals(Arrays.copyOf(track.getBattery(), n), Arrays.copyOf(decoded.getBattery(), n));
+        }
+    }
+
+    @Test
+    void roundTripKeepsAltitudeMatchAndSegment() {
+        TrackPoints track = new TrackPoints(4);
+        track.add(-62088000, 1068456000, 1_700_000_000_000L, (short) 90, 12_345, -62088010, 1068456020, "seg-a");
+        track.add(-62088100, 1068456100, 1_700_000_010_000L, (short) 89, TrackPoints.NO_ALTITUDE, TrackPoints.NO_MATCH, TrackPoints.NO_MATCH, null);
+        track.add(-62088200, 1068456200, 1_700_000_020_000L, TrackPoints.NO_BATTERY, 12_301, -62088190, 1068456210, "seg-b");
+        track.add(-62088300, 1068456300, 1_700_000_030_000L, (short) 88, -40, -62088305, 1068456290, "seg-a");
+
+        for (boolean deflate : new boolean[]{false, true}) {
+            TrackPoints decoded = TrackArchiveCodec.decode(TrackArchiveCodec.encode(track, deflate));
+
+            assertArrayEquals(new int[]{12_345, TrackPoints.NO_ALTITUDE, 12_301, -40}, Arrays.copyOf(decoded.getAltitudesDm(), 4));
+            assertArrayEquals(new int[]{-62088010, TrackPoints.NO_MATCH, -62088190, -62088305}, Arrays.copyOf(decoded.getMatchedLatitudesE7(), 4));
+            assertArrayEquals(new int[]{1068456020, TrackPoints.NO_MATCH, 1068456210, 1068456290}, Arrays.copyOf(decoded.getMatchedLongitudesE7(), 4));
+            assertArrayEquals(new String[]{"seg-a", null, "seg-b", "seg-a"}, Arrays.copyOf(decoded.getTrailSegmentIds(), 4));
+        }
+    }
+
+    @Test
+    void emptyTrack() {
+        assertEquals(0, TrackArchiveCodec.decode(TrackArchiveCodec.encode(new TrackPoints(0), true)).getSize());
+    }
+
+    @Test
+    void compactEncoding() {
+        TrackPoints track = walk(10_000);
+
+        byte[] block = TrackArchiveCodec.encode(track, true);
+
+        assertTrue(block.length < track.getSize() * 6, "expected under 6 bytes per fix but was " + block.length);
+    }
+
+    @Test
+    void rejectsCorruptBlock() {
+        byte[] block = TrackArchiveCodec.encode(walk(100), true);
+        byte[] truncated = Arrays.copyOf(block, block.length / 2);
+
+        assertThrows(CoordinateException.class, () -> TrackArchiveCodec.decode(truncated));
+        assertThrows(CoordinateException.class, () -> TrackArchiveCodec.decode(new byte[]{1, 2, 3}));
+    }
+
+    private TrackPoints walk(int n) {
+        TrackPoints track = new TrackPoints(n);
+        int latitude = -62088000;
+        int longitude = 1068456000;
+        long time = 1_700_000_000_000L;
+        for (int i = 0; i < n; i++) {
+            latitude += (i % 7) * 13 - 30;
+            longitude += (i % 5) * 17 - 25;
+            time += 10_000 + (i % 3) * 7;
+            track.add(latitude, longitude, time, i % 4 == 0 ? TrackPoints.NO_BATTERY : (short) (100 - i / 200));
+        }
+        return track;
+    }
+}
@@ -0,0 +1,93 @@
+package com.haven.app.haven.track;
+
+import com.haven.app.haven.constant.TransactionStatus;
+import com.haven.app.haven.entity.TrackArchive;
+import com.haven.app.haven.entity.TrackerDevices;
+import com.haven.app.haven.entity.Transactions;
+import com.haven.app.haven.repository.TrackArchiveRepository;
+import com.haven.app.haven.repository.TransactionsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TrackArchiverTest {
+    private static final String DELETE = "DELETE FROM coordinates WHERE transaction_id = ?";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final TrackStore trackStore = mock(TrackStore.class);
+    private final TrackArchiveRepository trackArchiveRepository = mock(TrackArchiveRepository.class);
+    private final TransactionsRepository transactionsRepository = mock(TransactionsRepository.class);
+    private final TrackArchiver archiver = new TrackArchiver(jdbcTemplate, transactionManager, trackStore,
+            trackArchiveRepository, transactionsRepository);
+
+    @BeforeEach
+    void setUp() {
+        archiver.compress = true;
+        when(transactionsRepository.findById("t1")).thenReturn(Optional.of(Transactions.builder()
+                .id("t1")
+                .status(TransactionStatus.DONE)
+                .tracker(TrackerDevices.builder().id("tracker1").build())
+                .build()));
+
+        TrackPoints track = new TrackPoints(3);
+        track.add(-62088000, 1068456000, 1_700_000_000_000L, (short) 90, 12_000, -62088010, 1068456010, "seg-a");
+        track.add(-62088100, 1068456100, 1_700_000_010_000L);
+        track.add(-62088200, 1068456200, 1_700_000_020_000L);
+        when(trackStore.loadRows("t1")).thenReturn(track);
+    }
+
+    @Test
+    void archivesTrackAndDeletesRows() {
+        when(jdbcTemplate.update(DELETE, "t1")).thenReturn(3);
+
+        archiver.archive("t1");
+
+        ArgumentCaptor<TrackArchive> archive = ArgumentCaptor.forClass(TrackArchive.class);
+        verify(trackArchiveRepository).save(archive.capture());
+        assertEquals("tracker1", archive.getValue().getTrackerId());
+        assertEquals(3, archive.getValue().getPointCount());
+        assertTrue(archive.getValue().getCompressed());
+        TrackPoints stored = TrackArchiveCodec.decode(archive.getValue().getData());
+        assertEquals(3, stored.getSize());
+        assertEquals(12_000, stored.getAltitudesDm()[0]);
+        assertEquals("seg-a", stored.getTrailSegmentIds()[0]);
+
+        verify(jdbcTemplate).update(DELETE, "t1");
+        verify(transactionManager).commit(any());
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    void rowCountChangeRollsTheArchiveBack() {
+        // A fix committed after the track was read.
+        when(jdbcTemplate.update(DELETE, "t1")).thenReturn(4);
+
+        assertThrows(IllegalStateException.class, () -> archiver.archive("t1"));
+
+        verify(trackArchiveRepository).save(any());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void skipsTransactionsThatAreNotDone() {
+        when(transactionsRepository.findById("t2")).thenReturn(Optional.of(Transactions.builder()
+                .id("t2")
+                .status(TransactionStatus.START)
+                .build()));
+
+        archiver.archive("t2");
+
+        verify(trackStore, never()).loadRows(any());
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+}
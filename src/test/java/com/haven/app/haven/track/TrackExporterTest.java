@@ -0,0 +1,52 @@
+package com.haven.app.haven.track;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackExporterTest {
+
+    @Test
+    void polylineMatchesReferenceEncoding() throws Exception {
+        String encoded = export(TrackExportFormat.POLYLINE,
+                new int[]{385000000, 407000000, 432520000},
+                new int[]{-1202000000, -1209500000, -1264530000});
+
+        assertEquals("_p~iF~ps|U_ulLnnqC_mqNvxq`@", encoded);
+    }
+
+    @Test
+    void geoJsonIsLineStringWithTimes() throws Exception {
+        String geoJson = export(TrackExportFormat.GEOJSON,
+                new int[]{-62088000, -62087000},
+                new int[]{1068456000, 1068457000});
+
+        assertEquals("{\"type\":\"Feature\",\"geometry\":{\"type\":\"LineString\",\"coordinates\":" +
+                "[[106.8456,-6.2088],[106.8457,-6.2087]]},\"properties\":{\"transactionId\":\"trx-1\"," +
+                "\"pointCount\":2,\"startTime\":\"1970-01-01T00:00:00Z\",\"endTime\":\"1970-01-01T00:00:01Z\"}}", geoJson);
+    }
+
+    @Test
+    void gpxHasOneTrackPointPerFix() throws Exception {
+        String gpx = export(TrackExportFormat.GPX,
+                new int[]{-62088000, -62087000},
+                new int[]{1068456000, 1068457000});
+
+        assertTrue(gpx.contains("<trkpt lat=\"-6.2088\" lon=\"106.8456\"><time>1970-01-01T00:00:00Z</time></trkpt>"));
+        assertEquals(2, gpx.split("<trkpt ").length - 1);
+        assertTrue(gpx.endsWith("</gpx>\n"));
+    }
+
+    private String export(TrackExportFormat format, int[] latitudes, int[] longitudes) throws Exception {
+        StringWriter writer = new StringWriter();
+        TrackExporter exporter = TrackExporter.of(format, writer, "trx-1");
+        exporter.begin();
+        for (int i = 0; i < latitudes.length; i++) {
+            exporter.accept(latitudes[i], longitudes[i], i * 1000L, TrackPoints.NO_BATTERY);
+        }
+        exporter.end();
+        return writer.toString();
+    }
+}
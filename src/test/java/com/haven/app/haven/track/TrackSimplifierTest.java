@@ -0,0 +1,53 @@
+package com.haven.app.haven.track;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackSimplifierTest {
+
+    @Test
+    void straightLineCollapsesToEndpoints() {
+        TrackPoints track = new TrackPoints(100);
+        for (int i = 0; i < 100; i++) {
+            track.add(-62088000 + i * 100, 1068456000 + i * 100, i * 1000L);
+        }
+
+        int[] kept = TrackSimplifier.simplify(track, 1d, 0);
+
+        assertArrayEquals(new int[]{0, 99}, kept);
+    }
+
+    @Test
+    void keepsCornerWithinTolerance() {
+        TrackPoints track = new TrackPoints(21);
+        for (int i = 0; i <= 10; i++) {
+            track.add(-62088000, 1068456000 + i * 1000, i * 1000L);
+        }
+        for (int i = 1; i <= 10; i++) {
+            track.add(-62088000 + i * 1000, 1068466000, (10 + i) * 1000L);
+        }
+
+        int[] kept = TrackSimplifier.simplify(track, 1d, 0);
+
+        assertArrayEquals(new int[]{0, 10, 20}, kept);
+    }
+
+    @Test
+    void maxPointsKeepsLargestDeviations() {
+        TrackPoints track = new TrackPoints(1000);
+        for (int i = 0; i < 1000; i++) {
+            int wiggle = (int) (Math.sin(i / 10d) * 5000);
+            track.add(-62088000 + wiggle, 1068456000 + i * 200, i * 1000L);
+        }
+
+        int[] kept = TrackSimplifier.simplify(track, 0d, 50);
+
+        assertEquals(50, kept.length);
+        assertEquals(0, kept[0]);
+        assertEquals(999, kept[kept.length - 1]);
+        for (int i = 1; i < kept.length; i++) {
+            assertTrue(kept[i] > kept[i - 1]);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.haven.app.haven.track;
+
+import com.haven.app.haven.entity.TrackArchive;
+import com.haven.app.haven.repository.TrackArchiveRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TrackStoreTest {
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TrackArchiveRepository trackArchiveRepository = mock(TrackArchiveRepository.class);
+    private final ArchivedTrackCache archivedTrackCache = new ArchivedTrackCache(2);
+    private final TrackStore trackStore = new TrackStore(jdbcTemplate, trackArchiveRepository, archivedTrackCache);
+
+    @Test
+    void decodesArchiveOnce() {
+        givenArchive("t1");
+
+        ArchivedTrack first = trackStore.findArchive("t1").orElseThrow();
+        ArchivedTrack second = trackStore.findArchive("t1").orElseThrow();
+
+        assertSame(first, second);
+        assertEquals("tracker1", first.trackerId());
+        assertEquals(2, first.points().getSize());
+        verify(trackArchiveRepository, times(1)).findById("t1");
+    }
+
+    @Test
+    void evictedArchiveIsReadAgain() {
+        givenArchive("t1");
+        trackStore.findArchive("t1");
+
+        archivedTrackCache.evictTransaction("t1");
+        trackStore.findArchive("t1");
+
+        verify(trackArchiveRepository, times(2)).findById("t1");
+    }
+
+    @Test
+    void liveTrackIsNotCached() {
+        when(trackArchiveRepository.findById("t2")).thenReturn(Optional.empty());
+
+        assertTrue(trackStore.findArchive("t2").isEmpty());
+        assertNull(archivedTrackCache.get("t2"));
+    }
+
+    @Test
+    void cacheIsBounded() {
+        givenArchive("t1");
+        givenArchive("t2");
+        givenArchive("t3");
+
+        trackStore.findArchive("t1");
+        trackStore.findArchive("t2");
+        trackStore.findArchive("t3");
+
+        assertNull(archivedTrackCache.get("t1"));
+        assertNotNull(archivedTrackCache.get("t3"));
+    }
+
+    private void givenArchive(String transactionId) {
+        TrackPoints track = new TrackPoints(2);
+        track.add(-62088000, 1068456000, 1_700_000_000_000L);
+        track.add(-62088100, 1068456100, 1_700_000_010_000L);
+        when(trackArchiveRepository.findById(transactionId)).thenReturn(Optional.of(TrackArchive.builder()
+                .transactionId(transactionId)
+                .trackerId("tracker1")
+                .pointCount(2)
+                .compressed(true)
+                .data(TrackArchiveCodec.encode(track, true))
+                .build()));
+    }
+}
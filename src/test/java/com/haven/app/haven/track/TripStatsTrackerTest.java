@@ -0,0 +1,131 @@
+package com.haven.app.haven.track;
+
+import com.haven.app.haven.constant.TransactionStatus;
+import com.haven.app.haven.dto.response.TripStatsResponse;
+import com.haven.app.haven.entity.Transactions;
+import com.haven.app.haven.ingest.CoordinateAcceptedEvent;
+import com.haven.app.haven.realtime.TransactionStatusChangedEvent;
+import com.haven.app.haven.repository.TransactionsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TripStatsTrackerTest {
+    // About 11.1 m of latitude.
+    private static final int STEP_E7 = 1000;
+
+    private final TransactionsRepository transactionsRepository = mock(TransactionsRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TripStatsTracker tracker = new TripStatsTracker(transactionsRepository, jdbcTemplate, 10, 0.5, 600, 3);
+    private final LocalDateTime now = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    @BeforeEach
+    void setUp() {
+        tracker.onTransactionStatusChanged(new TransactionStatusChangedEvent("trx-1", "trk-1",
+                TransactionStatus.BOOKED, TransactionStatus.START));
+    }
+
+    @Test
+    void accumulatesDistanceMovingTimeAndGain() {
+        // 100 steps of ~11 m every 10 s, climbing 1 m per step.
+        for (int i = 0; i <= 100; i++) {
+            tracker.onCoordinateAccepted(fix(-62000000 + i * STEP_E7, 10_000 + i * 10, now.plusSeconds(i * 10L)));
+        }
+
+        TripStatsResponse stats = tracker.get("trx-1").orElseThrow();
+        assertEquals(1112, stats.getDistanceMeters(), 2);
+        assertEquals(1000, stats.getMovingSeconds());
+        assertEquals(99, stats.getElevationGainMeters(), 3);
+        assertEquals(4.0, stats.getAverageSpeedKmh(), 0.1);
+    }
+
+    @Test
+    void jitterAtRestAddsNothing() {
+        tracker.onCoordinateAccepted(fix(-62000000, 10_000, now));
+        for (int i = 1; i <= 60; i++) {
+            int offset = (i % 2 == 0 ? 1 : -1) * 400;
+            tracker.onCoordinateAccepted(fix(-62000000 + offset, 10_000 + offset / 100, now.plusSeconds(i * 10L)));
+        }
+
+        TripStatsResponse stats = tracker.get("trx-1").orElseThrow();
+        assertEquals(0, stats.getDistanceMeters());
+        assertEquals(0, stats.getMovingSeconds());
+        assertEquals(0, stats.getElevationGainMeters());
+    }
+
+    @Test
+    void longSilenceCountsDistanceButNotMovingTime() {
+        tracker.onCoordinateAccepted(fix(-62000000, null, now));
+        tracker.onCoordinateAccepted(fix(-62000000 + 100 * STEP_E7, null, now.plusMinutes(30)));
+
+        TripStatsResponse stats = tracker.get("trx-1").orElseThrow();
+        assertTrue(stats.getDistanceMeters() > 1000);
+        assertEquals(0, stats.getMovingSeconds());
+    }
+
+    @Test
+    void flushWritesDirtyRowsAndDropsFinishedTransactions() {
+        tracker.onCoordinateAccepted(fix(-62000000, null, now));
+        tracker.onCoordinateAccepted(fix(-62000000 + 10 * STEP_E7, null, now.plusSeconds(60)));
+
+        tracker.flush();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+
+        // Nothing changed since the last flush.
+        tracker.flush();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+
+        tracker.onTransactionStatusChanged(new TransactionStatusChangedEvent("trx-1", "trk-1",
+                TransactionStatus.START, TransactionStatus.DONE));
+        tracker.flush();
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+        assertTrue(tracker.get("trx-1").isEmpty());
+    }
+
+    @Test
+    void lateFixAfterFinishDoesNotOverwriteTotals() {
+        tracker.onCoordinateAccepted(fix(-62000000, null, now));
+        tracker.onTransactionStatusChanged(new TransactionStatusChangedEvent("trx-1", "trk-1",
+                TransactionStatus.START, TransactionStatus.DONE));
+        tracker.flush();
+        when(transactionsRepository.findById("trx-1")).thenReturn(Optional.of(Transactions.builder()
+                .id("trx-1").status(TransactionStatus.DONE).distanceMeters(1500d).build()));
+
+        tracker.onCoordinateAccepted(fix(-62000000 + 10 * STEP_E7, null, now.plusSeconds(60)));
+
+        assertTrue(tracker.get("trx-1").isEmpty());
+        tracker.flush();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void fixForUntrackedStartTransactionResumesPersistedTotals() {
+        when(transactionsRepository.findById("trx-2")).thenReturn(Optional.of(Transactions.builder()
+                .id("trx-2").status(TransactionStatus.START).distanceMeters(1500d).movingSeconds(600L).build()));
+
+        tracker.onCoordinateAccepted(fix("trx-2", -62000000, now));
+        tracker.onCoordinateAccepted(fix("trx-2", -62000000 + 10 * STEP_E7, now.plusSeconds(60)));
+
+        TripStatsResponse stats = tracker.get("trx-2").orElseThrow();
+        assertEquals(1611, stats.getDistanceMeters(), 2);
+        assertEquals(660, stats.getMovingSeconds());
+        verify(transactionsRepository, times(1)).findById("trx-2");
+    }
+
+    private static CoordinateAcceptedEvent fix(String transactionId, int latitudeE7, LocalDateTime recordedAt) {
+        return new CoordinateAcceptedEvent("c", "trk-1", transactionId, latitudeE7, 1068000000, recordedAt, null, null);
+    }
+
+    private static CoordinateAcceptedEvent fix(int latitudeE7, Integer altitudeDm, LocalDateTime recordedAt) {
+        return new CoordinateAcceptedEvent("c", "trk-1", "trx-1", latitudeE7, 1068000000, recordedAt, null, altitudeDm);
+    }
+}
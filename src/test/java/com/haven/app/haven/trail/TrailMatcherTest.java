@@ -0,0 +1,74 @@
+package com.haven.app.haven.trail;
+
+import com.haven.app.haven.utils.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrailMatcherTest {
+    // The T junction plus a separate trail running 40 m east of the valley trail.
+    private static final String WITH_PARALLEL = """
+            {"type": "FeatureCollection", "features": [
+              {"type": "Feature", "properties": {"name": "Ridge"},
+               "geometry": {"type": "LineString", "coordinates": [[116.40, -8.40], [116.405, -8.40], [116.41, -8.40], [116.415, -8.40], [116.42, -8.40]]}},
+              {"type": "Feature", "properties": {"name": "Valley"},
+               "geometry": {"type": "LineString", "coordinates": [[116.41, -8.42], [116.41, -8.41], [116.41, -8.40]]}},
+              {"type": "Feature", "properties": {"name": "Stream"},
+               "geometry": {"type": "LineString", "coordinates": [[116.41036, -8.42], [116.41036, -8.405]]}}
+            ]}
+            """;
+
+    private static TrailMatcher matcher(TrailNetwork network) {
+        return new TrailMatcher(network, true, 50, 4, 10, 20, 500, 300);
+    }
+
+    @Test
+    void noisyFixesSnapOntoTheTrail() throws Exception {
+        TrailMatcher matcher = matcher(TrailNetworkTest.network(TrailNetworkTest.T_JUNCTION));
+
+        // Walking east along the ridge, zig-zagging about 8 m either side of it.
+        for (int i = 0; i < 10; i++) {
+            double latitude = -8.40 + (i % 2 == 0 ? 0.00007 : -0.00007);
+            Optional<TrailMatcher.Match> match = matcher.match("transaction1",
+                    GeoUtils.toE7(latitude), GeoUtils.toE7(116.401 + i * 0.0003), i * 10_000L);
+
+            assertTrue(match.isPresent());
+            assertEquals("segment0", match.get().segmentId());
+            assertEquals(GeoUtils.toE7(-8.40), match.get().latitudeE7(), 1);
+        }
+        assertEquals(1, matcher.getTrackedCount());
+    }
+
+    @Test
+    void outlierStaysOnTheTrailBeingWalked() throws Exception {
+        TrailNetwork network = TrailNetworkTest.network(WITH_PARALLEL);
+        TrailMatcher matcher = matcher(network);
+
+        // North up the valley trail; fix 5 is pulled 25 m towards
+        // the stream, which on its own would match the stream instead.
+        double[][] fixes = {
+                {-8.4150, 116.41003}, {-8.4147, 116.40997}, {-8.4144, 116.41004}, {-8.4141, 116.40996},
+                {-8.4138, 116.41002}, {-8.4135, 116.41023}, {-8.4132, 116.40998}, {-8.4129, 116.41003},
+        };
+        for (int i = 0; i < fixes.length; i++) {
+            Optional<TrailMatcher.Match> match = matcher.match("transaction1",
+                    GeoUtils.toE7(fixes[i][0]), GeoUtils.toE7(fixes[i][1]), i * 15_000L);
+            assertEquals("segment2", match.orElseThrow().segmentId(), "fix " + i);
+            assertEquals(GeoUtils.toE7(116.41), match.get().longitudeE7(), 1);
+        }
+
+        TrailMatcher fresh = matcher(network);
+        assertEquals("segment3", fresh.match("transaction2",
+                GeoUtils.toE7(fixes[5][0]), GeoUtils.toE7(fixes[5][1]), 0).orElseThrow().segmentId());
+    }
+
+    @Test
+    void fixesAwayFromTrailsAreLeftUnmatched() throws Exception {
+        TrailMatcher matcher = matcher(TrailNetworkTest.network(TrailNetworkTest.T_JUNCTION));
+
+        assertTrue(matcher.match("transaction1", GeoUtils.toE7(-8.45), GeoUtils.toE7(116.41), 0).isEmpty());
+        assertEquals(0, matcher.getTrackedCount());
+    }
+}
@@ -0,0 +1,174 @@
+package com.haven.app.haven.trail;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haven.app.haven.entity.TrailSegment;
+import com.haven.app.haven.exception.TrailException;
+import com.haven.app.haven.repository.TrailSegmentRepository;
+import com.haven.app.haven.utils.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TrailNetworkTest {
+    // A west-east ridge trail crossed at its middle vertex by a trail coming up from the south.
+    static final String T_JUNCTION = """
+            {"type": "FeatureCollection", "features": [
+              {"type": "Feature", "properties": {"name": "Ridge"},
+               "geometry": {"type": "LineString", "coordinates": [[116.40, -8.40], [116.405, -8.40], [116.41, -8.40], [116.415, -8.40], [116.42, -8.40]]}},
+              {"type": "Feature", "properties": {"name": "Valley"},
+               "geometry": {"type": "LineString", "coordinates": [[116.41, -8.42], [116.41, -8.41], [116.41, -8.40]]}}
+            ]}
+            """;
+
+    static List<TrailSegment> segments(String geoJson) throws Exception {
+        List<TrailGeoJson.NamedLine> split = TrailGeoJson.split(TrailGeoJson.parse(new ObjectMapper().readTree(geoJson)));
+        List<TrailSegment> segments = new ArrayList<>();
+        for (int i = 0; i < split.size(); i++) {
+            segments.add(TrailSegment.builder()
+                    .id("segment" + i)
+                    .name(split.get(i).name())
+                    .vertices(split.get(i).line().format())
+                    .lengthMeters(split.get(i).line().getLengthMeters())
+                    .build());
+        }
+        return segments;
+    }
+
+    static TrailNetwork network(String geoJson) throws Exception {
+        TrailNetwork network = new TrailNetwork(mock(TrailSegmentRepository.class), 0.002, 8);
+        network.rebuild(segments(geoJson));
+        return network;
+    }
+
+    @Test
+    void splitsLinesAtSharedVertices() throws Exception {
+        List<TrailSegment> segments = segments(T_JUNCTION);
+
+        assertEquals(3, segments.size());
+        assertEquals("Ridge", segments.get(0).getName());
+        assertEquals("-84000000 1164000000,-84000000 1164050000,-84000000 1164100000", segments.get(0).getVertices());
+        assertEquals("-84000000 1164100000,-84000000 1164150000,-84000000 1164200000", segments.get(1).getVertices());
+        assertEquals("Valley", segments.get(2).getName());
+    }
+
+    @Test
+    void rejectsGeoJsonWithoutLines() {
+        assertThrows(TrailException.class, () -> segments("""
+                {"type": "Feature", "geometry": {"type": "Point", "coordinates": [116.4, -8.4]}}
+                """));
+    }
+
+    @Test
+    void candidatesAreProjectedOntoNearbyEdges() throws Exception {
+        TrailNetwork network = network(T_JUNCTION);
+
+        List<TrailNetwork.Candidate> candidates = network.candidates(
+                GeoUtils.toE7(-8.4001), GeoUtils.toE7(116.405), 50, 4);
+
+        assertEquals(1, candidates.size());
+        TrailNetwork.Candidate candidate = candidates.get(0);
+        assertEquals("segment0", network.getEdge(candidate.edge()).id());
+        assertEquals(GeoUtils.toE7(-8.40), candidate.latitudeE7());
+        assertEquals(GeoUtils.toE7(116.405), candidate.longitudeE7(), 1);
+        assertEquals(11.1, candidate.distanceMeters(), 0.2);
+        assertEquals(550, candidate.offsetMeters(), 5);
+        assertTrue(network.candidates(GeoUtils.toE7(-8.45), GeoUtils.toE7(116.405), 50, 4).isEmpty());
+    }
+
+    @Test
+    void routeDistancesFollowTheNetwork() throws Exception {
+        TrailNetwork network = network(T_JUNCTION);
+        TrailNetwork.Candidate west = network.candidates(GeoUtils.toE7(-8.40), GeoUtils.toE7(116.405), 10, 1).get(0);
+        TrailNetwork.Candidate south = network.candidates(GeoUtils.toE7(-8.41), GeoUtils.toE7(116.41), 10, 1).get(0);
+        TrailNetwork.Candidate alsoWest = network.candidates(GeoUtils.toE7(-8.40), GeoUtils.toE7(116.401), 10, 1).get(0);
+
+        double[] routes = network.routeDistances(west, List.of(south, alsoWest), 5000);
+
+        // 0.005 degrees east to the junction, then 0.01 degrees south.
+        assertEquals(550 + 1112, routes[0], 10);
+        assertEquals(440, routes[1], 5);
+
+        double[] bounded = network.routeDistances(west, List.of(south, alsoWest), 1000);
+        assertTrue(Double.isInfinite(bounded[0]));
+        assertEquals(440, bounded[1], 5);
+    }
+
+    @Test
+    void routeTurnsAtTheJunction() throws Exception {
+        TrailNetwork network = network(T_JUNCTION);
+        TrailNetwork.Candidate west = network.candidates(GeoUtils.toE7(-8.40), GeoUtils.toE7(116.405), 10, 1).get(0);
+        TrailNetwork.Candidate south = network.candidates(GeoUtils.toE7(-8.41), GeoUtils.toE7(116.41), 10, 1).get(0);
+
+        TrailNetwork.Route route = network.route(west, south).orElseThrow();
+
+        assertEquals(network.routeDistances(west, List.of(south), 5000)[0], route.distanceMeters(), 1e-6);
+        assertEquals(List.of("segment0", "segment2"), route.segmentIds());
+        assertArrayEquals(new int[]{GeoUtils.toE7(-8.40), GeoUtils.toE7(-8.40), GeoUtils.toE7(-8.41)}, route.latitudesE7());
+        assertArrayEquals(new int[]{GeoUtils.toE7(116.405), GeoUtils.toE7(116.41), GeoUtils.toE7(116.41)}, route.longitudesE7());
+
+        TrailNetwork.Route back = network.route(south, west).orElseThrow();
+        assertEquals(route.distanceMeters(), back.distanceMeters(), 1e-6);
+        assertEquals(List.of("segment2", "segment0"), back.segmentIds());
+    }
+
+    @Test
+    void routeAgreesWithDijkstraOnAGrid() throws Exception {
+        // Seven east-west and seven north-south lines crossing at shared vertices.
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            List<String> row = new ArrayList<>();
+            List<String> column = new ArrayList<>();
+            for (int j = 0; j < 7; j++) {
+                row.add("[" + (116.40 + j * 0.003) + "," + (-8.40 - i * 0.003) + "]");
+                column.add("[" + (116.40 + i * 0.003) + "," + (-8.40 - j * 0.003) + "]");
+            }
+            lines.add("[" + String.join(",", row) + "]");
+            lines.add("[" + String.join(",", column) + "]");
+        }
+        TrailNetwork network = network("{\"type\": \"MultiLineString\", \"coordinates\": [" + String.join(",", lines) + "]}");
+
+        Random random = new Random(7);
+        for (int k = 0; k < 50; k++) {
+            TrailNetwork.Candidate from = randomCandidate(network, random);
+            TrailNetwork.Candidate to = randomCandidate(network, random);
+
+            TrailNetwork.Route route = network.route(from, to).orElseThrow();
+
+            assertEquals(network.routeDistances(from, List.of(to), 1e9)[0], route.distanceMeters(), 1e-6);
+            assertEquals(from.latitudeE7(), route.latitudesE7()[0]);
+            assertEquals(to.longitudeE7(), route.longitudesE7()[route.longitudesE7().length - 1]);
+        }
+    }
+
+    @Test
+    void routeIsEmptyBetweenDisconnectedTrails() throws Exception {
+        TrailNetwork network = network("""
+                {"type": "MultiLineString", "coordinates": [
+                  [[116.40, -8.40], [116.41, -8.40]],
+                  [[116.50, -8.50], [116.51, -8.50]]
+                ]}
+                """);
+        TrailNetwork.Candidate west = network.candidates(GeoUtils.toE7(-8.40), GeoUtils.toE7(116.405), 10, 1).get(0);
+        TrailNetwork.Candidate island = network.candidates(GeoUtils.toE7(-8.50), GeoUtils.toE7(116.505), 10, 1).get(0);
+
+        Optional<TrailNetwork.Route> route = network.route(west, island);
+
+        assertTrue(route.isEmpty());
+    }
+
+    private static TrailNetwork.Candidate randomCandidate(TrailNetwork network, Random random) {
+        // Somewhere on a grid line: one coordinate on the lattice, the other anywhere along it.
+        double along = random.nextDouble() * 0.018;
+        double across = random.nextInt(7) * 0.003;
+        boolean onRow = random.nextBoolean();
+        double latitude = -8.40 - (onRow ? across : along);
+        double longitude = 116.40 + (onRow ? along : across);
+        return network.candidates(GeoUtils.toE7(latitude), GeoUtils.toE7(longitude), 5, 1).get(0);
+    }
+}